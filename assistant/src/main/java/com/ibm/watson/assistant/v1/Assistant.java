@@ -26,7 +26,9 @@ import com.ibm.cloud.sdk.core.security.ConfigBasedAuthenticatorFactory;
 import com.ibm.cloud.sdk.core.service.BaseService;
 import com.ibm.cloud.sdk.core.util.ResponseConverterUtils;
 import com.ibm.watson.assistant.v1.model.BulkClassifyOptions;
+import com.ibm.watson.assistant.v1.model.BulkClassifyOutput;
 import com.ibm.watson.assistant.v1.model.BulkClassifyResponse;
+import com.ibm.watson.assistant.v1.model.BulkClassifyUtterance;
 import com.ibm.watson.assistant.v1.model.Counterexample;
 import com.ibm.watson.assistant.v1.model.CounterexampleCollection;
 import com.ibm.watson.assistant.v1.model.CreateCounterexampleOptions;
@@ -74,9 +76,11 @@ import com.ibm.watson.assistant.v1.model.ListMentionsOptions;
 import com.ibm.watson.assistant.v1.model.ListSynonymsOptions;
 import com.ibm.watson.assistant.v1.model.ListValuesOptions;
 import com.ibm.watson.assistant.v1.model.ListWorkspacesOptions;
+import com.ibm.watson.assistant.v1.model.Log;
 import com.ibm.watson.assistant.v1.model.LogCollection;
 import com.ibm.watson.assistant.v1.model.MessageOptions;
 import com.ibm.watson.assistant.v1.model.MessageResponse;
+import com.ibm.watson.assistant.v1.model.RuntimeResponseGeneric;
 import com.ibm.watson.assistant.v1.model.Synonym;
 import com.ibm.watson.assistant.v1.model.SynonymCollection;
 import com.ibm.watson.assistant.v1.model.UpdateCounterexampleOptions;
@@ -92,10 +96,19 @@ import com.ibm.watson.assistant.v1.model.Value;
 import com.ibm.watson.assistant.v1.model.ValueCollection;
 import com.ibm.watson.assistant.v1.model.Workspace;
 import com.ibm.watson.assistant.v1.model.WorkspaceCollection;
+import com.ibm.watson.common.BatchProcessor;
+import com.ibm.watson.common.JsonRequestBody;
+import com.ibm.watson.common.LazyJsonList;
+import com.ibm.watson.common.Pager;
 import com.ibm.watson.common.SdkCommon;
+import com.ibm.watson.common.StreamingResults;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.stream.Stream;
+import okhttp3.Request;
 
 /**
  * The IBM Watson&amp;trade; Assistant service combines machine learning, natural language
@@ -114,7 +127,92 @@ public class Assistant extends BaseService {
   public static final String DEFAULT_SERVICE_URL =
       "https://api.us-south.assistant.watson.cloud.ibm.com";
 
+  private static final ResponseConverter<MessageResponse> MESSAGE_RESPONSE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<MessageResponse>() {}.getType());
+
+  private static final ResponseConverter<BulkClassifyResponse> BULK_CLASSIFY_RESPONSE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<BulkClassifyResponse>() {}.getType());
+
+  private static final ResponseConverter<WorkspaceCollection> WORKSPACE_COLLECTION_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<WorkspaceCollection>() {}.getType());
+
+  private static final ResponseConverter<Workspace> WORKSPACE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Workspace>() {}.getType());
+
+  private static final ResponseConverter<IntentCollection> INTENT_COLLECTION_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<IntentCollection>() {}.getType());
+
+  private static final ResponseConverter<Intent> INTENT_CONVERTER =
+      ResponseConverterUtils.getValue(new com.google.gson.reflect.TypeToken<Intent>() {}.getType());
+
+  private static final ResponseConverter<ExampleCollection> EXAMPLE_COLLECTION_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<ExampleCollection>() {}.getType());
+
+  private static final ResponseConverter<Example> EXAMPLE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Example>() {}.getType());
+
+  private static final ResponseConverter<CounterexampleCollection>
+      COUNTEREXAMPLE_COLLECTION_CONVERTER =
+          ResponseConverterUtils.getValue(
+              new com.google.gson.reflect.TypeToken<CounterexampleCollection>() {}.getType());
+
+  private static final ResponseConverter<Counterexample> COUNTEREXAMPLE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Counterexample>() {}.getType());
+
+  private static final ResponseConverter<EntityCollection> ENTITY_COLLECTION_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<EntityCollection>() {}.getType());
+
+  private static final ResponseConverter<Entity> ENTITY_CONVERTER =
+      ResponseConverterUtils.getValue(new com.google.gson.reflect.TypeToken<Entity>() {}.getType());
+
+  private static final ResponseConverter<EntityMentionCollection>
+      ENTITY_MENTION_COLLECTION_CONVERTER =
+          ResponseConverterUtils.getValue(
+              new com.google.gson.reflect.TypeToken<EntityMentionCollection>() {}.getType());
+
+  private static final ResponseConverter<ValueCollection> VALUE_COLLECTION_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<ValueCollection>() {}.getType());
+
+  private static final ResponseConverter<Value> VALUE_CONVERTER =
+      ResponseConverterUtils.getValue(new com.google.gson.reflect.TypeToken<Value>() {}.getType());
+
+  private static final ResponseConverter<SynonymCollection> SYNONYM_COLLECTION_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<SynonymCollection>() {}.getType());
+
+  private static final ResponseConverter<Synonym> SYNONYM_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Synonym>() {}.getType());
+
+  private static final ResponseConverter<DialogNodeCollection> DIALOG_NODE_COLLECTION_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<DialogNodeCollection>() {}.getType());
+
+  private static final ResponseConverter<DialogNode> DIALOG_NODE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<DialogNode>() {}.getType());
+
+  private static final ResponseConverter<LogCollection> LOG_COLLECTION_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<LogCollection>() {}.getType());
+  private static final ResponseConverter<MessageResponse> LAZY_MESSAGE_RESPONSE_CONVERTER =
+      LazyJsonList.converter(MessageResponse.class, RuntimeResponseGeneric.class);
+
+  private static final ResponseConverter<StreamingResults<Log>> STREAMING_LOGS_CONVERTER =
+      StreamingResults.converter("logs", Log.class);
+
   private String version;
+  private volatile boolean lazyGenericDecoding;
 
   /**
    * Constructs an instance of the `Assistant` client. The default service name is used to configure
@@ -192,6 +290,29 @@ public class Assistant extends BaseService {
     this.version = version;
   }
 
+  /**
+   * Sets whether the generic responses of message outputs are decoded lazily. <br>
+   * When enabled, the {@code generic} list of the output of message responses is a {@link
+   * LazyJsonList}, whose elements are only decoded into their {@code RuntimeResponseGeneric}
+   * subclass when accessed. Their {@code response_type} can be read without decoding them, with
+   * {@link LazyJsonList#getString(int, String)}, so that replies with many search results or
+   * options are parsed faster when only some responses are used.
+   *
+   * @param lazyGenericDecoding whether to decode the generic responses lazily
+   */
+  public void setLazyGenericDecoding(boolean lazyGenericDecoding) {
+    this.lazyGenericDecoding = lazyGenericDecoding;
+  }
+
+  /**
+   * Checks whether the generic responses of message outputs are decoded lazily.
+   *
+   * @return true if the generic responses are decoded lazily
+   */
+  public boolean isLazyGenericDecoding() {
+    return lazyGenericDecoding;
+  }
+
   /**
    * Get response to user input.
    *
@@ -222,43 +343,31 @@ public class Assistant extends BaseService {
     if (messageOptions.nodesVisitedDetails() != null) {
       builder.query("nodes_visited_details", String.valueOf(messageOptions.nodesVisitedDetails()));
     }
-    final JsonObject contentJson = new JsonObject();
+    final JsonRequestBody contentJson = new JsonRequestBody();
     if (messageOptions.input() != null) {
-      contentJson.add(
-          "input",
-          com.ibm.cloud.sdk.core.util.GsonSingleton.getGson().toJsonTree(messageOptions.input()));
+      contentJson.add("input", messageOptions.input());
     }
     if (messageOptions.intents() != null) {
-      contentJson.add(
-          "intents",
-          com.ibm.cloud.sdk.core.util.GsonSingleton.getGson().toJsonTree(messageOptions.intents()));
+      contentJson.add("intents", messageOptions.intents());
     }
     if (messageOptions.entities() != null) {
-      contentJson.add(
-          "entities",
-          com.ibm.cloud.sdk.core.util.GsonSingleton.getGson()
-              .toJsonTree(messageOptions.entities()));
+      contentJson.add("entities", messageOptions.entities());
     }
     if (messageOptions.alternateIntents() != null) {
       contentJson.addProperty("alternate_intents", messageOptions.alternateIntents());
     }
     if (messageOptions.context() != null) {
-      contentJson.add(
-          "context",
-          com.ibm.cloud.sdk.core.util.GsonSingleton.getGson().toJsonTree(messageOptions.context()));
+      contentJson.add("context", messageOptions.context());
     }
     if (messageOptions.output() != null) {
-      contentJson.add(
-          "output",
-          com.ibm.cloud.sdk.core.util.GsonSingleton.getGson().toJsonTree(messageOptions.output()));
+      contentJson.add("output", messageOptions.output());
     }
     if (messageOptions.userId() != null) {
       contentJson.addProperty("user_id", messageOptions.userId());
     }
-    builder.bodyJson(contentJson);
+    builder.body(contentJson);
     ResponseConverter<MessageResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<MessageResponse>() {}.getType());
+        lazyGenericDecoding ? LAZY_MESSAGE_RESPONSE_CONVERTER : MESSAGE_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -297,12 +406,52 @@ public class Assistant extends BaseService {
               .toJsonTree(bulkClassifyOptions.input()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<BulkClassifyResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<BulkClassifyResponse>() {}.getType());
+    ResponseConverter<BulkClassifyResponse> responseConverter = BULK_CLASSIFY_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
+  /**
+   * Identify intents and entities in any number of user utterances.
+   *
+   * <p>Same as {@link #bulkClassify(BulkClassifyOptions)}, but the utterances are packed into
+   * batches of the given size, which are sent concurrently as the outputs are consumed, and sent
+   * again if the service is busy or unavailable. The outputs are in the order of the utterances.
+   * Close the stream to cancel the batches in flight if not all outputs are consumed.
+   *
+   * @param workspaceId Unique identifier of the workspace.
+   * @param utterances the utterances, read as batches are sent
+   * @param batchSize the number of utterances per batch, such as {@link
+   *     BatchProcessor#DEFAULT_BATCH_SIZE}
+   * @param maxConcurrentBatches the number of batches sent concurrently, such as {@link
+   *     BatchProcessor#DEFAULT_MAX_CONCURRENT_BATCHES}
+   * @return the outputs, one per utterance
+   */
+  public Stream<BulkClassifyOutput> bulkClassify(
+      final String workspaceId,
+      Stream<String> utterances,
+      int batchSize,
+      int maxConcurrentBatches) {
+    com.ibm.cloud.sdk.core.util.Validator.notEmpty(workspaceId, "workspaceId cannot be empty");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(utterances, "utterances cannot be null");
+    BatchProcessor<String, BulkClassifyOutput> processor =
+        BatchProcessor.create(
+            utterances.iterator(),
+            batch -> {
+              List<BulkClassifyUtterance> input =
+                  new ArrayList<BulkClassifyUtterance>(batch.size());
+              for (String text : batch) {
+                input.add(new BulkClassifyUtterance.Builder(text).build());
+              }
+              return bulkClassify(
+                  new BulkClassifyOptions.Builder(workspaceId).input(input).build());
+            },
+            BulkClassifyResponse::getOutput,
+            batchSize,
+            maxConcurrentBatches,
+            BatchProcessor.DEFAULT_MAX_RETRIES);
+    return processor.stream().onClose(utterances::close);
+  }
+
   /**
    * List workspaces.
    *
@@ -341,12 +490,36 @@ public class Assistant extends BaseService {
     if (listWorkspacesOptions.includeAudit() != null) {
       builder.query("include_audit", String.valueOf(listWorkspacesOptions.includeAudit()));
     }
-    ResponseConverter<WorkspaceCollection> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<WorkspaceCollection>() {}.getType());
+    ResponseConverter<WorkspaceCollection> responseConverter = WORKSPACE_COLLECTION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
+  /**
+   * List workspaces, fetching all pages.
+   *
+   * <p>Iterates over the workspaces of all pages of {@link #listWorkspaces(ListWorkspacesOptions)},
+   * starting at the cursor of the options, if any. The following pages are fetched while the
+   * current one is consumed.
+   *
+   * @param listWorkspacesOptions the {@link ListWorkspacesOptions} containing the options for the
+   *     calls
+   * @param prefetch the number of pages fetched ahead of the one being consumed
+   * @return a {@link Pager} of {@link Workspace}
+   */
+  public Pager<Workspace> listWorkspacesPager(
+      ListWorkspacesOptions listWorkspacesOptions, int prefetch) {
+    final ListWorkspacesOptions options =
+        listWorkspacesOptions != null
+            ? listWorkspacesOptions
+            : new ListWorkspacesOptions.Builder().build();
+    return Pager.byCursor(
+        cursor ->
+            listWorkspaces(cursor == null ? options : options.newBuilder().cursor(cursor).build()),
+        WorkspaceCollection::getWorkspaces,
+        page -> page.getPagination() != null ? page.getPagination().getNextCursor() : null,
+        prefetch);
+  }
+
   /**
    * List workspaces.
    *
@@ -444,9 +617,7 @@ public class Assistant extends BaseService {
       }
       builder.bodyJson(contentJson);
     }
-    ResponseConverter<Workspace> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Workspace>() {}.getType());
+    ResponseConverter<Workspace> responseConverter = WORKSPACE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -494,9 +665,7 @@ public class Assistant extends BaseService {
     if (getWorkspaceOptions.sort() != null) {
       builder.query("sort", String.valueOf(getWorkspaceOptions.sort()));
     }
-    ResponseConverter<Workspace> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Workspace>() {}.getType());
+    ResponseConverter<Workspace> responseConverter = WORKSPACE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -588,9 +757,7 @@ public class Assistant extends BaseService {
               .toJsonTree(updateWorkspaceOptions.entities()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Workspace> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Workspace>() {}.getType());
+    ResponseConverter<Workspace> responseConverter = WORKSPACE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -664,12 +831,35 @@ public class Assistant extends BaseService {
     if (listIntentsOptions.includeAudit() != null) {
       builder.query("include_audit", String.valueOf(listIntentsOptions.includeAudit()));
     }
-    ResponseConverter<IntentCollection> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<IntentCollection>() {}.getType());
+    ResponseConverter<IntentCollection> responseConverter = INTENT_COLLECTION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
+  /**
+   * List intents, fetching all pages.
+   *
+   * <p>Iterates over the intents of all pages of {@link #listIntents(ListIntentsOptions)}, starting
+   * at the cursor of the options, if any. The following pages are fetched while the current one is
+   * consumed.
+   *
+   * @param listIntentsOptions the {@link ListIntentsOptions} containing the options for the calls
+   * @param prefetch the number of pages fetched ahead of the one being consumed
+   * @return a {@link Pager} of {@link Intent}
+   */
+  public Pager<Intent> listIntentsPager(ListIntentsOptions listIntentsOptions, int prefetch) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(
+        listIntentsOptions, "listIntentsOptions cannot be null");
+    return Pager.byCursor(
+        cursor ->
+            listIntents(
+                cursor == null
+                    ? listIntentsOptions
+                    : listIntentsOptions.newBuilder().cursor(cursor).build()),
+        IntentCollection::getIntents,
+        page -> page.getPagination() != null ? page.getPagination().getNextCursor() : null,
+        prefetch);
+  }
+
   /**
    * Create intent.
    *
@@ -711,9 +901,7 @@ public class Assistant extends BaseService {
               .toJsonTree(createIntentOptions.examples()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Intent> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Intent>() {}.getType());
+    ResponseConverter<Intent> responseConverter = INTENT_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -747,9 +935,7 @@ public class Assistant extends BaseService {
     if (getIntentOptions.includeAudit() != null) {
       builder.query("include_audit", String.valueOf(getIntentOptions.includeAudit()));
     }
-    ResponseConverter<Intent> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Intent>() {}.getType());
+    ResponseConverter<Intent> responseConverter = INTENT_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -801,9 +987,7 @@ public class Assistant extends BaseService {
               .toJsonTree(updateIntentOptions.newExamples()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Intent> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Intent>() {}.getType());
+    ResponseConverter<Intent> responseConverter = INTENT_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -876,12 +1060,35 @@ public class Assistant extends BaseService {
     if (listExamplesOptions.includeAudit() != null) {
       builder.query("include_audit", String.valueOf(listExamplesOptions.includeAudit()));
     }
-    ResponseConverter<ExampleCollection> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ExampleCollection>() {}.getType());
+    ResponseConverter<ExampleCollection> responseConverter = EXAMPLE_COLLECTION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
+  /**
+   * List user input examples, fetching all pages.
+   *
+   * <p>Iterates over the examples of all pages of {@link #listExamples(ListExamplesOptions)},
+   * starting at the cursor of the options, if any. The following pages are fetched while the
+   * current one is consumed.
+   *
+   * @param listExamplesOptions the {@link ListExamplesOptions} containing the options for the calls
+   * @param prefetch the number of pages fetched ahead of the one being consumed
+   * @return a {@link Pager} of {@link Example}
+   */
+  public Pager<Example> listExamplesPager(ListExamplesOptions listExamplesOptions, int prefetch) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(
+        listExamplesOptions, "listExamplesOptions cannot be null");
+    return Pager.byCursor(
+        cursor ->
+            listExamples(
+                cursor == null
+                    ? listExamplesOptions
+                    : listExamplesOptions.newBuilder().cursor(cursor).build()),
+        ExampleCollection::getExamples,
+        page -> page.getPagination() != null ? page.getPagination().getNextCursor() : null,
+        prefetch);
+  }
+
   /**
    * Create user input example.
    *
@@ -924,9 +1131,7 @@ public class Assistant extends BaseService {
               .toJsonTree(createExampleOptions.mentions()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Example> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Example>() {}.getType());
+    ResponseConverter<Example> responseConverter = EXAMPLE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -960,9 +1165,7 @@ public class Assistant extends BaseService {
     if (getExampleOptions.includeAudit() != null) {
       builder.query("include_audit", String.valueOf(getExampleOptions.includeAudit()));
     }
-    ResponseConverter<Example> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Example>() {}.getType());
+    ResponseConverter<Example> responseConverter = EXAMPLE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1011,9 +1214,7 @@ public class Assistant extends BaseService {
               .toJsonTree(updateExampleOptions.newMentions()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Example> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Example>() {}.getType());
+    ResponseConverter<Example> responseConverter = EXAMPLE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1092,8 +1293,7 @@ public class Assistant extends BaseService {
       builder.query("include_audit", String.valueOf(listCounterexamplesOptions.includeAudit()));
     }
     ResponseConverter<CounterexampleCollection> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<CounterexampleCollection>() {}.getType());
+        COUNTEREXAMPLE_COLLECTION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1133,9 +1333,7 @@ public class Assistant extends BaseService {
     final JsonObject contentJson = new JsonObject();
     contentJson.addProperty("text", createCounterexampleOptions.text());
     builder.bodyJson(contentJson);
-    ResponseConverter<Counterexample> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Counterexample>() {}.getType());
+    ResponseConverter<Counterexample> responseConverter = COUNTEREXAMPLE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1172,9 +1370,7 @@ public class Assistant extends BaseService {
     if (getCounterexampleOptions.includeAudit() != null) {
       builder.query("include_audit", String.valueOf(getCounterexampleOptions.includeAudit()));
     }
-    ResponseConverter<Counterexample> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Counterexample>() {}.getType());
+    ResponseConverter<Counterexample> responseConverter = COUNTEREXAMPLE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1216,9 +1412,7 @@ public class Assistant extends BaseService {
       contentJson.addProperty("text", updateCounterexampleOptions.newText());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Counterexample> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Counterexample>() {}.getType());
+    ResponseConverter<Counterexample> responseConverter = COUNTEREXAMPLE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1297,9 +1491,7 @@ public class Assistant extends BaseService {
     if (listEntitiesOptions.includeAudit() != null) {
       builder.query("include_audit", String.valueOf(listEntitiesOptions.includeAudit()));
     }
-    ResponseConverter<EntityCollection> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<EntityCollection>() {}.getType());
+    ResponseConverter<EntityCollection> responseConverter = ENTITY_COLLECTION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1353,9 +1545,7 @@ public class Assistant extends BaseService {
               .toJsonTree(createEntityOptions.values()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Entity> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Entity>() {}.getType());
+    ResponseConverter<Entity> responseConverter = ENTITY_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1389,9 +1579,7 @@ public class Assistant extends BaseService {
     if (getEntityOptions.includeAudit() != null) {
       builder.query("include_audit", String.valueOf(getEntityOptions.includeAudit()));
     }
-    ResponseConverter<Entity> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Entity>() {}.getType());
+    ResponseConverter<Entity> responseConverter = ENTITY_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1452,9 +1640,7 @@ public class Assistant extends BaseService {
               .toJsonTree(updateEntityOptions.newValues()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Entity> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Entity>() {}.getType());
+    ResponseConverter<Entity> responseConverter = ENTITY_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1521,8 +1707,7 @@ public class Assistant extends BaseService {
       builder.query("include_audit", String.valueOf(listMentionsOptions.includeAudit()));
     }
     ResponseConverter<EntityMentionCollection> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<EntityMentionCollection>() {}.getType());
+        ENTITY_MENTION_COLLECTION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1570,9 +1755,7 @@ public class Assistant extends BaseService {
     if (listValuesOptions.includeAudit() != null) {
       builder.query("include_audit", String.valueOf(listValuesOptions.includeAudit()));
     }
-    ResponseConverter<ValueCollection> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ValueCollection>() {}.getType());
+    ResponseConverter<ValueCollection> responseConverter = VALUE_COLLECTION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1632,9 +1815,7 @@ public class Assistant extends BaseService {
               .toJsonTree(createValueOptions.patterns()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Value> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Value>() {}.getType());
+    ResponseConverter<Value> responseConverter = VALUE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1671,9 +1852,7 @@ public class Assistant extends BaseService {
     if (getValueOptions.includeAudit() != null) {
       builder.query("include_audit", String.valueOf(getValueOptions.includeAudit()));
     }
-    ResponseConverter<Value> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Value>() {}.getType());
+    ResponseConverter<Value> responseConverter = VALUE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1740,9 +1919,7 @@ public class Assistant extends BaseService {
               .toJsonTree(updateValueOptions.newPatterns()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Value> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Value>() {}.getType());
+    ResponseConverter<Value> responseConverter = VALUE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1819,9 +1996,7 @@ public class Assistant extends BaseService {
     if (listSynonymsOptions.includeAudit() != null) {
       builder.query("include_audit", String.valueOf(listSynonymsOptions.includeAudit()));
     }
-    ResponseConverter<SynonymCollection> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<SynonymCollection>() {}.getType());
+    ResponseConverter<SynonymCollection> responseConverter = SYNONYM_COLLECTION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1862,9 +2037,7 @@ public class Assistant extends BaseService {
     final JsonObject contentJson = new JsonObject();
     contentJson.addProperty("synonym", createSynonymOptions.synonym());
     builder.bodyJson(contentJson);
-    ResponseConverter<Synonym> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Synonym>() {}.getType());
+    ResponseConverter<Synonym> responseConverter = SYNONYM_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1899,9 +2072,7 @@ public class Assistant extends BaseService {
     if (getSynonymOptions.includeAudit() != null) {
       builder.query("include_audit", String.valueOf(getSynonymOptions.includeAudit()));
     }
-    ResponseConverter<Synonym> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Synonym>() {}.getType());
+    ResponseConverter<Synonym> responseConverter = SYNONYM_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1945,9 +2116,7 @@ public class Assistant extends BaseService {
       contentJson.addProperty("synonym", updateSynonymOptions.newSynonym());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Synonym> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Synonym>() {}.getType());
+    ResponseConverter<Synonym> responseConverter = SYNONYM_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2025,9 +2194,7 @@ public class Assistant extends BaseService {
     if (listDialogNodesOptions.includeAudit() != null) {
       builder.query("include_audit", String.valueOf(listDialogNodesOptions.includeAudit()));
     }
-    ResponseConverter<DialogNodeCollection> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DialogNodeCollection>() {}.getType());
+    ResponseConverter<DialogNodeCollection> responseConverter = DIALOG_NODE_COLLECTION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2135,9 +2302,7 @@ public class Assistant extends BaseService {
           "disambiguation_opt_out", createDialogNodeOptions.disambiguationOptOut());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<DialogNode> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DialogNode>() {}.getType());
+    ResponseConverter<DialogNode> responseConverter = DIALOG_NODE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2171,9 +2336,7 @@ public class Assistant extends BaseService {
     if (getDialogNodeOptions.includeAudit() != null) {
       builder.query("include_audit", String.valueOf(getDialogNodeOptions.includeAudit()));
     }
-    ResponseConverter<DialogNode> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DialogNode>() {}.getType());
+    ResponseConverter<DialogNode> responseConverter = DIALOG_NODE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2286,9 +2449,7 @@ public class Assistant extends BaseService {
           "disambiguation_opt_out", updateDialogNodeOptions.newDisambiguationOptOut());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<DialogNode> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DialogNode>() {}.getType());
+    ResponseConverter<DialogNode> responseConverter = DIALOG_NODE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2332,9 +2493,7 @@ public class Assistant extends BaseService {
         com.ibm.cloud.sdk.core.util.GsonSingleton.getGsonWithSerializeNulls()
             .toJson(UpdateDialogNodeNullableOptions.body()),
         "application/json");
-    ResponseConverter<DialogNode> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DialogNode>() {}.getType());
+    ResponseConverter<DialogNode> responseConverter = DIALOG_NODE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2407,12 +2566,35 @@ public class Assistant extends BaseService {
     if (listLogsOptions.cursor() != null) {
       builder.query("cursor", String.valueOf(listLogsOptions.cursor()));
     }
-    ResponseConverter<LogCollection> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<LogCollection>() {}.getType());
+    ResponseConverter<LogCollection> responseConverter = LOG_COLLECTION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
+  /**
+   * List log events in a workspace, fetching all pages.
+   *
+   * <p>Iterates over the log events of all pages of {@link #listLogs(ListLogsOptions)}, starting at
+   * the cursor of the options, if any. The following pages are fetched while the current one is
+   * consumed.
+   *
+   * @param listLogsOptions the {@link ListLogsOptions} containing the options for the calls
+   * @param prefetch the number of pages fetched ahead of the one being consumed
+   * @return a {@link Pager} of {@link Log}
+   */
+  public Pager<Log> listLogsPager(ListLogsOptions listLogsOptions, int prefetch) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(
+        listLogsOptions, "listLogsOptions cannot be null");
+    return Pager.byCursor(
+        cursor ->
+            listLogs(
+                cursor == null
+                    ? listLogsOptions
+                    : listLogsOptions.newBuilder().cursor(cursor).build()),
+        LogCollection::getLogs,
+        page -> page.getPagination() != null ? page.getPagination().getNextCursor() : null,
+        prefetch);
+  }
+
   /**
    * List log events in all workspaces.
    *
@@ -2422,6 +2604,53 @@ public class Assistant extends BaseService {
    * @return a {@link ServiceCall} with a result of type {@link LogCollection}
    */
   public ServiceCall<LogCollection> listAllLogs(ListAllLogsOptions listAllLogsOptions) {
+    ResponseConverter<LogCollection> responseConverter = LOG_COLLECTION_CONVERTER;
+    return createServiceCall(newListAllLogsRequest(listAllLogsOptions), responseConverter);
+  }
+
+  /**
+   * List log events in all workspaces, fetching all pages.
+   *
+   * <p>Iterates over the log events of all pages of {@link #listAllLogs(ListAllLogsOptions)},
+   * starting at the cursor of the options, if any. The following pages are fetched while the
+   * current one is consumed.
+   *
+   * @param listAllLogsOptions the {@link ListAllLogsOptions} containing the options for the calls
+   * @param prefetch the number of pages fetched ahead of the one being consumed
+   * @return a {@link Pager} of {@link Log}
+   */
+  public Pager<Log> listAllLogsPager(ListAllLogsOptions listAllLogsOptions, int prefetch) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(
+        listAllLogsOptions, "listAllLogsOptions cannot be null");
+    return Pager.byCursor(
+        cursor ->
+            listAllLogs(
+                cursor == null
+                    ? listAllLogsOptions
+                    : listAllLogsOptions.newBuilder().cursor(cursor).build()),
+        LogCollection::getLogs,
+        page -> page.getPagination() != null ? page.getPagination().getNextCursor() : null,
+        prefetch);
+  }
+
+  /**
+   * List log events in all workspaces, decoding the logs one at a time.
+   *
+   * <p>Same as {@link #listAllLogs(ListAllLogsOptions)}, but the logs are decoded one at a time as
+   * they are read from the response, rather than all at once into a {@link LogCollection}. The
+   * other properties of the response are available from {@link StreamingResults#getField(String)}.
+   * Close the results if not all of them are read.
+   *
+   * @param listAllLogsOptions the {@link ListAllLogsOptions} containing the options for the call
+   * @return a {@link ServiceCall} with a result of type {@link StreamingResults} of {@link Log}
+   */
+  public ServiceCall<StreamingResults<Log>> listAllLogsStreaming(
+      ListAllLogsOptions listAllLogsOptions) {
+    ResponseConverter<StreamingResults<Log>> responseConverter = STREAMING_LOGS_CONVERTER;
+    return createServiceCall(newListAllLogsRequest(listAllLogsOptions), responseConverter);
+  }
+
+  private Request newListAllLogsRequest(ListAllLogsOptions listAllLogsOptions) {
     com.ibm.cloud.sdk.core.util.Validator.notNull(
         listAllLogsOptions, "listAllLogsOptions cannot be null");
     RequestBuilder builder =
@@ -2442,10 +2671,7 @@ public class Assistant extends BaseService {
     if (listAllLogsOptions.cursor() != null) {
       builder.query("cursor", String.valueOf(listAllLogsOptions.cursor()));
     }
-    ResponseConverter<LogCollection> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<LogCollection>() {}.getType());
-    return createServiceCall(builder.build(), responseConverter);
+    return builder.build();
   }
 
   /**
@@ -0,0 +1,597 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.assistant.v1;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.ibm.cloud.sdk.core.http.ServiceCall;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
+import com.ibm.watson.assistant.v1.model.Counterexample;
+import com.ibm.watson.assistant.v1.model.CreateCounterexampleOptions;
+import com.ibm.watson.assistant.v1.model.CreateDialogNodeOptions;
+import com.ibm.watson.assistant.v1.model.CreateEntityOptions;
+import com.ibm.watson.assistant.v1.model.CreateIntentOptions;
+import com.ibm.watson.assistant.v1.model.CreateValue;
+import com.ibm.watson.assistant.v1.model.DeleteCounterexampleOptions;
+import com.ibm.watson.assistant.v1.model.DeleteDialogNodeOptions;
+import com.ibm.watson.assistant.v1.model.DeleteEntityOptions;
+import com.ibm.watson.assistant.v1.model.DeleteIntentOptions;
+import com.ibm.watson.assistant.v1.model.DialogNode;
+import com.ibm.watson.assistant.v1.model.Entity;
+import com.ibm.watson.assistant.v1.model.Example;
+import com.ibm.watson.assistant.v1.model.GetWorkspaceOptions;
+import com.ibm.watson.assistant.v1.model.Intent;
+import com.ibm.watson.assistant.v1.model.UpdateDialogNodeNullableOptions;
+import com.ibm.watson.assistant.v1.model.UpdateEntityOptions;
+import com.ibm.watson.assistant.v1.model.UpdateIntentOptions;
+import com.ibm.watson.assistant.v1.model.Value;
+import com.ibm.watson.assistant.v1.model.Workspace;
+import com.ibm.watson.common.ConcurrencyLimiter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Brings a workspace to the content of a local copy by applying only the differences. <br>
+ * The remote workspace is exported in a single call and compared with the local one: intents,
+ * entities and counterexamples that differ are created, replaced or deleted concurrently, since
+ * they do not depend on one another. Then dialog nodes are created concurrently, level by level,
+ * each as soon as the nodes it refers to as parent or previous sibling exist, and the content of
+ * existing nodes is updated concurrently. Nodes moved to another parent or previous sibling are
+ * moved one at a time once all the nodes are created, and nodes are deleted last, one at a time,
+ * since the service relinks the siblings of a node moved or deleted. An unchanged workspace takes a
+ * single call.
+ *
+ * <p>The settings of the workspace itself, such as its name and system settings, are not compared.
+ */
+public class WorkspaceMigrator {
+
+  /**
+   * The default number of calls in flight, which is the number of requests per host the HTTP client
+   * sends concurrently by default.
+   */
+  public static final int DEFAULT_MAX_CONCURRENT_CALLS = 5;
+
+  private final Assistant assistant;
+  private final String workspaceId;
+  private final int maxConcurrentCalls;
+
+  /** The kind of element of a workspace changed. */
+  public enum Target {
+    INTENT,
+    ENTITY,
+    COUNTEREXAMPLE,
+    DIALOG_NODE
+  }
+
+  /** The action taken on an element of a workspace. */
+  public enum Action {
+    CREATE,
+    UPDATE,
+    DELETE
+  }
+
+  /** Receives the progress of a migration. */
+  public interface ProgressListener {
+
+    /**
+     * Called when a change has been applied, on the thread that applied it.
+     *
+     * @param change the change
+     * @param completed the number of changes applied so far
+     * @param total the number of changes to apply
+     */
+    void onProgress(Change change, int completed, int total);
+  }
+
+  /** A change to an element of a workspace. */
+  public static final class Change {
+    private final Target target;
+    private final Action action;
+    private final String name;
+    private final Supplier<ServiceCall<?>> call;
+    private final List<String> dependencies;
+    private final boolean moves;
+
+    private Change(Target target, Action action, String name, Supplier<ServiceCall<?>> call) {
+      this(target, action, name, call, Collections.<String>emptyList(), false);
+    }
+
+    private Change(
+        Target target,
+        Action action,
+        String name,
+        Supplier<ServiceCall<?>> call,
+        List<String> dependencies,
+        boolean moves) {
+      this.target = target;
+      this.action = action;
+      this.name = name;
+      this.call = call;
+      this.dependencies = dependencies;
+      this.moves = moves;
+    }
+
+    /**
+     * Gets the kind of element changed.
+     *
+     * @return the target
+     */
+    public Target getTarget() {
+      return target;
+    }
+
+    /**
+     * Gets the action taken on the element.
+     *
+     * @return the action
+     */
+    public Action getAction() {
+      return action;
+    }
+
+    /**
+     * Gets the name of the element: the intent, entity, text of the counterexample or dialog node
+     * ID.
+     *
+     * @return the name
+     */
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public String toString() {
+      return action + " " + target + " " + name;
+    }
+  }
+
+  /**
+   * Instantiates a new migrator with the default number of calls in flight.
+   *
+   * @param assistant the service client
+   * @param workspaceId the ID of the workspace to change
+   */
+  public WorkspaceMigrator(Assistant assistant, String workspaceId) {
+    this(assistant, workspaceId, DEFAULT_MAX_CONCURRENT_CALLS);
+  }
+
+  /**
+   * Instantiates a new migrator.
+   *
+   * @param assistant the service client
+   * @param workspaceId the ID of the workspace to change
+   * @param maxConcurrentCalls the number of calls in flight
+   */
+  public WorkspaceMigrator(Assistant assistant, String workspaceId, int maxConcurrentCalls) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(assistant, "assistant cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notEmpty(workspaceId, "workspaceId cannot be empty");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(
+        maxConcurrentCalls > 0, "maxConcurrentCalls must be positive");
+    this.assistant = assistant;
+    this.workspaceId = workspaceId;
+    this.maxConcurrentCalls = maxConcurrentCalls;
+  }
+
+  /**
+   * Exports the content of the workspace.
+   *
+   * @return the workspace, with its intents, entities, counterexamples and dialog nodes
+   */
+  public Workspace export() {
+    return assistant
+        .getWorkspace(new GetWorkspaceOptions.Builder(workspaceId).export(true).build())
+        .execute()
+        .getResult();
+  }
+
+  /**
+   * Brings the workspace to the content of a local copy.
+   *
+   * @param desired the content the workspace should have
+   * @param listener receives the progress, or null
+   * @return the changes applied
+   */
+  public List<Change> migrate(Workspace desired, ProgressListener listener) {
+    List<Change> changes = diff(desired, export());
+    apply(changes, listener);
+    return changes;
+  }
+
+  /**
+   * Computes the changes bringing a workspace to the content of another, without applying them.
+   * Dialog node changes are last, in the order they must be applied.
+   *
+   * @param desired the content the workspace should have
+   * @param current the content the workspace has, as exported
+   * @return the changes
+   */
+  public List<Change> diff(Workspace desired, Workspace current) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(desired, "desired cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(current, "current cannot be null");
+    List<Change> changes = new ArrayList<>();
+    diff(
+        changes,
+        Target.INTENT,
+        byName(desired.getIntents(), Intent::getIntent),
+        byName(current.getIntents(), Intent::getIntent),
+        this::createIntent,
+        this::updateIntent,
+        this::deleteIntent);
+    diff(
+        changes,
+        Target.ENTITY,
+        byName(desired.getEntities(), Entity::getEntity),
+        byName(current.getEntities(), Entity::getEntity),
+        this::createEntity,
+        this::updateEntity,
+        this::deleteEntity);
+    diff(
+        changes,
+        Target.COUNTEREXAMPLE,
+        byName(desired.getCounterexamples(), Counterexample::text),
+        byName(current.getCounterexamples(), Counterexample::text),
+        this::createCounterexample,
+        null,
+        this::deleteCounterexample);
+    diffDialogNodes(
+        changes,
+        byName(desired.getDialogNodes(), DialogNode::dialogNode),
+        byName(current.getDialogNodes(), DialogNode::dialogNode));
+    return changes;
+  }
+
+  /**
+   * Applies changes computed by {@link #diff(Workspace, Workspace)}. If a change of an intent,
+   * entity or counterexample fails, the others are still applied, but not the dialog node changes.
+   * If the creation of a dialog node fails, the nodes created under it or after it are not, and
+   * neither moves nor deletions are applied.
+   *
+   * @param changes the changes
+   * @param listener receives the progress, or null
+   */
+  public void apply(List<Change> changes, ProgressListener listener) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(changes, "changes cannot be null");
+    int total = changes.size();
+    AtomicInteger completed = new AtomicInteger();
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(maxConcurrentCalls, Math.max(total, 1));
+    List<CompletableFuture<?>> independent = new ArrayList<>();
+    List<Change> dialogNodes = new ArrayList<>();
+    for (final Change change : changes) {
+      if (change.target == Target.DIALOG_NODE) {
+        dialogNodes.add(change);
+      } else {
+        independent.add(submit(limiter, change, null, listener, completed, total));
+      }
+    }
+    join(independent);
+
+    // Nodes are created as soon as their parent and previous sibling exist, and the content of
+    // existing nodes is updated meanwhile.
+    Map<String, CompletableFuture<?>> created = new HashMap<>();
+    List<CompletableFuture<?>> concurrent = new ArrayList<>();
+    List<Change> sequential = new ArrayList<>();
+    for (Change change : dialogNodes) {
+      if (change.action == Action.DELETE || change.moves) {
+        sequential.add(change);
+        continue;
+      }
+      List<CompletableFuture<?>> dependencies = new ArrayList<>();
+      for (String id : change.dependencies) {
+        if (created.containsKey(id)) {
+          dependencies.add(created.get(id));
+        }
+      }
+      CompletableFuture<?> future =
+          submit(limiter, change, dependencies, listener, completed, total);
+      concurrent.add(future);
+      if (change.action == Action.CREATE) {
+        created.put(change.name, future);
+      }
+    }
+    join(concurrent);
+
+    for (Change change : sequential) {
+      change.call.get().execute();
+      progress(listener, change, completed.incrementAndGet(), total);
+    }
+  }
+
+  /** Sends a change through the limiter once its dependencies, if any, have been applied. */
+  private static CompletableFuture<?> submit(
+      final ConcurrencyLimiter limiter,
+      final Change change,
+      List<CompletableFuture<?>> dependencies,
+      final ProgressListener listener,
+      final AtomicInteger completed,
+      final int total) {
+    CompletableFuture<?> ready =
+        dependencies == null || dependencies.isEmpty()
+            ? CompletableFuture.completedFuture(null)
+            : CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0]));
+    return ready
+        .thenCompose(v -> limiter.submit(change.call.get()))
+        .thenRun(() -> progress(listener, change, completed.incrementAndGet(), total));
+  }
+
+  /** Waits for changes, throwing the first failure with the others suppressed. */
+  private static void join(List<CompletableFuture<?>> futures) {
+    RuntimeException failure = null;
+    for (CompletableFuture<?> future : futures) {
+      try {
+        future.join();
+      } catch (CompletionException e) {
+        RuntimeException cause =
+            e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        if (failure == null) {
+          failure = cause;
+        } else if (failure != cause) {
+          failure.addSuppressed(cause);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private static void progress(ProgressListener listener, Change change, int completed, int total) {
+    if (listener != null) {
+      listener.onProgress(change, completed, total);
+    }
+  }
+
+  /** Compares elements by name, adding the changes of those that differ. */
+  private static <T> void diff(
+      List<Change> changes,
+      Target target,
+      Map<String, T> desired,
+      Map<String, T> current,
+      Function<T, ServiceCall<?>> create,
+      Function<T, ServiceCall<?>> update,
+      Function<String, ServiceCall<?>> delete) {
+    for (Map.Entry<String, T> element : desired.entrySet()) {
+      T existing = current.get(element.getKey());
+      T wanted = element.getValue();
+      if (existing == null) {
+        changes.add(
+            new Change(target, Action.CREATE, element.getKey(), () -> create.apply(wanted)));
+      } else if (update != null && !comparable(wanted).equals(comparable(existing))) {
+        changes.add(
+            new Change(target, Action.UPDATE, element.getKey(), () -> update.apply(wanted)));
+      }
+    }
+    for (final String name : current.keySet()) {
+      if (!desired.containsKey(name)) {
+        changes.add(new Change(target, Action.DELETE, name, () -> delete.apply(name)));
+      }
+    }
+  }
+
+  /**
+   * Adds the changes of dialog nodes: the nodes created, each after its parent and previous
+   * sibling, then the nodes updated, then the nodes deleted, except those deleted with their
+   * parent.
+   */
+  private void diffDialogNodes(
+      List<Change> changes, Map<String, DialogNode> desired, Map<String, DialogNode> current) {
+    Set<String> created = new LinkedHashSet<>();
+    for (String id : desired.keySet()) {
+      addCreated(id, desired, current, created, new LinkedHashSet<String>());
+    }
+    for (String id : created) {
+      final DialogNode node = desired.get(id);
+      changes.add(
+          new Change(
+              Target.DIALOG_NODE,
+              Action.CREATE,
+              id,
+              () ->
+                  assistant.createDialogNode(
+                      new CreateDialogNodeOptions.Builder()
+                          .dialogNode(node)
+                          .workspaceId(workspaceId)
+                          .build()),
+              Arrays.asList(node.parent(), node.previousSibling()),
+              false));
+    }
+    for (Map.Entry<String, DialogNode> node : desired.entrySet()) {
+      DialogNode existing = current.get(node.getKey());
+      if (existing == null) {
+        continue;
+      }
+      final Map<String, Object> body =
+          changedProperties(comparable(node.getValue()), comparable(existing));
+      if (!body.isEmpty()) {
+        final String id = node.getKey();
+        changes.add(
+            new Change(
+                Target.DIALOG_NODE,
+                Action.UPDATE,
+                id,
+                () ->
+                    assistant.updateDialogNodeNullable(
+                        new UpdateDialogNodeNullableOptions.Builder(workspaceId, id, body).build()),
+                Collections.<String>emptyList(),
+                body.containsKey("parent") || body.containsKey("previous_sibling")));
+      }
+    }
+    for (Map.Entry<String, DialogNode> node : current.entrySet()) {
+      final String id = node.getKey();
+      String parent = node.getValue().parent();
+      if (!desired.containsKey(id)
+          && (parent == null || !current.containsKey(parent) || desired.containsKey(parent))) {
+        changes.add(
+            new Change(
+                Target.DIALOG_NODE,
+                Action.DELETE,
+                id,
+                () ->
+                    assistant.deleteDialogNode(
+                        new DeleteDialogNodeOptions.Builder(workspaceId, id).build()),
+                Collections.<String>emptyList(),
+                false));
+      }
+    }
+  }
+
+  /** Adds a node to create after the nodes to create it refers to. */
+  private static void addCreated(
+      String id,
+      Map<String, DialogNode> desired,
+      Map<String, DialogNode> current,
+      Set<String> created,
+      Set<String> visiting) {
+    DialogNode node = desired.get(id);
+    if (node == null || current.containsKey(id) || created.contains(id) || !visiting.add(id)) {
+      return;
+    }
+    addCreated(node.parent(), desired, current, created, visiting);
+    addCreated(node.previousSibling(), desired, current, created, visiting);
+    created.add(id);
+  }
+
+  /** Gets the properties of a node to set, with null for those to remove. */
+  private static Map<String, Object> changedProperties(JsonObject desired, JsonObject current) {
+    Map<String, Object> changed = new LinkedHashMap<>();
+    for (Map.Entry<String, JsonElement> property : desired.entrySet()) {
+      if (!property.getValue().equals(current.get(property.getKey()))) {
+        changed.put(property.getKey(), property.getValue());
+      }
+    }
+    for (String name : current.keySet()) {
+      if (!desired.has(name)) {
+        changed.put(name, null);
+      }
+    }
+    return changed;
+  }
+
+  private static <T> Map<String, T> byName(List<T> elements, Function<T, String> name) {
+    if (elements == null) {
+      return Collections.emptyMap();
+    }
+    Map<String, T> byName = new LinkedHashMap<>();
+    for (T element : elements) {
+      byName.put(name.apply(element), element);
+    }
+    return byName;
+  }
+
+  /** Gets the JSON of an element without its timestamps, which are set by the service. */
+  private static JsonObject comparable(Object element) {
+    JsonObject json = GsonSingleton.getGson().toJsonTree(element).getAsJsonObject();
+    removeTimestamps(json);
+    return json;
+  }
+
+  private static void removeTimestamps(JsonElement json) {
+    if (json.isJsonObject()) {
+      json.getAsJsonObject().remove("created");
+      json.getAsJsonObject().remove("updated");
+      for (Map.Entry<String, JsonElement> property : json.getAsJsonObject().entrySet()) {
+        removeTimestamps(property.getValue());
+      }
+    } else if (json.isJsonArray()) {
+      for (JsonElement element : json.getAsJsonArray()) {
+        removeTimestamps(element);
+      }
+    }
+  }
+
+  private ServiceCall<?> createIntent(Intent intent) {
+    return assistant.createIntent(
+        new CreateIntentOptions.Builder(workspaceId, intent.getIntent())
+            .description(intent.getDescription())
+            .examples(intent.getExamples())
+            .build());
+  }
+
+  private ServiceCall<?> updateIntent(Intent intent) {
+    return assistant.updateIntent(
+        new UpdateIntentOptions.Builder(workspaceId, intent.getIntent())
+            .newDescription(intent.getDescription())
+            .newExamples(
+                intent.getExamples() != null
+                    ? intent.getExamples()
+                    : Collections.<Example>emptyList())
+            .build());
+  }
+
+  private ServiceCall<?> deleteIntent(String intent) {
+    return assistant.deleteIntent(new DeleteIntentOptions.Builder(workspaceId, intent).build());
+  }
+
+  private ServiceCall<?> createEntity(Entity entity) {
+    return assistant.createEntity(
+        new CreateEntityOptions.Builder(workspaceId, entity.getEntity())
+            .description(entity.getDescription())
+            .metadata(entity.getMetadata())
+            .fuzzyMatch(entity.isFuzzyMatch())
+            .values(createValues(entity.getValues()))
+            .build());
+  }
+
+  private ServiceCall<?> updateEntity(Entity entity) {
+    List<CreateValue> values = createValues(entity.getValues());
+    return assistant.updateEntity(
+        new UpdateEntityOptions.Builder(workspaceId, entity.getEntity())
+            .newDescription(entity.getDescription())
+            .newMetadata(entity.getMetadata())
+            .newFuzzyMatch(entity.isFuzzyMatch())
+            .newValues(values != null ? values : Collections.<CreateValue>emptyList())
+            .build());
+  }
+
+  private ServiceCall<?> deleteEntity(String entity) {
+    return assistant.deleteEntity(new DeleteEntityOptions.Builder(workspaceId, entity).build());
+  }
+
+  private ServiceCall<?> createCounterexample(Counterexample counterexample) {
+    return assistant.createCounterexample(
+        new CreateCounterexampleOptions.Builder(workspaceId, counterexample.text()).build());
+  }
+
+  private ServiceCall<?> deleteCounterexample(String text) {
+    return assistant.deleteCounterexample(
+        new DeleteCounterexampleOptions.Builder(workspaceId, text).build());
+  }
+
+  private static List<CreateValue> createValues(List<Value> values) {
+    if (values == null) {
+      return null;
+    }
+    List<CreateValue> createValues = new ArrayList<>(values.size());
+    for (Value value : values) {
+      createValues.add(
+          new CreateValue.Builder(value.value())
+              .metadata(value.metadata())
+              .type(value.type())
+              .synonyms(value.synonyms())
+              .patterns(value.patterns())
+              .build());
+    }
+    return createValues;
+  }
+}
@@ -19,6 +19,7 @@ package com.ibm.watson.assistant.v2;
 
 import com.google.gson.JsonObject;
 import com.ibm.cloud.sdk.core.http.RequestBuilder;
+import com.ibm.cloud.sdk.core.http.Response;
 import com.ibm.cloud.sdk.core.http.ResponseConverter;
 import com.ibm.cloud.sdk.core.http.ServiceCall;
 import com.ibm.cloud.sdk.core.security.Authenticator;
@@ -26,7 +27,9 @@ import com.ibm.cloud.sdk.core.security.ConfigBasedAuthenticatorFactory;
 import com.ibm.cloud.sdk.core.service.BaseService;
 import com.ibm.cloud.sdk.core.util.ResponseConverterUtils;
 import com.ibm.watson.assistant.v2.model.BulkClassifyOptions;
+import com.ibm.watson.assistant.v2.model.BulkClassifyOutput;
 import com.ibm.watson.assistant.v2.model.BulkClassifyResponse;
+import com.ibm.watson.assistant.v2.model.BulkClassifyUtterance;
 import com.ibm.watson.assistant.v2.model.CreateSessionOptions;
 import com.ibm.watson.assistant.v2.model.DeleteSessionOptions;
 import com.ibm.watson.assistant.v2.model.DeleteUserDataOptions;
@@ -36,11 +39,23 @@ import com.ibm.watson.assistant.v2.model.MessageOptions;
 import com.ibm.watson.assistant.v2.model.MessageResponse;
 import com.ibm.watson.assistant.v2.model.MessageResponseStateless;
 import com.ibm.watson.assistant.v2.model.MessageStatelessOptions;
+import com.ibm.watson.assistant.v2.model.RuntimeResponseGeneric;
 import com.ibm.watson.assistant.v2.model.SessionResponse;
+import com.ibm.watson.common.BatchProcessor;
+import com.ibm.watson.common.ConcurrencyLimiter;
+import com.ibm.watson.common.JsonRequestBody;
+import com.ibm.watson.common.LazyJsonList;
 import com.ibm.watson.common.SdkCommon;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 
 /**
  * The IBM Watson&amp;trade; Assistant service combines machine learning, natural language
@@ -59,7 +74,35 @@ public class Assistant extends BaseService {
   public static final String DEFAULT_SERVICE_URL =
       "https://api.us-south.assistant.watson.cloud.ibm.com";
 
+  private static final ResponseConverter<SessionResponse> SESSION_RESPONSE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<SessionResponse>() {}.getType());
+
+  private static final ResponseConverter<MessageResponse> MESSAGE_RESPONSE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<MessageResponse>() {}.getType());
+
+  private static final ResponseConverter<MessageResponseStateless>
+      MESSAGE_RESPONSE_STATELESS_CONVERTER =
+          ResponseConverterUtils.getValue(
+              new com.google.gson.reflect.TypeToken<MessageResponseStateless>() {}.getType());
+
+  private static final ResponseConverter<BulkClassifyResponse> BULK_CLASSIFY_RESPONSE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<BulkClassifyResponse>() {}.getType());
+  private static final ResponseConverter<MessageResponse> LAZY_MESSAGE_RESPONSE_CONVERTER =
+      LazyJsonList.converter(MessageResponse.class, RuntimeResponseGeneric.class);
+  private static final ResponseConverter<MessageResponseStateless>
+      LAZY_MESSAGE_RESPONSE_STATELESS_CONVERTER =
+          LazyJsonList.converter(MessageResponseStateless.class, RuntimeResponseGeneric.class);
+
+  private static final ResponseConverter<LogCollection> LOG_COLLECTION_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<LogCollection>() {}.getType());
+
   private String version;
+  private volatile boolean lazyGenericDecoding;
+  private volatile ConcurrencyLimiter concurrencyLimiter;
 
   /**
    * Constructs an instance of the `Assistant` client. The default service name is used to configure
@@ -137,6 +180,74 @@ public class Assistant extends BaseService {
     this.version = version;
   }
 
+  /**
+   * Sets whether the generic responses of message outputs are decoded lazily. <br>
+   * When enabled, the {@code generic} list of the output of message responses is a {@link
+   * LazyJsonList}, whose elements are only decoded into their {@code RuntimeResponseGeneric}
+   * subclass when accessed. Their {@code response_type} can be read without decoding them, with
+   * {@link LazyJsonList#getString(int, String)}, so that replies with many search results or
+   * options are parsed faster when only some responses are used.
+   *
+   * @param lazyGenericDecoding whether to decode the generic responses lazily
+   */
+  public void setLazyGenericDecoding(boolean lazyGenericDecoding) {
+    this.lazyGenericDecoding = lazyGenericDecoding;
+  }
+
+  /**
+   * Checks whether the generic responses of message outputs are decoded lazily.
+   *
+   * @return true if the generic responses are decoded lazily
+   */
+  public boolean isLazyGenericDecoding() {
+    return lazyGenericDecoding;
+  }
+
+  /**
+   * Sets the limits of the asynchronous methods, such as {@link #messageAsync(MessageOptions)}: at
+   * most the given number of calls are in flight, and calls beyond it wait in a bounded queue. The
+   * client is also given an HTTP dispatcher and connection pool of its own, sized to keep that many
+   * requests to the service in flight, instead of the default of 5 per host. Call this after {@link
+   * #configureClient}, which replaces the HTTP client.
+   *
+   * @param maxConcurrentCalls the maximum number of calls in flight
+   * @param maxQueuedCalls the maximum number of calls waiting to be sent
+   */
+  public synchronized void setConcurrencyLimits(int maxConcurrentCalls, int maxQueuedCalls) {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(maxConcurrentCalls, maxQueuedCalls);
+    Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(Math.max(maxConcurrentCalls, dispatcher.getMaxRequests()));
+    dispatcher.setMaxRequestsPerHost(maxConcurrentCalls);
+    setClient(
+        getClient()
+            .newBuilder()
+            .dispatcher(dispatcher)
+            .connectionPool(new ConnectionPool(maxConcurrentCalls, 5, TimeUnit.MINUTES))
+            .build());
+    concurrencyLimiter = limiter;
+  }
+
+  /**
+   * Gets the limiter of the asynchronous methods, which also exposes their latencies. Unless {@link
+   * #setConcurrencyLimits(int, int)} was called, the limits default to those of {@link
+   * ConcurrencyLimiter#ConcurrencyLimiter()} and the HTTP client is left as it is, so the requests
+   * in flight are also bounded by its dispatcher.
+   *
+   * @return the {@link ConcurrencyLimiter}
+   */
+  public ConcurrencyLimiter getConcurrencyLimiter() {
+    ConcurrencyLimiter limiter = concurrencyLimiter;
+    if (limiter == null) {
+      synchronized (this) {
+        if (concurrencyLimiter == null) {
+          concurrencyLimiter = new ConcurrencyLimiter();
+        }
+        limiter = concurrencyLimiter;
+      }
+    }
+    return limiter;
+  }
+
   /**
    * Create a session.
    *
@@ -164,9 +275,7 @@ public class Assistant extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<SessionResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<SessionResponse>() {}.getType());
+    ResponseConverter<SessionResponse> responseConverter = SESSION_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -229,27 +338,36 @@ public class Assistant extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    final JsonObject contentJson = new JsonObject();
+    final JsonRequestBody contentJson = new JsonRequestBody();
     if (messageOptions.input() != null) {
-      contentJson.add(
-          "input",
-          com.ibm.cloud.sdk.core.util.GsonSingleton.getGson().toJsonTree(messageOptions.input()));
+      contentJson.add("input", messageOptions.input());
     }
     if (messageOptions.context() != null) {
-      contentJson.add(
-          "context",
-          com.ibm.cloud.sdk.core.util.GsonSingleton.getGson().toJsonTree(messageOptions.context()));
+      contentJson.add("context", messageOptions.context());
     }
     if (messageOptions.userId() != null) {
       contentJson.addProperty("user_id", messageOptions.userId());
     }
-    builder.bodyJson(contentJson);
+    builder.body(contentJson);
     ResponseConverter<MessageResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<MessageResponse>() {}.getType());
+        lazyGenericDecoding ? LAZY_MESSAGE_RESPONSE_CONVERTER : MESSAGE_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
+  /**
+   * Send user input to assistant (stateful), asynchronously.
+   *
+   * <p>Same as {@link #message(MessageOptions)}, but the call is sent without blocking, within the
+   * limits set by {@link #setConcurrencyLimits(int, int)}. The future is completed on a thread of
+   * the HTTP client; cancelling it cancels the call.
+   *
+   * @param messageOptions the {@link MessageOptions} containing the options for the call
+   * @return a future of the {@link Response} with a result of type {@link MessageResponse}
+   */
+  public CompletableFuture<Response<MessageResponse>> messageAsync(MessageOptions messageOptions) {
+    return getConcurrencyLimiter().submit(message(messageOptions));
+  }
+
   /**
    * Send user input to assistant (stateless).
    *
@@ -262,6 +380,20 @@ public class Assistant extends BaseService {
    */
   public ServiceCall<MessageResponseStateless> messageStateless(
       MessageStatelessOptions messageStatelessOptions) {
+    return messageStateless(messageStatelessOptions, null);
+  }
+
+  /**
+   * Send user input to assistant (stateless), with a context already serialized.
+   *
+   * @param messageStatelessOptions the {@link MessageStatelessOptions} containing the options for
+   *     the call
+   * @param contextJson the JSON of the context, sent instead of the context of the options if not
+   *     null
+   * @return a {@link ServiceCall} with a result of type {@link MessageResponseStateless}
+   */
+  ServiceCall<MessageResponseStateless> messageStateless(
+      MessageStatelessOptions messageStatelessOptions, String contextJson) {
     com.ibm.cloud.sdk.core.util.Validator.notNull(
         messageStatelessOptions, "messageStatelessOptions cannot be null");
     Map<String, String> pathParamsMap = new HashMap<String, String>();
@@ -277,29 +409,42 @@ public class Assistant extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    final JsonObject contentJson = new JsonObject();
+    final JsonRequestBody contentJson = new JsonRequestBody();
     if (messageStatelessOptions.input() != null) {
-      contentJson.add(
-          "input",
-          com.ibm.cloud.sdk.core.util.GsonSingleton.getGson()
-              .toJsonTree(messageStatelessOptions.input()));
+      contentJson.add("input", messageStatelessOptions.input());
     }
-    if (messageStatelessOptions.context() != null) {
-      contentJson.add(
-          "context",
-          com.ibm.cloud.sdk.core.util.GsonSingleton.getGson()
-              .toJsonTree(messageStatelessOptions.context()));
+    if (contextJson != null) {
+      contentJson.addJson("context", contextJson);
+    } else if (messageStatelessOptions.context() != null) {
+      contentJson.add("context", messageStatelessOptions.context());
     }
     if (messageStatelessOptions.userId() != null) {
       contentJson.addProperty("user_id", messageStatelessOptions.userId());
     }
-    builder.bodyJson(contentJson);
+    builder.body(contentJson);
     ResponseConverter<MessageResponseStateless> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<MessageResponseStateless>() {}.getType());
+        lazyGenericDecoding
+            ? LAZY_MESSAGE_RESPONSE_STATELESS_CONVERTER
+            : MESSAGE_RESPONSE_STATELESS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
+  /**
+   * Send user input to assistant (stateless), asynchronously.
+   *
+   * <p>Same as {@link #messageStateless(MessageStatelessOptions)}, but the call is sent without
+   * blocking, within the limits set by {@link #setConcurrencyLimits(int, int)}. The future is
+   * completed on a thread of the HTTP client; cancelling it cancels the call.
+   *
+   * @param messageStatelessOptions the {@link MessageStatelessOptions} containing the options for
+   *     the call
+   * @return a future of the {@link Response} with a result of type {@link MessageResponseStateless}
+   */
+  public CompletableFuture<Response<MessageResponseStateless>> messageStatelessAsync(
+      MessageStatelessOptions messageStatelessOptions) {
+    return getConcurrencyLimiter().submit(messageStateless(messageStatelessOptions));
+  }
+
   /**
    * Identify intents and entities in multiple user utterances.
    *
@@ -335,12 +480,48 @@ public class Assistant extends BaseService {
               .toJsonTree(bulkClassifyOptions.input()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<BulkClassifyResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<BulkClassifyResponse>() {}.getType());
+    ResponseConverter<BulkClassifyResponse> responseConverter = BULK_CLASSIFY_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
+  /**
+   * Identify intents and entities in any number of user utterances.
+   *
+   * <p>Same as {@link #bulkClassify(BulkClassifyOptions)}, but the utterances are packed into
+   * batches of the given size, which are sent concurrently as the outputs are consumed, and sent
+   * again if the service is busy or unavailable. The outputs are in the order of the utterances.
+   * Close the stream to cancel the batches in flight if not all outputs are consumed.
+   *
+   * @param skillId Unique identifier of the skill.
+   * @param utterances the utterances, read as batches are sent
+   * @param batchSize the number of utterances per batch, such as {@link
+   *     BatchProcessor#DEFAULT_BATCH_SIZE}
+   * @param maxConcurrentBatches the number of batches sent concurrently, such as {@link
+   *     BatchProcessor#DEFAULT_MAX_CONCURRENT_BATCHES}
+   * @return the outputs, one per utterance
+   */
+  public Stream<BulkClassifyOutput> bulkClassify(
+      final String skillId, Stream<String> utterances, int batchSize, int maxConcurrentBatches) {
+    com.ibm.cloud.sdk.core.util.Validator.notEmpty(skillId, "skillId cannot be empty");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(utterances, "utterances cannot be null");
+    BatchProcessor<String, BulkClassifyOutput> processor =
+        BatchProcessor.create(
+            utterances.iterator(),
+            batch -> {
+              List<BulkClassifyUtterance> input =
+                  new ArrayList<BulkClassifyUtterance>(batch.size());
+              for (String text : batch) {
+                input.add(new BulkClassifyUtterance.Builder(text).build());
+              }
+              return bulkClassify(new BulkClassifyOptions.Builder(skillId).input(input).build());
+            },
+            BulkClassifyResponse::getOutput,
+            batchSize,
+            maxConcurrentBatches,
+            BatchProcessor.DEFAULT_MAX_RETRIES);
+    return processor.stream().onClose(utterances::close);
+  }
+
   /**
    * List log events for an assistant.
    *
@@ -378,9 +559,7 @@ public class Assistant extends BaseService {
     if (listLogsOptions.cursor() != null) {
       builder.query("cursor", String.valueOf(listLogsOptions.cursor()));
     }
-    ResponseConverter<LogCollection> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<LogCollection>() {}.getType());
+    ResponseConverter<LogCollection> responseConverter = LOG_COLLECTION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
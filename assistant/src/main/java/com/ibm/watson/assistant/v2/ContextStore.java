@@ -0,0 +1,338 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.assistant.v2;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import com.ibm.cloud.sdk.core.http.Response;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
+import com.ibm.watson.assistant.v2.model.MessageContextGlobalStateless;
+import com.ibm.watson.assistant.v2.model.MessageContextSkill;
+import com.ibm.watson.assistant.v2.model.MessageContextSkillSystem;
+import com.ibm.watson.assistant.v2.model.MessageContextStateless;
+import com.ibm.watson.assistant.v2.model.MessageResponseStateless;
+import com.ibm.watson.assistant.v2.model.MessageStatelessOptions;
+import com.ibm.watson.common.StringInterner;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The last contexts of stateless conversations, sent back to the assistant with the next message.
+ * <br>
+ * A stateless conversation is kept in its context, which the service returns with each response and
+ * expects in full with the next message. Most skill variables are the same from one turn to the
+ * next, so the store keeps the JSON of each variable and only serializes again those that changed.
+ * A context is serialized when the next message is sent, so that changes made to it meanwhile are
+ * sent. The strings of the skill system contexts of responses, such as the conversation state, are
+ * interned, so that conversations at the same point of a dialog hold them once.
+ *
+ * <p>The store keeps the contexts of at most a given number of conversations, forgetting those
+ * least recently used.
+ */
+public class ContextStore {
+
+  /** The default maximum number of conversations whose context is kept. */
+  public static final int DEFAULT_MAX_CONVERSATIONS = 10000;
+
+  private final Assistant assistant;
+  private final Gson gson = GsonSingleton.getGsonWithoutPrettyPrinting();
+  private final StringInterner interner = new StringInterner();
+  private final Map<String, StoredContext> contexts;
+
+  /**
+   * Instantiates a new store keeping the default maximum number of contexts.
+   *
+   * @param assistant the service client
+   */
+  public ContextStore(Assistant assistant) {
+    this(assistant, DEFAULT_MAX_CONVERSATIONS);
+  }
+
+  /**
+   * Instantiates a new store.
+   *
+   * @param assistant the service client
+   * @param maxConversations the maximum number of conversations whose context is kept
+   */
+  public ContextStore(Assistant assistant, final int maxConversations) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(assistant, "assistant cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(
+        maxConversations > 0, "maxConversations must be positive");
+    this.assistant = assistant;
+    this.contexts =
+        new LinkedHashMap<String, StoredContext>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, StoredContext> eldest) {
+            return size() > maxConversations;
+          }
+        };
+  }
+
+  /**
+   * Sends user input to the assistant in a conversation, with the last context of the conversation
+   * unless the options have a context, and keeps the context of the response. <br>
+   * The context of the response is the one kept, not a copy: changes made to it, such as setting a
+   * skill variable, are sent with the next message. The contexts of earlier responses must not be
+   * modified once a newer message has been sent, since the variables of a context are compared with
+   * those of the last context sent.
+   *
+   * @param conversationId the ID of the conversation, chosen by the caller
+   * @param messageStatelessOptions the {@link MessageStatelessOptions} containing the options for
+   *     the call
+   * @return the {@link Response} with a result of type {@link MessageResponseStateless}
+   */
+  public Response<MessageResponseStateless> message(
+      String conversationId, MessageStatelessOptions messageStatelessOptions) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(conversationId, "conversationId cannot be null");
+    String contextJson = null;
+    if (messageStatelessOptions.context() == null) {
+      StoredContext stored = stored(conversationId);
+      if (stored != null) {
+        contextJson = stored.json();
+      }
+    }
+    Response<MessageResponseStateless> response =
+        assistant.messageStateless(messageStatelessOptions, contextJson).execute();
+    MessageResponseStateless result = response.getResult();
+    if (result != null && result.getContext() != null) {
+      intern(result.getContext());
+      put(conversationId, result.getContext());
+    }
+    return response;
+  }
+
+  /**
+   * Gets the last context of a conversation.
+   *
+   * @param conversationId the ID of the conversation
+   * @return the context, or null if there is none
+   */
+  public MessageContextStateless get(String conversationId) {
+    StoredContext stored = stored(conversationId);
+    return stored != null ? stored.context : null;
+  }
+
+  /**
+   * Sets the last context of a conversation, for example to start a conversation at a given point.
+   * Changes made to the context before the next message are sent with it.
+   *
+   * @param conversationId the ID of the conversation
+   * @param context the context
+   */
+  public void put(String conversationId, MessageContextStateless context) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(conversationId, "conversationId cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(context, "context cannot be null");
+    StoredContext stored = new StoredContext(context, stored(conversationId));
+    synchronized (contexts) {
+      contexts.put(conversationId, stored);
+    }
+  }
+
+  /**
+   * Forgets the context of a conversation, for example at its end.
+   *
+   * @param conversationId the ID of the conversation
+   */
+  public void remove(String conversationId) {
+    synchronized (contexts) {
+      contexts.remove(conversationId);
+    }
+  }
+
+  /**
+   * Gets the JSON of the last context of a conversation, as sent with the next message.
+   *
+   * @param conversationId the ID of the conversation
+   * @return the JSON of the context, or null if there is none
+   */
+  String getJson(String conversationId) {
+    StoredContext stored = stored(conversationId);
+    return stored != null ? stored.json() : null;
+  }
+
+  /**
+   * Gets the JSON of a skill variable of the last context of a conversation.
+   *
+   * @param conversationId the ID of the conversation
+   * @param skill the name of the skill
+   * @param variable the name of the variable
+   * @return the JSON of the variable, or null if there is none
+   */
+  String getVariableJson(String conversationId, String skill, String variable) {
+    StoredContext stored = stored(conversationId);
+    if (stored == null) {
+      return null;
+    }
+    stored.json();
+    Map<String, String> variables = stored.variableJson(skill);
+    return variables != null ? variables.get(variable) : null;
+  }
+
+  private StoredContext stored(String conversationId) {
+    synchronized (contexts) {
+      return contexts.get(conversationId);
+    }
+  }
+
+  /** Interns the strings of the skill system contexts of a response, not seen by the caller yet. */
+  private void intern(MessageContextStateless context) {
+    if (context.skills() == null) {
+      return;
+    }
+    for (MessageContextSkill skill : context.skills().values()) {
+      if (skill != null && skill.system() != null) {
+        intern(skill.system());
+      }
+    }
+  }
+
+  private void intern(MessageContextSkillSystem system) {
+    system.setState(interner.intern(system.getState()));
+    for (Map.Entry<String, Object> property : system.getProperties().entrySet()) {
+      if (property.getValue() instanceof String) {
+        system.put(property.getKey(), interner.intern((String) property.getValue()));
+      }
+    }
+  }
+
+  /** A context, with the JSON of its skill variables as last serialized. */
+  private final class StoredContext {
+    private final MessageContextStateless context;
+    // The last context serialized before this one, whose variables are compared with these.
+    private StoredContext previous;
+    // The skill variables as last serialized, and their JSON, by skill.
+    private Map<String, Map<String, Object>> sentVariables;
+    private Map<String, Map<String, String>> variableJson;
+
+    private StoredContext(MessageContextStateless context, StoredContext previous) {
+      this.context = context;
+      this.previous = previous != null ? previous.serialized() : null;
+    }
+
+    /** Gets this context if it has been serialized, or else the last one serialized before. */
+    private synchronized StoredContext serialized() {
+      return variableJson != null ? this : previous;
+    }
+
+    private synchronized Map<String, String> variableJson(String skill) {
+      return variableJson != null ? variableJson.get(skill) : null;
+    }
+
+    /** Serializes the context as it is now, reusing the JSON of the variables that are equal. */
+    private synchronized String json() {
+      Map<String, Map<String, Object>> previousVariables = sentVariables;
+      Map<String, Map<String, String>> previousJson = variableJson;
+      if (previousJson == null && previous != null) {
+        synchronized (previous) {
+          previousVariables = previous.sentVariables;
+          previousJson = previous.variableJson;
+        }
+      }
+      sentVariables = new HashMap<>();
+      variableJson = new HashMap<>();
+      StringWriter writer = new StringWriter();
+      try {
+        JsonWriter jsonWriter = gson.newJsonWriter(writer);
+        write(jsonWriter, previousVariables, previousJson);
+        jsonWriter.flush();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      previous = null;
+      return writer.toString();
+    }
+
+    private void write(
+        JsonWriter jsonWriter,
+        Map<String, Map<String, Object>> previousVariables,
+        Map<String, Map<String, String>> previousJson)
+        throws IOException {
+      jsonWriter.beginObject();
+      if (context.global() != null) {
+        jsonWriter.name("global");
+        gson.toJson(context.global(), MessageContextGlobalStateless.class, jsonWriter);
+      }
+      if (context.skills() != null) {
+        jsonWriter.name("skills");
+        jsonWriter.beginObject();
+        for (Map.Entry<String, MessageContextSkill> skill : context.skills().entrySet()) {
+          if (skill.getValue() == null) {
+            continue;
+          }
+          jsonWriter.name(skill.getKey());
+          jsonWriter.beginObject();
+          Map<String, Object> userDefined = skill.getValue().userDefined();
+          if (userDefined != null) {
+            jsonWriter.name("user_defined");
+            writeVariables(
+                jsonWriter,
+                skill.getKey(),
+                userDefined,
+                previousVariables != null ? previousVariables.get(skill.getKey()) : null,
+                previousJson != null ? previousJson.get(skill.getKey()) : null);
+          }
+          MessageContextSkillSystem system = skill.getValue().system();
+          if (system != null) {
+            jsonWriter.name("system");
+            gson.toJson(system, MessageContextSkillSystem.class, jsonWriter);
+          }
+          jsonWriter.endObject();
+        }
+        jsonWriter.endObject();
+      }
+      jsonWriter.endObject();
+    }
+
+    /** Writes skill variables, serializing only those not equal to the previous ones. */
+    private void writeVariables(
+        JsonWriter jsonWriter,
+        String skill,
+        Map<String, Object> variables,
+        Map<String, Object> previousVariables,
+        Map<String, String> previousJson)
+        throws IOException {
+      Map<String, String> skillJson = new HashMap<>();
+      jsonWriter.beginObject();
+      for (Map.Entry<String, Object> variable : variables.entrySet()) {
+        Object value = variable.getValue();
+        if (value == null) {
+          continue;
+        }
+        String valueJson = previousJson != null ? previousJson.get(variable.getKey()) : null;
+        Object previousValue =
+            previousVariables != null ? previousVariables.get(variable.getKey()) : null;
+        // The same object may have been changed in place since it was serialized.
+        boolean sameMutable =
+            value == previousValue
+                && !(value instanceof String
+                    || value instanceof Number
+                    || value instanceof Boolean);
+        if (valueJson == null || sameMutable || !value.equals(previousValue)) {
+          valueJson = gson.toJson(value);
+        }
+        skillJson.put(variable.getKey(), valueJson);
+        jsonWriter.name(variable.getKey());
+        jsonWriter.jsonValue(valueJson);
+      }
+      jsonWriter.endObject();
+      // The values are kept as they are now, so that a later change of the map is not missed.
+      sentVariables.put(skill, new HashMap<>(variables));
+      variableJson.put(skill, Collections.unmodifiableMap(skillJson));
+    }
+  }
+}
@@ -0,0 +1,340 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.assistant.v2;
+
+import com.ibm.cloud.sdk.core.http.Response;
+import com.ibm.cloud.sdk.core.http.ServiceCallback;
+import com.ibm.cloud.sdk.core.service.exception.NotFoundException;
+import com.ibm.watson.assistant.v2.model.CreateSessionOptions;
+import com.ibm.watson.assistant.v2.model.DeleteSessionOptions;
+import com.ibm.watson.assistant.v2.model.MessageContext;
+import com.ibm.watson.assistant.v2.model.MessageInput;
+import com.ibm.watson.assistant.v2.model.MessageOptions;
+import com.ibm.watson.assistant.v2.model.MessageResponse;
+import com.ibm.watson.assistant.v2.model.SessionResponse;
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * The sessions of the users of an assistant, created as they are needed and reused while they are
+ * active. <br>
+ * A session expires on the service after a period of inactivity, so a session is only reused if it
+ * was last used well within that period: a tenth of it before the timeout, a session is replaced by
+ * a new one. Sessions can also be created ahead of a burst of traffic with {@link #prewarm(int)},
+ * so that the first message of a conversation does not wait for a session to be created.
+ *
+ * <p>The context of a conversation is kept by its session, so it starts over when the session of a
+ * user is replaced.
+ */
+public class SessionManager implements Closeable {
+
+  /** The default inactivity timeout of sessions, in minutes. */
+  public static final long DEFAULT_IDLE_TIMEOUT_MINUTES = 5;
+
+  private final Assistant assistant;
+  private final String assistantId;
+  private final long reuseNanos;
+  private final LongSupplier clock;
+  private final Map<String, Session> sessions = new HashMap<>();
+  private final Deque<Session> pool = new ArrayDeque<>();
+  private long lastSweep;
+
+  /**
+   * Instantiates a new manager of sessions with the default inactivity timeout.
+   *
+   * @param assistant the service client
+   * @param assistantId the assistant ID
+   */
+  public SessionManager(Assistant assistant, String assistantId) {
+    this(assistant, assistantId, DEFAULT_IDLE_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+  }
+
+  /**
+   * Instantiates a new manager of sessions.
+   *
+   * @param assistant the service client
+   * @param assistantId the assistant ID
+   * @param idleTimeout the inactivity timeout of sessions, as configured for the assistant
+   * @param unit the unit of the timeout
+   */
+  public SessionManager(Assistant assistant, String assistantId, long idleTimeout, TimeUnit unit) {
+    this(assistant, assistantId, idleTimeout, unit, System::nanoTime);
+  }
+
+  SessionManager(
+      Assistant assistant,
+      String assistantId,
+      long idleTimeout,
+      TimeUnit unit,
+      LongSupplier clock) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(assistant, "assistant cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notEmpty(assistantId, "assistantId cannot be empty");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(idleTimeout > 0, "idleTimeout must be positive");
+    this.assistant = assistant;
+    this.assistantId = assistantId;
+    long timeoutNanos = unit.toNanos(idleTimeout);
+    this.reuseNanos = timeoutNanos - timeoutNanos / 10;
+    this.clock = clock;
+    this.lastSweep = clock.getAsLong();
+  }
+
+  /**
+   * Gets the ID of the session of a user, to send a message with. The session is reused if it is
+   * still active, or else taken from the sessions created ahead, or else created. The sessions of
+   * other users that have expired are forgotten along the way, at most once per timeout, so that
+   * users who do not come back are not kept.
+   *
+   * @param userId the ID of the user
+   * @return the ID of the session
+   */
+  public String getSessionId(String userId) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(userId, "userId cannot be null");
+    long now = clock.getAsLong();
+    synchronized (this) {
+      if (now - lastSweep >= reuseNanos) {
+        forgetExpired(now);
+      }
+      Session session = sessions.get(userId);
+      if (session == null || !session.isActive(now)) {
+        session = takePooled(now);
+        if (session == null) {
+          sessions.remove(userId);
+        } else {
+          sessions.put(userId, session);
+        }
+      }
+      if (session != null) {
+        session.lastUsed = now;
+        return session.id;
+      }
+    }
+    Session created = createSession();
+    synchronized (this) {
+      Session session = sessions.get(userId);
+      if (session != null && session.isActive(now)) {
+        // Created concurrently for the same user: keep this one for another user.
+        pool.add(created);
+      } else {
+        session = created;
+        sessions.put(userId, session);
+      }
+      session.lastUsed = now;
+      return session.id;
+    }
+  }
+
+  /**
+   * Sends user input to the assistant in the session of a user. If the service no longer knows the
+   * session, for example because it was deleted, the input is sent again in a new session.
+   *
+   * @param userId the ID of the user
+   * @param input the input, or null
+   * @param context the context, or null
+   * @return the {@link Response} with a result of type {@link MessageResponse}
+   */
+  public Response<MessageResponse> message(
+      String userId, MessageInput input, MessageContext context) {
+    try {
+      return assistant.message(newMessageOptions(userId, input, context)).execute();
+    } catch (NotFoundException e) {
+      invalidate(userId);
+      return assistant.message(newMessageOptions(userId, input, context)).execute();
+    }
+  }
+
+  /**
+   * Creates sessions ahead of the users that will need them. The sessions are created concurrently,
+   * without waiting for them.
+   *
+   * @param count the number of sessions to create
+   * @return a future completed when the sessions have been created, or exceptionally with the
+   *     failure of any of them
+   */
+  public CompletableFuture<Void> prewarm(int count) {
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(count >= 0, "count cannot be negative");
+    CompletableFuture<?>[] created = new CompletableFuture<?>[count];
+    for (int i = 0; i < count; i++) {
+      final CompletableFuture<Void> future = new CompletableFuture<>();
+      created[i] = future;
+      assistant
+          .createSession(new CreateSessionOptions.Builder(assistantId).build())
+          .enqueue(
+              new ServiceCallback<SessionResponse>() {
+                @Override
+                public void onResponse(Response<SessionResponse> response) {
+                  Session session =
+                      new Session(response.getResult().getSessionId(), clock.getAsLong());
+                  synchronized (SessionManager.this) {
+                    pool.add(session);
+                  }
+                  future.complete(null);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                  future.completeExceptionally(e);
+                }
+              });
+    }
+    return CompletableFuture.allOf(created);
+  }
+
+  /**
+   * Forgets the sessions that are about to expire, and replaces those created ahead with new ones.
+   * Call this periodically to keep sessions ready for a burst of traffic.
+   *
+   * @return a future completed when the replacement sessions have been created
+   */
+  public CompletableFuture<Void> refresh() {
+    long now = clock.getAsLong();
+    int expiredPooled = 0;
+    synchronized (this) {
+      forgetExpired(now);
+      for (Iterator<Session> it = pool.iterator(); it.hasNext(); ) {
+        if (!it.next().isActive(now)) {
+          it.remove();
+          expiredPooled++;
+        }
+      }
+    }
+    return prewarm(expiredPooled);
+  }
+
+  /**
+   * Forgets the session of a user without deleting it, for example because it has expired. The next
+   * message of the user is sent in another session.
+   *
+   * @param userId the ID of the user
+   */
+  public synchronized void invalidate(String userId) {
+    sessions.remove(userId);
+  }
+
+  /**
+   * Deletes the session of a user, for example at the end of a conversation.
+   *
+   * @param userId the ID of the user
+   */
+  public void release(String userId) {
+    Session session;
+    synchronized (this) {
+      session = sessions.remove(userId);
+    }
+    if (session != null) {
+      try {
+        deleteSession(session);
+      } catch (NotFoundException e) {
+        // Already expired.
+      }
+    }
+  }
+
+  /**
+   * Gets the number of users with a session.
+   *
+   * @return the number of users with a session
+   */
+  public synchronized int activeSessions() {
+    return sessions.size();
+  }
+
+  /**
+   * Gets the number of sessions created ahead and not used yet.
+   *
+   * @return the number of sessions created ahead
+   */
+  public synchronized int pooledSessions() {
+    return pool.size();
+  }
+
+  /** Deletes all sessions, ignoring failures. */
+  @Override
+  public void close() {
+    List<Session> all;
+    synchronized (this) {
+      all = new ArrayList<>(sessions.values());
+      all.addAll(pool);
+      sessions.clear();
+      pool.clear();
+    }
+    for (Session session : all) {
+      try {
+        deleteSession(session);
+      } catch (RuntimeException e) {
+        // The session expires anyway.
+      }
+    }
+  }
+
+  private MessageOptions newMessageOptions(
+      String userId, MessageInput input, MessageContext context) {
+    return new MessageOptions.Builder(assistantId, getSessionId(userId))
+        .input(input)
+        .context(context)
+        .build();
+  }
+
+  /** Forgets the sessions of users that have expired. Must hold the lock. */
+  private void forgetExpired(long now) {
+    lastSweep = now;
+    sessions.values().removeIf(session -> !session.isActive(now));
+  }
+
+  /** Takes the oldest session created ahead that is still active. Must hold the lock. */
+  private Session takePooled(long now) {
+    Session session;
+    while ((session = pool.poll()) != null && !session.isActive(now)) {
+      // Expired on the service.
+    }
+    return session;
+  }
+
+  private Session createSession() {
+    SessionResponse response =
+        assistant
+            .createSession(new CreateSessionOptions.Builder(assistantId).build())
+            .execute()
+            .getResult();
+    return new Session(response.getSessionId(), clock.getAsLong());
+  }
+
+  private void deleteSession(Session session) {
+    assistant
+        .deleteSession(new DeleteSessionOptions.Builder(assistantId, session.id).build())
+        .execute();
+  }
+
+  /** A session and when it was last used. */
+  private final class Session {
+    private final String id;
+    private long lastUsed;
+
+    private Session(String id, long lastUsed) {
+      this.id = id;
+      this.lastUsed = lastUsed;
+    }
+
+    private boolean isActive(long now) {
+      return now - lastUsed < reuseNanos;
+    }
+  }
+}
@@ -18,6 +18,7 @@ import com.ibm.cloud.sdk.core.http.Response;
 import com.ibm.cloud.sdk.core.security.Authenticator;
 import com.ibm.cloud.sdk.core.security.NoAuthAuthenticator;
 import com.ibm.cloud.sdk.core.service.model.FileWithMetadata;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
 import com.ibm.watson.assistant.v1.model.BulkClassifyOptions;
 import com.ibm.watson.assistant.v1.model.BulkClassifyResponse;
 import com.ibm.watson.assistant.v1.model.BulkClassifyUtterance;
@@ -83,6 +84,7 @@ import com.ibm.watson.assistant.v1.model.ListMentionsOptions;
 import com.ibm.watson.assistant.v1.model.ListSynonymsOptions;
 import com.ibm.watson.assistant.v1.model.ListValuesOptions;
 import com.ibm.watson.assistant.v1.model.ListWorkspacesOptions;
+import com.ibm.watson.assistant.v1.model.Log;
 import com.ibm.watson.assistant.v1.model.LogCollection;
 import com.ibm.watson.assistant.v1.model.LogMessage;
 import com.ibm.watson.assistant.v1.model.LogMessageSource;
@@ -124,11 +126,17 @@ import com.ibm.watson.assistant.v1.model.WorkspaceSystemSettingsOffTopic;
 import com.ibm.watson.assistant.v1.model.WorkspaceSystemSettingsSystemEntities;
 import com.ibm.watson.assistant.v1.model.WorkspaceSystemSettingsTooling;
 import com.ibm.watson.assistant.v1.utils.TestUtilities;
+import com.ibm.watson.common.Pager;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
@@ -3817,6 +3825,47 @@ public class AssistantTest {
     assistantService.listAllLogs(null).execute();
   }
 
+  // Test the listAllLogs operation fetching all pages by cursor
+  @Test
+  public void testListAllLogsPager() throws Throwable {
+    // Schedule some responses.
+    server.enqueue(
+        new MockResponse()
+            .setHeader("Content-type", "application/json")
+            .setBody(
+                "{\"logs\": [{\"log_id\": \"log1\"}, {\"log_id\": \"log2\"}], \"pagination\": {\"next_cursor\": \"cursor2\"}}"));
+    server.enqueue(
+        new MockResponse()
+            .setHeader("Content-type", "application/json")
+            .setBody(
+                "{\"logs\": [{\"log_id\": \"log3\"}], \"pagination\": {\"next_cursor\": \"cursor3\"}}"));
+    server.enqueue(
+        new MockResponse()
+            .setHeader("Content-type", "application/json")
+            .setBody("{\"logs\": [{\"log_id\": \"log4\"}], \"pagination\": {}}"));
+
+    constructClientService();
+
+    ListAllLogsOptions listAllLogsOptionsModel =
+        new ListAllLogsOptions.Builder().filter("testString").pageLimit(Long.valueOf("2")).build();
+
+    List<String> logIds = new ArrayList<>();
+    try (Pager<Log> pager = assistantService.listAllLogsPager(listAllLogsOptionsModel, 2)) {
+      while (pager.hasNext()) {
+        logIds.add(pager.next().getLogId());
+      }
+    }
+    assertEquals(logIds, Arrays.asList("log1", "log2", "log3", "log4"));
+
+    // Verify the cursors of the requests
+    assertNull(TestUtilities.parseQueryString(server.takeRequest()).get("cursor"));
+    Map<String, String> query = TestUtilities.parseQueryString(server.takeRequest());
+    assertEquals(query.get("cursor"), "cursor2");
+    assertEquals(query.get("filter"), "testString");
+    assertEquals(TestUtilities.parseQueryString(server.takeRequest()).get("cursor"), "cursor3");
+    assertEquals(server.getRequestCount(), 3);
+  }
+
   @Test
   public void testUpdateDialogNodeNullableWOptions() throws Throwable {
     // Schedule some responses.
@@ -4035,6 +4084,113 @@ public class AssistantTest {
     assistantService.deleteUserData(null).execute();
   }
 
+  // Test the WorkspaceMigrator applies only the differences, dialog nodes in dependency order
+  @Test
+  public void testWorkspaceMigrator() throws Throwable {
+    final List<String> dialogRequests = Collections.synchronizedList(new ArrayList<String>());
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) {
+            if (request.getPath().contains("/dialog_nodes")) {
+              dialogRequests.add(
+                  request.getMethod()
+                      + " "
+                      + request.getPath().replaceAll("\\?.*", "")
+                      + " "
+                      + request.getBody().readUtf8());
+            }
+            return new MockResponse().setHeader("Content-type", "application/json").setBody("{}");
+          }
+        });
+    constructClientService();
+    Workspace current =
+        GsonSingleton.getGson()
+            .fromJson(
+                "{\"intents\": ["
+                    + "{\"intent\": \"greet\", \"examples\": [{\"text\": \"hi\", "
+                    + "\"created\": \"2021-01-01T00:00:00.000Z\"}]},"
+                    + "{\"intent\": \"bye\", \"examples\": [{\"text\": \"bye\"}]}],"
+                    + "\"entities\": [{\"entity\": \"color\", \"values\": [{\"value\": \"red\"}]}],"
+                    + "\"counterexamples\": [{\"text\": \"foo\"}],"
+                    + "\"dialog_nodes\": ["
+                    + "{\"dialog_node\": \"root\", \"conditions\": \"#hello\", "
+                    + "\"title\": \"Root\"},"
+                    + "{\"dialog_node\": \"child\", \"parent\": \"root\"},"
+                    + "{\"dialog_node\": \"old\"},"
+                    + "{\"dialog_node\": \"oldchild\", \"parent\": \"old\"}]}",
+                Workspace.class);
+    Workspace desired =
+        GsonSingleton.getGson()
+            .fromJson(
+                "{\"intents\": ["
+                    + "{\"intent\": \"greet\", "
+                    + "\"examples\": [{\"text\": \"hi\"}, {\"text\": \"hello\"}]},"
+                    + "{\"intent\": \"thanks\", \"examples\": [{\"text\": \"thanks\"}]}],"
+                    + "\"entities\": [{\"entity\": \"color\", \"values\": [{\"value\": \"red\"}]}],"
+                    + "\"counterexamples\": [{\"text\": \"bar\"}],"
+                    + "\"dialog_nodes\": ["
+                    + "{\"dialog_node\": \"root\", \"conditions\": \"#greet\"},"
+                    + "{\"dialog_node\": \"second\", \"parent\": \"root\", "
+                    + "\"previous_sibling\": \"first\"},"
+                    + "{\"dialog_node\": \"first\", \"parent\": \"root\"}]}",
+                Workspace.class);
+    WorkspaceMigrator migrator = new WorkspaceMigrator(assistantService, "testString");
+
+    List<WorkspaceMigrator.Change> changes = migrator.diff(desired, current);
+    List<String> planned = new ArrayList<String>();
+    for (WorkspaceMigrator.Change change : changes) {
+      planned.add(change.toString());
+    }
+    assertEquals(
+        planned,
+        Arrays.asList(
+            "UPDATE INTENT greet",
+            "CREATE INTENT thanks",
+            "DELETE INTENT bye",
+            "CREATE COUNTEREXAMPLE bar",
+            "DELETE COUNTEREXAMPLE foo",
+            "CREATE DIALOG_NODE first",
+            "CREATE DIALOG_NODE second",
+            "UPDATE DIALOG_NODE root",
+            "DELETE DIALOG_NODE child",
+            "DELETE DIALOG_NODE old"));
+
+    final AtomicInteger progress = new AtomicInteger();
+    migrator.apply(
+        changes,
+        new WorkspaceMigrator.ProgressListener() {
+          @Override
+          public void onProgress(WorkspaceMigrator.Change change, int completed, int total) {
+            assertEquals(total, 10);
+            progress.incrementAndGet();
+          }
+        });
+    assertEquals(progress.get(), 10);
+    assertEquals(server.getRequestCount(), 10);
+    assertEquals(dialogRequests.size(), 5);
+    // The update of root may be sent along with the creations, but second is created after first.
+    List<String> sent = dialogRequests.subList(0, 3);
+    assertTrue(
+        sent.contains(
+            "POST /v1/workspaces/testString/dialog_nodes/root "
+                + "{\"conditions\":\"#greet\",\"title\":null}"));
+    int first = -1;
+    int second = -1;
+    for (int i = 0; i < sent.size(); i++) {
+      if (sent.get(i).startsWith("POST /v1/workspaces/testString/dialog_nodes {")) {
+        if (sent.get(i).contains("\"dialog_node\":\"first\"")) {
+          first = i;
+        } else if (sent.get(i).contains("\"dialog_node\":\"second\"")) {
+          second = i;
+        }
+      }
+    }
+    assertTrue(first >= 0 && second > first);
+    assertEquals(dialogRequests.get(3), "DELETE /v1/workspaces/testString/dialog_nodes/child ");
+    assertEquals(dialogRequests.get(4), "DELETE /v1/workspaces/testString/dialog_nodes/old ");
+  }
+
   /** Initialize the server */
   @BeforeMethod
   public void setUpMockServer() {
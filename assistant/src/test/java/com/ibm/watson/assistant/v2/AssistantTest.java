@@ -14,11 +14,17 @@ package com.ibm.watson.assistant.v2;
 
 import static org.testng.Assert.*;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.ibm.cloud.sdk.core.http.Response;
 import com.ibm.cloud.sdk.core.security.Authenticator;
 import com.ibm.cloud.sdk.core.security.NoAuthAuthenticator;
 import com.ibm.cloud.sdk.core.service.model.FileWithMetadata;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
 import com.ibm.watson.assistant.v2.model.BulkClassifyOptions;
+import com.ibm.watson.assistant.v2.model.BulkClassifyOutput;
 import com.ibm.watson.assistant.v2.model.BulkClassifyResponse;
 import com.ibm.watson.assistant.v2.model.BulkClassifyUtterance;
 import com.ibm.watson.assistant.v2.model.CaptureGroup;
@@ -48,13 +54,29 @@ import com.ibm.watson.assistant.v2.model.RuntimeEntityAlternative;
 import com.ibm.watson.assistant.v2.model.RuntimeEntityInterpretation;
 import com.ibm.watson.assistant.v2.model.RuntimeEntityRole;
 import com.ibm.watson.assistant.v2.model.RuntimeIntent;
+import com.ibm.watson.assistant.v2.model.RuntimeResponseGeneric;
+import com.ibm.watson.assistant.v2.model.RuntimeResponseGenericRuntimeResponseTypeOption;
 import com.ibm.watson.assistant.v2.model.SessionResponse;
 import com.ibm.watson.assistant.v2.utils.TestUtilities;
+import com.ibm.watson.common.ConcurrencyLimiter;
+import com.ibm.watson.common.LazyJsonList;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
@@ -793,6 +815,369 @@ public class AssistantTest {
     assistantService.deleteUserData(null).execute();
   }
 
+  // Test the messageStatelessAsync operation, sending calls concurrently up to the limit
+  @Test
+  public void testMessageStatelessAsync() throws Throwable {
+    final AtomicInteger concurrent = new AtomicInteger();
+    final AtomicInteger maxConcurrent = new AtomicInteger();
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            concurrent.decrementAndGet();
+            return new MockResponse()
+                .setHeader("Content-type", "application/json")
+                .setBody("{\"output\": {}}");
+          }
+        });
+    constructClientService();
+
+    sendMessagesStateless(1, 20);
+    assertEquals(maxConcurrent.getAndSet(0), 1);
+    sendMessagesStateless(10, 20);
+    assertTrue(
+        maxConcurrent.get() > 1 && maxConcurrent.get() <= 10,
+        "peak concurrent calls: " + maxConcurrent.get());
+
+    ConcurrencyLimiter limiter = assistantService.getConcurrencyLimiter();
+    assertEquals(limiter.completed(), 20);
+    assertEquals(limiter.inFlight(), 0);
+    assertTrue(limiter.latencyPercentile(50) >= 50);
+    assertTrue(limiter.latencyPercentile(99) >= limiter.latencyPercentile(50));
+  }
+
+  // Sends messages with the given concurrency, waiting for all the responses
+  private void sendMessagesStateless(int maxConcurrentCalls, int count) throws Throwable {
+    assistantService.setConcurrencyLimits(maxConcurrentCalls, count);
+    MessageStatelessOptions options =
+        new MessageStatelessOptions.Builder().assistantId("testString").build();
+    List<CompletableFuture<Response<MessageResponseStateless>>> responses = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      responses.add(assistantService.messageStatelessAsync(options));
+    }
+    for (CompletableFuture<Response<MessageResponseStateless>> response : responses) {
+      assertNotNull(response.get(10, TimeUnit.SECONDS).getResult().getOutput());
+    }
+  }
+
+  // Test the default limiter leaves the HTTP client configured by the user as it is
+  @Test
+  public void testGetConcurrencyLimiterKeepsClient() throws Throwable {
+    constructClientService();
+    OkHttpClient client = assistantService.getClient();
+    ConcurrencyLimiter limiter = assistantService.getConcurrencyLimiter();
+    assertEquals(limiter.getMaxConcurrentCalls(), ConcurrencyLimiter.DEFAULT_MAX_CONCURRENT_CALLS);
+    assertSame(assistantService.getClient(), client);
+  }
+
+  // Test the messageAsync operation rejects calls beyond the queue, and cancels queued calls
+  @Test
+  public void testMessageAsyncQueueFull() throws Throwable {
+    constructClientService();
+    assistantService.setConcurrencyLimits(1, 1);
+    MessageOptions options =
+        new MessageOptions.Builder().assistantId("testString").sessionId("testString").build();
+    server.enqueue(
+        new MockResponse()
+            .setHeader("Content-type", "application/json")
+            .setBody("{\"output\": {}}")
+            .setBodyDelay(200, TimeUnit.MILLISECONDS));
+
+    CompletableFuture<Response<MessageResponse>> sent = assistantService.messageAsync(options);
+    CompletableFuture<Response<MessageResponse>> queued = assistantService.messageAsync(options);
+    CompletableFuture<Response<MessageResponse>> rejected = assistantService.messageAsync(options);
+    try {
+      rejected.get();
+      fail("The call should have been rejected");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof RejectedExecutionException);
+    }
+    ConcurrencyLimiter limiter = assistantService.getConcurrencyLimiter();
+    assertEquals(limiter.inFlight(), 1);
+    assertEquals(limiter.queued(), 1);
+
+    assertTrue(queued.cancel(true));
+    assertEquals(limiter.queued(), 0);
+    assertNotNull(sent.get(10, TimeUnit.SECONDS).getResult());
+    assertEquals(limiter.inFlight(), 0);
+    assertEquals(server.getRequestCount(), 1);
+  }
+
+  // Test the SessionManager reuses active sessions, and replaces those about to expire
+  @Test
+  public void testSessionManager() throws Throwable {
+    final AtomicInteger created = new AtomicInteger();
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) {
+            MockResponse response =
+                new MockResponse().setHeader("Content-type", "application/json");
+            String path = request.getPath();
+            if (path.startsWith("/v2/assistants/testString/sessions?")) {
+              return response.setBody(
+                  "{\"session_id\": \"session" + created.incrementAndGet() + "\"}");
+            }
+            return response.setBody("{\"output\": {}}");
+          }
+        });
+    constructClientService();
+    final AtomicLong now = new AtomicLong();
+    SessionManager sessions =
+        new SessionManager(assistantService, "testString", 10, TimeUnit.SECONDS, now::get);
+
+    assertEquals(sessions.getSessionId("a"), "session1");
+    now.addAndGet(TimeUnit.SECONDS.toNanos(8));
+    assertEquals(sessions.getSessionId("a"), "session1");
+    // Idle for 9 of the 10 seconds: replaced ahead of the timeout.
+    now.addAndGet(TimeUnit.SECONDS.toNanos(9));
+    assertEquals(sessions.getSessionId("a"), "session2");
+    assertEquals(created.get(), 2);
+
+    // Sessions created ahead are used without a round trip.
+    sessions.prewarm(2).get(10, TimeUnit.SECONDS);
+    assertEquals(sessions.pooledSessions(), 2);
+    String b = sessions.getSessionId("b");
+    assertTrue(b.equals("session3") || b.equals("session4"));
+    assertEquals(created.get(), 4);
+    assertEquals(sessions.pooledSessions(), 1);
+    assertEquals(sessions.activeSessions(), 2);
+
+    // Expired sessions are forgotten, and those created ahead are replaced.
+    now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+    sessions.refresh().get(10, TimeUnit.SECONDS);
+    assertEquals(sessions.activeSessions(), 0);
+    assertEquals(sessions.pooledSessions(), 1);
+    assertEquals(created.get(), 5);
+
+    sessions.close();
+    assertEquals(sessions.pooledSessions(), 0);
+    RecordedRequest request;
+    while ((request = server.takeRequest(0, TimeUnit.SECONDS)) != null) {
+      if (request.getMethod().equals("DELETE")) {
+        assertTrue(request.getPath().startsWith("/v2/assistants/testString/sessions/session5?"));
+        return;
+      }
+    }
+    fail("The session created ahead should have been deleted");
+  }
+
+  // Test the SessionManager forgets the expired sessions of users that do not come back
+  @Test
+  public void testSessionManagerForgetsExpiredSessions() throws Throwable {
+    final AtomicInteger created = new AtomicInteger();
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) {
+            return new MockResponse()
+                .setHeader("Content-type", "application/json")
+                .setBody("{\"session_id\": \"session" + created.incrementAndGet() + "\"}");
+          }
+        });
+    constructClientService();
+    final AtomicLong now = new AtomicLong();
+    SessionManager sessions =
+        new SessionManager(assistantService, "testString", 10, TimeUnit.SECONDS, now::get);
+
+    sessions.getSessionId("a");
+    sessions.getSessionId("b");
+    now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+    sessions.getSessionId("c");
+    assertEquals(sessions.activeSessions(), 3);
+    now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+    assertEquals(sessions.getSessionId("c"), "session3");
+    assertEquals(sessions.activeSessions(), 1);
+  }
+
+  // Test the SessionManager sends a message again in a new session when the session is unknown
+  @Test
+  public void testSessionManagerMessage() throws Throwable {
+    server.enqueue(
+        new MockResponse()
+            .setHeader("Content-type", "application/json")
+            .setBody("{\"session_id\": \"session1\"}"));
+    server.enqueue(
+        new MockResponse()
+            .setResponseCode(404)
+            .setHeader("Content-type", "application/json")
+            .setBody("{\"error\": \"Invalid Session\"}"));
+    server.enqueue(
+        new MockResponse()
+            .setHeader("Content-type", "application/json")
+            .setBody("{\"session_id\": \"session2\"}"));
+    server.enqueue(
+        new MockResponse()
+            .setHeader("Content-type", "application/json")
+            .setBody("{\"output\": {}}"));
+    constructClientService();
+    SessionManager sessions = new SessionManager(assistantService, "testString");
+
+    MessageInput input = new MessageInput.Builder().text("hello").build();
+    assertNotNull(sessions.message("a", input, null).getResult().getOutput());
+    assertEquals(sessions.getSessionId("a"), "session2");
+
+    server.takeRequest();
+    assertTrue(server.takeRequest().getPath().contains("/sessions/session1/message"));
+    server.takeRequest();
+    assertTrue(server.takeRequest().getPath().contains("/sessions/session2/message"));
+  }
+
+  // Test the ContextStore sends the last context back, reusing the JSON of unchanged variables
+  @Test
+  public void testContextStore() throws Throwable {
+    String context =
+        "{\"global\": {\"system\": {\"turn_count\": %d}}, \"skills\": {\"main skill\": {"
+            + "\"user_defined\": {\"account\": {\"id\": 42, \"tags\": [\"a\", \"b\"]}, "
+            + "\"step\": %d}, \"system\": {\"state\": \"c3RhdGU=\"}}}}";
+    for (int turn = 1; turn <= 3; turn++) {
+      server.enqueue(
+          new MockResponse()
+              .setHeader("Content-type", "application/json")
+              .setBody(
+                  "{\"output\": {}, \"context\": " + String.format(context, turn, turn) + "}"));
+    }
+    constructClientService();
+    ContextStore store = new ContextStore(assistantService);
+    MessageStatelessOptions options =
+        new MessageStatelessOptions.Builder().assistantId("testString").build();
+
+    store.message("a", options);
+    assertFalse(server.takeRequest().getBody().readUtf8().contains("context"));
+    String account = store.getVariableJson("a", "main skill", "account");
+    assertEquals(account, "{\"id\":42.0,\"tags\":[\"a\",\"b\"]}");
+
+    store.message("a", options);
+    JsonObject sent =
+        JsonParser.parseString(server.takeRequest().getBody().readUtf8()).getAsJsonObject();
+    assertEquals(
+        sent.get("context"),
+        JsonParser.parseString(String.format(context, 1, 1).replace("42", "42.0")));
+    // The unchanged variable is not serialized again, the changed one is.
+    assertSame(store.getVariableJson("a", "main skill", "account"), account);
+    assertEquals(store.getVariableJson("a", "main skill", "step"), "2.0");
+    assertEquals(
+        JsonParser.parseString(store.getJson("a")),
+        GsonSingleton.getGson().toJsonTree(store.get("a")));
+
+    // Conversations at the same point of the dialog share the state.
+    store.message("b", options);
+    assertSame(
+        store.get("b").skills().get("main skill").system().getState(),
+        store.get("a").skills().get("main skill").system().getState());
+
+    // A change of the context of the last response is sent with the next message.
+    server.enqueue(
+        new MockResponse()
+            .setHeader("Content-type", "application/json")
+            .setBody("{\"output\": {}, \"context\": " + String.format(context, 4, 4) + "}"));
+    store.get("b").skills().get("main skill").userDefined().put("step", 9);
+    store.message("b", options);
+    server.takeRequest();
+    sent = JsonParser.parseString(server.takeRequest().getBody().readUtf8()).getAsJsonObject();
+    assertEquals(
+        sent.getAsJsonObject("context")
+            .getAsJsonObject("skills")
+            .getAsJsonObject("main skill")
+            .getAsJsonObject("user_defined")
+            .get("step")
+            .getAsInt(),
+        9);
+
+    store.remove("a");
+    assertNull(store.get("a"));
+  }
+
+  // Test the bulkClassify operation over a stream, in concurrent batches retried when throttled
+  @Test
+  public void testBulkClassifyStream() throws Throwable {
+    final AtomicInteger concurrent = new AtomicInteger();
+    final AtomicInteger maxConcurrent = new AtomicInteger();
+    final AtomicInteger throttled = new AtomicInteger();
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            JsonObject body =
+                JsonParser.parseString(request.getBody().readUtf8()).getAsJsonObject();
+            JsonArray output = new JsonArray();
+            for (JsonElement input : body.getAsJsonArray("input")) {
+              JsonObject utterance = new JsonObject();
+              utterance.add("input", input);
+              output.add(utterance);
+            }
+            int first =
+                Integer.parseInt(
+                    body.getAsJsonArray("input")
+                        .get(0)
+                        .getAsJsonObject()
+                        .get("text")
+                        .getAsString());
+            if (first == 20 && throttled.getAndIncrement() == 0) {
+              return new MockResponse().setResponseCode(429).setHeader("Retry-After", "0");
+            }
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            // Later batches complete first.
+            Thread.sleep(50 - first / 5);
+            concurrent.decrementAndGet();
+            JsonObject response = new JsonObject();
+            response.add("output", output);
+            return new MockResponse()
+                .setHeader("Content-type", "application/json")
+                .setBody(response.toString());
+          }
+        });
+    constructClientService();
+
+    List<String> texts;
+    try (Stream<BulkClassifyOutput> outputs =
+        assistantService.bulkClassify(
+            "testString", IntStream.range(0, 105).mapToObj(String::valueOf), 10, 4)) {
+      texts = outputs.map(o -> o.getInput().text()).collect(Collectors.toList());
+    }
+    assertEquals(
+        texts, IntStream.range(0, 105).mapToObj(String::valueOf).collect(Collectors.toList()));
+    assertEquals(server.getRequestCount(), 12);
+    assertEquals(throttled.get(), 2);
+    assertTrue(maxConcurrent.get() > 1 && maxConcurrent.get() <= 4);
+  }
+
+  // Test the generic responses of a message are decoded when accessed, with lazy decoding
+  @Test
+  public void testMessageLazyGenericDecoding() throws Throwable {
+    String mockResponseBody =
+        "{\"output\": {\"generic\": [{\"response_type\": \"text\", \"text\": \"Hi\"}, "
+            + "{\"response_type\": \"option\", \"title\": \"Pick one\", "
+            + "\"options\": [{\"label\": \"a\", \"value\": {}}]}]}}";
+    server.enqueue(
+        new MockResponse().setHeader("Content-type", "application/json").setBody(mockResponseBody));
+    server.enqueue(
+        new MockResponse().setHeader("Content-type", "application/json").setBody(mockResponseBody));
+    constructClientService();
+    assertFalse(assistantService.isLazyGenericDecoding());
+    assistantService.setLazyGenericDecoding(true);
+
+    MessageOptions messageOptions =
+        new MessageOptions.Builder().assistantId("testString").sessionId("testString").build();
+    List<RuntimeResponseGeneric> generic =
+        assistantService.message(messageOptions).execute().getResult().getOutput().getGeneric();
+    assertTrue(generic instanceof LazyJsonList);
+    LazyJsonList<RuntimeResponseGeneric> lazy = (LazyJsonList<RuntimeResponseGeneric>) generic;
+    assertEquals(lazy.size(), 2);
+    assertEquals(lazy.getString(1, "response_type"), "option");
+    assertTrue(lazy.get(1) instanceof RuntimeResponseGenericRuntimeResponseTypeOption);
+    assertEquals(lazy.get(1).title(), "Pick one");
+    assertEquals(lazy.get(0).text(), "Hi");
+
+    assistantService.setLazyGenericDecoding(false);
+    generic =
+        assistantService.message(messageOptions).execute().getResult().getOutput().getGeneric();
+    assertFalse(generic instanceof LazyJsonList);
+    assertTrue(generic.get(1) instanceof RuntimeResponseGenericRuntimeResponseTypeOption);
+  }
+
   /** Initialize the server */
   @BeforeMethod
   public void setUpMockServer() {
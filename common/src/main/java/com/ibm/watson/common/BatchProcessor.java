@@ -0,0 +1,346 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import com.ibm.cloud.sdk.core.http.Response;
+import com.ibm.cloud.sdk.core.http.ServiceCall;
+import com.ibm.cloud.sdk.core.http.ServiceCallback;
+import com.ibm.cloud.sdk.core.service.exception.ServiceResponseException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The outputs of a bulk operation over any number of inputs, sent in batches as the outputs are
+ * iterated. <br>
+ * The inputs are packed into batches of a given size, and a given number of batches are sent
+ * concurrently. The outputs are returned in the order of the inputs. A batch that fails because the
+ * service is busy or unavailable (status 429 or 5xx) or because of a network error is sent again,
+ * after the delay asked by the service or an exponential backoff.
+ *
+ * <p>Batches sent ahead of the one being consumed are held in memory, at most twice as many as are
+ * sent concurrently. Close the processor to cancel the requests in flight if not all outputs are
+ * consumed, for example with a try-with-resources statement.
+ *
+ * @param <I> the type of the inputs
+ * @param <O> the type of the outputs
+ */
+public class BatchProcessor<I, O> implements Iterator<O>, Closeable {
+
+  /** The default number of inputs per batch. */
+  public static final int DEFAULT_BATCH_SIZE = 50;
+
+  /** The default number of batches sent concurrently. */
+  public static final int DEFAULT_MAX_CONCURRENT_BATCHES = 4;
+
+  /** The default number of times a failed batch is sent again. */
+  public static final int DEFAULT_MAX_RETRIES = 4;
+
+  private static final long INITIAL_BACKOFF_MILLIS = 500;
+  private static final long MAX_BACKOFF_MILLIS = 30000;
+
+  private final Iterator<I> inputs;
+  private final Function<List<I>, Attempt<O>> send;
+  private final int batchSize;
+  private final int maxConcurrentBatches;
+  private final int maxRetries;
+  private final Deque<Batch> batches = new ArrayDeque<>();
+  private final Deque<Batch> unsent = new ArrayDeque<>();
+  private int inFlight;
+  private Iterator<O> current = Collections.emptyIterator();
+  private boolean closed;
+
+  private BatchProcessor(
+      Iterator<I> inputs,
+      Function<List<I>, Attempt<O>> send,
+      int batchSize,
+      int maxConcurrentBatches,
+      int maxRetries) {
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(batchSize > 0, "batchSize must be positive");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(
+        maxConcurrentBatches > 0, "maxConcurrentBatches must be positive");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(maxRetries >= 0, "maxRetries cannot be negative");
+    this.inputs = inputs;
+    this.send = send;
+    this.batchSize = batchSize;
+    this.maxConcurrentBatches = maxConcurrentBatches;
+    this.maxRetries = maxRetries;
+  }
+
+  /**
+   * Creates a processor of inputs in batches.
+   *
+   * @param <I> the type of the inputs
+   * @param <R> the type of the results of the batches
+   * @param <O> the type of the outputs
+   * @param inputs the inputs, read as batches are sent
+   * @param call creates the call processing a batch of inputs
+   * @param outputs gets the outputs of the result of a batch, in the order of its inputs
+   * @param batchSize the number of inputs per batch
+   * @param maxConcurrentBatches the number of batches sent concurrently
+   * @param maxRetries the number of times a failed batch is sent again
+   * @return the processor
+   */
+  public static <I, R, O> BatchProcessor<I, O> create(
+      Iterator<I> inputs,
+      final Function<List<I>, ServiceCall<R>> call,
+      final Function<R, List<O>> outputs,
+      int batchSize,
+      int maxConcurrentBatches,
+      int maxRetries) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(inputs, "inputs cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(call, "call cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(outputs, "outputs cannot be null");
+    return new BatchProcessor<>(
+        inputs,
+        batch -> new Attempt<>(call.apply(batch), outputs),
+        batchSize,
+        maxConcurrentBatches,
+        maxRetries);
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!current.hasNext()) {
+      Batch batch;
+      synchronized (this) {
+        if (closed) {
+          return false;
+        }
+        fill();
+        batch = batches.poll();
+        fill();
+      }
+      if (batch == null) {
+        close();
+        return false;
+      }
+      current = await(batch).iterator();
+    }
+    return true;
+  }
+
+  @Override
+  public O next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return current.next();
+  }
+
+  /**
+   * Gets the remaining outputs as a sequential {@link Stream}. Closing the stream closes the
+   * processor.
+   *
+   * @return the stream
+   */
+  public Stream<O> stream() {
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+        .onClose(this::close);
+  }
+
+  /** Cancels the batches in flight. The outputs of the current batch can still be consumed. */
+  @Override
+  public synchronized void close() {
+    closed = true;
+    for (Batch batch : batches) {
+      batch.cancel();
+    }
+    batches.clear();
+    unsent.clear();
+  }
+
+  /** Packs inputs into batches until enough are held, and sends them. Called holding the lock. */
+  private void fill() {
+    while (!closed && batches.size() < 2 * maxConcurrentBatches && inputs.hasNext()) {
+      List<I> batchInputs = new ArrayList<>(batchSize);
+      while (batchInputs.size() < batchSize && inputs.hasNext()) {
+        batchInputs.add(inputs.next());
+      }
+      Batch batch = new Batch(batchInputs);
+      batches.add(batch);
+      unsent.add(batch);
+    }
+    sendUnsent();
+  }
+
+  /** Sends batches until enough are in flight. Called holding the lock. */
+  private void sendUnsent() {
+    while (!closed && inFlight < maxConcurrentBatches && !unsent.isEmpty()) {
+      inFlight++;
+      unsent.poll().send();
+    }
+  }
+
+  private synchronized void onDone() {
+    inFlight--;
+    sendUnsent();
+  }
+
+  private List<O> await(Batch batch) {
+    try {
+      return batch.outputs.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      close();
+      throw new IllegalStateException("Interrupted while waiting for a batch", e);
+    } catch (ExecutionException e) {
+      close();
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof IOException) {
+        throw new UncheckedIOException((IOException) e.getCause());
+      }
+      throw new IllegalStateException("A batch could not be processed", e.getCause());
+    }
+  }
+
+  /**
+   * Gets the delay before sending a failed batch again.
+   *
+   * @param failure the failure of the batch
+   * @param attempt the number of times the batch has been sent
+   * @return the delay in milliseconds, or -1 if the batch should not be sent again
+   */
+  static long retryDelay(Throwable failure, int attempt) {
+    if (failure instanceof ServiceResponseException) {
+      ServiceResponseException e = (ServiceResponseException) failure;
+      if (e.getStatusCode() != 429 && e.getStatusCode() < 500) {
+        return -1;
+      }
+      List<String> retryAfter =
+          e.getHeaders() != null ? e.getHeaders().values("Retry-After") : null;
+      if (retryAfter != null && !retryAfter.isEmpty()) {
+        try {
+          return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.get(0).trim()));
+        } catch (NumberFormatException ignored) {
+          // An HTTP date: back off instead.
+        }
+      }
+    } else if (!(failure instanceof IOException)) {
+      return -1;
+    }
+    long backoff =
+        Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << Math.min(attempt - 1, 16));
+    return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+  }
+
+  /** A batch of inputs, sent until it succeeds or runs out of retries. */
+  private final class Batch {
+    private final List<I> inputs;
+    private final CompletableFuture<List<O>> outputs = new CompletableFuture<>();
+    private volatile int attempts;
+    private volatile Attempt<O> attempt;
+    private volatile boolean cancelled;
+
+    private Batch(List<I> inputs) {
+      this.inputs = inputs;
+    }
+
+    private void send() {
+      if (cancelled) {
+        return;
+      }
+      attempts++;
+      Attempt<O> sent = BatchProcessor.this.send.apply(inputs);
+      attempt = sent;
+      if (cancelled) {
+        sent.call.cancel();
+      }
+      sent.result.whenComplete(
+          (result, failure) -> {
+            long delay = failure != null ? retryDelay(failure, attempts) : -1;
+            if (delay >= 0 && attempts <= maxRetries && !cancelled) {
+              Retries.SCHEDULER.schedule(this::send, delay, TimeUnit.MILLISECONDS);
+              return;
+            }
+            onDone();
+            if (failure != null) {
+              outputs.completeExceptionally(failure);
+            } else {
+              outputs.complete(result);
+            }
+          });
+    }
+
+    private void cancel() {
+      cancelled = true;
+      Attempt<O> sent = attempt;
+      if (sent != null) {
+        sent.call.cancel();
+      }
+    }
+  }
+
+  /**
+   * A call processing a batch.
+   *
+   * @param <O> the type of the outputs
+   */
+  static final class Attempt<O> {
+    private final ServiceCall<?> call;
+    private final CompletableFuture<List<O>> result = new CompletableFuture<>();
+
+    <R> Attempt(ServiceCall<R> call, final Function<R, List<O>> outputs) {
+      this.call = call;
+      call.enqueue(
+          new ServiceCallback<R>() {
+            @Override
+            public void onResponse(Response<R> response) {
+              try {
+                List<O> batchOutputs = outputs.apply(response.getResult());
+                result.complete(batchOutputs != null ? batchOutputs : Collections.<O>emptyList());
+              } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+              }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+              result.completeExceptionally(e);
+            }
+          });
+    }
+  }
+
+  /** The scheduler of the calls sent again, created when first needed. */
+  static final class Retries {
+    static final ScheduledExecutorService SCHEDULER =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "watson-batch-retries");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import com.ibm.cloud.sdk.core.http.Response;
+import com.ibm.cloud.sdk.core.http.ServiceCall;
+import com.ibm.cloud.sdk.core.http.ServiceCallback;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends service calls asynchronously with at most a given number of them in flight. <br>
+ * Calls beyond that number wait in a bounded queue, in the order they were submitted, and are sent
+ * as calls in flight complete; calls beyond the capacity of the queue are rejected. No thread waits
+ * for a call: the calls are sent with {@link ServiceCall#enqueue}, and their futures are completed
+ * on the threads of the HTTP client's dispatcher, so dependent actions that block should be run on
+ * an executor of their own.
+ *
+ * <p>The latencies of the last {@link #LATENCY_SAMPLES} completed calls, from sending to
+ * completion, are kept for {@link #latencyPercentile(double)}.
+ */
+public class ConcurrencyLimiter {
+
+  /** The default maximum number of calls in flight. */
+  public static final int DEFAULT_MAX_CONCURRENT_CALLS = 64;
+
+  /** The default maximum number of calls waiting to be sent. */
+  public static final int DEFAULT_MAX_QUEUED_CALLS = 1024;
+
+  /** The number of latencies kept for the percentiles. */
+  public static final int LATENCY_SAMPLES = 4096;
+
+  private final int maxConcurrentCalls;
+  private final int maxQueuedCalls;
+  private final Deque<PendingCall<?>> queue = new ArrayDeque<>();
+  private final long[] latencies = new long[LATENCY_SAMPLES];
+  private int inFlight;
+  private long completed;
+
+  /** Instantiates a new limiter with the default limits. */
+  public ConcurrencyLimiter() {
+    this(DEFAULT_MAX_CONCURRENT_CALLS, DEFAULT_MAX_QUEUED_CALLS);
+  }
+
+  /**
+   * Instantiates a new limiter.
+   *
+   * @param maxConcurrentCalls the maximum number of calls in flight
+   * @param maxQueuedCalls the maximum number of calls waiting to be sent
+   */
+  public ConcurrencyLimiter(int maxConcurrentCalls, int maxQueuedCalls) {
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(
+        maxConcurrentCalls > 0, "maxConcurrentCalls must be positive");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(
+        maxQueuedCalls >= 0, "maxQueuedCalls cannot be negative");
+    this.maxConcurrentCalls = maxConcurrentCalls;
+    this.maxQueuedCalls = maxQueuedCalls;
+  }
+
+  /**
+   * Gets the maximum number of calls in flight.
+   *
+   * @return the maximum number of calls in flight
+   */
+  public int getMaxConcurrentCalls() {
+    return maxConcurrentCalls;
+  }
+
+  /**
+   * Gets the maximum number of calls waiting to be sent.
+   *
+   * @return the maximum number of calls waiting to be sent
+   */
+  public int getMaxQueuedCalls() {
+    return maxQueuedCalls;
+  }
+
+  /**
+   * Sends a call, or queues it until fewer calls are in flight. Cancelling the future cancels the
+   * call.
+   *
+   * @param <T> the type of the result of the call
+   * @param call the call, not sent yet
+   * @return a future completed with the response of the call, or exceptionally with the failure of
+   *     the call, or with a {@link RejectedExecutionException} if the queue is full
+   */
+  public <T> CompletableFuture<Response<T>> submit(ServiceCall<T> call) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(call, "call cannot be null");
+    PendingCall<T> pending = new PendingCall<>(call);
+    synchronized (this) {
+      if (inFlight >= maxConcurrentCalls) {
+        if (queue.size() >= maxQueuedCalls) {
+          pending.response.completeExceptionally(
+              new RejectedExecutionException(
+                  "Too many calls: " + inFlight + " in flight and " + queue.size() + " queued"));
+          return pending.response;
+        }
+        queue.add(pending);
+        return pending.response;
+      }
+      inFlight++;
+    }
+    pending.send();
+    return pending.response;
+  }
+
+  /**
+   * Gets the number of calls in flight.
+   *
+   * @return the number of calls in flight
+   */
+  public synchronized int inFlight() {
+    return inFlight;
+  }
+
+  /**
+   * Gets the number of calls waiting to be sent.
+   *
+   * @return the number of calls waiting to be sent
+   */
+  public synchronized int queued() {
+    return queue.size();
+  }
+
+  /**
+   * Gets the number of calls completed, successfully or not.
+   *
+   * @return the number of calls completed
+   */
+  public synchronized long completed() {
+    return completed;
+  }
+
+  /**
+   * Gets a percentile of the latencies of the last completed calls.
+   *
+   * @param percentile the percentile, between 0 and 100, such as 50 for the median or 99
+   * @return the latency, in milliseconds, under which the given percentage of the calls completed,
+   *     or 0 if no call has completed yet
+   */
+  public double latencyPercentile(double percentile) {
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(
+        percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100");
+    long[] samples;
+    synchronized (this) {
+      samples = Arrays.copyOf(latencies, (int) Math.min(completed, LATENCY_SAMPLES));
+    }
+    if (samples.length == 0) {
+      return 0;
+    }
+    Arrays.sort(samples);
+    int rank = (int) Math.ceil(percentile / 100 * samples.length) - 1;
+    return samples[Math.max(0, rank)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  /** Records a completed call and sends the next queued one, if any. */
+  private void complete(long latencyNanos) {
+    PendingCall<?> next;
+    synchronized (this) {
+      latencies[(int) (completed++ % LATENCY_SAMPLES)] = latencyNanos;
+      next = poll();
+      if (next == null) {
+        inFlight--;
+      }
+    }
+    if (next != null) {
+      next.send();
+    }
+  }
+
+  /** Takes the next queued call that has not been cancelled. Must hold the lock. */
+  private PendingCall<?> poll() {
+    PendingCall<?> next;
+    while ((next = queue.poll()) != null && next.response.isDone()) {
+      // Cancelled while queued.
+    }
+    return next;
+  }
+
+  private synchronized void dequeue(PendingCall<?> pending) {
+    queue.remove(pending);
+  }
+
+  /** A call submitted to the limiter. */
+  private final class PendingCall<T> implements ServiceCallback<T> {
+    private final ServiceCall<T> call;
+    private final CompletableFuture<Response<T>> response = new CompletableFuture<>();
+    private long sentNanos;
+
+    private PendingCall(ServiceCall<T> call) {
+      this.call = call;
+      response.whenComplete(
+          (r, e) -> {
+            if (response.isCancelled()) {
+              call.cancel();
+              dequeue(this);
+            }
+          });
+    }
+
+    private void send() {
+      sentNanos = System.nanoTime();
+      call.enqueue(this);
+    }
+
+    @Override
+    public void onResponse(Response<T> r) {
+      complete(System.nanoTime() - sentNanos);
+      response.complete(r);
+    }
+
+    @Override
+    public void onFailure(Exception e) {
+      complete(System.nanoTime() - sentNanos);
+      response.completeExceptionally(e);
+    }
+  }
+}
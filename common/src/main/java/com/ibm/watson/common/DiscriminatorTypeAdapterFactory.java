@@ -0,0 +1,306 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.ibm.cloud.sdk.core.http.ResponseConverter;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import okhttp3.ResponseBody;
+
+/**
+ * A Gson type adapter factory decoding a polymorphic model into the subclass named by a
+ * discriminator property, in a single pass over the JSON. <br>
+ * The subclass is looked up as soon as the discriminator is read, and the following properties are
+ * decoded straight into it from the reader, so that models nested in the model, such as the
+ * aggregations of an aggregation, are not parsed again at each level. Only the properties before
+ * the discriminator, if any, are held as JSON until the subclass is known. A model with no
+ * discriminator, or with an unknown one, is decoded into the base class.
+ *
+ * <p>Properties are bound to fields as by Gson: by their {@link SerializedName} or their name, and
+ * decoded with the type adapters of the Gson instance.
+ *
+ * @param <T> the base class of the model
+ */
+public class DiscriminatorTypeAdapterFactory<T> implements TypeAdapterFactory {
+
+  private final Class<T> baseClass;
+  private final String propertyName;
+  private final Map<String, Class<? extends T>> mapping;
+
+  /**
+   * Instantiates a new factory.
+   *
+   * @param baseClass the base class of the model
+   * @param propertyName the name of the discriminator property
+   * @param mapping the subclass of each value of the discriminator
+   */
+  public DiscriminatorTypeAdapterFactory(
+      Class<T> baseClass, String propertyName, Map<String, Class<? extends T>> mapping) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(baseClass, "baseClass cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(propertyName, "propertyName cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(mapping, "mapping cannot be null");
+    this.baseClass = baseClass;
+    this.propertyName = propertyName;
+    this.mapping = Collections.unmodifiableMap(new HashMap<>(mapping));
+  }
+
+  /**
+   * Gets the subclass of a value of the discriminator.
+   *
+   * @param discriminator the value of the discriminator, or null
+   * @return the subclass, or the base class if the value is unknown
+   */
+  public Class<? extends T> getSubclass(String discriminator) {
+    Class<? extends T> subclass = discriminator != null ? mapping.get(discriminator) : null;
+    return subclass != null ? subclass : baseClass;
+  }
+
+  /**
+   * Gets a converter of responses in which the model is decoded by this factory.
+   *
+   * @param <R> the type of the response
+   * @param type the type of the response
+   * @return the converter
+   */
+  public <R> ResponseConverter<R> converter(final Type type) {
+    final Gson gson =
+        GsonSingleton.getGsonWithoutPrettyPrinting()
+            .newBuilder()
+            .registerTypeAdapterFactory(this)
+            .create();
+    return response -> {
+      try (ResponseBody body = response.body()) {
+        return gson.fromJson(body.charStream(), type);
+      }
+    };
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <X> TypeAdapter<X> create(Gson gson, TypeToken<X> type) {
+    if (type.getRawType() != baseClass) {
+      return null;
+    }
+    return (TypeAdapter<X>) new Adapter(gson);
+  }
+
+  /** The adapter of the model for a Gson instance. */
+  private final class Adapter extends TypeAdapter<T> {
+    private final Gson gson;
+    private final TypeAdapter<JsonElement> jsonAdapter;
+    private final Map<Class<?>, Binding> bindings = new ConcurrentHashMap<>();
+
+    private Adapter(Gson gson) {
+      this.gson = gson;
+      this.jsonAdapter = gson.getAdapter(JsonElement.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, T value) throws IOException {
+      if (value == null) {
+        out.nullValue();
+        return;
+      }
+      binding(value.getClass()).write(out, value);
+    }
+
+    @Override
+    public T read(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+      Binding binding = null;
+      Object model = null;
+      JsonObject leading = null;
+      in.beginObject();
+      while (in.hasNext()) {
+        String name = in.nextName();
+        if (binding != null) {
+          binding.read(in, name, model);
+        } else if (name.equals(propertyName) && in.peek() == JsonToken.STRING) {
+          String discriminator = in.nextString();
+          binding = binding(getSubclass(discriminator));
+          model = binding.newInstance();
+          binding.set(model, name, new JsonPrimitive(discriminator));
+          binding.setAll(model, leading);
+        } else {
+          if (leading == null) {
+            leading = new JsonObject();
+          }
+          leading.add(name, jsonAdapter.read(in));
+        }
+      }
+      in.endObject();
+      if (binding == null) {
+        binding = binding(baseClass);
+        model = binding.newInstance();
+        binding.setAll(model, leading);
+      }
+      return baseClass.cast(model);
+    }
+
+    private Binding binding(Class<?> modelClass) {
+      Binding binding = bindings.get(modelClass);
+      if (binding == null) {
+        binding = new Binding(gson, modelClass);
+        bindings.put(modelClass, binding);
+      }
+      return binding;
+    }
+  }
+
+  /** The fields of a model class, by the name of their property. */
+  private static final class Binding {
+    private final Constructor<?> constructor;
+    private final List<BoundField> fields = new ArrayList<>();
+    private final Map<String, BoundField> byName = new HashMap<>();
+
+    private Binding(Gson gson, Class<?> modelClass) {
+      try {
+        constructor = modelClass.getDeclaredConstructor();
+        constructor.setAccessible(true);
+      } catch (NoSuchMethodException e) {
+        throw new JsonParseException(
+            modelClass.getName() + " has no constructor without arguments", e);
+      }
+      for (Class<?> c = modelClass; c != null && c != Object.class; c = c.getSuperclass()) {
+        for (Field field : c.getDeclaredFields()) {
+          if (Modifier.isStatic(field.getModifiers())
+              || Modifier.isTransient(field.getModifiers())
+              || gson.excluder().excludeField(field, false)) {
+            continue;
+          }
+          field.setAccessible(true);
+          SerializedName serializedName = field.getAnnotation(SerializedName.class);
+          String name =
+              serializedName != null
+                  ? serializedName.value()
+                  : gson.fieldNamingStrategy().translateName(field);
+          if (byName.containsKey(name)) {
+            // A field of a subclass hides the field of the same name of its superclass.
+            continue;
+          }
+          BoundField bound = new BoundField(field, name, gson);
+          fields.add(bound);
+          byName.put(name, bound);
+          if (serializedName != null) {
+            for (String alternate : serializedName.alternate()) {
+              byName.put(alternate, bound);
+            }
+          }
+        }
+      }
+    }
+
+    private Object newInstance() {
+      try {
+        return constructor.newInstance();
+      } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+        throw new JsonParseException("Unable to create " + constructor.getDeclaringClass(), e);
+      }
+    }
+
+    private void read(JsonReader in, String name, Object model) throws IOException {
+      BoundField bound = byName.get(name);
+      if (bound == null) {
+        in.skipValue();
+        return;
+      }
+      bound.set(model, bound.adapter.read(in));
+    }
+
+    private void set(Object model, String name, JsonElement json) {
+      BoundField bound = byName.get(name);
+      if (bound != null) {
+        bound.set(model, bound.adapter.fromJsonTree(json));
+      }
+    }
+
+    private void setAll(Object model, JsonObject json) {
+      if (json != null) {
+        for (Map.Entry<String, JsonElement> property : json.entrySet()) {
+          set(model, property.getKey(), property.getValue());
+        }
+      }
+    }
+
+    private void write(JsonWriter out, Object model) throws IOException {
+      out.beginObject();
+      for (BoundField bound : fields) {
+        Object value = bound.get(model);
+        if (value != null || out.getSerializeNulls()) {
+          out.name(bound.name);
+          bound.adapter.write(out, value);
+        }
+      }
+      out.endObject();
+    }
+  }
+
+  /** A field of a model class, with the adapter of its type. */
+  private static final class BoundField {
+    private final Field field;
+    private final String name;
+    private final TypeAdapter<Object> adapter;
+
+    @SuppressWarnings("unchecked")
+    private BoundField(Field field, String name, Gson gson) {
+      this.field = field;
+      this.name = name;
+      this.adapter = (TypeAdapter<Object>) gson.getAdapter(TypeToken.get(field.getGenericType()));
+    }
+
+    private Object get(Object model) {
+      try {
+        return field.get(model);
+      } catch (IllegalAccessException e) {
+        throw new JsonParseException("Unable to read field " + field, e);
+      }
+    }
+
+    private void set(Object model, Object value) {
+      if (value == null && field.getType().isPrimitive()) {
+        return;
+      }
+      try {
+        field.set(model, value);
+      } catch (IllegalAccessException e) {
+        throw new JsonParseException("Unable to set field " + field, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,301 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import com.ibm.cloud.sdk.core.http.Response;
+import com.ibm.cloud.sdk.core.http.ServiceCall;
+import com.ibm.cloud.sdk.core.http.ServiceCallback;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Sends a search to several targets in parallel, such as collections of different environments or
+ * projects, and merges their results. <br>
+ * The results of each response are merged as it is received into a bounded heap of the best
+ * results, so that only the requested number of results is kept whatever the number of targets. The
+ * search waits for the responses until a deadline: the targets that have not answered by then are
+ * cancelled, and the results of the others are returned. Failed targets are reported with the
+ * results rather than failing the search.
+ *
+ * @param <K> the type of the keys identifying the targets
+ * @param <R> the type of the responses
+ * @param <T> the type of the results
+ */
+public class FederatedSearch<K, R, T> {
+
+  private final Function<? super R, ? extends List<? extends T>> results;
+  private final Comparator<? super T> order;
+  private final int maxResults;
+
+  /**
+   * Instantiates a new search.
+   *
+   * @param results gets the results of a response, or null if there are none
+   * @param order the order of the results, best first
+   * @param maxResults the maximum number of results returned
+   */
+  public FederatedSearch(
+      Function<? super R, ? extends List<? extends T>> results,
+      Comparator<? super T> order,
+      int maxResults) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(results, "results cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(order, "order cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(maxResults > 0, "maxResults must be positive");
+    this.results = results;
+    this.order = order;
+    this.maxResults = maxResults;
+  }
+
+  /**
+   * Gets the maximum number of results returned.
+   *
+   * @return the maximum number of results
+   */
+  public int getMaxResults() {
+    return maxResults;
+  }
+
+  /**
+   * Sends the calls of the targets in parallel and merges their results, waiting for the responses
+   * until a deadline. The calls still awaited at the deadline are cancelled.
+   *
+   * @param calls the calls not sent yet, by target
+   * @param timeout the time to wait for the responses
+   * @param unit the unit of the timeout
+   * @return the merged results
+   * @throws InterruptedException if the thread is interrupted, in which case the calls still
+   *     awaited are cancelled
+   */
+  public Results<K, R, T> search(
+      Map<? extends K, ? extends ServiceCall<R>> calls, long timeout, TimeUnit unit)
+      throws InterruptedException {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(calls, "calls cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(unit, "unit cannot be null");
+    final Merge merge = new Merge(calls.size());
+    int index = 0;
+    for (Map.Entry<? extends K, ? extends ServiceCall<R>> call : calls.entrySet()) {
+      merge.send(call.getKey(), index++, call.getValue());
+    }
+    try {
+      merge.done.await(timeout, unit);
+    } finally {
+      merge.close();
+    }
+    return merge.results();
+  }
+
+  /** A result, with the target it was found in. */
+  public static final class Hit<K, T> {
+    private final K target;
+    private final T result;
+    private final int targetIndex;
+    private final int rank;
+
+    private Hit(K target, T result, int targetIndex, int rank) {
+      this.target = target;
+      this.result = result;
+      this.targetIndex = targetIndex;
+      this.rank = rank;
+    }
+
+    /**
+     * Gets the target the result was found in.
+     *
+     * @return the key of the target
+     */
+    public K getTarget() {
+      return target;
+    }
+
+    /**
+     * Gets the result.
+     *
+     * @return the result
+     */
+    public T getResult() {
+      return result;
+    }
+  }
+
+  /** The merged results of a search. */
+  public static final class Results<K, R, T> {
+    private final List<Hit<K, T>> hits;
+    private final Map<K, R> responses;
+    private final Map<K, Exception> failures;
+    private final Set<K> cancelled;
+
+    private Results(
+        List<Hit<K, T>> hits, Map<K, R> responses, Map<K, Exception> failures, Set<K> cancelled) {
+      this.hits = Collections.unmodifiableList(hits);
+      this.responses = Collections.unmodifiableMap(responses);
+      this.failures = Collections.unmodifiableMap(failures);
+      this.cancelled = Collections.unmodifiableSet(cancelled);
+    }
+
+    /**
+     * Gets the best results of the targets that answered, best first. Results that compare equal
+     * are in the order of their targets, then of their rank in the response.
+     *
+     * @return the results
+     */
+    public List<Hit<K, T>> getHits() {
+      return hits;
+    }
+
+    /**
+     * Gets the responses of the targets that answered, for example to read their aggregations.
+     *
+     * @return the responses, by target
+     */
+    public Map<K, R> getResponses() {
+      return responses;
+    }
+
+    /**
+     * Gets the failures of the targets whose call failed, or whose results could not be read.
+     *
+     * @return the failures, by target
+     */
+    public Map<K, Exception> getFailures() {
+      return failures;
+    }
+
+    /**
+     * Gets the targets that had not answered by the deadline, and whose call was cancelled.
+     *
+     * @return the cancelled targets
+     */
+    public Set<K> getCancelled() {
+      return cancelled;
+    }
+
+    /**
+     * Whether all the targets answered.
+     *
+     * @return true if no call failed nor was cancelled
+     */
+    public boolean isComplete() {
+      return failures.isEmpty() && cancelled.isEmpty();
+    }
+  }
+
+  /** The state of a search, updated as the responses are received. */
+  private final class Merge {
+    private final CountDownLatch done;
+    private final Comparator<Hit<K, T>> hitOrder =
+        (a, b) -> {
+          int c = order.compare(a.result, b.result);
+          if (c == 0) {
+            c = Integer.compare(a.targetIndex, b.targetIndex);
+          }
+          return c != 0 ? c : Integer.compare(a.rank, b.rank);
+        };
+    // The worst result kept is at the head, to be dropped when a better one is found.
+    private final PriorityQueue<Hit<K, T>> best = new PriorityQueue<>(hitOrder.reversed());
+    private final Map<K, ServiceCall<R>> pending = new LinkedHashMap<>();
+    private final Map<K, R> responses = new LinkedHashMap<>();
+    private final Map<K, Exception> failures = new LinkedHashMap<>();
+    private final Set<K> cancelled = new LinkedHashSet<>();
+    private boolean closed;
+
+    private Merge(int targets) {
+      this.done = new CountDownLatch(targets);
+    }
+
+    private void send(final K target, final int targetIndex, ServiceCall<R> call) {
+      synchronized (this) {
+        pending.put(target, call);
+      }
+      call.enqueue(
+          new ServiceCallback<R>() {
+            @Override
+            public void onResponse(Response<R> response) {
+              try {
+                receive(target, targetIndex, response.getResult());
+              } finally {
+                done.countDown();
+              }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+              try {
+                fail(target, e);
+              } finally {
+                done.countDown();
+              }
+            }
+          });
+    }
+
+    private synchronized void receive(K target, int targetIndex, R response) {
+      if (closed || pending.remove(target) == null) {
+        return;
+      }
+      List<? extends T> found;
+      try {
+        found = response != null ? results.apply(response) : null;
+      } catch (RuntimeException e) {
+        // A response the results cannot be read from fails its target, not the search.
+        failures.put(target, e);
+        return;
+      }
+      responses.put(target, response);
+      if (found == null) {
+        return;
+      }
+      for (int rank = 0; rank < found.size(); rank++) {
+        best.add(new Hit<>(target, found.get(rank), targetIndex, rank));
+        if (best.size() > maxResults) {
+          best.poll();
+        }
+      }
+    }
+
+    private synchronized void fail(K target, Exception e) {
+      if (!closed && pending.remove(target) != null) {
+        failures.put(target, e);
+      }
+    }
+
+    /** Stops merging and cancels the calls still awaited. */
+    private void close() {
+      List<ServiceCall<R>> laggards;
+      synchronized (this) {
+        closed = true;
+        cancelled.addAll(pending.keySet());
+        laggards = new ArrayList<>(pending.values());
+        pending.clear();
+      }
+      for (ServiceCall<R> call : laggards) {
+        call.cancel();
+      }
+    }
+
+    private synchronized Results<K, R, T> results() {
+      List<Hit<K, T>> hits = new ArrayList<>(best);
+      hits.sort(hitOrder);
+      return new Results<>(hits, responses, failures, cancelled);
+    }
+  }
+}
@@ -0,0 +1,465 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import com.ibm.cloud.sdk.core.http.Response;
+import com.ibm.cloud.sdk.core.http.ServiceCall;
+import com.ibm.cloud.sdk.core.http.ServiceCallback;
+import com.ibm.cloud.sdk.core.service.exception.ServiceResponseException;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Uploads files to a service, each in a call of its own, with a bounded number of uploads in
+ * flight. <br>
+ * Uploads that fail because the service is busy or unavailable (status 429 or 5xx) or because of a
+ * network error are sent again, after the delay asked by the service or an exponential backoff.
+ * When the service answers 429, the number of uploads in flight is halved and no upload is started
+ * until the delay has passed; it then grows back by one each time as many uploads as the limit
+ * succeed in a row.
+ *
+ * <p>The ID returned for each uploaded file can be appended to a checkpoint file, one line per
+ * file. Files found in the checkpoint file are skipped, so that an ingestion interrupted by a crash
+ * resumes where it left off when started again with the same checkpoint file. Files are identified
+ * by their absolute path.
+ *
+ * @param <R> the type of the results of the uploads
+ */
+public class FileIngestor<R> implements Closeable {
+
+  /** The default maximum number of uploads in flight. */
+  public static final int DEFAULT_MAX_CONCURRENT_UPLOADS = 8;
+
+  /** The default number of times a failed upload is sent again. */
+  public static final int DEFAULT_MAX_RETRIES = 8;
+
+  /** The number of latencies kept for the percentiles. */
+  public static final int LATENCY_SAMPLES = 4096;
+
+  /**
+   * Creates the call uploading a file.
+   *
+   * @param <R> the type of the result of the upload
+   */
+  public interface Upload<R> {
+
+    /**
+     * Creates the call uploading a file.
+     *
+     * @param file the file
+     * @param content the content of the file, closed when the call completes
+     * @return the call, not sent yet
+     * @throws IOException if the file cannot be read
+     */
+    ServiceCall<R> call(Path file, InputStream content) throws IOException;
+  }
+
+  private final Upload<R> upload;
+  private final Function<R, String> documentId;
+  private final int maxConcurrentUploads;
+  private final int maxRetries;
+  private final Map<String, String> checkpointed = new HashMap<>();
+  private final Writer checkpoint;
+  private final Map<Path, Exception> failures = new LinkedHashMap<>();
+  private final long[] latencies = new long[LATENCY_SAMPLES];
+  private int limit;
+  private int inFlight;
+  private int successesSinceIncrease;
+  private long pausedUntil;
+  private long lastDecrease;
+  private long startedAt;
+  private boolean started;
+  private long uploaded;
+  private long skipped;
+  private long failed;
+  private long retries;
+  private long throttled;
+  private long bytesUploaded;
+
+  /**
+   * Instantiates a new ingestor, reading the checkpoint file if it exists.
+   *
+   * @param upload creates the call uploading a file
+   * @param documentId gets the ID of an uploaded file from the result of its upload
+   * @param checkpointFile the checkpoint file, or null to not checkpoint the uploaded files
+   * @param maxConcurrentUploads the maximum number of uploads in flight
+   * @param maxRetries the number of times a failed upload is sent again
+   * @throws IOException if the checkpoint file cannot be read or opened
+   */
+  public FileIngestor(
+      Upload<R> upload,
+      Function<R, String> documentId,
+      Path checkpointFile,
+      int maxConcurrentUploads,
+      int maxRetries)
+      throws IOException {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(upload, "upload cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(documentId, "documentId cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(
+        maxConcurrentUploads > 0, "maxConcurrentUploads must be positive");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(maxRetries >= 0, "maxRetries cannot be negative");
+    this.upload = upload;
+    this.documentId = documentId;
+    this.maxConcurrentUploads = maxConcurrentUploads;
+    this.maxRetries = maxRetries;
+    this.limit = maxConcurrentUploads;
+    this.pausedUntil = System.nanoTime();
+    this.lastDecrease = pausedUntil;
+    this.checkpoint = checkpointFile != null ? openCheckpoint(checkpointFile) : null;
+  }
+
+  /**
+   * Uploads files, skipping those found in the checkpoint file, and waits until all have been
+   * uploaded or have failed. Files that failed are not checkpointed, and are found in {@link
+   * #getFailures()}.
+   *
+   * @param files the files, for example from {@link Files#walk(Path,
+   *     java.nio.file.FileVisitOption...)}, or from a stream of {@link java.io.File} mapped with
+   *     {@code File::toPath}
+   * @throws InterruptedException if interrupted while waiting; the uploads in flight still complete
+   */
+  public void ingest(Stream<Path> files) throws InterruptedException {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(files, "files cannot be null");
+    synchronized (this) {
+      if (!started) {
+        startedAt = System.nanoTime();
+        started = true;
+      }
+    }
+    Iterator<Path> iterator = files.iterator();
+    while (iterator.hasNext()) {
+      Path file = iterator.next();
+      String key = key(file);
+      synchronized (this) {
+        if (checkpointed.containsKey(key)) {
+          skipped++;
+          continue;
+        }
+        awaitSlot();
+        inFlight++;
+      }
+      send(file, key, 1);
+    }
+    synchronized (this) {
+      while (inFlight > 0) {
+        wait();
+      }
+    }
+  }
+
+  /**
+   * Gets the ID of a file uploaded by this ingestor or found in the checkpoint file.
+   *
+   * @param file the file
+   * @return the ID, or null if the file has not been uploaded
+   */
+  public synchronized String getDocumentId(Path file) {
+    return checkpointed.get(key(file));
+  }
+
+  /**
+   * Gets the files that could not be uploaded, with the failure of their last upload.
+   *
+   * @return the failures by file
+   */
+  public synchronized Map<Path, Exception> getFailures() {
+    return Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+  }
+
+  /**
+   * Gets the number of files uploaded.
+   *
+   * @return the number of files uploaded
+   */
+  public synchronized long uploaded() {
+    return uploaded;
+  }
+
+  /**
+   * Gets the number of files skipped because they were found in the checkpoint file.
+   *
+   * @return the number of files skipped
+   */
+  public synchronized long skipped() {
+    return skipped;
+  }
+
+  /**
+   * Gets the number of files that could not be uploaded.
+   *
+   * @return the number of files that failed
+   */
+  public synchronized long failed() {
+    return failed;
+  }
+
+  /**
+   * Gets the number of uploads sent again after a failure.
+   *
+   * @return the number of retries
+   */
+  public synchronized long retries() {
+    return retries;
+  }
+
+  /**
+   * Gets the number of uploads answered with status 429.
+   *
+   * @return the number of throttled uploads
+   */
+  public synchronized long throttled() {
+    return throttled;
+  }
+
+  /**
+   * Gets the number of bytes of the files uploaded.
+   *
+   * @return the number of bytes uploaded
+   */
+  public synchronized long bytesUploaded() {
+    return bytesUploaded;
+  }
+
+  /**
+   * Gets the number of uploads in flight, including those waiting to be sent again.
+   *
+   * @return the number of uploads in flight
+   */
+  public synchronized int inFlight() {
+    return inFlight;
+  }
+
+  /**
+   * Gets the current maximum number of uploads in flight, lowered when the service answers 429.
+   *
+   * @return the current maximum number of uploads in flight
+   */
+  public synchronized int concurrencyLimit() {
+    return limit;
+  }
+
+  /**
+   * Gets the number of files uploaded per second since the first ingestion started.
+   *
+   * @return the throughput, in files per second
+   */
+  public synchronized double documentsPerSecond() {
+    if (!started) {
+      return 0;
+    }
+    long elapsed = Math.max(1, System.nanoTime() - startedAt);
+    return uploaded * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+  }
+
+  /**
+   * Gets a percentile of the latencies of the last successful uploads, from sending to completion.
+   *
+   * @param percentile the percentile, between 0 and 100, such as 50 for the median or 99
+   * @return the latency, in milliseconds, under which the given percentage of the uploads
+   *     completed, or 0 if no upload has completed yet
+   */
+  public double latencyPercentile(double percentile) {
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(
+        percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100");
+    long[] samples;
+    synchronized (this) {
+      samples = Arrays.copyOf(latencies, (int) Math.min(uploaded, LATENCY_SAMPLES));
+    }
+    if (samples.length == 0) {
+      return 0;
+    }
+    Arrays.sort(samples);
+    int rank = (int) Math.ceil(percentile / 100 * samples.length) - 1;
+    return samples[Math.max(0, rank)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  /** Closes the checkpoint file. */
+  @Override
+  public synchronized void close() throws IOException {
+    if (checkpoint != null) {
+      checkpoint.close();
+    }
+  }
+
+  /** Reads the files of the checkpoint file, and opens it to append to it. */
+  private Writer openCheckpoint(Path checkpointFile) throws IOException {
+    boolean endsWithNewLine = true;
+    if (Files.exists(checkpointFile)) {
+      try (BufferedReader reader =
+          Files.newBufferedReader(checkpointFile, StandardCharsets.UTF_8)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          int tab = line.indexOf('\t');
+          if (tab > 0) {
+            checkpointed.put(line.substring(tab + 1), line.substring(0, tab));
+          }
+        }
+      }
+      try (FileChannel channel = FileChannel.open(checkpointFile, StandardOpenOption.READ)) {
+        ByteBuffer last = ByteBuffer.allocate(1);
+        if (channel.size() > 0 && channel.read(last, channel.size() - 1) == 1) {
+          endsWithNewLine = last.get(0) == '\n';
+        }
+      }
+    }
+    Writer writer =
+        Files.newBufferedWriter(
+            checkpointFile,
+            StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.APPEND);
+    if (!endsWithNewLine) {
+      // The last line was cut short by a crash: end it, it is ignored when read again.
+      writer.write('\n');
+    }
+    return writer;
+  }
+
+  /** Waits until an upload can be started. Called holding the lock. */
+  private void awaitSlot() throws InterruptedException {
+    while (true) {
+      long pause = pausedUntil - System.nanoTime();
+      if (pause > 0) {
+        TimeUnit.NANOSECONDS.timedWait(this, pause);
+      } else if (inFlight >= limit) {
+        wait();
+      } else {
+        return;
+      }
+    }
+  }
+
+  private void send(final Path file, final String key, final int attempt) {
+    final long sentAt = System.nanoTime();
+    final long size;
+    final InputStream content;
+    final ServiceCall<R> call;
+    try {
+      size = Files.size(file);
+      // Sent from the file by FileRequestBody, rather than read into memory.
+      content = FileRequestBody.stream(file);
+    } catch (IOException e) {
+      fail(file, e);
+      return;
+    }
+    try {
+      call = upload.call(file, content);
+    } catch (IOException | RuntimeException e) {
+      closeQuietly(content);
+      fail(file, e);
+      return;
+    }
+    call.enqueue(
+        new ServiceCallback<R>() {
+          @Override
+          public void onResponse(Response<R> response) {
+            closeQuietly(content);
+            try {
+              succeed(key, documentId.apply(response.getResult()), size, sentAt);
+            } catch (IOException | RuntimeException e) {
+              fail(file, e);
+            }
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            closeQuietly(content);
+            retryOrFail(file, key, attempt, sentAt, e);
+          }
+        });
+  }
+
+  private synchronized void succeed(String key, String id, long size, long sentAt)
+      throws IOException {
+    if (checkpoint != null) {
+      checkpoint.write(id + '\t' + key + '\n');
+      checkpoint.flush();
+    }
+    checkpointed.put(key, id);
+    latencies[(int) (uploaded++ % LATENCY_SAMPLES)] = System.nanoTime() - sentAt;
+    bytesUploaded += size;
+    if (++successesSinceIncrease >= limit && limit < maxConcurrentUploads) {
+      limit++;
+      successesSinceIncrease = 0;
+    }
+    inFlight--;
+    notifyAll();
+  }
+
+  private void retryOrFail(Path file, String key, int attempt, long sentAt, Exception failure) {
+    long delay = BatchProcessor.retryDelay(failure, attempt);
+    synchronized (this) {
+      if (failure instanceof ServiceResponseException
+          && ((ServiceResponseException) failure).getStatusCode() == 429) {
+        throttled++;
+        long now = System.nanoTime();
+        // Uploads sent before the last decrease were throttled at the previous limit.
+        if (sentAt - lastDecrease > 0) {
+          limit = Math.max(1, limit / 2);
+          successesSinceIncrease = 0;
+          lastDecrease = now;
+        }
+        if (delay > 0) {
+          long until = now + TimeUnit.MILLISECONDS.toNanos(delay);
+          if (until - pausedUntil > 0) {
+            pausedUntil = until;
+          }
+        }
+      }
+      if (delay < 0 || attempt > maxRetries) {
+        fail(file, failure);
+        return;
+      }
+      retries++;
+    }
+    BatchProcessor.Retries.SCHEDULER.schedule(
+        () -> send(file, key, attempt + 1), delay, TimeUnit.MILLISECONDS);
+  }
+
+  private synchronized void fail(Path file, Exception failure) {
+    failures.put(file, failure);
+    failed++;
+    inFlight--;
+    notifyAll();
+  }
+
+  private static String key(Path file) {
+    return file.toAbsolutePath().normalize().toString();
+  }
+
+  private static void closeQuietly(Closeable closeable) {
+    try {
+      closeable.close();
+    } catch (IOException ignored) {
+      // The content has been sent or the upload failed already.
+    }
+  }
+}
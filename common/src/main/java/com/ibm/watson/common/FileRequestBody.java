@@ -0,0 +1,181 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import com.ibm.cloud.sdk.core.http.HttpMediaType;
+import com.ibm.cloud.sdk.core.http.InputStreamRequestBody;
+import com.ibm.cloud.sdk.core.util.RequestUtils;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * A request body sending the content of a file, transferred from a {@link FileChannel} to the
+ * connection as it is written. <br>
+ * Unlike the body of {@link com.ibm.cloud.sdk.core.util.RequestUtils#inputStreamBody(InputStream,
+ * String)}, which copies the whole stream into memory first, the content is never held in memory,
+ * so that files of several gigabytes, such as audio or PDF documents, can be uploaded. The length
+ * of the content is known up front, and the file is opened each time the body is written, so
+ * requests using it can be retried.
+ *
+ * <p>The options of the upload operations take the content as an {@link InputStream}: to send it
+ * with this body, set the stream opened by {@link #stream(Path)}. Other streams are sent as before.
+ * The file must not be changed while the request is sent.
+ */
+public class FileRequestBody extends RequestBody {
+
+  private final MediaType contentType;
+  private final Path file;
+  private final long length;
+
+  /**
+   * Instantiates a new body sending a file.
+   *
+   * @param file the file
+   * @param contentType the content type of the body, or null
+   * @throws IOException if the size of the file cannot be read
+   */
+  public FileRequestBody(Path file, MediaType contentType) throws IOException {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(file, "file cannot be null");
+    this.contentType = contentType;
+    this.file = file;
+    this.length = Files.size(file);
+  }
+
+  /**
+   * Instantiates a new body sending a file.
+   *
+   * @param file the file
+   * @param contentType the content type of the body, or null
+   * @throws IOException if the size of the file cannot be read
+   */
+  public FileRequestBody(File file, MediaType contentType) throws IOException {
+    this(file != null ? file.toPath() : null, contentType);
+  }
+
+  /**
+   * Opens a stream of a file, to set as the content of an upload, such as the file of the options
+   * of {@code addDocument} or the audio of those of {@code recognize}. The request is sent with a
+   * {@link FileRequestBody} of the file rather than from the stream, which only needs to be closed
+   * by the caller like any other stream, even before the request is sent. Code reading the stream
+   * reads the file.
+   *
+   * @param file the file
+   * @return the stream
+   * @throws IOException if the file cannot be opened
+   */
+  public static InputStream stream(Path file) throws IOException {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(file, "file cannot be null");
+    return new FileStream(file);
+  }
+
+  /**
+   * Opens a stream of a file, to set as the content of an upload, as {@link #stream(Path)} does.
+   *
+   * @param file the file
+   * @return the stream
+   * @throws IOException if the file cannot be opened
+   */
+  public static InputStream stream(File file) throws IOException {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(file, "file cannot be null");
+    return stream(file.toPath());
+  }
+
+  /**
+   * Creates a body sending the content of a stream. A stream opened by {@link #stream(Path)} is
+   * sent with a {@link FileRequestBody} of its file; other streams are sent with the body of {@link
+   * com.ibm.cloud.sdk.core.util.RequestUtils#inputStreamBody(InputStream, String)}.
+   *
+   * @param stream the stream
+   * @param contentType the content type of the body, or null for a binary file
+   * @return the body
+   */
+  public static RequestBody inputStreamBody(InputStream stream, String contentType) {
+    if (stream instanceof FileStream) {
+      return ((FileStream) stream)
+          .body(contentType != null ? MediaType.parse(contentType) : HttpMediaType.BINARY_FILE);
+    }
+    return RequestUtils.inputStreamBody(stream, contentType);
+  }
+
+  /**
+   * Creates a body sending the content of a stream. A stream opened by {@link #stream(Path)} is
+   * sent with a {@link FileRequestBody} of its file; other streams are sent with the body of {@link
+   * InputStreamRequestBody#create}.
+   *
+   * @param contentType the content type of the body, or null
+   * @param stream the stream
+   * @return the body
+   */
+  public static RequestBody create(MediaType contentType, InputStream stream) {
+    if (stream instanceof FileStream) {
+      return ((FileStream) stream).body(contentType);
+    }
+    return InputStreamRequestBody.create(contentType, stream);
+  }
+
+  @Override
+  public MediaType contentType() {
+    return contentType;
+  }
+
+  @Override
+  public long contentLength() {
+    return length;
+  }
+
+  @Override
+  public void writeTo(BufferedSink sink) throws IOException {
+    try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ)) {
+      long written = 0;
+      while (written < length) {
+        long transferred = source.transferTo(written, length - written, sink);
+        if (transferred <= 0) {
+          throw new EOFException(
+              "The file is "
+                  + (length - written)
+                  + " bytes shorter than when the body was created");
+        }
+        written += transferred;
+      }
+    }
+  }
+
+  /** A stream of a file, sent with a body of the file rather than read. */
+  private static final class FileStream extends FilterInputStream {
+    private final Path file;
+
+    private FileStream(Path file) throws IOException {
+      super(Files.newInputStream(file));
+      this.file = file;
+    }
+
+    private RequestBody body(MediaType contentType) {
+      try {
+        return new FileRequestBody(file, contentType);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
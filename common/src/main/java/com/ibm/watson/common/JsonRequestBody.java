@@ -0,0 +1,178 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ByteString;
+
+/**
+ * A JSON object request body whose properties are serialized straight into the bytes of the body.
+ * <br>
+ * Properties are added as with a {@link com.google.gson.JsonObject}, but their values are kept as
+ * they are and only serialized, in the order they were added, when the request is sent. This avoids
+ * building a tree of the options and then serializing the tree again, which matters for large
+ * payloads such as dialog contexts or HTML documents. The bytes are serialized once, so that the
+ * request is sent with its Content-Length, and written again if the request is retried. The JSON is
+ * the same as that of the equivalent {@link com.google.gson.JsonObject}: in particular, characters
+ * such as {@code <}, {@code >} and {@code =} are not escaped.
+ */
+public class JsonRequestBody extends RequestBody {
+
+  private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+  private final Map<String, Object> properties = new LinkedHashMap<>();
+  private ByteString content;
+
+  /**
+   * Adds a property, replacing any property of the same name. Null values are not written.
+   *
+   * @param name the name of the property
+   * @param value the value of the property, serialized with the SDK's {@link Gson} instance
+   */
+  public synchronized void add(String name, Object value) {
+    properties.put(name, value);
+    content = null;
+  }
+
+  /**
+   * Adds a string property, replacing any property of the same name.
+   *
+   * @param name the name of the property
+   * @param value the value of the property
+   */
+  public void addProperty(String name, String value) {
+    add(name, value);
+  }
+
+  /**
+   * Adds a number property, replacing any property of the same name.
+   *
+   * @param name the name of the property
+   * @param value the value of the property
+   */
+  public void addProperty(String name, Number value) {
+    add(name, value);
+  }
+
+  /**
+   * Adds a boolean property, replacing any property of the same name.
+   *
+   * @param name the name of the property
+   * @param value the value of the property
+   */
+  public void addProperty(String name, Boolean value) {
+    add(name, value);
+  }
+
+  /**
+   * Adds a property whose value is already serialized, replacing any property of the same name.
+   *
+   * @param name the name of the property
+   * @param json the JSON of the value of the property, written as it is
+   */
+  public void addJson(String name, String json) {
+    add(name, json != null ? new RawJson(json) : null);
+  }
+
+  @Override
+  public MediaType contentType() {
+    return JSON;
+  }
+
+  @Override
+  public long contentLength() throws IOException {
+    return content().size();
+  }
+
+  @Override
+  public void writeTo(BufferedSink sink) throws IOException {
+    sink.write(content());
+  }
+
+  @Override
+  public String toString() {
+    try {
+      return content().utf8();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** Gets the bytes of the body, serializing the properties the first time. */
+  private synchronized ByteString content() throws IOException {
+    if (content == null) {
+      Buffer buffer = new Buffer();
+      write(buffer);
+      content = buffer.readByteString();
+    }
+    return content;
+  }
+
+  private void write(Buffer buffer) throws IOException {
+    Gson gson = GsonSingleton.getGsonWithoutPrettyPrinting();
+    Writer writer = new OutputStreamWriter(buffer.outputStream(), StandardCharsets.UTF_8);
+    JsonWriter jsonWriter = new JsonWriter(writer);
+    // As JsonObject.toString() writes, whatever the settings of the Gson instance.
+    jsonWriter.setHtmlSafe(false);
+    jsonWriter.setLenient(true);
+    jsonWriter.setSerializeNulls(gson.serializeNulls());
+    try {
+      jsonWriter.beginObject();
+      for (Map.Entry<String, Object> property : properties.entrySet()) {
+        Object value = property.getValue();
+        if (value != null) {
+          jsonWriter.name(property.getKey());
+          if (value instanceof RawJson) {
+            jsonWriter.jsonValue(((RawJson) value).json);
+          } else {
+            // Written with the adapter, since Gson.toJson would apply the HTML escaping of the
+            // Gson.
+            @SuppressWarnings("unchecked")
+            TypeAdapter<Object> adapter = (TypeAdapter<Object>) gson.getAdapter(value.getClass());
+            adapter.write(jsonWriter, value);
+          }
+        }
+      }
+      jsonWriter.endObject();
+    } catch (JsonIOException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw e;
+    }
+    jsonWriter.flush();
+  }
+
+  /** A value already serialized. */
+  private static final class RawJson {
+    private final String json;
+
+    private RawJson(String json) {
+      this.json = json;
+    }
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.ibm.cloud.sdk.core.http.ResponseConverter;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import okhttp3.ResponseBody;
+
+/**
+ * A list decoded from a JSON array one element at a time, when the element is first accessed. <br>
+ * Each element is kept as its JSON tree until then, so that elements never accessed are never
+ * decoded into their model class, which for polymorphic models means resolving their subclass and
+ * filling all its properties. Properties of an element can also be read from its JSON, with {@link
+ * #getString(int, String)}, for example to find the elements of a given type without decoding the
+ * others.
+ *
+ * @param <T> the type of the elements
+ */
+public class LazyJsonList<T> extends AbstractList<T> implements RandomAccess {
+
+  private final JsonArray json;
+  private final Type elementType;
+  private final Gson gson;
+  private final Object[] elements;
+
+  /**
+   * Instantiates a new list of the elements of a JSON array.
+   *
+   * @param json the JSON array
+   * @param elementType the type of the elements
+   * @param gson the Gson instance decoding the elements
+   */
+  public LazyJsonList(JsonArray json, Type elementType, Gson gson) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(json, "json cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(elementType, "elementType cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(gson, "gson cannot be null");
+    this.json = json;
+    this.elementType = elementType;
+    this.gson = gson;
+    this.elements = new Object[json.size()];
+  }
+
+  /**
+   * Gets a Gson type adapter factory decoding the lists of the given elements into lazy lists.
+   *
+   * @param elementType the class of the elements
+   * @return the factory, for the fields declared as {@code List} of the class
+   */
+  public static TypeAdapterFactory typeAdapterFactory(final Class<?> elementType) {
+    final TypeToken<?> listType = TypeToken.getParameterized(List.class, elementType);
+    return new TypeAdapterFactory() {
+      @Override
+      @SuppressWarnings("unchecked")
+      public <X> TypeAdapter<X> create(final Gson gson, TypeToken<X> type) {
+        if (!listType.equals(type)) {
+          return null;
+        }
+        final TypeAdapter<X> delegate = gson.getDelegateAdapter(this, type);
+        final TypeAdapter<JsonElement> jsonAdapter = gson.getAdapter(JsonElement.class);
+        return new TypeAdapter<X>() {
+          @Override
+          public void write(JsonWriter out, X value) throws IOException {
+            delegate.write(out, value);
+          }
+
+          @Override
+          public X read(JsonReader in) throws IOException {
+            JsonElement array = jsonAdapter.read(in);
+            if (array == null || !array.isJsonArray()) {
+              return null;
+            }
+            return (X) new LazyJsonList<>(array.getAsJsonArray(), elementType, gson);
+          }
+        };
+      }
+    };
+  }
+
+  /**
+   * Gets a converter of responses in which the lists of the given elements are lazy lists.
+   *
+   * @param <T> the type of the response
+   * @param type the type of the response
+   * @param elementType the class of the elements of the lazy lists
+   * @return the converter
+   */
+  public static <T> ResponseConverter<T> converter(final Type type, Class<?> elementType) {
+    final Gson gson =
+        GsonSingleton.getGsonWithoutPrettyPrinting()
+            .newBuilder()
+            .registerTypeAdapterFactory(typeAdapterFactory(elementType))
+            .create();
+    return response -> {
+      try (ResponseBody body = response.body()) {
+        return gson.fromJson(body.charStream(), type);
+      }
+    };
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public synchronized T get(int index) {
+    Object element = elements[index];
+    if (element == null) {
+      element = gson.fromJson(json.get(index), elementType);
+      elements[index] = element;
+    }
+    return (T) element;
+  }
+
+  @Override
+  public synchronized T set(int index, T element) {
+    T previous = get(index);
+    elements[index] = element;
+    json.set(index, gson.toJsonTree(element, elementType));
+    return previous;
+  }
+
+  @Override
+  public int size() {
+    return elements.length;
+  }
+
+  /**
+   * Gets the JSON of an element.
+   *
+   * @param index the index of the element
+   * @return the JSON of the element, as received
+   */
+  public synchronized JsonElement getJson(int index) {
+    return json.get(index);
+  }
+
+  /**
+   * Gets a string property of an element from its JSON, without decoding the element.
+   *
+   * @param index the index of the element
+   * @param property the name of the property, such as {@code response_type}
+   * @return the value of the property, or null if the element has no such string property
+   */
+  public synchronized String getString(int index, String property) {
+    JsonElement element = json.get(index);
+    if (!element.isJsonObject()) {
+      return null;
+    }
+    JsonElement value = ((JsonObject) element).get(property);
+    return value != null && value.isJsonPrimitive() ? value.getAsString() : null;
+  }
+
+  /**
+   * Checks whether an element has been decoded.
+   *
+   * @param index the index of the element
+   * @return true if the element has been decoded
+   */
+  synchronized boolean isDecoded(int index) {
+    return elements[index] != null;
+  }
+}
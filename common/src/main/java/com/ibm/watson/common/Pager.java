@@ -0,0 +1,342 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import com.ibm.cloud.sdk.core.http.Response;
+import com.ibm.cloud.sdk.core.http.ServiceCall;
+import com.ibm.cloud.sdk.core.http.ServiceCallback;
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The items of all pages of a list operation, fetched as they are iterated. <br>
+ * While the items of a page are consumed, the following pages are already being fetched, so that
+ * iterating over many pages is limited by the bandwidth rather than by the latency of each request.
+ * The number of pages fetched ahead of the one being consumed is the prefetch depth: pages paged by
+ * cursor are fetched one after the other, since the cursor of a page is only known once the page
+ * before it has arrived; pages paged by offset are fetched concurrently.
+ *
+ * <p>Pages fetched ahead are held in memory, at most the prefetch depth of them. Close the pager to
+ * cancel the requests in flight if not all items are consumed, for example with a
+ * try-with-resources statement.
+ *
+ * @param <T> the type of the items
+ */
+public abstract class Pager<T> implements Iterator<T>, Closeable {
+
+  /** The default number of pages fetched ahead of the one being consumed. */
+  public static final int DEFAULT_PREFETCH = 1;
+
+  private final int prefetch;
+  private final Deque<PendingPage<T>> pages = new ArrayDeque<>();
+  private Iterator<T> current = Collections.emptyIterator();
+  private boolean finished;
+  private boolean closed;
+
+  private Pager(int prefetch) {
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(prefetch > 0, "prefetch must be positive");
+    this.prefetch = prefetch;
+  }
+
+  /**
+   * Creates a pager over pages that link to the next one by a cursor.
+   *
+   * @param <P> the type of the pages
+   * @param <T> the type of the items
+   * @param fetch fetches the page at a cursor, or the first page for a null cursor
+   * @param items gets the items of a page
+   * @param nextCursor gets the cursor of the page after a page, or null for the last page
+   * @param prefetch the number of pages fetched ahead of the one being consumed
+   * @return the pager
+   */
+  public static <P, T> Pager<T> byCursor(
+      Function<String, ServiceCall<P>> fetch,
+      Function<P, List<T>> items,
+      Function<P, String> nextCursor,
+      int prefetch) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(fetch, "fetch cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(items, "items cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(nextCursor, "nextCursor cannot be null");
+    return new CursorPager<>(fetch, items, nextCursor, prefetch);
+  }
+
+  /**
+   * Creates a pager over pages at successive offsets. The last page is the first one with fewer
+   * items than the page size.
+   *
+   * @param <P> the type of the pages
+   * @param <T> the type of the items
+   * @param fetch fetches the page of the page size at an offset
+   * @param items gets the items of a page
+   * @param offset the offset of the first page
+   * @param pageSize the number of items per page
+   * @param prefetch the number of pages fetched ahead of the one being consumed
+   * @return the pager
+   */
+  public static <P, T> Pager<T> byOffset(
+      LongFunction<ServiceCall<P>> fetch,
+      Function<P, List<T>> items,
+      long offset,
+      long pageSize,
+      int prefetch) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(fetch, "fetch cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(items, "items cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(offset >= 0, "offset cannot be negative");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(pageSize > 0, "pageSize must be positive");
+    return new OffsetPager<>(fetch, items, offset, pageSize, prefetch);
+  }
+
+  /**
+   * Checks whether another page can be requested. Called holding the lock.
+   *
+   * @return true if another page can be requested
+   */
+  abstract boolean canRequest();
+
+  /**
+   * Requests the next page. Called holding the lock.
+   *
+   * @return the page
+   */
+  abstract PendingPage<T> request();
+
+  /** Requests pages until the prefetch depth is reached. Called holding the lock. */
+  final void fill() {
+    while (!closed && pages.size() < prefetch && canRequest()) {
+      pages.add(request());
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!current.hasNext()) {
+      PendingPage<T> page;
+      synchronized (this) {
+        if (finished || closed) {
+          return false;
+        }
+        fill();
+        page = pages.poll();
+        fill();
+        if (page == null) {
+          finished = true;
+          return false;
+        }
+      }
+      Page<T> result = await(page);
+      if (result.last) {
+        synchronized (this) {
+          finished = true;
+        }
+        close();
+      }
+      current = result.items.iterator();
+    }
+    return true;
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return current.next();
+  }
+
+  /**
+   * Gets the remaining items as a sequential {@link Stream}. Closing the stream closes the pager.
+   *
+   * @return the stream
+   */
+  public Stream<T> stream() {
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+        .onClose(this::close);
+  }
+
+  /** Cancels the requests in flight. The items of the current page can still be consumed. */
+  @Override
+  public synchronized void close() {
+    closed = true;
+    for (PendingPage<T> page : pages) {
+      page.call.cancel();
+    }
+    pages.clear();
+  }
+
+  private Page<T> await(PendingPage<T> page) {
+    try {
+      return page.page.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      close();
+      throw new IllegalStateException("Interrupted while waiting for a page", e);
+    } catch (ExecutionException e) {
+      close();
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException("A page could not be fetched", e.getCause());
+    }
+  }
+
+  /** The items of a page. */
+  static final class Page<T> {
+    private final List<T> items;
+    private final boolean last;
+
+    Page(List<T> items, boolean last) {
+      this.items = items != null ? items : Collections.<T>emptyList();
+      this.last = last;
+    }
+  }
+
+  /**
+   * A page being fetched.
+   *
+   * @param <T> the type of the items
+   */
+  static final class PendingPage<T> {
+    private final ServiceCall<?> call;
+    private final CompletableFuture<Page<T>> page = new CompletableFuture<>();
+
+    <P> PendingPage(ServiceCall<P> call, final Function<P, Page<T>> toPage) {
+      this.call = call;
+      call.enqueue(
+          new ServiceCallback<P>() {
+            @Override
+            public void onResponse(Response<P> response) {
+              try {
+                page.complete(toPage.apply(response.getResult()));
+              } catch (RuntimeException e) {
+                page.completeExceptionally(e);
+              }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+              page.completeExceptionally(e);
+            }
+          });
+    }
+  }
+
+  /** Pages linked by a cursor, fetched one after the other. */
+  private static final class CursorPager<P, T> extends Pager<T> {
+    private final Function<String, ServiceCall<P>> fetch;
+    private final Function<P, List<T>> items;
+    private final Function<P, String> nextCursor;
+    private String cursor;
+    private boolean started;
+    private boolean inFlight;
+    private boolean exhausted;
+
+    private CursorPager(
+        Function<String, ServiceCall<P>> fetch,
+        Function<P, List<T>> items,
+        Function<P, String> nextCursor,
+        int prefetch) {
+      super(prefetch);
+      this.fetch = fetch;
+      this.items = items;
+      this.nextCursor = nextCursor;
+    }
+
+    @Override
+    boolean canRequest() {
+      return !inFlight && !exhausted;
+    }
+
+    @Override
+    PendingPage<T> request() {
+      inFlight = true;
+      ServiceCall<P> call = fetch.apply(started ? cursor : null);
+      started = true;
+      return new PendingPage<>(call, this::toPage);
+    }
+
+    private Page<T> toPage(P page) {
+      String next = nextCursor.apply(page);
+      Page<T> result = new Page<>(items.apply(page), next == null);
+      onPage(next);
+      return result;
+    }
+
+    private synchronized void onPage(String next) {
+      inFlight = false;
+      cursor = next;
+      exhausted = next == null;
+      fill();
+    }
+  }
+
+  /** Pages at successive offsets, fetched concurrently. */
+  private static final class OffsetPager<P, T> extends Pager<T> {
+    private final LongFunction<ServiceCall<P>> fetch;
+    private final Function<P, List<T>> items;
+    private final long pageSize;
+    private long offset;
+    private boolean exhausted;
+
+    private OffsetPager(
+        LongFunction<ServiceCall<P>> fetch,
+        Function<P, List<T>> items,
+        long offset,
+        long pageSize,
+        int prefetch) {
+      super(prefetch);
+      this.fetch = fetch;
+      this.items = items;
+      this.offset = offset;
+      this.pageSize = pageSize;
+    }
+
+    @Override
+    boolean canRequest() {
+      return !exhausted;
+    }
+
+    @Override
+    PendingPage<T> request() {
+      ServiceCall<P> call = fetch.apply(offset);
+      offset += pageSize;
+      return new PendingPage<>(call, this::toPage);
+    }
+
+    private Page<T> toPage(P page) {
+      List<T> pageItems = items.apply(page);
+      boolean last = pageItems == null || pageItems.size() < pageSize;
+      if (last) {
+        onLastPage();
+      }
+      return new Page<>(pageItems, last);
+    }
+
+    private synchronized void onLastPage() {
+      exhausted = true;
+    }
+  }
+}
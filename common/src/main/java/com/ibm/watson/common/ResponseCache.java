@@ -0,0 +1,448 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import com.ibm.cloud.sdk.core.http.Response;
+import com.ibm.cloud.sdk.core.http.ServiceCall;
+import com.ibm.cloud.sdk.core.http.ServiceCallback;
+import io.reactivex.Single;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * A cache of the responses of service calls, by a key identifying the request. <br>
+ * A response is kept for a given time after it is received, and the cache keeps at most a given
+ * number of responses, forgetting those least recently used. Calls with the same key made while the
+ * response is awaited share the same request. Failed requests are not cached.
+ *
+ * <p>The cached results are shared by all callers and must not be modified. Entries can be
+ * invalidated explicitly, or when a call changing the data they were read from completes, with
+ * {@link #invalidating(ServiceCall, Predicate)}.
+ *
+ * @param <K> the type of the keys, with value-based equals and hashCode
+ * @param <T> the type of the results
+ */
+public class ResponseCache<K, T> {
+
+  /** The default maximum number of responses kept. */
+  public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+  /** The default time in seconds a response is kept. */
+  public static final long DEFAULT_TTL_SECONDS = 60;
+
+  private final long ttlNanos;
+  private final LongSupplier clock;
+  private final Map<K, Entry> entries;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /** Instantiates a new cache with the default size and time to live. */
+  public ResponseCache() {
+    this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_SECONDS, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Instantiates a new cache.
+   *
+   * @param maxEntries the maximum number of responses kept
+   * @param ttl the time a response is kept after it is received
+   * @param unit the unit of the time to live
+   */
+  public ResponseCache(int maxEntries, long ttl, TimeUnit unit) {
+    this(maxEntries, ttl, unit, System::nanoTime);
+  }
+
+  ResponseCache(final int maxEntries, long ttl, TimeUnit unit, LongSupplier clock) {
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(maxEntries > 0, "maxEntries must be positive");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(ttl > 0, "ttl must be positive");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(unit, "unit cannot be null");
+    this.ttlNanos = unit.toNanos(ttl);
+    this.clock = clock;
+    this.entries =
+        new LinkedHashMap<K, Entry>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<K, Entry> eldest) {
+            if (size() > maxEntries) {
+              evictions++;
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /**
+   * Gets a call returning the cached response of a request, and sending the request when there is
+   * none. The request is sent when the returned call is executed or enqueued, if the response is
+   * not cached or awaited by then. Headers added to the returned call are only sent with the
+   * request of that call.
+   *
+   * @param key the key identifying the request
+   * @param call the call sending the request
+   * @return the call returning the cached response
+   */
+  public ServiceCall<T> call(K key, ServiceCall<T> call) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(key, "key cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(call, "call cannot be null");
+    return new CachedCall(key, call);
+  }
+
+  /**
+   * Gets a call invalidating cached responses when it completes, successfully or not, for example a
+   * call changing the data the responses were read from. Responses awaited at that time are not
+   * cached.
+   *
+   * @param <R> the type of the result of the call
+   * @param call the call
+   * @param keys selects the keys of the responses to invalidate
+   * @return the call invalidating the responses
+   */
+  public <R> ServiceCall<R> invalidating(ServiceCall<R> call, Predicate<? super K> keys) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(call, "call cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(keys, "keys cannot be null");
+    return new InvalidatingCall<>(call, keys);
+  }
+
+  /**
+   * Invalidates cached responses. Responses awaited are not cached.
+   *
+   * @param keys selects the keys of the responses to invalidate
+   */
+  public void invalidate(Predicate<? super K> keys) {
+    synchronized (entries) {
+      Iterator<K> iterator = entries.keySet().iterator();
+      while (iterator.hasNext()) {
+        if (keys.test(iterator.next())) {
+          iterator.remove();
+        }
+      }
+    }
+  }
+
+  /** Invalidates all cached responses. Responses awaited are not cached. */
+  public void invalidateAll() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  /**
+   * Gets the number of responses cached or awaited.
+   *
+   * @return the number of responses
+   */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Gets the number of calls answered from the cache, including those sharing an awaited request.
+   *
+   * @return the number of hits
+   */
+  public long hits() {
+    synchronized (entries) {
+      return hits;
+    }
+  }
+
+  /**
+   * Gets the number of calls that sent a request.
+   *
+   * @return the number of misses
+   */
+  public long misses() {
+    synchronized (entries) {
+      return misses;
+    }
+  }
+
+  /**
+   * Gets the number of responses forgotten to keep the size of the cache, not counting those
+   * expired or invalidated.
+   *
+   * @return the number of evictions
+   */
+  public long evictions() {
+    synchronized (entries) {
+      return evictions;
+    }
+  }
+
+  /** Gets the response of a request, sending it if it is neither cached nor awaited. */
+  private CompletableFuture<Response<T>> get(final K key, ServiceCall<T> call) {
+    final Entry entry;
+    synchronized (entries) {
+      Entry cached = entries.get(key);
+      if (cached != null && (!cached.received || clock.getAsLong() - cached.expiresAt < 0)) {
+        hits++;
+        return cached.response;
+      }
+      misses++;
+      entry = new Entry();
+      entries.put(key, entry);
+    }
+    call.enqueue(
+        new ServiceCallback<T>() {
+          @Override
+          public void onResponse(Response<T> response) {
+            synchronized (entries) {
+              if (entries.get(key) == entry) {
+                entry.expiresAt = clock.getAsLong() + ttlNanos;
+                entry.received = true;
+              }
+            }
+            entry.response.complete(response);
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            synchronized (entries) {
+              if (entries.get(key) == entry) {
+                entries.remove(key);
+              }
+            }
+            entry.response.completeExceptionally(e);
+          }
+        });
+    return entry.response;
+  }
+
+  /**
+   * A key identifying a request by the service it is sent to as well as by the options of the call,
+   * so that a cache shared by clients of different service instances or API versions does not
+   * answer the requests of one with the responses of another.
+   *
+   * @param <O> the type of the options, with value-based equals and hashCode
+   */
+  public static final class RequestKey<O> {
+    private final String serviceUrl;
+    private final String version;
+    private final O options;
+
+    /**
+     * Instantiates a new key.
+     *
+     * @param serviceUrl the URL of the service
+     * @param version the version of the API, or null
+     * @param options the options of the call
+     */
+    public RequestKey(String serviceUrl, String version, O options) {
+      com.ibm.cloud.sdk.core.util.Validator.notNull(options, "options cannot be null");
+      this.serviceUrl = serviceUrl;
+      this.version = version;
+      this.options = options;
+    }
+
+    /**
+     * Gets the URL of the service.
+     *
+     * @return the URL of the service
+     */
+    public String getServiceUrl() {
+      return serviceUrl;
+    }
+
+    /**
+     * Gets the version of the API.
+     *
+     * @return the version, or null
+     */
+    public String getVersion() {
+      return version;
+    }
+
+    /**
+     * Gets the options of the call.
+     *
+     * @return the options
+     */
+    public O getOptions() {
+      return options;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof RequestKey)) {
+        return false;
+      }
+      RequestKey<?> other = (RequestKey<?>) o;
+      return Objects.equals(serviceUrl, other.serviceUrl)
+          && Objects.equals(version, other.version)
+          && options.equals(other.options);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(serviceUrl, version, options);
+    }
+  }
+
+  private static Throwable cause(Throwable failure) {
+    return failure instanceof CompletionException && failure.getCause() != null
+        ? failure.getCause()
+        : failure;
+  }
+
+  /** A response, cached or awaited. */
+  private final class Entry {
+    private final CompletableFuture<Response<T>> response = new CompletableFuture<>();
+    private boolean received;
+    private long expiresAt;
+  }
+
+  /** A call returning the cached response of a request. */
+  private final class CachedCall implements ServiceCall<T> {
+    private final K key;
+    private final ServiceCall<T> call;
+    private CompletableFuture<Response<T>> response;
+
+    private CachedCall(K key, ServiceCall<T> call) {
+      this.key = key;
+      this.call = call;
+    }
+
+    /** Gets the response, as a future of this call only, so that it can be cancelled. */
+    private synchronized CompletableFuture<Response<T>> response() {
+      if (response == null) {
+        response = get(key, call).thenApply(r -> r);
+      }
+      return response;
+    }
+
+    @Override
+    public ServiceCall<T> addHeader(String name, String value) {
+      call.addHeader(name, value);
+      return this;
+    }
+
+    @Override
+    public Response<T> execute() throws RuntimeException {
+      try {
+        return response().get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException(e);
+      } catch (ExecutionException e) {
+        throw e.getCause() instanceof RuntimeException
+            ? (RuntimeException) e.getCause()
+            : new RuntimeException(e.getCause());
+      }
+    }
+
+    @Override
+    public void enqueue(final ServiceCallback<T> callback) {
+      response()
+          .whenComplete(
+              (r, e) -> {
+                Throwable failure = e != null ? cause(e) : null;
+                if (failure instanceof Exception) {
+                  callback.onFailure((Exception) failure);
+                } else if (failure != null) {
+                  callback.onFailure(new RuntimeException(failure));
+                } else {
+                  callback.onResponse(r);
+                }
+              });
+    }
+
+    @Override
+    public Single<Response<T>> reactiveRequest() {
+      return Single.create(
+          emitter ->
+              response()
+                  .whenComplete(
+                      (r, e) -> {
+                        if (e != null) {
+                          emitter.onError(cause(e));
+                        } else {
+                          emitter.onSuccess(r);
+                        }
+                      }));
+    }
+
+    /** Stops waiting for the response. The request is still sent for the other callers. */
+    @Override
+    public void cancel() {
+      response().cancel(false);
+    }
+  }
+
+  /** A call invalidating cached responses when it completes. */
+  private final class InvalidatingCall<R> implements ServiceCall<R> {
+    private final ServiceCall<R> call;
+    private final Predicate<? super K> keys;
+
+    private InvalidatingCall(ServiceCall<R> call, Predicate<? super K> keys) {
+      this.call = call;
+      this.keys = keys;
+    }
+
+    @Override
+    public ServiceCall<R> addHeader(String name, String value) {
+      call.addHeader(name, value);
+      return this;
+    }
+
+    @Override
+    public Response<R> execute() throws RuntimeException {
+      try {
+        return call.execute();
+      } finally {
+        invalidate(keys);
+      }
+    }
+
+    @Override
+    public void enqueue(final ServiceCallback<R> callback) {
+      call.enqueue(
+          new ServiceCallback<R>() {
+            @Override
+            public void onResponse(Response<R> response) {
+              invalidate(keys);
+              callback.onResponse(response);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+              invalidate(keys);
+              callback.onFailure(e);
+            }
+          });
+    }
+
+    @Override
+    public Single<Response<R>> reactiveRequest() {
+      return call.reactiveRequest().doOnEvent((r, e) -> invalidate(keys));
+    }
+
+    @Override
+    public void cancel() {
+      call.cancel();
+    }
+  }
+}
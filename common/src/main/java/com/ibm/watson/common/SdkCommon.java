@@ -15,9 +15,12 @@ package com.ibm.watson.common;
 import com.ibm.cloud.sdk.core.http.HttpHeaders;
 import com.ibm.cloud.sdk.core.util.RequestUtils;
 import java.io.InputStream;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -25,6 +28,10 @@ import java.util.logging.Logger;
 public class SdkCommon {
   private static final Logger LOG = Logger.getLogger(SdkCommon.class.getName());
   private static String userAgent;
+  // By service name, service version and operation id, so that a call allocates no key.
+  private static final ConcurrentMap<
+          String, ConcurrentMap<String, ConcurrentMap<String, Map<String, String>>>>
+      SDK_HEADERS = new ConcurrentHashMap<>();
 
   private SdkCommon() {}
 
@@ -50,24 +57,49 @@ public class SdkCommon {
   }
 
   /**
-   * Gets the sdk headers.
+   * Gets the sdk headers. The headers of each operation are computed once and shared by all calls.
    *
    * @param serviceName the service name
    * @param serviceVersion the service version
    * @param operationId the operation id
-   * @return the sdk headers
+   * @return the sdk headers, which cannot be modified
    */
   public static Map<String, String> getSdkHeaders(
       String serviceName, String serviceVersion, String operationId) {
-    Map<String, String> headers = new HashMap<>();
-
-    String sdkAnalyticsHeaderValue =
-        String.format(
-            "service_name=%s;service_version=%s;operation_id=%s",
-            serviceName, serviceVersion, operationId);
-
-    headers.put(WatsonHttpHeaders.X_IBMCLOUD_SDK_ANALYTICS, sdkAnalyticsHeaderValue);
-    headers.put(HttpHeaders.USER_AGENT, getUserAgent());
+    ConcurrentMap<String, Map<String, String>> operations =
+        submap(submap(SDK_HEADERS, serviceName), serviceVersion);
+    Map<String, String> headers = operations.get(operationId);
+    if (headers == null) {
+      String sdkAnalyticsHeaderValue =
+          "service_name="
+              + serviceName
+              + ";service_version="
+              + serviceVersion
+              + ";operation_id="
+              + operationId;
+      Map<String, String> newHeaders = new HashMap<>();
+      newHeaders.put(WatsonHttpHeaders.X_IBMCLOUD_SDK_ANALYTICS, sdkAnalyticsHeaderValue);
+      newHeaders.put(HttpHeaders.USER_AGENT, getUserAgent());
+      headers = Collections.unmodifiableMap(newHeaders);
+      Map<String, String> existing = operations.putIfAbsent(operationId, headers);
+      if (existing != null) {
+        headers = existing;
+      }
+    }
     return headers;
   }
+
+  /** Gets the map of a key, adding it if needed without allocating when it is there. */
+  private static <V> ConcurrentMap<String, V> submap(
+      ConcurrentMap<String, ConcurrentMap<String, V>> maps, String key) {
+    ConcurrentMap<String, V> map = maps.get(key);
+    if (map == null) {
+      map = new ConcurrentHashMap<>();
+      ConcurrentMap<String, V> existing = maps.putIfAbsent(key, map);
+      if (existing != null) {
+        map = existing;
+      }
+    }
+    return map;
+  }
 }
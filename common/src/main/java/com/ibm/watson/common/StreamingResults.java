@@ -0,0 +1,180 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.ibm.cloud.sdk.core.http.ResponseConverter;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import okhttp3.ResponseBody;
+
+/**
+ * The elements of an array in a JSON response, decoded one at a time as they are read from the
+ * response body. <br>
+ * Of the array, only the element being decoded is held in memory, so results can be processed
+ * before the whole response has arrived, and in constant memory however many there are. The other
+ * properties of the response, such as counts and pagination, are kept and available from {@link
+ * #getField(String)}: those before the array once iteration has started, and those after it once
+ * iteration has ended.
+ *
+ * <p>The response stays open until all elements have been read. Close the results to release the
+ * connection early, for example with a try-with-resources statement.
+ *
+ * @param <T> the type of the elements
+ */
+public class StreamingResults<T> implements Iterator<T>, Closeable {
+
+  private final ResponseBody body;
+  private final JsonReader reader;
+  private final String arrayName;
+  private final Type elementType;
+  private final Gson gson = GsonSingleton.getGsonWithoutPrettyPrinting();
+  private final JsonObject fields = new JsonObject();
+  private boolean started;
+  private boolean ended;
+
+  /**
+   * Instantiates new results reading the given response body.
+   *
+   * @param body the body of the response, a JSON object
+   * @param arrayName the name of the property holding the array of elements
+   * @param elementType the type of the elements
+   */
+  public StreamingResults(ResponseBody body, String arrayName, Type elementType) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(body, "body cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(arrayName, "arrayName cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(elementType, "elementType cannot be null");
+    this.body = body;
+    this.reader = new JsonReader(body.charStream());
+    this.arrayName = arrayName;
+    this.elementType = elementType;
+  }
+
+  /**
+   * Gets a converter of responses into streaming results.
+   *
+   * @param <T> the type of the elements
+   * @param arrayName the name of the property holding the array of elements
+   * @param elementType the type of the elements
+   * @return the converter
+   */
+  public static <T> ResponseConverter<StreamingResults<T>> converter(
+      final String arrayName, final Type elementType) {
+    return response -> new StreamingResults<>(response.body(), arrayName, elementType);
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (ended) {
+      return false;
+    }
+    try {
+      if (!started) {
+        started = true;
+        reader.beginObject();
+        if (!readFields(true)) {
+          close();
+          return false;
+        }
+        reader.beginArray();
+      }
+      if (reader.hasNext()) {
+        return true;
+      }
+      reader.endArray();
+      readFields(false);
+      close();
+      return false;
+    } catch (IOException e) {
+      close();
+      throw new UncheckedIOException(e);
+    } catch (RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    try {
+      return gson.fromJson(reader, elementType);
+    } catch (RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+
+  /**
+   * Gets a property of the response other than the array of elements.
+   *
+   * @param name the name of the property
+   * @return the value of the property, or null if it has not been read (yet)
+   */
+  public JsonElement getField(String name) {
+    return fields.get(name);
+  }
+
+  /**
+   * Gets the remaining elements as a sequential {@link Stream}. Closing the stream closes the
+   * results.
+   *
+   * @return the stream
+   */
+  public Stream<T> stream() {
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL),
+            false)
+        .onClose(this::close);
+  }
+
+  /** Closes the response, discarding the elements not read yet. */
+  @Override
+  public void close() {
+    ended = true;
+    body.close();
+  }
+
+  /**
+   * Reads the properties of the response object into the fields.
+   *
+   * @param untilArray whether to stop at the array of elements
+   * @return true if stopped at the array of elements
+   */
+  private boolean readFields(boolean untilArray) throws IOException {
+    while (reader.hasNext()) {
+      String name = reader.nextName();
+      if (untilArray && name.equals(arrayName) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+        return true;
+      }
+      fields.add(name, gson.fromJson(reader, JsonElement.class));
+    }
+    reader.endObject();
+    return false;
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A cache of canonical instances of strings, so that equal strings decoded from many responses are
+ * held in memory once. <br>
+ * Unlike with {@link String#intern()}, strings no longer referenced elsewhere are reclaimed by the
+ * garbage collector, so the cache does not need a bound.
+ */
+public class StringInterner {
+
+  private final Map<String, WeakReference<String>> strings = new WeakHashMap<>();
+
+  /**
+   * Gets the canonical instance of a string.
+   *
+   * @param string the string, or null
+   * @return the instance of the cache equal to the string, which becomes it if there was none
+   */
+  public synchronized String intern(String string) {
+    if (string == null) {
+      return null;
+    }
+    WeakReference<String> reference = strings.get(string);
+    String canonical = reference != null ? reference.get() : null;
+    if (canonical == null) {
+      strings.put(string, new WeakReference<>(string));
+      canonical = string;
+    }
+    return canonical;
+  }
+
+  /**
+   * Gets the number of strings in the cache.
+   *
+   * @return the number of strings in the cache
+   */
+  public synchronized int size() {
+    return strings.size();
+  }
+}
@@ -0,0 +1,465 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okio.ByteString;
+
+/**
+ * A pool of pre-opened {@link WebSocket} connections, keyed by URL and credentials. <br>
+ * Connections are opened ahead of time with {@link #prewarm}, so that the handshake and
+ * authentication are off the critical path when a request needs one. Each connection is handed out
+ * once: {@link #connect} attaches the caller's listener to an idle connection opened for the same
+ * URL with the same {@code Authorization} header, replaying {@link WebSocketListener#onOpen} if the
+ * connection is already open. The pool can therefore be shared by clients with different
+ * credentials.
+ *
+ * <p>The pool keeps the prewarmed number of connections ready: a connection handed out, closed or
+ * failed is replaced in the background, and connections are rotated before they have been idle for
+ * the idle timeout, since the services end sessions that do not receive any data for a while. The
+ * request of each replacement is built again, so that it carries refreshed credentials, such as a
+ * new IAM access token; connections opened with the previous credentials are then closed. Failed
+ * connections are replaced after a delay that grows with the number of consecutive failures.
+ */
+public class WebSocketPool implements Closeable {
+  private static final Logger LOG = Logger.getLogger(WebSocketPool.class.getName());
+
+  /** The default time after which idle connections are closed, in milliseconds. */
+  public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 20000;
+
+  private static final int CLOSE_NORMAL = 1000;
+  private static final long INITIAL_RETRY_DELAY_MILLIS = 100;
+
+  private final long idleTimeoutMillis;
+  private final Map<String, Target> targets = new HashMap<>();
+  private final ScheduledExecutorService maintainer;
+  private boolean closed;
+
+  /** Instantiates a new pool closing connections idle for the default idle timeout. */
+  public WebSocketPool() {
+    this(DEFAULT_IDLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Instantiates a new pool.
+   *
+   * @param idleTimeout the time after which idle connections are closed
+   * @param unit the unit of the idle timeout
+   */
+  public WebSocketPool(long idleTimeout, TimeUnit unit) {
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(idleTimeout > 0, "idleTimeout must be positive");
+    this.idleTimeoutMillis = unit.toMillis(idleTimeout);
+    this.maintainer =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "WebSocketPoolMaintainer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long period = Math.max(1, idleTimeoutMillis / 4);
+    maintainer.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Opens connections until the given number of them are idle in the pool, and keeps that number of
+   * connections ready from then on. The requests are built again for each connection opened, so
+   * that they carry the current credentials.
+   *
+   * @param client the client to open the connections with
+   * @param requests builds the request of a connection, including authentication
+   * @param count the number of idle connections to keep for the request's URL and credentials
+   */
+  public void prewarm(OkHttpClient client, Supplier<Request> requests, int count) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(client, "client cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(requests, "requests cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(count >= 0, "count must not be negative");
+    Request request = requests.get();
+    String key = key(request);
+    Target target;
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("The pool has been closed");
+      }
+      target = targets.get(key);
+      if (target == null) {
+        target = new Target(key, request.url().toString());
+        targets.put(key, target);
+      }
+      target.client = client;
+      target.requests = requests;
+      target.count = count;
+    }
+    refill(target, request);
+  }
+
+  /**
+   * Hands out an idle connection for the request's URL and credentials to the listener, or opens a
+   * new one if there is none.
+   *
+   * @param client the client to open a new connection with
+   * @param request the request, including authentication
+   * @param listener the listener receiving the events of the connection
+   * @return the {@link WebSocket}
+   */
+  public WebSocket connect(OkHttpClient client, Request request, WebSocketListener listener) {
+    PooledWebSocket pooled = null;
+    List<PooledWebSocket> expired = new ArrayList<>();
+    Target target;
+    synchronized (this) {
+      target = targets.get(key(request));
+      while (target != null && pooled == null && !target.idle.isEmpty()) {
+        PooledWebSocket candidate = target.idle.poll();
+        if (candidate.isUsable(idleTimeoutMillis)) {
+          pooled = candidate;
+        } else {
+          expired.add(candidate);
+        }
+      }
+    }
+    for (PooledWebSocket connection : expired) {
+      connection.close("Idle connection expired");
+    }
+    if (target != null) {
+      scheduleRefill(target, 0);
+    }
+    if (pooled != null && pooled.attach(listener)) {
+      return pooled.socket;
+    }
+    return client.newWebSocket(request, listener);
+  }
+
+  /**
+   * Rotates the connections that are about to have been idle for the idle timeout, and opens the
+   * connections missing from the pool. This is done periodically by the pool.
+   */
+  public void evictIdle() {
+    List<PooledWebSocket> expired = new ArrayList<>();
+    List<Target> all;
+    synchronized (this) {
+      // Rotates connections a quarter of the timeout early, so that none is handed out expiring.
+      long rotationMillis = idleTimeoutMillis - idleTimeoutMillis / 4;
+      for (Target target : targets.values()) {
+        Iterator<PooledWebSocket> iterator = target.idle.iterator();
+        while (iterator.hasNext()) {
+          PooledWebSocket candidate = iterator.next();
+          if (!candidate.isUsable(rotationMillis)) {
+            iterator.remove();
+            expired.add(candidate);
+          }
+        }
+      }
+      all = new ArrayList<>(targets.values());
+    }
+    // Opens the replacements before closing the expired connections.
+    for (Target target : all) {
+      refill(target, null);
+    }
+    for (PooledWebSocket connection : expired) {
+      connection.close("Idle connection expired");
+    }
+  }
+
+  /**
+   * Gets the number of idle connections for a URL, whatever their credentials.
+   *
+   * @param url the URL
+   * @return the number of idle connections, open or still connecting
+   */
+  public synchronized int idleCount(String url) {
+    int count = 0;
+    for (Target target : targets.values()) {
+      if (target.url.equals(url)) {
+        count += target.idle.size();
+      }
+    }
+    return count;
+  }
+
+  /** Closes the idle connections and stops pre-opening new ones. */
+  @Override
+  public void close() {
+    List<PooledWebSocket> connections = new ArrayList<>();
+    synchronized (this) {
+      closed = true;
+      for (Target target : targets.values()) {
+        connections.addAll(target.idle);
+        target.idle.clear();
+      }
+      targets.clear();
+    }
+    maintainer.shutdownNow();
+    for (PooledWebSocket connection : connections) {
+      connection.close("Pool closed");
+    }
+  }
+
+  /** Gets the key of the connections a request can be handed, by URL and credentials. */
+  private static String key(Request request) {
+    String authorization = request.header("Authorization");
+    return authorization != null ? request.url() + " " + authorization : request.url().toString();
+  }
+
+  /**
+   * Opens the connections missing for a target.
+   *
+   * @param target the target
+   * @param request a request just built for the target, or null to build one
+   */
+  private void refill(Target target, Request request) {
+    OkHttpClient client;
+    Supplier<Request> requests;
+    synchronized (this) {
+      if (closed || targets.get(target.key) != target || target.retryAt - now() > 0) {
+        return;
+      }
+      client = target.client;
+      requests = target.requests;
+    }
+    if (request == null) {
+      try {
+        request = requests.get();
+      } catch (RuntimeException e) {
+        LOG.log(Level.WARNING, "Unable to build the request of a pooled connection", e);
+        return;
+      }
+    }
+    String key = key(request);
+    List<PooledWebSocket> stale = new ArrayList<>();
+    int missing;
+    synchronized (this) {
+      if (closed || targets.get(target.key) != target) {
+        return;
+      }
+      if (!key.equals(target.key)) {
+        // The credentials were refreshed: requests no longer ask for the previous ones.
+        targets.remove(target.key);
+        stale.addAll(target.idle);
+        target.idle.clear();
+        target.key = key;
+        Target existing = targets.get(key);
+        if (existing != null) {
+          existing.count = Math.max(existing.count, target.count);
+          target = existing;
+        } else {
+          targets.put(key, target);
+        }
+      }
+      missing = target.count - target.idle.size();
+    }
+    for (PooledWebSocket connection : stale) {
+      connection.close("Credentials refreshed");
+    }
+    for (int i = 0; i < missing; i++) {
+      open(target, client, request);
+    }
+  }
+
+  private void scheduleRefill(final Target target, long delayMillis) {
+    try {
+      maintainer.schedule(() -> refill(target, null), delayMillis, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      // The pool has been closed.
+    }
+  }
+
+  private void open(Target target, OkHttpClient client, Request request) {
+    PooledWebSocket pooled = new PooledWebSocket(target);
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      target.idle.add(pooled);
+    }
+    pooled.socket = client.newWebSocket(request, pooled);
+  }
+
+  /** Takes a connection that was not handed out out of the pool, and replaces it. */
+  private void remove(PooledWebSocket pooled, boolean failed) {
+    long delayMillis = 0;
+    synchronized (this) {
+      pooled.target.idle.remove(pooled);
+      if (failed) {
+        int failures = Math.min(pooled.target.failures++, 16);
+        delayMillis = Math.min(idleTimeoutMillis, INITIAL_RETRY_DELAY_MILLIS << failures);
+        pooled.target.retryAt = now() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+      }
+    }
+    scheduleRefill(pooled.target, delayMillis);
+  }
+
+  private synchronized void opened(PooledWebSocket pooled) {
+    pooled.target.failures = 0;
+  }
+
+  private static long now() {
+    return System.nanoTime();
+  }
+
+  /** The connections kept for a URL and credentials, and how to open more. */
+  private static final class Target {
+    private final String url;
+    private final Deque<PooledWebSocket> idle = new ArrayDeque<>();
+    private String key;
+    private OkHttpClient client;
+    private Supplier<Request> requests;
+    private int count;
+    private int failures;
+    private long retryAt = now();
+
+    private Target(String key, String url) {
+      this.key = key;
+      this.url = url;
+    }
+  }
+
+  /**
+   * A pooled connection. Its events are forwarded to the listener it is handed out to; before that,
+   * a close or failure takes it out of the pool.
+   */
+  private final class PooledWebSocket extends WebSocketListener {
+    private final Target target;
+    private final long created = System.currentTimeMillis();
+    private volatile WebSocket socket;
+    private WebSocketListener delegate;
+    private Response response;
+    private boolean open;
+    private boolean dead;
+
+    private PooledWebSocket(Target target) {
+      this.target = target;
+    }
+
+    private synchronized boolean isUsable(long maxIdleMillis) {
+      return !dead && System.currentTimeMillis() - created < maxIdleMillis;
+    }
+
+    private synchronized boolean attach(WebSocketListener listener) {
+      if (dead) {
+        return false;
+      }
+      delegate = listener;
+      if (open) {
+        listener.onOpen(socket, response);
+      }
+      return true;
+    }
+
+    private void close(String reason) {
+      synchronized (this) {
+        dead = true;
+      }
+      if (socket != null) {
+        socket.close(CLOSE_NORMAL, reason);
+      }
+    }
+
+    private synchronized WebSocketListener delegate() {
+      return delegate;
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket, Response response) {
+      WebSocketListener listener;
+      synchronized (this) {
+        this.socket = webSocket;
+        this.response = response;
+        this.open = true;
+        listener = delegate;
+      }
+      opened(this);
+      if (listener != null) {
+        listener.onOpen(webSocket, response);
+      }
+    }
+
+    @Override
+    public void onMessage(WebSocket webSocket, String text) {
+      WebSocketListener listener = delegate();
+      if (listener != null) {
+        listener.onMessage(webSocket, text);
+      } else {
+        LOG.log(Level.WARNING, "Message received on an idle connection: " + text);
+      }
+    }
+
+    @Override
+    public void onMessage(WebSocket webSocket, ByteString bytes) {
+      WebSocketListener listener = delegate();
+      if (listener != null) {
+        listener.onMessage(webSocket, bytes);
+      }
+    }
+
+    @Override
+    public void onClosing(WebSocket webSocket, int code, String reason) {
+      WebSocketListener listener = markDead(false);
+      if (listener != null) {
+        listener.onClosing(webSocket, code, reason);
+      } else {
+        webSocket.close(code, reason);
+      }
+    }
+
+    @Override
+    public void onClosed(WebSocket webSocket, int code, String reason) {
+      WebSocketListener listener = markDead(false);
+      if (listener != null) {
+        listener.onClosed(webSocket, code, reason);
+      }
+    }
+
+    @Override
+    public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+      WebSocketListener listener = markDead(true);
+      if (listener != null) {
+        listener.onFailure(webSocket, t, response);
+      }
+    }
+
+    /** Marks an idle connection dead, and replaces it unless the pool closed it. */
+    private WebSocketListener markDead(boolean failed) {
+      WebSocketListener listener;
+      boolean replace;
+      synchronized (this) {
+        listener = delegate;
+        replace = listener == null && !dead;
+        if (listener == null) {
+          dead = true;
+        }
+      }
+      if (replace) {
+        remove(this, failed && !open);
+      }
+      return listener;
+    }
+  }
+}
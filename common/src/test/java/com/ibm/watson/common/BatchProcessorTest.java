@@ -0,0 +1,35 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import org.junit.Test;
+
+/** The Class BatchProcessorTest. */
+public class BatchProcessorTest {
+
+  /** Test network errors are retried with an exponential backoff, and other errors are not. */
+  @Test
+  public void testRetryDelay() {
+    long first = BatchProcessor.retryDelay(new IOException(), 1);
+    assertTrue(first >= 250 && first <= 500);
+    long third = BatchProcessor.retryDelay(new IOException(), 3);
+    assertTrue(third >= 1000 && third <= 2000);
+    long last = BatchProcessor.retryDelay(new IOException(), 100);
+    assertTrue(last >= 15000 && last <= 30000);
+    assertEquals(-1, BatchProcessor.retryDelay(new IllegalArgumentException(), 1));
+  }
+}
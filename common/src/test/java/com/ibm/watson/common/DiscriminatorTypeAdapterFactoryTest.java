@@ -0,0 +1,85 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.annotations.SerializedName;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+/** The Class DiscriminatorTypeAdapterFactoryTest. */
+public class DiscriminatorTypeAdapterFactoryTest {
+
+  /** A polymorphic model. */
+  static class Shape {
+    String type;
+  }
+
+  /** A shape with a size. */
+  static class Circle extends Shape {
+    @SerializedName("radius_cm")
+    double radius;
+  }
+
+  /** A shape made of shapes. */
+  static class Group extends Shape {
+    List<Shape> shapes;
+  }
+
+  private static Gson gson() {
+    Map<String, Class<? extends Shape>> mapping = new HashMap<>();
+    mapping.put("circle", Circle.class);
+    mapping.put("group", Group.class);
+    return new GsonBuilder()
+        .registerTypeAdapterFactory(
+            new DiscriminatorTypeAdapterFactory<>(Shape.class, "type", mapping))
+        .create();
+  }
+
+  /** Test nested models are decoded into the subclasses of their discriminator. */
+  @Test
+  public void testRead() {
+    Group group =
+        (Group)
+            gson()
+                .fromJson(
+                    "{\"type\": \"group\", \"shapes\": [{\"type\": \"circle\", \"radius_cm\": 2}, "
+                        + "{\"radius_cm\": 3, \"type\": \"circle\"}, {\"type\": \"group\", "
+                        + "\"shapes\": []}, {\"type\": \"square\", \"side\": 1}, null]}",
+                    Shape.class);
+    assertEquals("group", group.type);
+    assertEquals(5, group.shapes.size());
+    assertEquals(2, ((Circle) group.shapes.get(0)).radius, 0);
+    assertEquals(3, ((Circle) group.shapes.get(1)).radius, 0);
+    assertEquals("circle", group.shapes.get(1).type);
+    assertEquals(0, ((Group) group.shapes.get(2)).shapes.size());
+    assertSame(Shape.class, group.shapes.get(3).getClass());
+    assertEquals("square", group.shapes.get(3).type);
+    assertNull(group.shapes.get(4));
+  }
+
+  /** Test models are encoded with the properties of their subclass. */
+  @Test
+  public void testWrite() {
+    String json = "{\"shapes\":[{\"radius_cm\":2.0,\"type\":\"circle\"}],\"type\":\"group\"}";
+    Gson gson = gson();
+    assertEquals(json, gson.toJson(gson.fromJson(json, Shape.class), Shape.class));
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.ibm.cloud.sdk.core.http.ServiceCall;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+/** The Class FederatedSearchTest. */
+public class FederatedSearchTest {
+
+  private static TestCall<List<Integer>> answering(Integer... results) {
+    return TestCall.answering(Arrays.asList(results));
+  }
+
+  /** Test the best results are merged, failures reported and laggards cancelled. */
+  @Test
+  public void testSearch() throws InterruptedException {
+    FederatedSearch<String, List<Integer>, Integer> search =
+        new FederatedSearch<>(r -> r, Comparator.reverseOrder(), 4);
+    TestCall<List<Integer>> lagging = new TestCall<>();
+    Map<String, ServiceCall<List<Integer>>> calls = new LinkedHashMap<>();
+    calls.put("a", answering(9, 5, 1));
+    calls.put("b", answering(8, 5, 2));
+    calls.put("c", new TestCall<>(callback -> callback.onFailure(new IllegalStateException())));
+    calls.put("d", lagging);
+    FederatedSearch.Results<String, List<Integer>, Integer> results =
+        search.search(calls, 10, TimeUnit.MILLISECONDS);
+
+    assertEquals(
+        Arrays.asList("a:9", "b:8", "a:5", "b:5"),
+        results.getHits().stream()
+            .map(hit -> hit.getTarget() + ":" + hit.getResult())
+            .collect(Collectors.toList()));
+    assertEquals(Arrays.asList("a", "b"), Arrays.asList(results.getResponses().keySet().toArray()));
+    assertTrue(results.getFailures().get("c") instanceof IllegalStateException);
+    assertEquals(1, results.getCancelled().size());
+    assertTrue(results.getCancelled().contains("d"));
+    assertTrue(lagging.cancelled);
+    assertFalse(results.isComplete());
+  }
+
+  /** Test a response whose results cannot be read fails its target without delaying the search. */
+  @Test
+  public void testSearchUnreadableResponse() throws InterruptedException {
+    FederatedSearch<String, List<Integer>, Integer> search =
+        new FederatedSearch<>(
+            r -> {
+              if (r.contains(0)) {
+                throw new IllegalArgumentException();
+              }
+              return r;
+            },
+            Comparator.reverseOrder(),
+            4);
+    Map<String, ServiceCall<List<Integer>>> calls = new LinkedHashMap<>();
+    calls.put("a", answering(9, 5));
+    calls.put("b", answering(0));
+    long start = System.nanoTime();
+    FederatedSearch.Results<String, List<Integer>, Integer> results =
+        search.search(calls, 1, TimeUnit.MINUTES);
+
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(30));
+    assertEquals(2, results.getHits().size());
+    assertEquals(Arrays.asList("a"), Arrays.asList(results.getResponses().keySet().toArray()));
+    assertTrue(results.getFailures().get("b") instanceof IllegalArgumentException);
+    assertTrue(results.getCancelled().isEmpty());
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import org.junit.Test;
+
+/** The Class FileRequestBodyTest. */
+public class FileRequestBodyTest {
+
+  private static String write(RequestBody body) throws IOException {
+    Buffer buffer = new Buffer();
+    body.writeTo(buffer);
+    return buffer.readUtf8();
+  }
+
+  /** Test a file is sent with its length, and can be sent again. */
+  @Test
+  public void testFile() throws IOException {
+    Path file = Files.createTempFile("body", ".txt");
+    try {
+      Files.write(file, "audio".getBytes(StandardCharsets.UTF_8));
+      RequestBody body = new FileRequestBody(file, MediaType.get("audio/wav"));
+      assertEquals(5, body.contentLength());
+      assertEquals("audio/wav", body.contentType().toString());
+      assertFalse(body.isOneShot());
+      assertEquals("audio", write(body));
+      assertEquals("audio", write(body));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /** Test a stream of a file is sent from the file, even once closed, and other streams as is. */
+  @Test
+  public void testInputStreamBody() throws IOException {
+    Path file = Files.createTempFile("body", ".txt");
+    try {
+      Files.write(file, "document".getBytes(StandardCharsets.UTF_8));
+      RequestBody body;
+      try (InputStream stream = FileRequestBody.stream(file)) {
+        body = FileRequestBody.inputStreamBody(stream, null);
+      }
+      assertTrue(body instanceof FileRequestBody);
+      assertEquals("application/octet-stream", body.contentType().toString());
+      assertEquals(8, body.contentLength());
+      assertEquals("document", write(body));
+      assertEquals("document", write(body));
+
+      // Other file streams are read as before, so they can be closed before the request is sent.
+      try (FileInputStream stream = new FileInputStream(file.toFile())) {
+        body = FileRequestBody.inputStreamBody(stream, "text/plain");
+      }
+      assertFalse(body instanceof FileRequestBody);
+      assertEquals("document", write(body));
+    } finally {
+      Files.delete(file);
+    }
+
+    RequestBody body =
+        FileRequestBody.create(
+            MediaType.get("text/plain"),
+            new ByteArrayInputStream("text".getBytes(StandardCharsets.UTF_8)));
+    assertFalse(body instanceof FileRequestBody);
+    assertEquals("text", write(body));
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.JsonObject;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import okio.Buffer;
+import org.junit.Test;
+
+/** The Class JsonRequestBodyTest. */
+public class JsonRequestBodyTest {
+
+  /** Test the streamed body is the same as the serialized tree of the same properties. */
+  @Test
+  public void testWriteTo() throws IOException {
+    Map<String, Object> context = new LinkedHashMap<>();
+    context.put("html", "<p class=\"x\">café & \"more\"</p>");
+    context.put("missing", null);
+    context.put("values", Arrays.asList(1, 2.5, true));
+
+    JsonObject tree = new JsonObject();
+    tree.add("context", GsonSingleton.getGson().toJsonTree(context));
+    tree.addProperty("alternate_intents", true);
+    tree.addProperty("user_id", "<user=1>");
+    JsonRequestBody body = new JsonRequestBody();
+    body.add("context", context);
+    body.addProperty("alternate_intents", true);
+    body.addProperty("user_id", "<user=1>");
+    body.addProperty("unset", (String) null);
+
+    Buffer buffer = new Buffer();
+    body.writeTo(buffer);
+    assertEquals(body.contentLength(), buffer.size());
+    assertEquals(tree.toString(), buffer.readUtf8());
+    assertEquals("application/json; charset=utf-8", body.contentType().toString());
+
+    // The body can be written again, e.g. when the request is retried.
+    assertEquals(tree.toString(), body.toString());
+    assertTrue(body.toString().contains("\"<user=1>\""));
+  }
+
+  /** Test values already serialized are written as they are. */
+  @Test
+  public void testAddJson() {
+    JsonRequestBody body = new JsonRequestBody();
+    body.addJson("context", "{\"skills\":{\"main skill\":{}}}");
+    body.addJson("unset", null);
+    body.addProperty("user_id", "user");
+
+    assertEquals(
+        "{\"context\":{\"skills\":{\"main skill\":{}}},\"user_id\":\"user\"}", body.toString());
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import java.util.List;
+import org.junit.Test;
+
+/** The Class LazyJsonListTest. */
+public class LazyJsonListTest {
+
+  /** An element. */
+  static class Item {
+    String kind;
+    int value;
+  }
+
+  /** A model with a list of elements. */
+  static class Holder {
+    List<Item> items;
+  }
+
+  /** Test elements are only decoded when accessed. */
+  @Test
+  public void testGet() {
+    JsonArray json =
+        JsonParser.parseString("[{\"kind\": \"a\", \"value\": 1}, {\"kind\": \"b\", \"value\": 2}]")
+            .getAsJsonArray();
+    LazyJsonList<Item> list = new LazyJsonList<>(json, Item.class, new Gson());
+    assertEquals(2, list.size());
+    assertEquals("b", list.getString(1, "kind"));
+    assertNull(list.getString(1, "missing"));
+    assertFalse(list.isDecoded(0));
+    assertFalse(list.isDecoded(1));
+
+    assertEquals(2, list.get(1).value);
+    assertFalse(list.isDecoded(0));
+    assertTrue(list.isDecoded(1));
+    assertTrue(list.get(1) == list.get(1));
+  }
+
+  /** Test setting an element updates its JSON. */
+  @Test
+  public void testSet() {
+    JsonArray json = JsonParser.parseString("[{\"kind\": \"a\", \"value\": 1}]").getAsJsonArray();
+    LazyJsonList<Item> list = new LazyJsonList<>(json, Item.class, new Gson());
+    Item item = new Item();
+    item.kind = "c";
+    item.value = 3;
+    assertEquals("a", list.set(0, item).kind);
+    assertTrue(list.get(0) == item);
+    assertEquals("c", list.getString(0, "kind"));
+  }
+
+  /** Test the type adapter factory decodes the lists of elements into lazy lists. */
+  @Test
+  public void testTypeAdapterFactory() {
+    Gson gson =
+        new GsonBuilder()
+            .registerTypeAdapterFactory(LazyJsonList.typeAdapterFactory(Item.class))
+            .create();
+    Holder holder = gson.fromJson("{\"items\": [{\"kind\": \"a\", \"value\": 1}]}", Holder.class);
+    assertTrue(holder.items instanceof LazyJsonList);
+    assertEquals("a", holder.items.get(0).kind);
+    assertEquals("{\"items\":[{\"kind\":\"a\",\"value\":1}]}", gson.toJson(holder));
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import com.ibm.cloud.sdk.core.http.Response;
+import com.ibm.cloud.sdk.core.http.ServiceCall;
+import com.ibm.cloud.sdk.core.http.ServiceCallback;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+/** The Class ResponseCacheTest. */
+public class ResponseCacheTest {
+
+  /** A callback ignoring the response. */
+  static class IgnoringCallback implements ServiceCallback<String> {
+    @Override
+    public void onResponse(Response<String> response) {}
+
+    @Override
+    public void onFailure(Exception e) {}
+  }
+
+  /** Test equal calls share one request, until the response expires. */
+  @Test
+  public void testCall() {
+    AtomicLong clock = new AtomicLong();
+    ResponseCache<String, String> cache = new ResponseCache<>(10, 1, TimeUnit.SECONDS, clock::get);
+    TestCall<String> first = new TestCall<>();
+    TestCall<String> second = new TestCall<>();
+    ServiceCall<String> firstCall = cache.call("q", first);
+    firstCall.enqueue(new IgnoringCallback());
+    cache.call("q", second).enqueue(new IgnoringCallback());
+    assertNotNull(first.callback);
+    assertNull(second.callback);
+
+    first.complete("a");
+    assertEquals("a", firstCall.execute().getResult());
+    assertEquals("a", cache.call("q", new TestCall<>()).execute().getResult());
+    assertEquals(1, cache.misses());
+    assertEquals(2, cache.hits());
+
+    clock.set(TimeUnit.SECONDS.toNanos(1));
+    TestCall<String> third = new TestCall<>();
+    cache.call("q", third).enqueue(new IgnoringCallback());
+    third.complete("b");
+    assertEquals("b", cache.call("q", new TestCall<>()).execute().getResult());
+    assertEquals(2, cache.misses());
+    assertEquals(3, cache.hits());
+  }
+
+  /** Test the least recently used responses are evicted and failures are not cached. */
+  @Test
+  public void testEvictionAndFailure() {
+    ResponseCache<String, String> cache = new ResponseCache<>(2, 1, TimeUnit.MINUTES);
+    for (String key : new String[] {"a", "b", "a", "c"}) {
+      TestCall<String> call = new TestCall<>();
+      cache.call(key, call).enqueue(new IgnoringCallback());
+      if (call.callback != null) {
+        call.complete(key);
+      }
+    }
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.evictions());
+
+    TestCall<String> failing = new TestCall<>();
+    ServiceCall<String> failingCall = cache.call("d", failing);
+    failingCall.enqueue(new IgnoringCallback());
+    failing.callback.onFailure(new IllegalStateException("unavailable"));
+    try {
+      failingCall.execute();
+      fail("the failure should be thrown");
+    } catch (IllegalStateException e) {
+      assertEquals("unavailable", e.getMessage());
+    }
+    TestCall<String> retry = new TestCall<>();
+    cache.call("d", retry).enqueue(new IgnoringCallback());
+    assertNotNull(retry.callback);
+  }
+
+  /** Test responses awaited when invalidated are not cached. */
+  @Test
+  public void testInvalidate() {
+    ResponseCache<String, String> cache = new ResponseCache<>();
+    TestCall<String> awaited = new TestCall<>();
+    cache.call("collection1/q", awaited).enqueue(new IgnoringCallback());
+    TestCall<String> update = new TestCall<>();
+    cache
+        .invalidating(update, key -> key.startsWith("collection1/"))
+        .enqueue(new IgnoringCallback());
+    update.complete("updated");
+    awaited.complete("stale");
+
+    assertEquals(0, cache.size());
+    TestCall<String> next = new TestCall<>();
+    cache.call("collection1/q", next).enqueue(new IgnoringCallback());
+    assertNotNull(next.callback);
+  }
+}
@@ -12,6 +12,7 @@
  */
 package com.ibm.watson.common;
 
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import com.ibm.cloud.sdk.core.http.HttpHeaders;
@@ -38,4 +39,18 @@ public class SdkCommonTest {
     assertTrue(defaultHeaders.containsKey(HttpHeaders.USER_AGENT));
     assertTrue(defaultHeaders.get(HttpHeaders.USER_AGENT).startsWith("watson-apis-java-sdk/"));
   }
+
+  /** Test the sdk headers of an operation are computed once. */
+  @Test
+  public void testGetSdkHeadersCached() {
+    Map<String, String> headers = SdkCommon.getSdkHeaders("test_name", "v1", "cached_method");
+
+    assertSame(headers, SdkCommon.getSdkHeaders("test_name", "v1", "cached_method"));
+  }
+
+  /** Test the cached sdk headers cannot be modified. */
+  @Test(expected = UnsupportedOperationException.class)
+  public void testGetSdkHeadersUnmodifiable() {
+    SdkCommon.getSdkHeaders("test_name", "v1", "test_method").put("header", "value");
+  }
 }
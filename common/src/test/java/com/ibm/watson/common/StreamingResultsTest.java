@@ -0,0 +1,77 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.JsonObject;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.junit.Test;
+
+/** The Class StreamingResultsTest. */
+public class StreamingResultsTest {
+
+  private static final String RESPONSE =
+      "{\"count\": 3, \"aggregations\": [{\"type\": \"term\"}], "
+          + "\"results\": [{\"id\": \"a\"}, {\"id\": \"b\"}, {\"id\": \"c\"}], "
+          + "\"pagination\": {\"next_cursor\": \"cursor\"}}";
+
+  private static StreamingResults<JsonObject> results(String json) {
+    ResponseBody body = ResponseBody.create(json, MediaType.get("application/json"));
+    return new StreamingResults<>(body, "results", JsonObject.class);
+  }
+
+  /** Test the elements are read one at a time, and the other properties around them. */
+  @Test
+  public void testIterate() {
+    StreamingResults<JsonObject> results = results(RESPONSE);
+    assertNull(results.getField("count"));
+
+    assertTrue(results.hasNext());
+    assertEquals(3, results.getField("count").getAsInt());
+    assertEquals("a", results.next().get("id").getAsString());
+    assertNull(results.getField("pagination"));
+    assertEquals("b", results.next().get("id").getAsString());
+    assertEquals("c", results.next().get("id").getAsString());
+    assertFalse(results.hasNext());
+    assertEquals(
+        "cursor",
+        results.getField("pagination").getAsJsonObject().get("next_cursor").getAsString());
+  }
+
+  /** Test the elements are available as a stream. */
+  @Test
+  public void testStream() {
+    List<String> ids;
+    try (StreamingResults<JsonObject> results = results(RESPONSE)) {
+      ids = results.stream().map(r -> r.get("id").getAsString()).collect(Collectors.toList());
+    }
+    assertEquals(Arrays.asList("a", "b", "c"), ids);
+  }
+
+  /** Test a response without the array has no elements. */
+  @Test
+  public void testMissingArray() {
+    StreamingResults<JsonObject> results = results("{\"count\": 0}");
+
+    assertFalse(results.hasNext());
+    assertEquals(0, results.getField("count").getAsInt());
+  }
+}
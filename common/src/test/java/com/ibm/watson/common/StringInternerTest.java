@@ -0,0 +1,39 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/** The Class StringInternerTest. */
+public class StringInternerTest {
+
+  /** Test equal strings are interned to the first instance. */
+  @Test
+  public void testIntern() {
+    StringInterner interner = new StringInterner();
+    String first = new String("state");
+    String second = new String("state");
+    assertNotSame(first, second);
+
+    assertSame(first, interner.intern(first));
+    assertSame(first, interner.intern(second));
+    assertSame("other", interner.intern("other"));
+    assertNull(interner.intern(null));
+    assertEquals(2, interner.size());
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import com.ibm.cloud.sdk.core.http.Response;
+import com.ibm.cloud.sdk.core.http.ServiceCall;
+import com.ibm.cloud.sdk.core.http.ServiceCallback;
+import io.reactivex.Single;
+import java.util.function.Consumer;
+import okhttp3.Protocol;
+import okhttp3.Request;
+
+/**
+ * A service call answered by the test, when it is enqueued or later with {@link #complete(Object)}.
+ *
+ * @param <T> the type of the result
+ */
+public class TestCall<T> implements ServiceCall<T> {
+  private final Consumer<ServiceCallback<T>> answer;
+  ServiceCallback<T> callback;
+  boolean cancelled;
+
+  /** Instantiates a call completed later by the test. */
+  TestCall() {
+    this(callback -> {});
+  }
+
+  /**
+   * Instantiates a call answered when it is enqueued.
+   *
+   * @param answer answers the callback of the call
+   */
+  TestCall(Consumer<ServiceCallback<T>> answer) {
+    this.answer = answer;
+  }
+
+  /**
+   * Creates a call answered with a result when it is enqueued.
+   *
+   * @param <T> the type of the result
+   * @param result the result
+   * @return the call
+   */
+  static <T> TestCall<T> answering(T result) {
+    return new TestCall<>(callback -> callback.onResponse(response(result)));
+  }
+
+  /**
+   * Creates a successful response.
+   *
+   * @param <T> the type of the result
+   * @param result the result
+   * @return the response
+   */
+  static <T> Response<T> response(T result) {
+    okhttp3.Response httpResponse =
+        new okhttp3.Response.Builder()
+            .request(new Request.Builder().url("http://localhost/").build())
+            .protocol(Protocol.HTTP_1_1)
+            .code(200)
+            .message("OK")
+            .build();
+    return new Response<>(result, httpResponse);
+  }
+
+  /**
+   * Completes the call enqueued with a result.
+   *
+   * @param result the result
+   */
+  void complete(T result) {
+    callback.onResponse(response(result));
+  }
+
+  @Override
+  public ServiceCall<T> addHeader(String name, String value) {
+    return this;
+  }
+
+  @Override
+  public Response<T> execute() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void enqueue(ServiceCallback<T> callback) {
+    this.callback = callback;
+    answer.accept(callback);
+  }
+
+  @Override
+  public Single<Response<T>> reactiveRequest() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void cancel() {
+    cancelled = true;
+  }
+}
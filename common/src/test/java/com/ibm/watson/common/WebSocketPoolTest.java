@@ -0,0 +1,147 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** The Class WebSocketPoolTest. */
+public class WebSocketPoolTest {
+
+  private final OkHttpClient client = new OkHttpClient();
+  private final AtomicInteger closeOnOpen = new AtomicInteger();
+  private MockWebServer server;
+
+  /** Starts a server accepting WebSocket connections, closing the first ones if asked to. */
+  @Before
+  public void setUp() throws IOException {
+    server = new MockWebServer();
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) {
+            return new MockResponse()
+                .withWebSocketUpgrade(
+                    new WebSocketListener() {
+                      @Override
+                      public void onOpen(WebSocket webSocket, Response response) {
+                        if (closeOnOpen.getAndDecrement() > 0) {
+                          webSocket.close(1000, "Session ended");
+                        }
+                      }
+
+                      @Override
+                      public void onClosing(WebSocket webSocket, int code, String reason) {
+                        webSocket.close(code, reason);
+                      }
+                    });
+          }
+        });
+    server.start();
+  }
+
+  /** Stops the server. */
+  @After
+  public void tearDown() throws IOException {
+    server.shutdown();
+  }
+
+  private Request request(String token, String tag) {
+    return new Request.Builder()
+        .url(server.url("/v1/recognize"))
+        .header("Authorization", "Bearer " + token)
+        .tag(String.class, tag)
+        .build();
+  }
+
+  private static WebSocketListener opening(final CountDownLatch opened) {
+    return new WebSocketListener() {
+      @Override
+      public void onOpen(WebSocket webSocket, Response response) {
+        opened.countDown();
+      }
+    };
+  }
+
+  /** Test a connection closed by the service while idle is replaced. */
+  @Test
+  public void testReplacesClosedConnection() throws Exception {
+    closeOnOpen.set(1);
+    try (WebSocketPool pool = new WebSocketPool()) {
+      pool.prewarm(client, () -> request("a", "pooled"), 1);
+      assertNotNull(server.takeRequest(10, TimeUnit.SECONDS));
+      assertNotNull(server.takeRequest(10, TimeUnit.SECONDS));
+      assertEquals(1, pool.idleCount(server.url("/v1/recognize").toString()));
+    }
+  }
+
+  /** Test connections are rotated before the idle timeout. */
+  @Test
+  public void testRotatesIdleConnections() throws Exception {
+    try (WebSocketPool pool = new WebSocketPool(400, TimeUnit.MILLISECONDS)) {
+      pool.prewarm(client, () -> request("a", "pooled"), 1);
+      for (int i = 0; i < 3; i++) {
+        assertNotNull(server.takeRequest(10, TimeUnit.SECONDS));
+      }
+      assertEquals(1, pool.idleCount(server.url("/v1/recognize").toString()));
+    }
+  }
+
+  /** Test connections are only handed out to requests with the same credentials. */
+  @Test
+  public void testKeysByCredentials() throws Exception {
+    final AtomicReference<String> token = new AtomicReference<>("a");
+    try (WebSocketPool pool = new WebSocketPool()) {
+      pool.prewarm(client, () -> request(token.get(), "pooled"), 1);
+      assertEquals("Bearer a", server.takeRequest(10, TimeUnit.SECONDS).getHeader("Authorization"));
+
+      CountDownLatch opened = new CountDownLatch(1);
+      WebSocket webSocket = pool.connect(client, request("b", "connect"), opening(opened));
+      assertEquals("connect", webSocket.request().tag(String.class));
+      webSocket.close(1000, null);
+      assertTrue(opened.await(10, TimeUnit.SECONDS));
+      assertEquals("Bearer b", server.takeRequest(10, TimeUnit.SECONDS).getHeader("Authorization"));
+      assertEquals(1, pool.idleCount(server.url("/v1/recognize").toString()));
+
+      // A refreshed token replaces the connections opened with the previous one.
+      token.set("c");
+      pool.evictIdle();
+      assertEquals("Bearer c", server.takeRequest(10, TimeUnit.SECONDS).getHeader("Authorization"));
+      opened = new CountDownLatch(1);
+      webSocket = pool.connect(client, request("c", "connect"), opening(opened));
+      assertEquals("pooled", webSocket.request().tag(String.class));
+      webSocket.close(1000, null);
+      assertTrue(opened.await(10, TimeUnit.SECONDS));
+      assertEquals("Bearer c", server.takeRequest(10, TimeUnit.SECONDS).getHeader("Authorization"));
+    }
+  }
+}
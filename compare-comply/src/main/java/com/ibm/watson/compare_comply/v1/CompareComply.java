@@ -24,8 +24,8 @@ import com.ibm.cloud.sdk.core.http.ServiceCall;
 import com.ibm.cloud.sdk.core.security.Authenticator;
 import com.ibm.cloud.sdk.core.security.ConfigBasedAuthenticatorFactory;
 import com.ibm.cloud.sdk.core.service.BaseService;
-import com.ibm.cloud.sdk.core.util.RequestUtils;
 import com.ibm.cloud.sdk.core.util.ResponseConverterUtils;
+import com.ibm.watson.common.FileRequestBody;
 import com.ibm.watson.common.SdkCommon;
 import com.ibm.watson.compare_comply.v1.model.AddFeedbackOptions;
 import com.ibm.watson.compare_comply.v1.model.BatchStatus;
@@ -80,6 +80,46 @@ public class CompareComply extends BaseService {
   public static final String DEFAULT_SERVICE_URL =
       "https://api.us-south.compare-comply.watson.cloud.ibm.com";
 
+  private static final ResponseConverter<HTMLReturn> HTML_RETURN_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<HTMLReturn>() {}.getType());
+
+  private static final ResponseConverter<ClassifyReturn> CLASSIFY_RETURN_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<ClassifyReturn>() {}.getType());
+
+  private static final ResponseConverter<TableReturn> TABLE_RETURN_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<TableReturn>() {}.getType());
+
+  private static final ResponseConverter<CompareReturn> COMPARE_RETURN_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<CompareReturn>() {}.getType());
+
+  private static final ResponseConverter<FeedbackReturn> FEEDBACK_RETURN_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<FeedbackReturn>() {}.getType());
+
+  private static final ResponseConverter<FeedbackList> FEEDBACK_LIST_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<FeedbackList>() {}.getType());
+
+  private static final ResponseConverter<GetFeedback> GET_FEEDBACK_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<GetFeedback>() {}.getType());
+
+  private static final ResponseConverter<FeedbackDeleted> FEEDBACK_DELETED_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<FeedbackDeleted>() {}.getType());
+
+  private static final ResponseConverter<BatchStatus> BATCH_STATUS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<BatchStatus>() {}.getType());
+
+  private static final ResponseConverter<Batches> BATCHES_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Batches>() {}.getType());
+
   private String version;
 
   /**
@@ -191,13 +231,11 @@ public class CompareComply extends BaseService {
     MultipartBody.Builder multipartBuilder = new MultipartBody.Builder();
     multipartBuilder.setType(MultipartBody.FORM);
     okhttp3.RequestBody fileBody =
-        RequestUtils.inputStreamBody(
+        FileRequestBody.inputStreamBody(
             convertToHtmlOptions.file(), convertToHtmlOptions.fileContentType());
     multipartBuilder.addFormDataPart("file", "filename", fileBody);
     builder.body(multipartBuilder.build());
-    ResponseConverter<HTMLReturn> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<HTMLReturn>() {}.getType());
+    ResponseConverter<HTMLReturn> responseConverter = HTML_RETURN_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -230,13 +268,11 @@ public class CompareComply extends BaseService {
     MultipartBody.Builder multipartBuilder = new MultipartBody.Builder();
     multipartBuilder.setType(MultipartBody.FORM);
     okhttp3.RequestBody fileBody =
-        RequestUtils.inputStreamBody(
+        FileRequestBody.inputStreamBody(
             classifyElementsOptions.file(), classifyElementsOptions.fileContentType());
     multipartBuilder.addFormDataPart("file", "filename", fileBody);
     builder.body(multipartBuilder.build());
-    ResponseConverter<ClassifyReturn> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ClassifyReturn>() {}.getType());
+    ResponseConverter<ClassifyReturn> responseConverter = CLASSIFY_RETURN_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -267,13 +303,11 @@ public class CompareComply extends BaseService {
     MultipartBody.Builder multipartBuilder = new MultipartBody.Builder();
     multipartBuilder.setType(MultipartBody.FORM);
     okhttp3.RequestBody fileBody =
-        RequestUtils.inputStreamBody(
+        FileRequestBody.inputStreamBody(
             extractTablesOptions.file(), extractTablesOptions.fileContentType());
     multipartBuilder.addFormDataPart("file", "filename", fileBody);
     builder.body(multipartBuilder.build());
-    ResponseConverter<TableReturn> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TableReturn>() {}.getType());
+    ResponseConverter<TableReturn> responseConverter = TABLE_RETURN_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -311,17 +345,15 @@ public class CompareComply extends BaseService {
     MultipartBody.Builder multipartBuilder = new MultipartBody.Builder();
     multipartBuilder.setType(MultipartBody.FORM);
     okhttp3.RequestBody file1Body =
-        RequestUtils.inputStreamBody(
+        FileRequestBody.inputStreamBody(
             compareDocumentsOptions.file1(), compareDocumentsOptions.file1ContentType());
     multipartBuilder.addFormDataPart("file_1", "filename", file1Body);
     okhttp3.RequestBody file2Body =
-        RequestUtils.inputStreamBody(
+        FileRequestBody.inputStreamBody(
             compareDocumentsOptions.file2(), compareDocumentsOptions.file2ContentType());
     multipartBuilder.addFormDataPart("file_2", "filename", file2Body);
     builder.body(multipartBuilder.build());
-    ResponseConverter<CompareReturn> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<CompareReturn>() {}.getType());
+    ResponseConverter<CompareReturn> responseConverter = COMPARE_RETURN_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -359,9 +391,7 @@ public class CompareComply extends BaseService {
       contentJson.addProperty("comment", addFeedbackOptions.comment());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<FeedbackReturn> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<FeedbackReturn>() {}.getType());
+    ResponseConverter<FeedbackReturn> responseConverter = FEEDBACK_RETURN_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -429,9 +459,7 @@ public class CompareComply extends BaseService {
     if (listFeedbackOptions.includeTotal() != null) {
       builder.query("include_total", String.valueOf(listFeedbackOptions.includeTotal()));
     }
-    ResponseConverter<FeedbackList> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<FeedbackList>() {}.getType());
+    ResponseConverter<FeedbackList> responseConverter = FEEDBACK_LIST_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -472,9 +500,7 @@ public class CompareComply extends BaseService {
     if (getFeedbackOptions.model() != null) {
       builder.query("model", String.valueOf(getFeedbackOptions.model()));
     }
-    ResponseConverter<GetFeedback> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<GetFeedback>() {}.getType());
+    ResponseConverter<GetFeedback> responseConverter = GET_FEEDBACK_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -506,9 +532,7 @@ public class CompareComply extends BaseService {
     if (deleteFeedbackOptions.model() != null) {
       builder.query("model", String.valueOf(deleteFeedbackOptions.model()));
     }
-    ResponseConverter<FeedbackDeleted> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<FeedbackDeleted>() {}.getType());
+    ResponseConverter<FeedbackDeleted> responseConverter = FEEDBACK_DELETED_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -543,14 +567,15 @@ public class CompareComply extends BaseService {
     MultipartBody.Builder multipartBuilder = new MultipartBody.Builder();
     multipartBuilder.setType(MultipartBody.FORM);
     okhttp3.RequestBody inputCredentialsFileBody =
-        RequestUtils.inputStreamBody(createBatchOptions.inputCredentialsFile(), "application/json");
+        FileRequestBody.inputStreamBody(
+            createBatchOptions.inputCredentialsFile(), "application/json");
     multipartBuilder.addFormDataPart(
         "input_credentials_file", "filename", inputCredentialsFileBody);
     multipartBuilder.addFormDataPart(
         "input_bucket_location", createBatchOptions.inputBucketLocation());
     multipartBuilder.addFormDataPart("input_bucket_name", createBatchOptions.inputBucketName());
     okhttp3.RequestBody outputCredentialsFileBody =
-        RequestUtils.inputStreamBody(
+        FileRequestBody.inputStreamBody(
             createBatchOptions.outputCredentialsFile(), "application/json");
     multipartBuilder.addFormDataPart(
         "output_credentials_file", "filename", outputCredentialsFileBody);
@@ -558,9 +583,7 @@ public class CompareComply extends BaseService {
         "output_bucket_location", createBatchOptions.outputBucketLocation());
     multipartBuilder.addFormDataPart("output_bucket_name", createBatchOptions.outputBucketName());
     builder.body(multipartBuilder.build());
-    ResponseConverter<BatchStatus> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<BatchStatus>() {}.getType());
+    ResponseConverter<BatchStatus> responseConverter = BATCH_STATUS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -581,9 +604,7 @@ public class CompareComply extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<Batches> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Batches>() {}.getType());
+    ResponseConverter<Batches> responseConverter = BATCHES_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -621,9 +642,7 @@ public class CompareComply extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<BatchStatus> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<BatchStatus>() {}.getType());
+    ResponseConverter<BatchStatus> responseConverter = BATCH_STATUS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -655,9 +674,7 @@ public class CompareComply extends BaseService {
     if (updateBatchOptions.model() != null) {
       builder.query("model", String.valueOf(updateBatchOptions.model()));
     }
-    ResponseConverter<BatchStatus> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<BatchStatus>() {}.getType());
+    ResponseConverter<BatchStatus> responseConverter = BATCH_STATUS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 }
@@ -27,7 +27,11 @@ import com.ibm.cloud.sdk.core.service.BaseService;
 import com.ibm.cloud.sdk.core.util.DateUtils;
 import com.ibm.cloud.sdk.core.util.RequestUtils;
 import com.ibm.cloud.sdk.core.util.ResponseConverterUtils;
+import com.ibm.watson.common.FileRequestBody;
+import com.ibm.watson.common.Pager;
+import com.ibm.watson.common.ResponseCache;
 import com.ibm.watson.common.SdkCommon;
+import com.ibm.watson.common.StreamingResults;
 import com.ibm.watson.discovery.v1.model.AddDocumentOptions;
 import com.ibm.watson.discovery.v1.model.AddTrainingDataOptions;
 import com.ibm.watson.discovery.v1.model.Collection;
@@ -104,6 +108,7 @@ import com.ibm.watson.discovery.v1.model.ListGatewaysOptions;
 import com.ibm.watson.discovery.v1.model.ListTrainingDataOptions;
 import com.ibm.watson.discovery.v1.model.ListTrainingExamplesOptions;
 import com.ibm.watson.discovery.v1.model.LogQueryResponse;
+import com.ibm.watson.discovery.v1.model.LogQueryResponseResult;
 import com.ibm.watson.discovery.v1.model.MetricResponse;
 import com.ibm.watson.discovery.v1.model.MetricTokenResponse;
 import com.ibm.watson.discovery.v1.model.QueryLogOptions;
@@ -111,6 +116,7 @@ import com.ibm.watson.discovery.v1.model.QueryNoticesOptions;
 import com.ibm.watson.discovery.v1.model.QueryNoticesResponse;
 import com.ibm.watson.discovery.v1.model.QueryOptions;
 import com.ibm.watson.discovery.v1.model.QueryResponse;
+import com.ibm.watson.discovery.v1.model.QueryResult;
 import com.ibm.watson.discovery.v1.model.TokenDictStatusResponse;
 import com.ibm.watson.discovery.v1.model.TrainingDataSet;
 import com.ibm.watson.discovery.v1.model.TrainingExample;
@@ -122,10 +128,13 @@ import com.ibm.watson.discovery.v1.model.UpdateCredentialsOptions;
 import com.ibm.watson.discovery.v1.model.UpdateDocumentOptions;
 import com.ibm.watson.discovery.v1.model.UpdateEnvironmentOptions;
 import com.ibm.watson.discovery.v1.model.UpdateTrainingExampleOptions;
+import com.ibm.watson.discovery.v1.query.AggregationTypeAdapterFactory;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import okhttp3.MultipartBody;
+import okhttp3.Request;
 
 /**
  * IBM Watson&amp;trade; Discovery is a cognitive search and content analytics engine that you can
@@ -142,7 +151,146 @@ public class Discovery extends BaseService {
   public static final String DEFAULT_SERVICE_URL =
       "https://api.us-south.discovery.watson.cloud.ibm.com";
 
+  private static final ResponseConverter<Environment> ENVIRONMENT_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Environment>() {}.getType());
+
+  private static final ResponseConverter<ListEnvironmentsResponse>
+      LIST_ENVIRONMENTS_RESPONSE_CONVERTER =
+          ResponseConverterUtils.getValue(
+              new com.google.gson.reflect.TypeToken<ListEnvironmentsResponse>() {}.getType());
+
+  private static final ResponseConverter<DeleteEnvironmentResponse>
+      DELETE_ENVIRONMENT_RESPONSE_CONVERTER =
+          ResponseConverterUtils.getValue(
+              new com.google.gson.reflect.TypeToken<DeleteEnvironmentResponse>() {}.getType());
+
+  private static final ResponseConverter<ListCollectionFieldsResponse>
+      LIST_COLLECTION_FIELDS_RESPONSE_CONVERTER =
+          ResponseConverterUtils.getValue(
+              new com.google.gson.reflect.TypeToken<ListCollectionFieldsResponse>() {}.getType());
+
+  private static final ResponseConverter<Configuration> CONFIGURATION_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Configuration>() {}.getType());
+
+  private static final ResponseConverter<ListConfigurationsResponse>
+      LIST_CONFIGURATIONS_RESPONSE_CONVERTER =
+          ResponseConverterUtils.getValue(
+              new com.google.gson.reflect.TypeToken<ListConfigurationsResponse>() {}.getType());
+
+  private static final ResponseConverter<DeleteConfigurationResponse>
+      DELETE_CONFIGURATION_RESPONSE_CONVERTER =
+          ResponseConverterUtils.getValue(
+              new com.google.gson.reflect.TypeToken<DeleteConfigurationResponse>() {}.getType());
+
+  private static final ResponseConverter<Collection> COLLECTION_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Collection>() {}.getType());
+
+  private static final ResponseConverter<ListCollectionsResponse>
+      LIST_COLLECTIONS_RESPONSE_CONVERTER =
+          ResponseConverterUtils.getValue(
+              new com.google.gson.reflect.TypeToken<ListCollectionsResponse>() {}.getType());
+
+  private static final ResponseConverter<DeleteCollectionResponse>
+      DELETE_COLLECTION_RESPONSE_CONVERTER =
+          ResponseConverterUtils.getValue(
+              new com.google.gson.reflect.TypeToken<DeleteCollectionResponse>() {}.getType());
+
+  private static final ResponseConverter<Expansions> EXPANSIONS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Expansions>() {}.getType());
+
+  private static final ResponseConverter<TokenDictStatusResponse>
+      TOKEN_DICT_STATUS_RESPONSE_CONVERTER =
+          ResponseConverterUtils.getValue(
+              new com.google.gson.reflect.TypeToken<TokenDictStatusResponse>() {}.getType());
+
+  private static final ResponseConverter<DocumentAccepted> DOCUMENT_ACCEPTED_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<DocumentAccepted>() {}.getType());
+
+  private static final ResponseConverter<DocumentStatus> DOCUMENT_STATUS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<DocumentStatus>() {}.getType());
+
+  private static final ResponseConverter<DeleteDocumentResponse>
+      DELETE_DOCUMENT_RESPONSE_CONVERTER =
+          ResponseConverterUtils.getValue(
+              new com.google.gson.reflect.TypeToken<DeleteDocumentResponse>() {}.getType());
+
+  private static final ResponseConverter<QueryResponse> QUERY_RESPONSE_CONVERTER =
+      new AggregationTypeAdapterFactory().converter(QueryResponse.class);
+
+  private static final ResponseConverter<QueryNoticesResponse> QUERY_NOTICES_RESPONSE_CONVERTER =
+      new AggregationTypeAdapterFactory().converter(QueryNoticesResponse.class);
+
+  private static final ResponseConverter<Completions> COMPLETIONS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Completions>() {}.getType());
+
+  private static final ResponseConverter<TrainingDataSet> TRAINING_DATA_SET_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<TrainingDataSet>() {}.getType());
+
+  private static final ResponseConverter<TrainingQuery> TRAINING_QUERY_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<TrainingQuery>() {}.getType());
+
+  private static final ResponseConverter<TrainingExampleList> TRAINING_EXAMPLE_LIST_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<TrainingExampleList>() {}.getType());
+
+  private static final ResponseConverter<TrainingExample> TRAINING_EXAMPLE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<TrainingExample>() {}.getType());
+
+  private static final ResponseConverter<CreateEventResponse> CREATE_EVENT_RESPONSE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<CreateEventResponse>() {}.getType());
+
+  private static final ResponseConverter<LogQueryResponse> LOG_QUERY_RESPONSE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<LogQueryResponse>() {}.getType());
+
+  private static final ResponseConverter<MetricResponse> METRIC_RESPONSE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<MetricResponse>() {}.getType());
+
+  private static final ResponseConverter<MetricTokenResponse> METRIC_TOKEN_RESPONSE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<MetricTokenResponse>() {}.getType());
+
+  private static final ResponseConverter<CredentialsList> CREDENTIALS_LIST_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<CredentialsList>() {}.getType());
+
+  private static final ResponseConverter<Credentials> CREDENTIALS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Credentials>() {}.getType());
+
+  private static final ResponseConverter<DeleteCredentials> DELETE_CREDENTIALS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<DeleteCredentials>() {}.getType());
+
+  private static final ResponseConverter<GatewayList> GATEWAY_LIST_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<GatewayList>() {}.getType());
+
+  private static final ResponseConverter<Gateway> GATEWAY_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Gateway>() {}.getType());
+
+  private static final ResponseConverter<GatewayDelete> GATEWAY_DELETE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<GatewayDelete>() {}.getType());
+
+  private static final ResponseConverter<StreamingResults<QueryResult>>
+      STREAMING_QUERY_RESULTS_CONVERTER = StreamingResults.converter("results", QueryResult.class);
+
   private String version;
+  private volatile ResponseCache<ResponseCache.RequestKey<QueryOptions>, QueryResponse> queryCache;
 
   /**
    * Constructs an instance of the `Discovery` client. The default service name is used to configure
@@ -220,6 +368,34 @@ public class Discovery extends BaseService {
     this.version = version;
   }
 
+  /**
+   * Sets the cache of the responses of {@link #query(QueryOptions)}. <br>
+   * Queries with equal options sent to the same service URL and version are answered from the cache
+   * while their response is kept, and equal queries sent while the response is awaited share one
+   * request. Headers added to a query are not part of its key: they are only sent if the query is
+   * not answered from the cache. Adding, updating or deleting a document of a collection with this
+   * client invalidates the cached responses of the queries of the collection. Documents are indexed
+   * after these calls return, so responses of queries sent meanwhile, like those of collections
+   * changed by other clients, are only refreshed when they expire. The responses are not cached by
+   * default.
+   *
+   * @param queryCache the cache, or null to not cache the responses
+   */
+  public void setQueryCache(
+      ResponseCache<ResponseCache.RequestKey<QueryOptions>, QueryResponse> queryCache) {
+    this.queryCache = queryCache;
+  }
+
+  /**
+   * Gets the cache of the responses of {@link #query(QueryOptions)}, for example to read its hit
+   * and miss counts.
+   *
+   * @return the cache, or null if the responses are not cached
+   */
+  public ResponseCache<ResponseCache.RequestKey<QueryOptions>, QueryResponse> getQueryCache() {
+    return queryCache;
+  }
+
   /**
    * Create an environment.
    *
@@ -255,9 +431,7 @@ public class Discovery extends BaseService {
       contentJson.addProperty("size", createEnvironmentOptions.size());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Environment> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Environment>() {}.getType());
+    ResponseConverter<Environment> responseConverter = ENVIRONMENT_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -287,8 +461,7 @@ public class Discovery extends BaseService {
       builder.query("name", String.valueOf(listEnvironmentsOptions.name()));
     }
     ResponseConverter<ListEnvironmentsResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ListEnvironmentsResponse>() {}.getType());
+        LIST_ENVIRONMENTS_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -325,9 +498,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<Environment> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Environment>() {}.getType());
+    ResponseConverter<Environment> responseConverter = ENVIRONMENT_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -369,9 +540,7 @@ public class Discovery extends BaseService {
       contentJson.addProperty("size", updateEnvironmentOptions.size());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Environment> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Environment>() {}.getType());
+    ResponseConverter<Environment> responseConverter = ENVIRONMENT_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -400,8 +569,7 @@ public class Discovery extends BaseService {
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
     ResponseConverter<DeleteEnvironmentResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DeleteEnvironmentResponse>() {}.getType());
+        DELETE_ENVIRONMENT_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -431,8 +599,7 @@ public class Discovery extends BaseService {
     builder.query("version", String.valueOf(this.version));
     builder.query("collection_ids", RequestUtils.join(listFieldsOptions.collectionIds(), ","));
     ResponseConverter<ListCollectionFieldsResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ListCollectionFieldsResponse>() {}.getType());
+        LIST_COLLECTION_FIELDS_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -503,9 +670,7 @@ public class Discovery extends BaseService {
               .toJsonTree(createConfigurationOptions.source()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Configuration> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Configuration>() {}.getType());
+    ResponseConverter<Configuration> responseConverter = CONFIGURATION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -541,8 +706,7 @@ public class Discovery extends BaseService {
       builder.query("name", String.valueOf(listConfigurationsOptions.name()));
     }
     ResponseConverter<ListConfigurationsResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ListConfigurationsResponse>() {}.getType());
+        LIST_CONFIGURATIONS_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -572,9 +736,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<Configuration> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Configuration>() {}.getType());
+    ResponseConverter<Configuration> responseConverter = CONFIGURATION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -642,9 +804,7 @@ public class Discovery extends BaseService {
               .toJsonTree(updateConfigurationOptions.source()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Configuration> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Configuration>() {}.getType());
+    ResponseConverter<Configuration> responseConverter = CONFIGURATION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -682,8 +842,7 @@ public class Discovery extends BaseService {
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
     ResponseConverter<DeleteConfigurationResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DeleteConfigurationResponse>() {}.getType());
+        DELETE_CONFIGURATION_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -721,9 +880,7 @@ public class Discovery extends BaseService {
       contentJson.addProperty("language", createCollectionOptions.language());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Collection> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Collection>() {}.getType());
+    ResponseConverter<Collection> responseConverter = COLLECTION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -756,8 +913,7 @@ public class Discovery extends BaseService {
       builder.query("name", String.valueOf(listCollectionsOptions.name()));
     }
     ResponseConverter<ListCollectionsResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ListCollectionsResponse>() {}.getType());
+        LIST_COLLECTIONS_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -786,9 +942,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<Collection> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Collection>() {}.getType());
+    ResponseConverter<Collection> responseConverter = COLLECTION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -826,9 +980,7 @@ public class Discovery extends BaseService {
       contentJson.addProperty("configuration_id", updateCollectionOptions.configurationId());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Collection> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Collection>() {}.getType());
+    ResponseConverter<Collection> responseConverter = COLLECTION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -859,8 +1011,7 @@ public class Discovery extends BaseService {
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
     ResponseConverter<DeleteCollectionResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DeleteCollectionResponse>() {}.getType());
+        DELETE_COLLECTION_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -894,8 +1045,7 @@ public class Discovery extends BaseService {
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
     ResponseConverter<ListCollectionFieldsResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ListCollectionFieldsResponse>() {}.getType());
+        LIST_COLLECTION_FIELDS_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -927,9 +1077,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<Expansions> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Expansions>() {}.getType());
+    ResponseConverter<Expansions> responseConverter = EXPANSIONS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -968,9 +1116,7 @@ public class Discovery extends BaseService {
         com.ibm.cloud.sdk.core.util.GsonSingleton.getGson()
             .toJsonTree(createExpansionsOptions.expansions()));
     builder.bodyJson(contentJson);
-    ResponseConverter<Expansions> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Expansions>() {}.getType());
+    ResponseConverter<Expansions> responseConverter = EXPANSIONS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1036,8 +1182,7 @@ public class Discovery extends BaseService {
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
     ResponseConverter<TokenDictStatusResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TokenDictStatusResponse>() {}.getType());
+        TOKEN_DICT_STATUS_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1079,8 +1224,7 @@ public class Discovery extends BaseService {
     }
     builder.bodyJson(contentJson);
     ResponseConverter<TokenDictStatusResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TokenDictStatusResponse>() {}.getType());
+        TOKEN_DICT_STATUS_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1146,8 +1290,7 @@ public class Discovery extends BaseService {
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
     ResponseConverter<TokenDictStatusResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TokenDictStatusResponse>() {}.getType());
+        TOKEN_DICT_STATUS_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1183,14 +1326,13 @@ public class Discovery extends BaseService {
     MultipartBody.Builder multipartBuilder = new MultipartBody.Builder();
     multipartBuilder.setType(MultipartBody.FORM);
     okhttp3.RequestBody stopwordFileBody =
-        RequestUtils.inputStreamBody(
+        FileRequestBody.inputStreamBody(
             createStopwordListOptions.stopwordFile(), "application/octet-stream");
     multipartBuilder.addFormDataPart(
         "stopword_file", createStopwordListOptions.stopwordFilename(), stopwordFileBody);
     builder.body(multipartBuilder.build());
     ResponseConverter<TokenDictStatusResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TokenDictStatusResponse>() {}.getType());
+        TOKEN_DICT_STATUS_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1282,7 +1424,7 @@ public class Discovery extends BaseService {
     multipartBuilder.setType(MultipartBody.FORM);
     if (addDocumentOptions.file() != null) {
       okhttp3.RequestBody fileBody =
-          RequestUtils.inputStreamBody(
+          FileRequestBody.inputStreamBody(
               addDocumentOptions.file(), addDocumentOptions.fileContentType());
       multipartBuilder.addFormDataPart("file", addDocumentOptions.filename(), fileBody);
     }
@@ -1290,10 +1432,11 @@ public class Discovery extends BaseService {
       multipartBuilder.addFormDataPart("metadata", addDocumentOptions.metadata());
     }
     builder.body(multipartBuilder.build());
-    ResponseConverter<DocumentAccepted> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DocumentAccepted>() {}.getType());
-    return createServiceCall(builder.build(), responseConverter);
+    ResponseConverter<DocumentAccepted> responseConverter = DOCUMENT_ACCEPTED_CONVERTER;
+    return invalidatingQueries(
+        createServiceCall(builder.build(), responseConverter),
+        addDocumentOptions.environmentId(),
+        addDocumentOptions.collectionId());
   }
 
   /**
@@ -1329,9 +1472,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<DocumentStatus> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DocumentStatus>() {}.getType());
+    ResponseConverter<DocumentStatus> responseConverter = DOCUMENT_STATUS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1374,7 +1515,7 @@ public class Discovery extends BaseService {
     multipartBuilder.setType(MultipartBody.FORM);
     if (updateDocumentOptions.file() != null) {
       okhttp3.RequestBody fileBody =
-          RequestUtils.inputStreamBody(
+          FileRequestBody.inputStreamBody(
               updateDocumentOptions.file(), updateDocumentOptions.fileContentType());
       multipartBuilder.addFormDataPart("file", updateDocumentOptions.filename(), fileBody);
     }
@@ -1382,10 +1523,11 @@ public class Discovery extends BaseService {
       multipartBuilder.addFormDataPart("metadata", updateDocumentOptions.metadata());
     }
     builder.body(multipartBuilder.build());
-    ResponseConverter<DocumentAccepted> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DocumentAccepted>() {}.getType());
-    return createServiceCall(builder.build(), responseConverter);
+    ResponseConverter<DocumentAccepted> responseConverter = DOCUMENT_ACCEPTED_CONVERTER;
+    return invalidatingQueries(
+        createServiceCall(builder.build(), responseConverter),
+        updateDocumentOptions.environmentId(),
+        updateDocumentOptions.collectionId());
   }
 
   /**
@@ -1419,9 +1561,29 @@ public class Discovery extends BaseService {
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
     ResponseConverter<DeleteDocumentResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DeleteDocumentResponse>() {}.getType());
-    return createServiceCall(builder.build(), responseConverter);
+        DELETE_DOCUMENT_RESPONSE_CONVERTER;
+    return invalidatingQueries(
+        createServiceCall(builder.build(), responseConverter),
+        deleteDocumentOptions.environmentId(),
+        deleteDocumentOptions.collectionId());
+  }
+
+  /** Invalidates the cached responses of the queries of a collection when a call completes. */
+  private <T> ServiceCall<T> invalidatingQueries(
+      ServiceCall<T> call, final String environmentId, final String collectionId) {
+    ResponseCache<ResponseCache.RequestKey<QueryOptions>, QueryResponse> cache = queryCache;
+    if (cache == null) {
+      return call;
+    }
+    final String serviceUrl = getServiceUrl();
+    return cache.invalidating(
+        call,
+        requestKey -> {
+          QueryOptions key = requestKey.getOptions();
+          return Objects.equals(serviceUrl, requestKey.getServiceUrl())
+              && environmentId.equals(key.environmentId())
+              && collectionId.equals(key.collectionId());
+        });
   }
 
   /**
@@ -1434,6 +1596,56 @@ public class Discovery extends BaseService {
    * @return a {@link ServiceCall} with a result of type {@link QueryResponse}
    */
   public ServiceCall<QueryResponse> query(QueryOptions queryOptions) {
+    ResponseConverter<QueryResponse> responseConverter = QUERY_RESPONSE_CONVERTER;
+    ServiceCall<QueryResponse> call =
+        createServiceCall(newQueryRequest(queryOptions), responseConverter);
+    ResponseCache<ResponseCache.RequestKey<QueryOptions>, QueryResponse> cache = queryCache;
+    return cache != null
+        ? cache.call(new ResponseCache.RequestKey<>(getServiceUrl(), version, queryOptions), call)
+        : call;
+  }
+
+  /**
+   * Query a collection, fetching all pages.
+   *
+   * <p>Iterates over the results of all pages of {@link #query(QueryOptions)}, starting at the
+   * offset of the options, if any, in pages of the count of the options, or of 10 results if not
+   * set. The following pages are fetched concurrently while the current one is consumed.
+   *
+   * @param queryOptions the {@link QueryOptions} containing the options for the calls
+   * @param prefetch the number of pages fetched ahead of the one being consumed
+   * @return a {@link Pager} of {@link QueryResult}
+   */
+  public Pager<QueryResult> queryPager(QueryOptions queryOptions, int prefetch) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(queryOptions, "queryOptions cannot be null");
+    final long count = queryOptions.count() != null ? queryOptions.count() : 10;
+    return Pager.byOffset(
+        offset -> query(queryOptions.newBuilder().offset(offset).count(count).build()),
+        QueryResponse::getResults,
+        queryOptions.offset() != null ? queryOptions.offset() : 0,
+        count,
+        prefetch);
+  }
+
+  /**
+   * Query a collection, decoding the results one at a time.
+   *
+   * <p>Same as {@link #query(QueryOptions)}, but the results are decoded one at a time as they are
+   * read from the response, rather than all at once into a {@link QueryResponse}. The other
+   * properties of the response are available from {@link StreamingResults#getField(String)}. Close
+   * the results if not all of them are read.
+   *
+   * @param queryOptions the {@link QueryOptions} containing the options for the call
+   * @return a {@link ServiceCall} with a result of type {@link StreamingResults} of {@link
+   *     QueryResult}
+   */
+  public ServiceCall<StreamingResults<QueryResult>> queryStreaming(QueryOptions queryOptions) {
+    ResponseConverter<StreamingResults<QueryResult>> responseConverter =
+        STREAMING_QUERY_RESULTS_CONVERTER;
+    return createServiceCall(newQueryRequest(queryOptions), responseConverter);
+  }
+
+  private Request newQueryRequest(QueryOptions queryOptions) {
     com.ibm.cloud.sdk.core.util.Validator.notNull(queryOptions, "queryOptions cannot be null");
     Map<String, String> pathParamsMap = new HashMap<String, String>();
     pathParamsMap.put("environment_id", queryOptions.environmentId());
@@ -1515,10 +1727,7 @@ public class Discovery extends BaseService {
       contentJson.addProperty("spelling_suggestions", queryOptions.spellingSuggestions());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<QueryResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<QueryResponse>() {}.getType());
-    return createServiceCall(builder.build(), responseConverter);
+    return builder.build();
   }
 
   /**
@@ -1606,9 +1815,7 @@ public class Discovery extends BaseService {
     if (queryNoticesOptions.similarFields() != null) {
       builder.query("similar.fields", RequestUtils.join(queryNoticesOptions.similarFields(), ","));
     }
-    ResponseConverter<QueryNoticesResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<QueryNoticesResponse>() {}.getType());
+    ResponseConverter<QueryNoticesResponse> responseConverter = QUERY_NOTICES_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1702,9 +1909,7 @@ public class Discovery extends BaseService {
       contentJson.addProperty("bias", federatedQueryOptions.bias());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<QueryResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<QueryResponse>() {}.getType());
+    ResponseConverter<QueryResponse> responseConverter = QUERY_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1785,9 +1990,7 @@ public class Discovery extends BaseService {
       builder.query(
           "similar.fields", RequestUtils.join(federatedQueryNoticesOptions.similarFields(), ","));
     }
-    ResponseConverter<QueryNoticesResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<QueryNoticesResponse>() {}.getType());
+    ResponseConverter<QueryNoticesResponse> responseConverter = QUERY_NOTICES_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1828,9 +2031,7 @@ public class Discovery extends BaseService {
     if (getAutocompletionOptions.count() != null) {
       builder.query("count", String.valueOf(getAutocompletionOptions.count()));
     }
-    ResponseConverter<Completions> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Completions>() {}.getType());
+    ResponseConverter<Completions> responseConverter = COMPLETIONS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1862,9 +2063,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<TrainingDataSet> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TrainingDataSet>() {}.getType());
+    ResponseConverter<TrainingDataSet> responseConverter = TRAINING_DATA_SET_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1911,9 +2110,7 @@ public class Discovery extends BaseService {
               .toJsonTree(addTrainingDataOptions.examples()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<TrainingQuery> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TrainingQuery>() {}.getType());
+    ResponseConverter<TrainingQuery> responseConverter = TRAINING_QUERY_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1978,9 +2175,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<TrainingQuery> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TrainingQuery>() {}.getType());
+    ResponseConverter<TrainingQuery> responseConverter = TRAINING_QUERY_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2046,9 +2241,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<TrainingExampleList> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TrainingExampleList>() {}.getType());
+    ResponseConverter<TrainingExampleList> responseConverter = TRAINING_EXAMPLE_LIST_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2093,9 +2286,7 @@ public class Discovery extends BaseService {
       contentJson.addProperty("relevance", createTrainingExampleOptions.relevance());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<TrainingExample> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TrainingExample>() {}.getType());
+    ResponseConverter<TrainingExample> responseConverter = TRAINING_EXAMPLE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2172,9 +2363,7 @@ public class Discovery extends BaseService {
       contentJson.addProperty("relevance", updateTrainingExampleOptions.relevance());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<TrainingExample> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TrainingExample>() {}.getType());
+    ResponseConverter<TrainingExample> responseConverter = TRAINING_EXAMPLE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2209,9 +2398,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<TrainingExample> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TrainingExample>() {}.getType());
+    ResponseConverter<TrainingExample> responseConverter = TRAINING_EXAMPLE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2272,9 +2459,7 @@ public class Discovery extends BaseService {
         "data",
         com.ibm.cloud.sdk.core.util.GsonSingleton.getGson().toJsonTree(createEventOptions.data()));
     builder.bodyJson(contentJson);
-    ResponseConverter<CreateEventResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<CreateEventResponse>() {}.getType());
+    ResponseConverter<CreateEventResponse> responseConverter = CREATE_EVENT_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2315,12 +2500,35 @@ public class Discovery extends BaseService {
     if (queryLogOptions.sort() != null) {
       builder.query("sort", RequestUtils.join(queryLogOptions.sort(), ","));
     }
-    ResponseConverter<LogQueryResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<LogQueryResponse>() {}.getType());
+    ResponseConverter<LogQueryResponse> responseConverter = LOG_QUERY_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
+  /**
+   * Search the query and event log, fetching all pages.
+   *
+   * <p>Iterates over the log entries of all pages of {@link #queryLog(QueryLogOptions)}, starting
+   * at the offset of the options, if any, in pages of the count of the options, or of 10 log
+   * entries if not set. The following pages are fetched concurrently while the current one is
+   * consumed.
+   *
+   * @param queryLogOptions the {@link QueryLogOptions} containing the options for the calls
+   * @param prefetch the number of pages fetched ahead of the one being consumed
+   * @return a {@link Pager} of {@link LogQueryResponseResult}
+   */
+  public Pager<LogQueryResponseResult> queryLogPager(
+      QueryLogOptions queryLogOptions, int prefetch) {
+    final QueryLogOptions options =
+        queryLogOptions != null ? queryLogOptions : new QueryLogOptions.Builder().build();
+    final long count = options.count() != null ? options.count() : 10;
+    return Pager.byOffset(
+        offset -> queryLog(options.newBuilder().offset(offset).count(count).build()),
+        LogQueryResponse::getResults,
+        options.offset() != null ? options.offset() : 0,
+        count,
+        prefetch);
+  }
+
   /**
    * Search the query and event log.
    *
@@ -2367,9 +2575,7 @@ public class Discovery extends BaseService {
     if (getMetricsQueryOptions.resultType() != null) {
       builder.query("result_type", String.valueOf(getMetricsQueryOptions.resultType()));
     }
-    ResponseConverter<MetricResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<MetricResponse>() {}.getType());
+    ResponseConverter<MetricResponse> responseConverter = METRIC_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2422,9 +2628,7 @@ public class Discovery extends BaseService {
     if (getMetricsQueryEventOptions.resultType() != null) {
       builder.query("result_type", String.valueOf(getMetricsQueryEventOptions.resultType()));
     }
-    ResponseConverter<MetricResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<MetricResponse>() {}.getType());
+    ResponseConverter<MetricResponse> responseConverter = METRIC_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2478,9 +2682,7 @@ public class Discovery extends BaseService {
     if (getMetricsQueryNoResultsOptions.resultType() != null) {
       builder.query("result_type", String.valueOf(getMetricsQueryNoResultsOptions.resultType()));
     }
-    ResponseConverter<MetricResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<MetricResponse>() {}.getType());
+    ResponseConverter<MetricResponse> responseConverter = METRIC_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2532,9 +2734,7 @@ public class Discovery extends BaseService {
     if (getMetricsEventRateOptions.resultType() != null) {
       builder.query("result_type", String.valueOf(getMetricsEventRateOptions.resultType()));
     }
-    ResponseConverter<MetricResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<MetricResponse>() {}.getType());
+    ResponseConverter<MetricResponse> responseConverter = METRIC_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2581,9 +2781,7 @@ public class Discovery extends BaseService {
     if (getMetricsQueryTokenEventOptions.count() != null) {
       builder.query("count", String.valueOf(getMetricsQueryTokenEventOptions.count()));
     }
-    ResponseConverter<MetricTokenResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<MetricTokenResponse>() {}.getType());
+    ResponseConverter<MetricTokenResponse> responseConverter = METRIC_TOKEN_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2627,9 +2825,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<CredentialsList> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<CredentialsList>() {}.getType());
+    ResponseConverter<CredentialsList> responseConverter = CREDENTIALS_LIST_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2679,9 +2875,7 @@ public class Discovery extends BaseService {
               .toJsonTree(createCredentialsOptions.status()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Credentials> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Credentials>() {}.getType());
+    ResponseConverter<Credentials> responseConverter = CREDENTIALS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2715,9 +2909,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<Credentials> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Credentials>() {}.getType());
+    ResponseConverter<Credentials> responseConverter = CREDENTIALS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2769,9 +2961,7 @@ public class Discovery extends BaseService {
               .toJsonTree(updateCredentialsOptions.status()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Credentials> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Credentials>() {}.getType());
+    ResponseConverter<Credentials> responseConverter = CREDENTIALS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2804,9 +2994,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<DeleteCredentials> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DeleteCredentials>() {}.getType());
+    ResponseConverter<DeleteCredentials> responseConverter = DELETE_CREDENTIALS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2833,9 +3021,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<GatewayList> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<GatewayList>() {}.getType());
+    ResponseConverter<GatewayList> responseConverter = GATEWAY_LIST_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2868,9 +3054,7 @@ public class Discovery extends BaseService {
       contentJson.addProperty("name", createGatewayOptions.name());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Gateway> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Gateway>() {}.getType());
+    ResponseConverter<Gateway> responseConverter = GATEWAY_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2900,9 +3084,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<Gateway> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Gateway>() {}.getType());
+    ResponseConverter<Gateway> responseConverter = GATEWAY_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2933,9 +3115,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<GatewayDelete> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<GatewayDelete>() {}.getType());
+    ResponseConverter<GatewayDelete> responseConverter = GATEWAY_DELETE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 }
@@ -0,0 +1,94 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.discovery.v1;
+
+import com.ibm.watson.common.FileIngestor;
+import com.ibm.watson.discovery.v1.model.AddDocumentOptions;
+import com.ibm.watson.discovery.v1.model.DocumentAccepted;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Adds files to a collection as documents, with {@link Discovery#addDocument(AddDocumentOptions)},
+ * uploading a bounded number of them concurrently. <br>
+ * See {@link FileIngestor} for the handling of failed uploads and of the checkpoint file, in which
+ * the ID of the document of each file is kept. The content type of each file is guessed from its
+ * name, if possible.
+ */
+public class DocumentIngestor extends FileIngestor<DocumentAccepted> {
+
+  /**
+   * Instantiates a new ingestor with the default maximum number of uploads and retries.
+   *
+   * @param discovery the service client
+   * @param environmentId the ID of the environment
+   * @param collectionId the ID of the collection
+   * @param checkpointFile the checkpoint file, or null to not checkpoint the uploaded files
+   * @throws IOException if the checkpoint file cannot be read or opened
+   */
+  public DocumentIngestor(
+      Discovery discovery, String environmentId, String collectionId, Path checkpointFile)
+      throws IOException {
+    this(
+        discovery,
+        environmentId,
+        collectionId,
+        checkpointFile,
+        DEFAULT_MAX_CONCURRENT_UPLOADS,
+        DEFAULT_MAX_RETRIES);
+  }
+
+  /**
+   * Instantiates a new ingestor.
+   *
+   * @param discovery the service client
+   * @param environmentId the ID of the environment
+   * @param collectionId the ID of the collection
+   * @param checkpointFile the checkpoint file, or null to not checkpoint the uploaded files
+   * @param maxConcurrentUploads the maximum number of uploads in flight
+   * @param maxRetries the number of times a failed upload is sent again
+   * @throws IOException if the checkpoint file cannot be read or opened
+   */
+  public DocumentIngestor(
+      Discovery discovery,
+      String environmentId,
+      String collectionId,
+      Path checkpointFile,
+      int maxConcurrentUploads,
+      int maxRetries)
+      throws IOException {
+    super(
+        upload(discovery, environmentId, collectionId),
+        DocumentAccepted::getDocumentId,
+        checkpointFile,
+        maxConcurrentUploads,
+        maxRetries);
+  }
+
+  private static Upload<DocumentAccepted> upload(
+      final Discovery discovery, final String environmentId, final String collectionId) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(discovery, "discovery cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notEmpty(environmentId, "environmentId cannot be empty");
+    com.ibm.cloud.sdk.core.util.Validator.notEmpty(collectionId, "collectionId cannot be empty");
+    return (file, content) ->
+        discovery.addDocument(
+            new AddDocumentOptions.Builder()
+                .environmentId(environmentId)
+                .collectionId(collectionId)
+                .file(content)
+                .filename(file.getFileName().toString())
+                .fileContentType(Files.probeContentType(file))
+                .build());
+  }
+}
@@ -12,20 +12,13 @@
  */
 package com.ibm.watson.discovery.v1.query;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.ibm.cloud.sdk.core.util.GsonSingleton;
-import com.ibm.watson.discovery.v1.model.Calculation;
-import com.ibm.watson.discovery.v1.model.Filter;
-import com.ibm.watson.discovery.v1.model.Histogram;
-import com.ibm.watson.discovery.v1.model.Nested;
 import com.ibm.watson.discovery.v1.model.QueryAggregation;
-import com.ibm.watson.discovery.v1.model.Term;
-import com.ibm.watson.discovery.v1.model.Timeslice;
-import com.ibm.watson.discovery.v1.model.TopHits;
 import java.lang.reflect.Type;
 
 /**
@@ -36,6 +29,9 @@ import java.lang.reflect.Type;
 public class AggregationDeserializer implements JsonDeserializer<QueryAggregation> {
 
   private static final String TYPE = "type";
+  private static final AggregationTypeAdapterFactory FACTORY = new AggregationTypeAdapterFactory();
+  private static final Gson GSON =
+      GsonSingleton.getGson().newBuilder().registerTypeAdapterFactory(FACTORY).create();
 
   /**
    * Deserializes JSON and converts it to the appropriate {@link QueryAggregation} subclass.
@@ -52,37 +48,16 @@ public class AggregationDeserializer implements JsonDeserializer<QueryAggregatio
       throws JsonParseException {
 
     // get aggregation type from response
-    JsonObject jsonObject = json.getAsJsonObject();
-    String aggregationType = "";
-    for (String key : jsonObject.keySet()) {
-      if (key.equals(TYPE)) {
-        aggregationType = jsonObject.get(key).getAsString();
-      }
+    JsonElement type = json.getAsJsonObject().get(TYPE);
+    Class<? extends QueryAggregation> aggregationClass =
+        type != null && type.isJsonPrimitive()
+            ? FACTORY.getSubclass(type.getAsString())
+            : QueryAggregation.class;
+    if (aggregationClass == QueryAggregation.class) {
+      aggregationClass = GenericQueryAggregation.class;
     }
 
-    QueryAggregation aggregation;
-    if (aggregationType.equals(AggregationType.HISTOGRAM.getName())) {
-      aggregation = GsonSingleton.getGson().fromJson(json, Histogram.class);
-    } else if (aggregationType.equals(AggregationType.MAX.getName())
-        || aggregationType.equals(AggregationType.MIN.getName())
-        || aggregationType.equals(AggregationType.AVERAGE.getName())
-        || aggregationType.equals(AggregationType.SUM.getName())
-        || aggregationType.equals(AggregationType.UNIQUE_COUNT.getName())) {
-      aggregation = GsonSingleton.getGson().fromJson(json, Calculation.class);
-    } else if (aggregationType.equals(AggregationType.TERM.getName())) {
-      aggregation = GsonSingleton.getGson().fromJson(json, Term.class);
-    } else if (aggregationType.equals(AggregationType.FILTER.getName())) {
-      aggregation = GsonSingleton.getGson().fromJson(json, Filter.class);
-    } else if (aggregationType.equals(AggregationType.NESTED.getName())) {
-      aggregation = GsonSingleton.getGson().fromJson(json, Nested.class);
-    } else if (aggregationType.equals(AggregationType.TIMESLICE.getName())) {
-      aggregation = GsonSingleton.getGson().fromJson(json, Timeslice.class);
-    } else if (aggregationType.equals(AggregationType.TOP_HITS.getName())) {
-      aggregation = GsonSingleton.getGson().fromJson(json, TopHits.class);
-    } else {
-      aggregation = GsonSingleton.getGson().fromJson(json, GenericQueryAggregation.class);
-    }
-
-    return aggregation;
+    // nested aggregations are decoded by the factory
+    return GSON.fromJson(json, aggregationClass);
   }
 }
@@ -26,7 +26,11 @@ import com.ibm.cloud.sdk.core.security.ConfigBasedAuthenticatorFactory;
 import com.ibm.cloud.sdk.core.service.BaseService;
 import com.ibm.cloud.sdk.core.util.RequestUtils;
 import com.ibm.cloud.sdk.core.util.ResponseConverterUtils;
+import com.ibm.watson.common.FileRequestBody;
+import com.ibm.watson.common.Pager;
+import com.ibm.watson.common.ResponseCache;
 import com.ibm.watson.common.SdkCommon;
+import com.ibm.watson.common.StreamingResults;
 import com.ibm.watson.discovery.v2.model.AddDocumentOptions;
 import com.ibm.watson.discovery.v2.model.AnalyzeDocumentOptions;
 import com.ibm.watson.discovery.v2.model.AnalyzedDocument;
@@ -68,6 +72,7 @@ import com.ibm.watson.discovery.v2.model.QueryNoticesOptions;
 import com.ibm.watson.discovery.v2.model.QueryNoticesResponse;
 import com.ibm.watson.discovery.v2.model.QueryOptions;
 import com.ibm.watson.discovery.v2.model.QueryResponse;
+import com.ibm.watson.discovery.v2.model.QueryResult;
 import com.ibm.watson.discovery.v2.model.TrainingQuery;
 import com.ibm.watson.discovery.v2.model.TrainingQuerySet;
 import com.ibm.watson.discovery.v2.model.UpdateCollectionOptions;
@@ -75,10 +80,13 @@ import com.ibm.watson.discovery.v2.model.UpdateDocumentOptions;
 import com.ibm.watson.discovery.v2.model.UpdateEnrichmentOptions;
 import com.ibm.watson.discovery.v2.model.UpdateProjectOptions;
 import com.ibm.watson.discovery.v2.model.UpdateTrainingQueryOptions;
+import com.ibm.watson.discovery.v2.query.AggregationTypeAdapterFactory;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import okhttp3.MultipartBody;
+import okhttp3.Request;
 
 /**
  * IBM Watson&amp;trade; Discovery is a cognitive search and content analytics engine that you can
@@ -95,7 +103,77 @@ public class Discovery extends BaseService {
   public static final String DEFAULT_SERVICE_URL =
       "https://api.us-south.discovery.watson.cloud.ibm.com";
 
+  private static final ResponseConverter<ListCollectionsResponse>
+      LIST_COLLECTIONS_RESPONSE_CONVERTER =
+          ResponseConverterUtils.getValue(
+              new com.google.gson.reflect.TypeToken<ListCollectionsResponse>() {}.getType());
+
+  private static final ResponseConverter<CollectionDetails> COLLECTION_DETAILS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<CollectionDetails>() {}.getType());
+
+  private static final ResponseConverter<QueryResponse> QUERY_RESPONSE_CONVERTER =
+      new AggregationTypeAdapterFactory().converter(QueryResponse.class);
+
+  private static final ResponseConverter<Completions> COMPLETIONS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Completions>() {}.getType());
+
+  private static final ResponseConverter<QueryNoticesResponse> QUERY_NOTICES_RESPONSE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<QueryNoticesResponse>() {}.getType());
+
+  private static final ResponseConverter<ListFieldsResponse> LIST_FIELDS_RESPONSE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<ListFieldsResponse>() {}.getType());
+
+  private static final ResponseConverter<ComponentSettingsResponse>
+      COMPONENT_SETTINGS_RESPONSE_CONVERTER =
+          ResponseConverterUtils.getValue(
+              new com.google.gson.reflect.TypeToken<ComponentSettingsResponse>() {}.getType());
+
+  private static final ResponseConverter<DocumentAccepted> DOCUMENT_ACCEPTED_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<DocumentAccepted>() {}.getType());
+
+  private static final ResponseConverter<DeleteDocumentResponse>
+      DELETE_DOCUMENT_RESPONSE_CONVERTER =
+          ResponseConverterUtils.getValue(
+              new com.google.gson.reflect.TypeToken<DeleteDocumentResponse>() {}.getType());
+
+  private static final ResponseConverter<TrainingQuerySet> TRAINING_QUERY_SET_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<TrainingQuerySet>() {}.getType());
+
+  private static final ResponseConverter<TrainingQuery> TRAINING_QUERY_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<TrainingQuery>() {}.getType());
+
+  private static final ResponseConverter<AnalyzedDocument> ANALYZED_DOCUMENT_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<AnalyzedDocument>() {}.getType());
+
+  private static final ResponseConverter<Enrichments> ENRICHMENTS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Enrichments>() {}.getType());
+
+  private static final ResponseConverter<Enrichment> ENRICHMENT_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Enrichment>() {}.getType());
+
+  private static final ResponseConverter<ListProjectsResponse> LIST_PROJECTS_RESPONSE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<ListProjectsResponse>() {}.getType());
+
+  private static final ResponseConverter<ProjectDetails> PROJECT_DETAILS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<ProjectDetails>() {}.getType());
+
+  private static final ResponseConverter<StreamingResults<QueryResult>>
+      STREAMING_QUERY_RESULTS_CONVERTER = StreamingResults.converter("results", QueryResult.class);
+
   private String version;
+  private volatile ResponseCache<ResponseCache.RequestKey<QueryOptions>, QueryResponse> queryCache;
 
   /**
    * Constructs an instance of the `Discovery` client. The default service name is used to configure
@@ -173,6 +251,34 @@ public class Discovery extends BaseService {
     this.version = version;
   }
 
+  /**
+   * Sets the cache of the responses of {@link #query(QueryOptions)}. <br>
+   * Queries with equal options sent to the same service URL and version are answered from the cache
+   * while their response is kept, and equal queries sent while the response is awaited share one
+   * request. Headers added to a query are not part of its key: they are only sent if the query is
+   * not answered from the cache. Adding, updating or deleting a document of a collection with this
+   * client invalidates the cached responses of the queries of the collection. Documents are indexed
+   * after these calls return, so responses of queries sent meanwhile, like those of collections
+   * changed by other clients, are only refreshed when they expire. The responses are not cached by
+   * default.
+   *
+   * @param queryCache the cache, or null to not cache the responses
+   */
+  public void setQueryCache(
+      ResponseCache<ResponseCache.RequestKey<QueryOptions>, QueryResponse> queryCache) {
+    this.queryCache = queryCache;
+  }
+
+  /**
+   * Gets the cache of the responses of {@link #query(QueryOptions)}, for example to read its hit
+   * and miss counts.
+   *
+   * @return the cache, or null if the responses are not cached
+   */
+  public ResponseCache<ResponseCache.RequestKey<QueryOptions>, QueryResponse> getQueryCache() {
+    return queryCache;
+  }
+
   /**
    * List collections.
    *
@@ -199,8 +305,7 @@ public class Discovery extends BaseService {
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
     ResponseConverter<ListCollectionsResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ListCollectionsResponse>() {}.getType());
+        LIST_COLLECTIONS_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -244,9 +349,7 @@ public class Discovery extends BaseService {
               .toJsonTree(createCollectionOptions.enrichments()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<CollectionDetails> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<CollectionDetails>() {}.getType());
+    ResponseConverter<CollectionDetails> responseConverter = COLLECTION_DETAILS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -277,9 +380,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<CollectionDetails> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<CollectionDetails>() {}.getType());
+    ResponseConverter<CollectionDetails> responseConverter = COLLECTION_DETAILS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -325,9 +426,7 @@ public class Discovery extends BaseService {
               .toJsonTree(updateCollectionOptions.enrichments()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<CollectionDetails> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<CollectionDetails>() {}.getType());
+    ResponseConverter<CollectionDetails> responseConverter = COLLECTION_DETAILS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -376,6 +475,56 @@ public class Discovery extends BaseService {
    * @return a {@link ServiceCall} with a result of type {@link QueryResponse}
    */
   public ServiceCall<QueryResponse> query(QueryOptions queryOptions) {
+    ResponseConverter<QueryResponse> responseConverter = QUERY_RESPONSE_CONVERTER;
+    ServiceCall<QueryResponse> call =
+        createServiceCall(newQueryRequest(queryOptions), responseConverter);
+    ResponseCache<ResponseCache.RequestKey<QueryOptions>, QueryResponse> cache = queryCache;
+    return cache != null
+        ? cache.call(new ResponseCache.RequestKey<>(getServiceUrl(), version, queryOptions), call)
+        : call;
+  }
+
+  /**
+   * Query a project, fetching all pages.
+   *
+   * <p>Iterates over the results of all pages of {@link #query(QueryOptions)}, starting at the
+   * offset of the options, if any, in pages of the count of the options, or of 10 results if not
+   * set. The following pages are fetched concurrently while the current one is consumed.
+   *
+   * @param queryOptions the {@link QueryOptions} containing the options for the calls
+   * @param prefetch the number of pages fetched ahead of the one being consumed
+   * @return a {@link Pager} of {@link QueryResult}
+   */
+  public Pager<QueryResult> queryPager(QueryOptions queryOptions, int prefetch) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(queryOptions, "queryOptions cannot be null");
+    final long count = queryOptions.count() != null ? queryOptions.count() : 10;
+    return Pager.byOffset(
+        offset -> query(queryOptions.newBuilder().offset(offset).count(count).build()),
+        QueryResponse::getResults,
+        queryOptions.offset() != null ? queryOptions.offset() : 0,
+        count,
+        prefetch);
+  }
+
+  /**
+   * Query a project, decoding the results one at a time.
+   *
+   * <p>Same as {@link #query(QueryOptions)}, but the results are decoded one at a time as they are
+   * read from the response, rather than all at once into a {@link QueryResponse}. The other
+   * properties of the response are available from {@link StreamingResults#getField(String)}. Close
+   * the results if not all of them are read.
+   *
+   * @param queryOptions the {@link QueryOptions} containing the options for the call
+   * @return a {@link ServiceCall} with a result of type {@link StreamingResults} of {@link
+   *     QueryResult}
+   */
+  public ServiceCall<StreamingResults<QueryResult>> queryStreaming(QueryOptions queryOptions) {
+    ResponseConverter<StreamingResults<QueryResult>> responseConverter =
+        STREAMING_QUERY_RESULTS_CONVERTER;
+    return createServiceCall(newQueryRequest(queryOptions), responseConverter);
+  }
+
+  private Request newQueryRequest(QueryOptions queryOptions) {
     com.ibm.cloud.sdk.core.util.Validator.notNull(queryOptions, "queryOptions cannot be null");
     Map<String, String> pathParamsMap = new HashMap<String, String>();
     pathParamsMap.put("project_id", queryOptions.projectId());
@@ -446,10 +595,7 @@ public class Discovery extends BaseService {
           com.ibm.cloud.sdk.core.util.GsonSingleton.getGson().toJsonTree(queryOptions.passages()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<QueryResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<QueryResponse>() {}.getType());
-    return createServiceCall(builder.build(), responseConverter);
+    return builder.build();
   }
 
   /**
@@ -489,9 +635,7 @@ public class Discovery extends BaseService {
     if (getAutocompletionOptions.count() != null) {
       builder.query("count", String.valueOf(getAutocompletionOptions.count()));
     }
-    ResponseConverter<Completions> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Completions>() {}.getType());
+    ResponseConverter<Completions> responseConverter = COMPLETIONS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -542,9 +686,7 @@ public class Discovery extends BaseService {
     if (queryCollectionNoticesOptions.offset() != null) {
       builder.query("offset", String.valueOf(queryCollectionNoticesOptions.offset()));
     }
-    ResponseConverter<QueryNoticesResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<QueryNoticesResponse>() {}.getType());
+    ResponseConverter<QueryNoticesResponse> responseConverter = QUERY_NOTICES_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -588,9 +730,7 @@ public class Discovery extends BaseService {
     if (queryNoticesOptions.offset() != null) {
       builder.query("offset", String.valueOf(queryNoticesOptions.offset()));
     }
-    ResponseConverter<QueryNoticesResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<QueryNoticesResponse>() {}.getType());
+    ResponseConverter<QueryNoticesResponse> responseConverter = QUERY_NOTICES_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -620,9 +760,7 @@ public class Discovery extends BaseService {
     if (listFieldsOptions.collectionIds() != null) {
       builder.query("collection_ids", RequestUtils.join(listFieldsOptions.collectionIds(), ","));
     }
-    ResponseConverter<ListFieldsResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ListFieldsResponse>() {}.getType());
+    ResponseConverter<ListFieldsResponse> responseConverter = LIST_FIELDS_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -653,8 +791,7 @@ public class Discovery extends BaseService {
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
     ResponseConverter<ComponentSettingsResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ComponentSettingsResponse>() {}.getType());
+        COMPONENT_SETTINGS_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -722,7 +859,7 @@ public class Discovery extends BaseService {
     multipartBuilder.setType(MultipartBody.FORM);
     if (addDocumentOptions.file() != null) {
       okhttp3.RequestBody fileBody =
-          RequestUtils.inputStreamBody(
+          FileRequestBody.inputStreamBody(
               addDocumentOptions.file(), addDocumentOptions.fileContentType());
       multipartBuilder.addFormDataPart("file", addDocumentOptions.filename(), fileBody);
     }
@@ -730,10 +867,11 @@ public class Discovery extends BaseService {
       multipartBuilder.addFormDataPart("metadata", addDocumentOptions.metadata());
     }
     builder.body(multipartBuilder.build());
-    ResponseConverter<DocumentAccepted> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DocumentAccepted>() {}.getType());
-    return createServiceCall(builder.build(), responseConverter);
+    ResponseConverter<DocumentAccepted> responseConverter = DOCUMENT_ACCEPTED_CONVERTER;
+    return invalidatingQueries(
+        createServiceCall(builder.build(), responseConverter),
+        addDocumentOptions.projectId(),
+        addDocumentOptions.collectionId());
   }
 
   /**
@@ -788,7 +926,7 @@ public class Discovery extends BaseService {
     multipartBuilder.setType(MultipartBody.FORM);
     if (updateDocumentOptions.file() != null) {
       okhttp3.RequestBody fileBody =
-          RequestUtils.inputStreamBody(
+          FileRequestBody.inputStreamBody(
               updateDocumentOptions.file(), updateDocumentOptions.fileContentType());
       multipartBuilder.addFormDataPart("file", updateDocumentOptions.filename(), fileBody);
     }
@@ -796,10 +934,11 @@ public class Discovery extends BaseService {
       multipartBuilder.addFormDataPart("metadata", updateDocumentOptions.metadata());
     }
     builder.body(multipartBuilder.build());
-    ResponseConverter<DocumentAccepted> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DocumentAccepted>() {}.getType());
-    return createServiceCall(builder.build(), responseConverter);
+    ResponseConverter<DocumentAccepted> responseConverter = DOCUMENT_ACCEPTED_CONVERTER;
+    return invalidatingQueries(
+        createServiceCall(builder.build(), responseConverter),
+        updateDocumentOptions.projectId(),
+        updateDocumentOptions.collectionId());
   }
 
   /**
@@ -843,9 +982,31 @@ public class Discovery extends BaseService {
     }
     builder.query("version", String.valueOf(this.version));
     ResponseConverter<DeleteDocumentResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DeleteDocumentResponse>() {}.getType());
-    return createServiceCall(builder.build(), responseConverter);
+        DELETE_DOCUMENT_RESPONSE_CONVERTER;
+    return invalidatingQueries(
+        createServiceCall(builder.build(), responseConverter),
+        deleteDocumentOptions.projectId(),
+        deleteDocumentOptions.collectionId());
+  }
+
+  /** Invalidates the cached responses of the queries of a collection when a call completes. */
+  private <T> ServiceCall<T> invalidatingQueries(
+      ServiceCall<T> call, final String projectId, final String collectionId) {
+    ResponseCache<ResponseCache.RequestKey<QueryOptions>, QueryResponse> cache = queryCache;
+    if (cache == null) {
+      return call;
+    }
+    final String serviceUrl = getServiceUrl();
+    return cache.invalidating(
+        call,
+        requestKey -> {
+          QueryOptions key = requestKey.getOptions();
+          return Objects.equals(serviceUrl, requestKey.getServiceUrl())
+              && projectId.equals(key.projectId())
+              && (key.collectionIds() == null
+                  || key.collectionIds().isEmpty()
+                  || key.collectionIds().contains(collectionId));
+        });
   }
 
   /**
@@ -874,9 +1035,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<TrainingQuerySet> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TrainingQuerySet>() {}.getType());
+    ResponseConverter<TrainingQuerySet> responseConverter = TRAINING_QUERY_SET_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -947,9 +1106,7 @@ public class Discovery extends BaseService {
       contentJson.addProperty("filter", createTrainingQueryOptions.filter());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<TrainingQuery> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TrainingQuery>() {}.getType());
+    ResponseConverter<TrainingQuery> responseConverter = TRAINING_QUERY_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -981,9 +1138,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<TrainingQuery> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TrainingQuery>() {}.getType());
+    ResponseConverter<TrainingQuery> responseConverter = TRAINING_QUERY_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1027,9 +1182,7 @@ public class Discovery extends BaseService {
       contentJson.addProperty("filter", updateTrainingQueryOptions.filter());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<TrainingQuery> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TrainingQuery>() {}.getType());
+    ResponseConverter<TrainingQuery> responseConverter = TRAINING_QUERY_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1105,7 +1258,7 @@ public class Discovery extends BaseService {
     multipartBuilder.setType(MultipartBody.FORM);
     if (analyzeDocumentOptions.file() != null) {
       okhttp3.RequestBody fileBody =
-          RequestUtils.inputStreamBody(
+          FileRequestBody.inputStreamBody(
               analyzeDocumentOptions.file(), analyzeDocumentOptions.fileContentType());
       multipartBuilder.addFormDataPart("file", analyzeDocumentOptions.filename(), fileBody);
     }
@@ -1113,9 +1266,7 @@ public class Discovery extends BaseService {
       multipartBuilder.addFormDataPart("metadata", analyzeDocumentOptions.metadata());
     }
     builder.body(multipartBuilder.build());
-    ResponseConverter<AnalyzedDocument> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<AnalyzedDocument>() {}.getType());
+    ResponseConverter<AnalyzedDocument> responseConverter = ANALYZED_DOCUMENT_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1144,9 +1295,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<Enrichments> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Enrichments>() {}.getType());
+    ResponseConverter<Enrichments> responseConverter = ENRICHMENTS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1179,13 +1328,12 @@ public class Discovery extends BaseService {
     multipartBuilder.addFormDataPart("enrichment", createEnrichmentOptions.enrichment().toString());
     if (createEnrichmentOptions.file() != null) {
       okhttp3.RequestBody fileBody =
-          RequestUtils.inputStreamBody(createEnrichmentOptions.file(), "application/octet-stream");
+          FileRequestBody.inputStreamBody(
+              createEnrichmentOptions.file(), "application/octet-stream");
       multipartBuilder.addFormDataPart("file", "filename", fileBody);
     }
     builder.body(multipartBuilder.build());
-    ResponseConverter<Enrichment> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Enrichment>() {}.getType());
+    ResponseConverter<Enrichment> responseConverter = ENRICHMENT_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1216,9 +1364,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<Enrichment> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Enrichment>() {}.getType());
+    ResponseConverter<Enrichment> responseConverter = ENRICHMENT_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1255,9 +1401,7 @@ public class Discovery extends BaseService {
       contentJson.addProperty("description", updateEnrichmentOptions.description());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Enrichment> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Enrichment>() {}.getType());
+    ResponseConverter<Enrichment> responseConverter = ENRICHMENT_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1310,9 +1454,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<ListProjectsResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ListProjectsResponse>() {}.getType());
+    ResponseConverter<ListProjectsResponse> responseConverter = LIST_PROJECTS_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1357,9 +1499,7 @@ public class Discovery extends BaseService {
               .toJsonTree(createProjectOptions.defaultQueryParameters()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<ProjectDetails> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ProjectDetails>() {}.getType());
+    ResponseConverter<ProjectDetails> responseConverter = PROJECT_DETAILS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1386,9 +1526,7 @@ public class Discovery extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<ProjectDetails> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ProjectDetails>() {}.getType());
+    ResponseConverter<ProjectDetails> responseConverter = PROJECT_DETAILS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1421,9 +1559,7 @@ public class Discovery extends BaseService {
       contentJson.addProperty("name", updateProjectOptions.name());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<ProjectDetails> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ProjectDetails>() {}.getType());
+    ResponseConverter<ProjectDetails> responseConverter = PROJECT_DETAILS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -0,0 +1,80 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.discovery.v2;
+
+import com.ibm.cloud.sdk.core.http.ServiceCall;
+import com.ibm.watson.common.FederatedSearch;
+import com.ibm.watson.discovery.v2.model.QueryOptions;
+import com.ibm.watson.discovery.v2.model.QueryResponse;
+import com.ibm.watson.discovery.v2.model.QueryResult;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries several targets in parallel with {@link Discovery#query(QueryOptions)}, and merges their
+ * results by confidence. <br>
+ * Each query names its own project, and optionally collections, so that targets the service cannot
+ * federate in one query can be searched together. See {@link FederatedSearch} for the handling of
+ * the deadline and of the failed targets. Results without a confidence come last. The confidences
+ * of different targets are compared as they are, so they should come from similarly configured
+ * collections.
+ */
+public class FederatedQuery extends FederatedSearch<QueryOptions, QueryResponse, QueryResult> {
+
+  private static final Comparator<QueryResult> BY_CONFIDENCE =
+      Comparator.comparing(
+          FederatedQuery::confidence, Comparator.nullsLast(Comparator.<Double>reverseOrder()));
+
+  private final Discovery discovery;
+
+  /**
+   * Instantiates a new federated query.
+   *
+   * @param discovery the service client
+   * @param maxResults the maximum number of results returned
+   */
+  public FederatedQuery(Discovery discovery, int maxResults) {
+    super(QueryResponse::getResults, BY_CONFIDENCE, maxResults);
+    com.ibm.cloud.sdk.core.util.Validator.notNull(discovery, "discovery cannot be null");
+    this.discovery = discovery;
+  }
+
+  /**
+   * Sends the queries in parallel and merges their results, waiting for the responses until a
+   * deadline. The queries still awaited at the deadline are cancelled. The queries can be built
+   * from a common one with {@link QueryOptions#newBuilder()}, and should ask for at least the
+   * maximum number of results each.
+   *
+   * @param queries the queries, one per target
+   * @param timeout the time to wait for the responses
+   * @param unit the unit of the timeout
+   * @return the merged results, by query
+   * @throws InterruptedException if the thread is interrupted
+   */
+  public Results<QueryOptions, QueryResponse, QueryResult> query(
+      Collection<QueryOptions> queries, long timeout, TimeUnit unit) throws InterruptedException {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(queries, "queries cannot be null");
+    Map<QueryOptions, ServiceCall<QueryResponse>> calls = new LinkedHashMap<>();
+    for (QueryOptions query : queries) {
+      calls.put(query, discovery.query(query));
+    }
+    return search(calls, timeout, unit);
+  }
+
+  private static Double confidence(QueryResult result) {
+    return result.getResultMetadata() != null ? result.getResultMetadata().getConfidence() : null;
+  }
+}
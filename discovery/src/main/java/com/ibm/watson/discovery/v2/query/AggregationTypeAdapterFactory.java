@@ -0,0 +1,53 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.discovery.v2.query;
+
+import com.ibm.watson.common.DiscriminatorTypeAdapterFactory;
+import com.ibm.watson.discovery.v2.model.QueryAggregation;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Gson type adapter factory decoding JSON into the {@link QueryAggregation} subclass of its type,
+ * in a single pass over nested aggregations.
+ */
+public class AggregationTypeAdapterFactory
+    extends DiscriminatorTypeAdapterFactory<QueryAggregation> {
+
+  private static final Map<String, Class<? extends QueryAggregation>> MAPPING = new HashMap<>();
+
+  static {
+    for (Map.Entry<String, Class<?>> type : Generated.mapping().entrySet()) {
+      MAPPING.put(type.getKey(), type.getValue().asSubclass(QueryAggregation.class));
+    }
+  }
+
+  /** Instantiates a new factory. */
+  public AggregationTypeAdapterFactory() {
+    super(QueryAggregation.class, Generated.propertyName(), MAPPING);
+  }
+
+  /**
+   * Reads the discriminator generated with the models, so that the mapping follows them when they
+   * are regenerated.
+   */
+  private static final class Generated extends QueryAggregation {
+    private static Map<String, Class<?>> mapping() {
+      return discriminatorMapping;
+    }
+
+    private static String propertyName() {
+      return discriminatorPropertyName;
+    }
+  }
+}
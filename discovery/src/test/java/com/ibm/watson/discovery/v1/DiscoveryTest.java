@@ -20,6 +20,7 @@ import com.ibm.cloud.sdk.core.security.NoAuthAuthenticator;
 import com.ibm.cloud.sdk.core.service.model.FileWithMetadata;
 import com.ibm.cloud.sdk.core.util.DateUtils;
 import com.ibm.cloud.sdk.core.util.RequestUtils;
+import com.ibm.watson.common.Pager;
 import com.ibm.watson.discovery.v1.model.AddDocumentOptions;
 import com.ibm.watson.discovery.v1.model.AddTrainingDataOptions;
 import com.ibm.watson.discovery.v1.model.Collection;
@@ -104,6 +105,7 @@ import com.ibm.watson.discovery.v1.model.ListGatewaysOptions;
 import com.ibm.watson.discovery.v1.model.ListTrainingDataOptions;
 import com.ibm.watson.discovery.v1.model.ListTrainingExamplesOptions;
 import com.ibm.watson.discovery.v1.model.LogQueryResponse;
+import com.ibm.watson.discovery.v1.model.LogQueryResponseResult;
 import com.ibm.watson.discovery.v1.model.MetricResponse;
 import com.ibm.watson.discovery.v1.model.MetricTokenResponse;
 import com.ibm.watson.discovery.v1.model.NluEnrichmentConcepts;
@@ -151,9 +153,12 @@ import com.ibm.watson.discovery.v1.model.XPathPatterns;
 import com.ibm.watson.discovery.v1.utils.TestUtilities;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
@@ -3587,6 +3592,41 @@ public class DiscoveryTest {
     assertEquals(parsedPath, queryLogPath);
   }
 
+  // Test the queryLog operation fetching all pages by offset
+  @Test
+  public void testQueryLogPager() throws Throwable {
+    // Answer each page with the entries at its offset, of 5 in total.
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) {
+            int offset = Integer.parseInt(request.getRequestUrl().queryParameter("offset"));
+            int count = Integer.parseInt(request.getRequestUrl().queryParameter("count"));
+            StringBuilder results = new StringBuilder();
+            for (int i = offset; i < Math.min(offset + count, 5); i++) {
+              results.append(results.length() > 0 ? ", " : "");
+              results.append("{\"query_id\": \"query" + i + "\"}");
+            }
+            return new MockResponse()
+                .setHeader("Content-type", "application/json")
+                .setBody("{\"matching_results\": 5, \"results\": [" + results + "]}");
+          }
+        });
+
+    constructClientService();
+
+    QueryLogOptions queryLogOptionsModel =
+        new QueryLogOptions.Builder().query("testString").count(Long.valueOf("2")).build();
+
+    List<String> queryIds;
+    try (Pager<LogQueryResponseResult> pager =
+        discoveryService.queryLogPager(queryLogOptionsModel, 3)) {
+      queryIds =
+          pager.stream().map(LogQueryResponseResult::getQueryId).collect(Collectors.toList());
+    }
+    assertEquals(queryIds, Arrays.asList("query0", "query1", "query2", "query3", "query4"));
+  }
+
   @Test
   public void testGetMetricsQueryWOptions() throws Throwable {
     // Schedule some responses.
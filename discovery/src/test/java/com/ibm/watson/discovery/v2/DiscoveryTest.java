@@ -18,7 +18,12 @@ import com.ibm.cloud.sdk.core.http.Response;
 import com.ibm.cloud.sdk.core.security.Authenticator;
 import com.ibm.cloud.sdk.core.security.NoAuthAuthenticator;
 import com.ibm.cloud.sdk.core.service.model.FileWithMetadata;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
 import com.ibm.cloud.sdk.core.util.RequestUtils;
+import com.ibm.watson.common.FederatedSearch;
+import com.ibm.watson.common.FileRequestBody;
+import com.ibm.watson.common.ResponseCache;
+import com.ibm.watson.common.StreamingResults;
 import com.ibm.watson.discovery.v2.model.AddDocumentOptions;
 import com.ibm.watson.discovery.v2.model.AnalyzeDocumentOptions;
 import com.ibm.watson.discovery.v2.model.AnalyzedDocument;
@@ -62,14 +67,19 @@ import com.ibm.watson.discovery.v2.model.ListProjectsOptions;
 import com.ibm.watson.discovery.v2.model.ListProjectsResponse;
 import com.ibm.watson.discovery.v2.model.ListTrainingQueriesOptions;
 import com.ibm.watson.discovery.v2.model.ProjectDetails;
+import com.ibm.watson.discovery.v2.model.QueryAggregation;
+import com.ibm.watson.discovery.v2.model.QueryCalculationAggregation;
 import com.ibm.watson.discovery.v2.model.QueryCollectionNoticesOptions;
 import com.ibm.watson.discovery.v2.model.QueryLargePassages;
 import com.ibm.watson.discovery.v2.model.QueryLargeSuggestedRefinements;
 import com.ibm.watson.discovery.v2.model.QueryLargeTableResults;
+import com.ibm.watson.discovery.v2.model.QueryNestedAggregation;
 import com.ibm.watson.discovery.v2.model.QueryNoticesOptions;
 import com.ibm.watson.discovery.v2.model.QueryNoticesResponse;
 import com.ibm.watson.discovery.v2.model.QueryOptions;
 import com.ibm.watson.discovery.v2.model.QueryResponse;
+import com.ibm.watson.discovery.v2.model.QueryResult;
+import com.ibm.watson.discovery.v2.model.QueryTermAggregation;
 import com.ibm.watson.discovery.v2.model.TrainingExample;
 import com.ibm.watson.discovery.v2.model.TrainingQuery;
 import com.ibm.watson.discovery.v2.model.TrainingQuerySet;
@@ -81,9 +91,16 @@ import com.ibm.watson.discovery.v2.model.UpdateTrainingQueryOptions;
 import com.ibm.watson.discovery.v2.utils.TestUtilities;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
@@ -515,6 +532,339 @@ public class DiscoveryTest {
     discoveryService.query(null).execute();
   }
 
+  // Test the query operation decoding the results one at a time
+  @Test
+  public void testQueryStreaming() throws Throwable {
+    // Schedule some responses.
+    String mockResponseBody =
+        "{\"matching_results\": 3, \"results\": [{\"document_id\": \"doc1\"}, {\"document_id\": \"doc2\"}, {\"document_id\": \"doc3\"}], \"suggested_query\": \"suggestedQuery\"}";
+    String queryPath = "/v2/projects/testString/query";
+
+    server.enqueue(
+        new MockResponse()
+            .setHeader("Content-type", "application/json")
+            .setResponseCode(200)
+            .setBody(mockResponseBody));
+
+    constructClientService();
+
+    QueryOptions queryOptionsModel =
+        new QueryOptions.Builder().projectId("testString").query("testString").build();
+
+    List<String> documentIds = new ArrayList<>();
+    try (StreamingResults<QueryResult> results =
+        discoveryService.queryStreaming(queryOptionsModel).execute().getResult()) {
+      while (results.hasNext()) {
+        documentIds.add(results.next().getDocumentId());
+        assertEquals(results.getField("matching_results").getAsLong(), 3);
+      }
+      assertEquals(results.getField("suggested_query").getAsString(), "suggestedQuery");
+    }
+    assertEquals(documentIds, Arrays.asList("doc1", "doc2", "doc3"));
+
+    // Verify the contents of the request
+    RecordedRequest request = server.takeRequest();
+    assertEquals(request.getMethod(), "POST");
+    assertEquals(TestUtilities.parseReqPath(request), queryPath);
+  }
+
+  // Test the query operation decoding deeply nested aggregations into their subclasses
+  @Test
+  public void testQueryNestedAggregations() throws Throwable {
+    // Schedule some responses.
+    String aggregation = "{\"type\": \"max\", \"field\": \"price\", \"value\": 42}";
+    for (int depth = 5; depth > 0; depth--) {
+      String results =
+          String.format(
+              "[{\"key\": \"a%d\", \"matching_results\": %d, \"aggregations\": [%s]}, "
+                  + "{\"key\": \"b%d\", \"matching_results\": 1}]",
+              depth, depth, aggregation, depth);
+      aggregation =
+          depth % 2 == 0
+              ? String.format(
+                  "{\"field\": \"f%d\", \"type\": \"term\", \"results\": %s}", depth, results)
+              : String.format(
+                  "{\"type\": \"term\", \"field\": \"f%d\", \"results\": %s}", depth, results);
+    }
+    String mockResponseBody =
+        "{\"matching_results\": 1, \"aggregations\": ["
+            + aggregation
+            + ", {\"type\": \"nested\", \"path\": \"p\", \"matching_results\": 2, "
+            + "\"aggregations\": [{\"type\": \"unknown\", \"name\": \"n\"}]}]}";
+    server.enqueue(
+        new MockResponse()
+            .setHeader("Content-type", "application/json")
+            .setResponseCode(200)
+            .setBody(mockResponseBody));
+
+    constructClientService();
+
+    QueryOptions queryOptionsModel =
+        new QueryOptions.Builder().projectId("testString").query("testString").build();
+    QueryResponse response = discoveryService.query(queryOptionsModel).execute().getResult();
+
+    List<QueryAggregation> aggregations = response.getAggregations();
+    for (int depth = 1; depth <= 5; depth++) {
+      QueryTermAggregation term = (QueryTermAggregation) aggregations.get(0);
+      assertEquals(term.getType(), "term");
+      assertEquals(term.getField(), "f" + depth);
+      assertEquals(term.getResults().size(), 2);
+      assertEquals(term.getResults().get(0).getKey(), "a" + depth);
+      assertEquals(term.getResults().get(0).getMatchingResults().longValue(), depth);
+      assertNull(term.getResults().get(1).getAggregations());
+      aggregations = term.getResults().get(0).getAggregations();
+    }
+    QueryCalculationAggregation max = (QueryCalculationAggregation) aggregations.get(0);
+    assertEquals(max.getType(), "max");
+    assertEquals(max.getValue().doubleValue(), 42.0);
+
+    QueryNestedAggregation nested = (QueryNestedAggregation) response.getAggregations().get(1);
+    assertEquals(nested.getPath(), "p");
+    assertEquals(nested.getAggregations().get(0).getClass(), QueryAggregation.class);
+    assertEquals(nested.getAggregations().get(0).getType(), "unknown");
+
+    // The aggregations are decoded as by the discriminator mapping of the models
+    assertEquals(
+        response.getAggregations().get(0).toString(),
+        GsonSingleton.getGson().fromJson(aggregation, QueryAggregation.class).toString());
+  }
+
+  // Test the query operation answering equal queries from the cache until a document is added
+  @Test
+  public void testQueryCache() throws Throwable {
+    // Schedule some responses.
+    for (String body :
+        new String[] {
+          "{\"matching_results\": 1}",
+          "{\"document_id\": \"documentId\", \"status\": \"processing\"}",
+          "{\"matching_results\": 2}"
+        }) {
+      server.enqueue(
+          new MockResponse()
+              .setHeader("Content-type", "application/json")
+              .setResponseCode(200)
+              .setBody(body));
+    }
+
+    constructClientService();
+    assertNull(discoveryService.getQueryCache());
+    discoveryService.setQueryCache(new ResponseCache<>());
+
+    QueryOptions queryOptionsModel =
+        new QueryOptions.Builder()
+            .projectId("testString")
+            .collectionIds(Arrays.asList("testString"))
+            .query("testString")
+            .build();
+    QueryOptions otherProjectOptions =
+        queryOptionsModel.newBuilder().projectId("otherProject").build();
+    assertEquals(
+        discoveryService.query(queryOptionsModel).execute().getResult().getMatchingResults(),
+        Long.valueOf(1));
+    assertEquals(
+        discoveryService
+            .query(queryOptionsModel.newBuilder().build())
+            .execute()
+            .getResult()
+            .getMatchingResults(),
+        Long.valueOf(1));
+    assertEquals(discoveryService.getQueryCache().misses(), 1);
+    assertEquals(discoveryService.getQueryCache().hits(), 1);
+    server.enqueue(
+        new MockResponse()
+            .setHeader("Content-type", "application/json")
+            .setResponseCode(200)
+            .setBody("{\"matching_results\": 3}"));
+
+    AddDocumentOptions addDocumentOptionsModel =
+        new AddDocumentOptions.Builder()
+            .projectId("testString")
+            .collectionId("testString")
+            .file(TestUtilities.createMockStream("This is a mock file."))
+            .filename("testString")
+            .build();
+    discoveryService.addDocument(addDocumentOptionsModel).execute();
+    assertEquals(
+        discoveryService.query(queryOptionsModel).execute().getResult().getMatchingResults(),
+        Long.valueOf(2));
+    assertEquals(
+        discoveryService.query(otherProjectOptions).execute().getResult().getMatchingResults(),
+        Long.valueOf(3));
+    assertEquals(discoveryService.getQueryCache().misses(), 3);
+    assertEquals(server.getRequestCount(), 4);
+
+    // A client of another version sharing the cache is not answered with these responses.
+    server.enqueue(
+        new MockResponse()
+            .setHeader("Content-type", "application/json")
+            .setResponseCode(200)
+            .setBody("{\"matching_results\": 4}"));
+    Discovery otherVersion = new Discovery("otherVersion", new NoAuthAuthenticator());
+    otherVersion.setServiceUrl(discoveryService.getServiceUrl());
+    otherVersion.setQueryCache(discoveryService.getQueryCache());
+    assertEquals(
+        otherVersion.query(queryOptionsModel).execute().getResult().getMatchingResults(),
+        Long.valueOf(4));
+    assertEquals(discoveryService.getQueryCache().misses(), 4);
+    assertEquals(server.getRequestCount(), 5);
+  }
+
+  // Test the DocumentIngestor slows down on 429, checkpoints the documents and resumes from them
+  @Test
+  public void testDocumentIngestor() throws Throwable {
+    Path directory = Files.createTempDirectory("ingest");
+    List<Path> files = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      files.add(Files.write(directory.resolve("doc" + i + ".json"), "{}".getBytes("UTF-8")));
+    }
+    Path checkpointFile = directory.resolve("checkpoint.tsv");
+    String documentId;
+    final AtomicInteger requests = new AtomicInteger();
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) {
+            int number = requests.incrementAndGet();
+            if (number == 1) {
+              return new MockResponse().setResponseCode(429).setHeader("Retry-After", "0");
+            }
+            if (request.getBody().readUtf8().contains("filename=\"doc5.json\"")) {
+              return new MockResponse()
+                  .setResponseCode(400)
+                  .setHeader("Content-type", "application/json")
+                  .setBody("{\"error\": \"Bad document\"}");
+            }
+            return new MockResponse()
+                .setResponseCode(202)
+                .setHeader("Content-type", "application/json")
+                .setBody("{\"document_id\": \"id" + number + "\", \"status\": \"processing\"}");
+          }
+        });
+    constructClientService();
+
+    try (DocumentIngestor ingestor =
+        new DocumentIngestor(discoveryService, "testString", "testString", checkpointFile, 4, 2)) {
+      ingestor.ingest(files.stream());
+      assertEquals(ingestor.uploaded(), 5);
+      assertEquals(ingestor.failed(), 1);
+      assertEquals(ingestor.throttled(), 1);
+      assertEquals(ingestor.retries(), 1);
+      assertEquals(ingestor.bytesUploaded(), 10);
+      assertEquals(ingestor.inFlight(), 0);
+      assertTrue(ingestor.latencyPercentile(50) > 0);
+      assertTrue(ingestor.getFailures().containsKey(files.get(5)));
+      documentId = ingestor.getDocumentId(files.get(0));
+      assertNotNull(documentId);
+    }
+    assertEquals(Files.readAllLines(checkpointFile).size(), 5);
+
+    int sent = requests.get();
+    try (DocumentIngestor ingestor =
+        new DocumentIngestor(discoveryService, "testString", "testString", checkpointFile)) {
+      ingestor.ingest(files.stream());
+      assertEquals(ingestor.skipped(), 5);
+      assertEquals(ingestor.failed(), 1);
+      assertEquals(ingestor.getDocumentId(files.get(0)), documentId);
+    }
+    assertEquals(requests.get(), sent + 1);
+  }
+
+  // Test a document file is uploaded with its length, and sent again when the request is retried
+  @Test
+  public void testAddDocumentFromFile() throws Throwable {
+    Path file = Files.createTempFile("document", ".json");
+    Files.write(file, "{\"title\": \"A large document\"}".getBytes("UTF-8"));
+    String mockResponseBody = "{\"document_id\": \"documentId\", \"status\": \"processing\"}";
+    server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "0"));
+    server.enqueue(
+        new MockResponse()
+            .setHeader("Content-type", "application/json")
+            .setResponseCode(202)
+            .setBody(mockResponseBody));
+    constructClientService();
+    discoveryService.enableRetries(1, 1);
+
+    AddDocumentOptions addDocumentOptionsModel =
+        new AddDocumentOptions.Builder()
+            .projectId("testString")
+            .collectionId("testString")
+            .file(FileRequestBody.stream(file))
+            .filename(file.getFileName().toString())
+            .fileContentType("application/json")
+            .build();
+    // The file is sent from the file itself, so the stream can be closed before.
+    addDocumentOptionsModel.file().close();
+    Response<DocumentAccepted> response =
+        discoveryService.addDocument(addDocumentOptionsModel).execute();
+    assertEquals(response.getResult().getDocumentId(), "documentId");
+
+    assertEquals(server.getRequestCount(), 2);
+    for (int i = 0; i < 2; i++) {
+      RecordedRequest request = server.takeRequest();
+      assertNotNull(request.getHeader("Content-Length"));
+      assertNull(request.getHeader("Transfer-Encoding"));
+      assertTrue(request.getBody().readUtf8().contains("{\"title\": \"A large document\"}"));
+    }
+    Files.delete(file);
+  }
+
+  // Test the FederatedQuery merges the results of projects by confidence, and cancels laggards
+  @Test
+  public void testFederatedQuery() throws Throwable {
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) {
+            String path = TestUtilities.parseReqPath(request);
+            if (path.equals("/v2/projects/slow/query")) {
+              return new MockResponse()
+                  .setHeadersDelay(3, TimeUnit.SECONDS)
+                  .setHeader("Content-type", "application/json")
+                  .setBody("{\"matching_results\": 0}");
+            }
+            String project = path.split("/")[3];
+            double first = project.equals("first") ? 0.9 : 0.8;
+            return new MockResponse()
+                .setHeader("Content-type", "application/json")
+                .setBody(
+                    "{\"matching_results\": 2, \"results\": ["
+                        + "{\"document_id\": \""
+                        + project
+                        + "1\", \"result_metadata\": "
+                        + "{\"collection_id\": \"c\", \"confidence\": "
+                        + first
+                        + "}}, "
+                        + "{\"document_id\": \""
+                        + project
+                        + "2\", \"result_metadata\": "
+                        + "{\"collection_id\": \"c\", \"confidence\": "
+                        + (first - 0.5)
+                        + "}}]}");
+          }
+        });
+    constructClientService();
+
+    QueryOptions query = new QueryOptions.Builder().projectId("first").query("watson").build();
+    List<QueryOptions> queries =
+        Arrays.asList(
+            query,
+            query.newBuilder().projectId("second").build(),
+            query.newBuilder().projectId("slow").build());
+    FederatedQuery federatedQuery = new FederatedQuery(discoveryService, 3);
+    FederatedSearch.Results<QueryOptions, QueryResponse, QueryResult> results =
+        federatedQuery.query(queries, 1, TimeUnit.SECONDS);
+
+    List<String> documentIds = new ArrayList<>();
+    for (FederatedSearch.Hit<QueryOptions, QueryResult> hit : results.getHits()) {
+      documentIds.add(hit.getTarget().projectId() + "/" + hit.getResult().getDocumentId());
+    }
+    assertEquals(documentIds, Arrays.asList("first/first1", "second/second1", "first/first2"));
+    assertEquals(results.getResponses().size(), 2);
+    assertTrue(results.getFailures().isEmpty());
+    assertEquals(results.getCancelled().iterator().next().projectId(), "slow");
+    assertFalse(results.isComplete());
+  }
+
   @Test
   public void testGetAutocompletionWOptions() throws Throwable {
     // Schedule some responses.
@@ -32,10 +32,8 @@ import com.ibm.watson.text_to_speech.v1.model.Word;
 import com.ibm.watson.text_to_speech.v1.model.Words;
 import com.ibm.watson.text_to_speech.v1.util.WaveUtils;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.List;
 
@@ -122,7 +120,8 @@ public class CustomizationExample {
             .customizationId(customVoiceModel.getCustomizationId())
             .build();
     InputStream in = service.synthesize(synthesizeOptions).execute().getResult();
-    writeToFile(WaveUtils.reWriteWaveHeader(in), new File("output.wav"));
+    WaveUtils.writeWaveFile(in, new File("output.wav"));
+    in.close();
 
     // delete custom words with object and string
     DeleteWordOptions deleteOptions1 =
@@ -149,19 +148,4 @@ public class CustomizationExample {
     customVoiceModels = service.listCustomModels().execute().getResult();
     System.out.println(customVoiceModels);
   }
-
-  private static void writeToFile(InputStream in, File file) {
-    try {
-      OutputStream out = new FileOutputStream(file);
-      byte[] buf = new byte[1024];
-      int len;
-      while ((len = in.read(buf)) > 0) {
-        out.write(buf, 0, len);
-      }
-      out.close();
-      in.close();
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
-  }
 }
@@ -22,10 +22,8 @@ import com.ibm.watson.language_translator.v3.util.Language;
 import com.ibm.watson.text_to_speech.v1.model.SynthesizeOptions;
 import com.ibm.watson.text_to_speech.v1.util.WaveUtils;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 
 /** Translate from English to Spanish and synthesize that as a WAV file. */
 public class TranslateAndSynthesizeExample {
@@ -58,22 +56,7 @@ public class TranslateAndSynthesizeExample {
             .accept(HttpMediaType.AUDIO_WAV)
             .build();
     InputStream in = synthesizer.synthesize(synthesizeOptions).execute().getResult();
-    writeToFile(WaveUtils.reWriteWaveHeader(in), new File("output.wav"));
-  }
-
-  /** Write the input stream to a file. */
-  private static void writeToFile(InputStream in, File file) {
-    try {
-      OutputStream out = new FileOutputStream(file);
-      byte[] buf = new byte[1024];
-      int len;
-      while ((len = in.read(buf)) > 0) {
-        out.write(buf, 0, len);
-      }
-      out.close();
-      in.close();
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
+    WaveUtils.writeWaveFile(in, new File("output.wav"));
+    in.close();
   }
 }
@@ -24,8 +24,8 @@ import com.ibm.cloud.sdk.core.http.ServiceCall;
 import com.ibm.cloud.sdk.core.security.Authenticator;
 import com.ibm.cloud.sdk.core.security.ConfigBasedAuthenticatorFactory;
 import com.ibm.cloud.sdk.core.service.BaseService;
-import com.ibm.cloud.sdk.core.util.RequestUtils;
 import com.ibm.cloud.sdk.core.util.ResponseConverterUtils;
+import com.ibm.watson.common.FileRequestBody;
 import com.ibm.watson.common.SdkCommon;
 import com.ibm.watson.language_translator.v3.model.CreateModelOptions;
 import com.ibm.watson.language_translator.v3.model.DeleteDocumentOptions;
@@ -70,6 +70,42 @@ public class LanguageTranslator extends BaseService {
   public static final String DEFAULT_SERVICE_URL =
       "https://api.us-south.language-translator.watson.cloud.ibm.com";
 
+  private static final ResponseConverter<Languages> LANGUAGES_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Languages>() {}.getType());
+
+  private static final ResponseConverter<TranslationResult> TRANSLATION_RESULT_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<TranslationResult>() {}.getType());
+
+  private static final ResponseConverter<IdentifiableLanguages> IDENTIFIABLE_LANGUAGES_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<IdentifiableLanguages>() {}.getType());
+
+  private static final ResponseConverter<IdentifiedLanguages> IDENTIFIED_LANGUAGES_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<IdentifiedLanguages>() {}.getType());
+
+  private static final ResponseConverter<TranslationModels> TRANSLATION_MODELS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<TranslationModels>() {}.getType());
+
+  private static final ResponseConverter<TranslationModel> TRANSLATION_MODEL_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<TranslationModel>() {}.getType());
+
+  private static final ResponseConverter<DeleteModelResult> DELETE_MODEL_RESULT_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<DeleteModelResult>() {}.getType());
+
+  private static final ResponseConverter<DocumentList> DOCUMENT_LIST_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<DocumentList>() {}.getType());
+
+  private static final ResponseConverter<DocumentStatus> DOCUMENT_STATUS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<DocumentStatus>() {}.getType());
+
   private String version;
 
   /**
@@ -171,9 +207,7 @@ public class LanguageTranslator extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<Languages> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Languages>() {}.getType());
+    ResponseConverter<Languages> responseConverter = LANGUAGES_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -233,9 +267,7 @@ public class LanguageTranslator extends BaseService {
       contentJson.addProperty("target", translateOptions.target());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<TranslationResult> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TranslationResult>() {}.getType());
+    ResponseConverter<TranslationResult> responseConverter = TRANSLATION_RESULT_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -261,9 +293,7 @@ public class LanguageTranslator extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<IdentifiableLanguages> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<IdentifiableLanguages>() {}.getType());
+    ResponseConverter<IdentifiableLanguages> responseConverter = IDENTIFIABLE_LANGUAGES_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -300,9 +330,7 @@ public class LanguageTranslator extends BaseService {
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
     builder.bodyContent(identifyOptions.text(), "text/plain");
-    ResponseConverter<IdentifiedLanguages> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<IdentifiedLanguages>() {}.getType());
+    ResponseConverter<IdentifiedLanguages> responseConverter = IDENTIFIED_LANGUAGES_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -336,9 +364,7 @@ public class LanguageTranslator extends BaseService {
     if (listModelsOptions.xDefault() != null) {
       builder.query("default", String.valueOf(listModelsOptions.xDefault()));
     }
-    ResponseConverter<TranslationModels> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TranslationModels>() {}.getType());
+    ResponseConverter<TranslationModels> responseConverter = TRANSLATION_MODELS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -439,20 +465,18 @@ public class LanguageTranslator extends BaseService {
     multipartBuilder.setType(MultipartBody.FORM);
     if (createModelOptions.forcedGlossary() != null) {
       okhttp3.RequestBody forcedGlossaryBody =
-          RequestUtils.inputStreamBody(
+          FileRequestBody.inputStreamBody(
               createModelOptions.forcedGlossary(), "application/octet-stream");
       multipartBuilder.addFormDataPart("forced_glossary", "filename", forcedGlossaryBody);
     }
     if (createModelOptions.parallelCorpus() != null) {
       okhttp3.RequestBody parallelCorpusBody =
-          RequestUtils.inputStreamBody(
+          FileRequestBody.inputStreamBody(
               createModelOptions.parallelCorpus(), "application/octet-stream");
       multipartBuilder.addFormDataPart("parallel_corpus", "filename", parallelCorpusBody);
     }
     builder.body(multipartBuilder.build());
-    ResponseConverter<TranslationModel> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TranslationModel>() {}.getType());
+    ResponseConverter<TranslationModel> responseConverter = TRANSLATION_MODEL_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -480,9 +504,7 @@ public class LanguageTranslator extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<DeleteModelResult> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DeleteModelResult>() {}.getType());
+    ResponseConverter<DeleteModelResult> responseConverter = DELETE_MODEL_RESULT_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -512,9 +534,7 @@ public class LanguageTranslator extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<TranslationModel> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TranslationModel>() {}.getType());
+    ResponseConverter<TranslationModel> responseConverter = TRANSLATION_MODEL_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -537,9 +557,7 @@ public class LanguageTranslator extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<DocumentList> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DocumentList>() {}.getType());
+    ResponseConverter<DocumentList> responseConverter = DOCUMENT_LIST_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -582,7 +600,7 @@ public class LanguageTranslator extends BaseService {
     MultipartBody.Builder multipartBuilder = new MultipartBody.Builder();
     multipartBuilder.setType(MultipartBody.FORM);
     okhttp3.RequestBody fileBody =
-        RequestUtils.inputStreamBody(
+        FileRequestBody.inputStreamBody(
             translateDocumentOptions.file(), translateDocumentOptions.fileContentType());
     multipartBuilder.addFormDataPart("file", translateDocumentOptions.filename(), fileBody);
     if (translateDocumentOptions.modelId() != null) {
@@ -598,9 +616,7 @@ public class LanguageTranslator extends BaseService {
       multipartBuilder.addFormDataPart("document_id", translateDocumentOptions.documentId());
     }
     builder.body(multipartBuilder.build());
-    ResponseConverter<DocumentStatus> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DocumentStatus>() {}.getType());
+    ResponseConverter<DocumentStatus> responseConverter = DOCUMENT_STATUS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -630,9 +646,7 @@ public class LanguageTranslator extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<DocumentStatus> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DocumentStatus>() {}.getType());
+    ResponseConverter<DocumentStatus> responseConverter = DOCUMENT_STATUS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
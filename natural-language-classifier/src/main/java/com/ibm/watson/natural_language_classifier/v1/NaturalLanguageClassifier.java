@@ -24,8 +24,9 @@ import com.ibm.cloud.sdk.core.http.ServiceCall;
 import com.ibm.cloud.sdk.core.security.Authenticator;
 import com.ibm.cloud.sdk.core.security.ConfigBasedAuthenticatorFactory;
 import com.ibm.cloud.sdk.core.service.BaseService;
-import com.ibm.cloud.sdk.core.util.RequestUtils;
 import com.ibm.cloud.sdk.core.util.ResponseConverterUtils;
+import com.ibm.watson.common.FileRequestBody;
+import com.ibm.watson.common.JsonRequestBody;
 import com.ibm.watson.common.SdkCommon;
 import com.ibm.watson.natural_language_classifier.v1.model.Classification;
 import com.ibm.watson.natural_language_classifier.v1.model.ClassificationCollection;
@@ -65,6 +66,23 @@ public class NaturalLanguageClassifier extends BaseService {
   public static final String DEFAULT_SERVICE_URL =
       "https://api.us-south.natural-language-classifier.watson.cloud.ibm.com";
 
+  private static final ResponseConverter<Classification> CLASSIFICATION_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Classification>() {}.getType());
+
+  private static final ResponseConverter<ClassificationCollection>
+      CLASSIFICATION_COLLECTION_CONVERTER =
+          ResponseConverterUtils.getValue(
+              new com.google.gson.reflect.TypeToken<ClassificationCollection>() {}.getType());
+
+  private static final ResponseConverter<Classifier> CLASSIFIER_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Classifier>() {}.getType());
+
+  private static final ResponseConverter<ClassifierList> CLASSIFIER_LIST_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<ClassifierList>() {}.getType());
+
   /**
    * Constructs an instance of the `NaturalLanguageClassifier` client. The default service name is
    * used to configure the client instance.
@@ -141,9 +159,7 @@ public class NaturalLanguageClassifier extends BaseService {
     final JsonObject contentJson = new JsonObject();
     contentJson.addProperty("text", classifyOptions.text());
     builder.bodyJson(contentJson);
-    ResponseConverter<Classification> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Classification>() {}.getType());
+    ResponseConverter<Classification> responseConverter = CLASSIFICATION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -177,15 +193,11 @@ public class NaturalLanguageClassifier extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    final JsonObject contentJson = new JsonObject();
-    contentJson.add(
-        "collection",
-        com.ibm.cloud.sdk.core.util.GsonSingleton.getGson()
-            .toJsonTree(classifyCollectionOptions.collection()));
-    builder.bodyJson(contentJson);
+    final JsonRequestBody contentJson = new JsonRequestBody();
+    contentJson.add("collection", classifyCollectionOptions.collection());
+    builder.body(contentJson);
     ResponseConverter<ClassificationCollection> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ClassificationCollection>() {}.getType());
+        CLASSIFICATION_COLLECTION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -213,16 +225,14 @@ public class NaturalLanguageClassifier extends BaseService {
     MultipartBody.Builder multipartBuilder = new MultipartBody.Builder();
     multipartBuilder.setType(MultipartBody.FORM);
     okhttp3.RequestBody trainingMetadataBody =
-        RequestUtils.inputStreamBody(
+        FileRequestBody.inputStreamBody(
             createClassifierOptions.trainingMetadata(), "application/json");
     multipartBuilder.addFormDataPart("training_metadata", "filename", trainingMetadataBody);
     okhttp3.RequestBody trainingDataBody =
-        RequestUtils.inputStreamBody(createClassifierOptions.trainingData(), "text/csv");
+        FileRequestBody.inputStreamBody(createClassifierOptions.trainingData(), "text/csv");
     multipartBuilder.addFormDataPart("training_data", "filename", trainingDataBody);
     builder.body(multipartBuilder.build());
-    ResponseConverter<Classifier> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Classifier>() {}.getType());
+    ResponseConverter<Classifier> responseConverter = CLASSIFIER_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -245,9 +255,7 @@ public class NaturalLanguageClassifier extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<ClassifierList> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ClassifierList>() {}.getType());
+    ResponseConverter<ClassifierList> responseConverter = CLASSIFIER_LIST_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -286,9 +294,7 @@ public class NaturalLanguageClassifier extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<Classifier> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Classifier>() {}.getType());
+    ResponseConverter<Classifier> responseConverter = CLASSIFIER_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -17,15 +17,15 @@
 
 package com.ibm.watson.natural_language_understanding.v1;
 
-import com.google.gson.JsonObject;
 import com.ibm.cloud.sdk.core.http.RequestBuilder;
 import com.ibm.cloud.sdk.core.http.ResponseConverter;
 import com.ibm.cloud.sdk.core.http.ServiceCall;
 import com.ibm.cloud.sdk.core.security.Authenticator;
 import com.ibm.cloud.sdk.core.security.ConfigBasedAuthenticatorFactory;
 import com.ibm.cloud.sdk.core.service.BaseService;
-import com.ibm.cloud.sdk.core.util.RequestUtils;
 import com.ibm.cloud.sdk.core.util.ResponseConverterUtils;
+import com.ibm.watson.common.FileRequestBody;
+import com.ibm.watson.common.JsonRequestBody;
 import com.ibm.watson.common.SdkCommon;
 import com.ibm.watson.natural_language_understanding.v1.model.AnalysisResults;
 import com.ibm.watson.natural_language_understanding.v1.model.AnalyzeOptions;
@@ -79,6 +79,44 @@ public class NaturalLanguageUnderstanding extends BaseService {
   public static final String DEFAULT_SERVICE_URL =
       "https://api.us-south.natural-language-understanding.watson.cloud.ibm.com";
 
+  private static final ResponseConverter<AnalysisResults> ANALYSIS_RESULTS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<AnalysisResults>() {}.getType());
+
+  private static final ResponseConverter<ListModelsResults> LIST_MODELS_RESULTS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<ListModelsResults>() {}.getType());
+
+  private static final ResponseConverter<DeleteModelResults> DELETE_MODEL_RESULTS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<DeleteModelResults>() {}.getType());
+
+  private static final ResponseConverter<SentimentModel> SENTIMENT_MODEL_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<SentimentModel>() {}.getType());
+
+  private static final ResponseConverter<ListSentimentModelsResponse>
+      LIST_SENTIMENT_MODELS_RESPONSE_CONVERTER =
+          ResponseConverterUtils.getValue(
+              new com.google.gson.reflect.TypeToken<ListSentimentModelsResponse>() {}.getType());
+
+  private static final ResponseConverter<CategoriesModel> CATEGORIES_MODEL_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<CategoriesModel>() {}.getType());
+
+  private static final ResponseConverter<CategoriesModelList> CATEGORIES_MODEL_LIST_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<CategoriesModelList>() {}.getType());
+
+  private static final ResponseConverter<ClassificationsModel> CLASSIFICATIONS_MODEL_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<ClassificationsModel>() {}.getType());
+
+  private static final ResponseConverter<ClassificationsModelList>
+      CLASSIFICATIONS_MODEL_LIST_CONVERTER =
+          ResponseConverterUtils.getValue(
+              new com.google.gson.reflect.TypeToken<ClassificationsModelList>() {}.getType());
+
   private String version;
 
   /**
@@ -183,10 +221,8 @@ public class NaturalLanguageUnderstanding extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    final JsonObject contentJson = new JsonObject();
-    contentJson.add(
-        "features",
-        com.ibm.cloud.sdk.core.util.GsonSingleton.getGson().toJsonTree(analyzeOptions.features()));
+    final JsonRequestBody contentJson = new JsonRequestBody();
+    contentJson.add("features", analyzeOptions.features());
     if (analyzeOptions.text() != null) {
       contentJson.addProperty("text", analyzeOptions.text());
     }
@@ -214,10 +250,8 @@ public class NaturalLanguageUnderstanding extends BaseService {
     if (analyzeOptions.limitTextCharacters() != null) {
       contentJson.addProperty("limit_text_characters", analyzeOptions.limitTextCharacters());
     }
-    builder.bodyJson(contentJson);
-    ResponseConverter<AnalysisResults> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<AnalysisResults>() {}.getType());
+    builder.body(contentJson);
+    ResponseConverter<AnalysisResults> responseConverter = ANALYSIS_RESULTS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -241,9 +275,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<ListModelsResults> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ListModelsResults>() {}.getType());
+    ResponseConverter<ListModelsResults> responseConverter = LIST_MODELS_RESULTS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -284,9 +316,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<DeleteModelResults> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DeleteModelResults>() {}.getType());
+    ResponseConverter<DeleteModelResults> responseConverter = DELETE_MODEL_RESULTS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -319,7 +349,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
     multipartBuilder.setType(MultipartBody.FORM);
     multipartBuilder.addFormDataPart("language", createSentimentModelOptions.language());
     okhttp3.RequestBody trainingDataBody =
-        RequestUtils.inputStreamBody(createSentimentModelOptions.trainingData(), "text/csv");
+        FileRequestBody.inputStreamBody(createSentimentModelOptions.trainingData(), "text/csv");
     multipartBuilder.addFormDataPart("training_data", "filename", trainingDataBody);
     if (createSentimentModelOptions.name() != null) {
       multipartBuilder.addFormDataPart("name", createSentimentModelOptions.name());
@@ -338,9 +368,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
           "version_description", createSentimentModelOptions.versionDescription());
     }
     builder.body(multipartBuilder.build());
-    ResponseConverter<SentimentModel> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<SentimentModel>() {}.getType());
+    ResponseConverter<SentimentModel> responseConverter = SENTIMENT_MODEL_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -366,8 +394,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
     ResponseConverter<ListSentimentModelsResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ListSentimentModelsResponse>() {}.getType());
+        LIST_SENTIMENT_MODELS_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -408,9 +435,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<SentimentModel> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<SentimentModel>() {}.getType());
+    ResponseConverter<SentimentModel> responseConverter = SENTIMENT_MODEL_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -445,7 +470,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
     multipartBuilder.setType(MultipartBody.FORM);
     multipartBuilder.addFormDataPart("language", updateSentimentModelOptions.language());
     okhttp3.RequestBody trainingDataBody =
-        RequestUtils.inputStreamBody(updateSentimentModelOptions.trainingData(), "text/csv");
+        FileRequestBody.inputStreamBody(updateSentimentModelOptions.trainingData(), "text/csv");
     multipartBuilder.addFormDataPart("training_data", "filename", trainingDataBody);
     if (updateSentimentModelOptions.name() != null) {
       multipartBuilder.addFormDataPart("name", updateSentimentModelOptions.name());
@@ -464,9 +489,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
           "version_description", updateSentimentModelOptions.versionDescription());
     }
     builder.body(multipartBuilder.build());
-    ResponseConverter<SentimentModel> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<SentimentModel>() {}.getType());
+    ResponseConverter<SentimentModel> responseConverter = SENTIMENT_MODEL_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -497,9 +520,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<DeleteModelResults> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DeleteModelResults>() {}.getType());
+    ResponseConverter<DeleteModelResults> responseConverter = DELETE_MODEL_RESULTS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -532,7 +553,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
     multipartBuilder.setType(MultipartBody.FORM);
     multipartBuilder.addFormDataPart("language", createCategoriesModelOptions.language());
     okhttp3.RequestBody trainingDataBody =
-        RequestUtils.inputStreamBody(
+        FileRequestBody.inputStreamBody(
             createCategoriesModelOptions.trainingData(),
             createCategoriesModelOptions.trainingDataContentType());
     multipartBuilder.addFormDataPart("training_data", "filename", trainingDataBody);
@@ -554,9 +575,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
           "version_description", createCategoriesModelOptions.versionDescription());
     }
     builder.body(multipartBuilder.build());
-    ResponseConverter<CategoriesModel> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<CategoriesModel>() {}.getType());
+    ResponseConverter<CategoriesModel> responseConverter = CATEGORIES_MODEL_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -581,9 +600,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<CategoriesModelList> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<CategoriesModelList>() {}.getType());
+    ResponseConverter<CategoriesModelList> responseConverter = CATEGORIES_MODEL_LIST_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -624,9 +641,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<CategoriesModel> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<CategoriesModel>() {}.getType());
+    ResponseConverter<CategoriesModel> responseConverter = CATEGORIES_MODEL_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -661,7 +676,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
     multipartBuilder.setType(MultipartBody.FORM);
     multipartBuilder.addFormDataPart("language", updateCategoriesModelOptions.language());
     okhttp3.RequestBody trainingDataBody =
-        RequestUtils.inputStreamBody(
+        FileRequestBody.inputStreamBody(
             updateCategoriesModelOptions.trainingData(),
             updateCategoriesModelOptions.trainingDataContentType());
     multipartBuilder.addFormDataPart("training_data", "filename", trainingDataBody);
@@ -683,9 +698,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
           "version_description", updateCategoriesModelOptions.versionDescription());
     }
     builder.body(multipartBuilder.build());
-    ResponseConverter<CategoriesModel> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<CategoriesModel>() {}.getType());
+    ResponseConverter<CategoriesModel> responseConverter = CATEGORIES_MODEL_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -716,9 +729,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<DeleteModelResults> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DeleteModelResults>() {}.getType());
+    ResponseConverter<DeleteModelResults> responseConverter = DELETE_MODEL_RESULTS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -752,7 +763,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
     multipartBuilder.setType(MultipartBody.FORM);
     multipartBuilder.addFormDataPart("language", createClassificationsModelOptions.language());
     okhttp3.RequestBody trainingDataBody =
-        RequestUtils.inputStreamBody(
+        FileRequestBody.inputStreamBody(
             createClassificationsModelOptions.trainingData(),
             createClassificationsModelOptions.trainingDataContentType());
     multipartBuilder.addFormDataPart("training_data", "filename", trainingDataBody);
@@ -776,9 +787,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
           "version_description", createClassificationsModelOptions.versionDescription());
     }
     builder.body(multipartBuilder.build());
-    ResponseConverter<ClassificationsModel> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ClassificationsModel>() {}.getType());
+    ResponseConverter<ClassificationsModel> responseConverter = CLASSIFICATIONS_MODEL_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -805,8 +814,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
     ResponseConverter<ClassificationsModelList> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ClassificationsModelList>() {}.getType());
+        CLASSIFICATIONS_MODEL_LIST_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -847,9 +855,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<ClassificationsModel> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ClassificationsModel>() {}.getType());
+    ResponseConverter<ClassificationsModel> responseConverter = CLASSIFICATIONS_MODEL_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -885,7 +891,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
     multipartBuilder.setType(MultipartBody.FORM);
     multipartBuilder.addFormDataPart("language", updateClassificationsModelOptions.language());
     okhttp3.RequestBody trainingDataBody =
-        RequestUtils.inputStreamBody(
+        FileRequestBody.inputStreamBody(
             updateClassificationsModelOptions.trainingData(),
             updateClassificationsModelOptions.trainingDataContentType());
     multipartBuilder.addFormDataPart("training_data", "filename", trainingDataBody);
@@ -909,9 +915,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
           "version_description", updateClassificationsModelOptions.versionDescription());
     }
     builder.body(multipartBuilder.build());
-    ResponseConverter<ClassificationsModel> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ClassificationsModel>() {}.getType());
+    ResponseConverter<ClassificationsModel> responseConverter = CLASSIFICATIONS_MODEL_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -943,9 +947,7 @@ public class NaturalLanguageUnderstanding extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<DeleteModelResults> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<DeleteModelResults>() {}.getType());
+    ResponseConverter<DeleteModelResults> responseConverter = DELETE_MODEL_RESULTS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 }
@@ -79,6 +79,10 @@ public class PersonalityInsights extends BaseService {
   public static final String DEFAULT_SERVICE_URL =
       "https://api.us-south.personality-insights.watson.cloud.ibm.com";
 
+  private static final ResponseConverter<Profile> PROFILE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Profile>() {}.getType());
+
   private String version;
 
   /**
@@ -237,9 +241,7 @@ public class PersonalityInsights extends BaseService {
     }
     builder.bodyContent(
         profileOptions.contentType(), profileOptions.content(), null, profileOptions.body());
-    ResponseConverter<Profile> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Profile>() {}.getType());
+    ResponseConverter<Profile> responseConverter = PROFILE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -26,7 +26,10 @@ import com.ibm.cloud.sdk.core.security.ConfigBasedAuthenticatorFactory;
 import com.ibm.cloud.sdk.core.service.BaseService;
 import com.ibm.cloud.sdk.core.util.RequestUtils;
 import com.ibm.cloud.sdk.core.util.ResponseConverterUtils;
+import com.ibm.watson.common.FileRequestBody;
 import com.ibm.watson.common.SdkCommon;
+import com.ibm.watson.common.StreamingResults;
+import com.ibm.watson.common.WebSocketPool;
 import com.ibm.watson.speech_to_text.v1.model.AcousticModel;
 import com.ibm.watson.speech_to_text.v1.model.AcousticModels;
 import com.ibm.watson.speech_to_text.v1.model.AddAudioOptions;
@@ -88,12 +91,16 @@ import com.ibm.watson.speech_to_text.v1.model.UpgradeAcousticModelOptions;
 import com.ibm.watson.speech_to_text.v1.model.UpgradeLanguageModelOptions;
 import com.ibm.watson.speech_to_text.v1.model.Word;
 import com.ibm.watson.speech_to_text.v1.model.Words;
+import com.ibm.watson.speech_to_text.v1.websocket.RecognitionPublisher;
 import com.ibm.watson.speech_to_text.v1.websocket.RecognizeCallback;
+import com.ibm.watson.speech_to_text.v1.websocket.RecognizeSession;
 import com.ibm.watson.speech_to_text.v1.websocket.SpeechToTextWebSocketListener;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Executor;
 import okhttp3.HttpUrl;
+import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.WebSocket;
@@ -136,6 +143,87 @@ public class SpeechToText extends BaseService {
   public static final String DEFAULT_SERVICE_URL =
       "https://api.us-south.speech-to-text.watson.cloud.ibm.com";
 
+  private static final ResponseConverter<SpeechModels> SPEECH_MODELS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<SpeechModels>() {}.getType());
+
+  private static final ResponseConverter<SpeechModel> SPEECH_MODEL_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<SpeechModel>() {}.getType());
+
+  private static final ResponseConverter<SpeechRecognitionResults>
+      SPEECH_RECOGNITION_RESULTS_CONVERTER =
+          ResponseConverterUtils.getValue(
+              new com.google.gson.reflect.TypeToken<SpeechRecognitionResults>() {}.getType());
+
+  private static final ResponseConverter<RegisterStatus> REGISTER_STATUS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<RegisterStatus>() {}.getType());
+
+  private static final ResponseConverter<RecognitionJob> RECOGNITION_JOB_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<RecognitionJob>() {}.getType());
+
+  private static final ResponseConverter<RecognitionJobs> RECOGNITION_JOBS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<RecognitionJobs>() {}.getType());
+
+  private static final ResponseConverter<LanguageModel> LANGUAGE_MODEL_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<LanguageModel>() {}.getType());
+
+  private static final ResponseConverter<LanguageModels> LANGUAGE_MODELS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<LanguageModels>() {}.getType());
+
+  private static final ResponseConverter<TrainingResponse> TRAINING_RESPONSE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<TrainingResponse>() {}.getType());
+
+  private static final ResponseConverter<Corpora> CORPORA_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Corpora>() {}.getType());
+
+  private static final ResponseConverter<Corpus> CORPUS_CONVERTER =
+      ResponseConverterUtils.getValue(new com.google.gson.reflect.TypeToken<Corpus>() {}.getType());
+
+  private static final ResponseConverter<Words> WORDS_CONVERTER =
+      ResponseConverterUtils.getValue(new com.google.gson.reflect.TypeToken<Words>() {}.getType());
+
+  private static final ResponseConverter<Word> WORD_CONVERTER =
+      ResponseConverterUtils.getValue(new com.google.gson.reflect.TypeToken<Word>() {}.getType());
+
+  private static final ResponseConverter<Grammars> GRAMMARS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Grammars>() {}.getType());
+
+  private static final ResponseConverter<Grammar> GRAMMAR_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Grammar>() {}.getType());
+
+  private static final ResponseConverter<AcousticModel> ACOUSTIC_MODEL_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<AcousticModel>() {}.getType());
+
+  private static final ResponseConverter<AcousticModels> ACOUSTIC_MODELS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<AcousticModels>() {}.getType());
+
+  private static final ResponseConverter<AudioResources> AUDIO_RESOURCES_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<AudioResources>() {}.getType());
+
+  private static final ResponseConverter<AudioListing> AUDIO_LISTING_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<AudioListing>() {}.getType());
+
+  private static final ResponseConverter<StreamingResults<RecognitionJob>>
+      STREAMING_RECOGNITIONS_CONVERTER =
+          StreamingResults.converter("recognitions", RecognitionJob.class);
+
+  private volatile Executor webSocketExecutor;
+  private volatile WebSocketPool webSocketPool;
+
   /**
    * Constructs an instance of the `SpeechToText` client. The default service name is used to
    * configure the client instance.
@@ -179,6 +267,50 @@ public class SpeechToText extends BaseService {
     this.configureService(serviceName);
   }
 
+  /**
+   * Sets the executor that sends the audio of {@link #recognizeUsingWebSocket} recognitions. By
+   * default, each recognition starts its own thread. A shared executor, such as one returned by
+   * {@link com.ibm.watson.common.VirtualThreads#newVirtualThreadPerTaskExecutor()} on Java 21 or
+   * later, lets many concurrent recognitions run without a platform thread each. The executor must
+   * run each task without waiting for the previous ones to finish, since a task runs as long as its
+   * audio stream.
+   *
+   * @param webSocketExecutor the executor, or null to start a new thread per recognition
+   */
+  public void setWebSocketExecutor(Executor webSocketExecutor) {
+    this.webSocketExecutor = webSocketExecutor;
+  }
+
+  /**
+   * Gets the executor that sends the audio of {@link #recognizeUsingWebSocket} recognitions.
+   *
+   * @return the executor, or null if each recognition starts its own thread
+   */
+  public Executor getWebSocketExecutor() {
+    return webSocketExecutor;
+  }
+
+  /**
+   * Sets the pool WebSocket connections are taken from. Connections opened ahead of time with
+   * {@link #prewarmRecognizeWebSockets} are handed out to recognitions with the same connection
+   * parameters and credentials; other recognitions open a connection as usual. The pool may be
+   * shared with other services, including services with other credentials.
+   *
+   * @param webSocketPool the pool, or null to open a new connection for each recognition
+   */
+  public void setWebSocketPool(WebSocketPool webSocketPool) {
+    this.webSocketPool = webSocketPool;
+  }
+
+  /**
+   * Gets the pool WebSocket connections are taken from.
+   *
+   * @return the pool, or null if each recognition opens a new connection
+   */
+  public WebSocketPool getWebSocketPool() {
+    return webSocketPool;
+  }
+
   /**
    * List models.
    *
@@ -201,9 +333,7 @@ public class SpeechToText extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<SpeechModels> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<SpeechModels>() {}.getType());
+    ResponseConverter<SpeechModels> responseConverter = SPEECH_MODELS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -251,9 +381,7 @@ public class SpeechToText extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<SpeechModel> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<SpeechModel>() {}.getType());
+    ResponseConverter<SpeechModel> responseConverter = SPEECH_MODEL_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -450,10 +578,13 @@ public class SpeechToText extends BaseService {
     if (recognizeOptions.lowLatency() != null) {
       builder.query("low_latency", String.valueOf(recognizeOptions.lowLatency()));
     }
-    builder.bodyContent(recognizeOptions.contentType(), null, null, recognizeOptions.audio());
+    if (recognizeOptions.contentType() != null) {
+      builder.body(
+          FileRequestBody.create(
+              MediaType.parse(recognizeOptions.contentType()), recognizeOptions.audio()));
+    }
     ResponseConverter<SpeechRecognitionResults> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<SpeechRecognitionResults>() {}.getType());
+        SPEECH_RECOGNITION_RESULTS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -478,9 +609,107 @@ public class SpeechToText extends BaseService {
       RecognizeWithWebsocketsOptions recognizeOptions, RecognizeCallback callback) {
     com.ibm.cloud.sdk.core.util.Validator.notNull(
         recognizeOptions, "recognizeOptions cannot be null");
-    com.ibm.cloud.sdk.core.util.Validator.notNull(recognizeOptions.audio(), "audio cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(
+        recognizeOptions.audio() != null
+            || recognizeOptions.audioChannel() != null
+            || recognizeOptions.audioBuffer() != null,
+        "audio cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(callback, "callback cannot be null");
+
+    return newRecognizeWebSocket(
+        recognizeOptions,
+        new SpeechToTextWebSocketListener(recognizeOptions, callback, webSocketExecutor));
+  }
+
+  /**
+   * Creates a Reactive Streams publisher of the results of a recognition over a WebSocket
+   * connection. The connection is opened when the publisher is subscribed to, and results are
+   * emitted as the subscriber requests them; up to the given number of results are buffered ahead
+   * of demand, and the overflow policy decides which ones are given up beyond that.
+   *
+   * @param recognizeOptions the recognize options
+   * @param bufferSize the number of results buffered ahead of demand
+   * @param overflow what to do with results received while the buffer is full
+   * @return the {@link RecognitionPublisher}
+   */
+  public RecognitionPublisher recognizeUsingWebSocketPublisher(
+      RecognizeWithWebsocketsOptions recognizeOptions,
+      int bufferSize,
+      RecognitionPublisher.Overflow overflow) {
+    return new RecognitionPublisher(this, recognizeOptions, bufferSize, overflow);
+  }
+
+  /**
+   * Opens a WebSocket connection over which several utterances can be recognized one after the
+   * other, starting with the given one. Reusing the connection saves the TLS handshake and
+   * authentication of a new connection for each utterance, which matters for short utterances.
+   *
+   * <p>The model, customizations and base model version of the connection are taken from the given
+   * options. Further utterances are queued with {@link RecognizeSession#recognize}; close the
+   * session once done with it.
+   *
+   * @param recognizeOptions the recognize options of the first utterance
+   * @param callback the {@link RecognizeCallback} instance where results of the first utterance
+   *     will be sent
+   * @return the {@link RecognizeSession}
+   */
+  public RecognizeSession openRecognizeSession(
+      RecognizeWithWebsocketsOptions recognizeOptions, RecognizeCallback callback) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(
+        recognizeOptions, "recognizeOptions cannot be null");
     com.ibm.cloud.sdk.core.util.Validator.notNull(callback, "callback cannot be null");
 
+    SpeechToTextWebSocketListener listener = new SpeechToTextWebSocketListener(webSocketExecutor);
+    listener.recognize(recognizeOptions, callback);
+    return new RecognizeSession(
+        newRecognizeWebSocket(recognizeOptions, listener), listener, recognizeOptions);
+  }
+
+  /**
+   * Opens WebSocket connections ahead of time, so that recognitions with the same model,
+   * customizations and base model version do not wait for the handshake. Only those parameters of
+   * the options are used. Requires a pool set with {@link #setWebSocketPool}, which then keeps the
+   * given number of connections ready, replacing each one handed out to {@link
+   * #recognizeUsingWebSocket} or {@link #openRecognizeSession}, closed or expired. Replacements are
+   * authenticated with the current credentials.
+   *
+   * @param connectionOptions the options holding the query parameters of the connections
+   * @param count the number of connections to keep ready
+   */
+  public void prewarmRecognizeWebSockets(
+      RecognizeWithWebsocketsOptions connectionOptions, int count) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(
+        connectionOptions, "connectionOptions cannot be null");
+    WebSocketPool pool = webSocketPool;
+    com.ibm.cloud.sdk.core.util.Validator.notNull(pool, "webSocketPool must be set");
+    pool.prewarm(configureHttpClient(), () -> newRecognizeRequest(connectionOptions), count);
+  }
+
+  /**
+   * Opens a WebSocket connection to the recognize endpoint.
+   *
+   * @param recognizeOptions the options holding the query parameters of the connection
+   * @param listener the listener
+   * @return the {@link WebSocket}
+   */
+  private WebSocket newRecognizeWebSocket(
+      RecognizeWithWebsocketsOptions recognizeOptions, SpeechToTextWebSocketListener listener) {
+    Request request = newRecognizeRequest(recognizeOptions);
+    OkHttpClient client = configureHttpClient();
+    WebSocketPool pool = webSocketPool;
+    if (pool != null) {
+      return pool.connect(client, request, listener);
+    }
+    return client.newWebSocket(request, listener);
+  }
+
+  /**
+   * Builds the authenticated request opening a WebSocket connection to the recognize endpoint.
+   *
+   * @param recognizeOptions the options holding the query parameters of the connection
+   * @return the {@link Request}
+   */
+  private Request newRecognizeRequest(RecognizeWithWebsocketsOptions recognizeOptions) {
     HttpUrl.Builder urlBuilder = HttpUrl.parse(getServiceUrl() + "/v1/recognize").newBuilder();
 
     if (recognizeOptions.model() != null) {
@@ -506,10 +735,7 @@ public class SpeechToText extends BaseService {
 
     setAuthentication(builder);
     setDefaultHeaders(builder);
-
-    OkHttpClient client = configureHttpClient();
-    return client.newWebSocket(
-        builder.build(), new SpeechToTextWebSocketListener(recognizeOptions, callback));
+    return builder.build();
   }
 
   /**
@@ -567,9 +793,7 @@ public class SpeechToText extends BaseService {
     if (registerCallbackOptions.userSecret() != null) {
       builder.query("user_secret", String.valueOf(registerCallbackOptions.userSecret()));
     }
-    ResponseConverter<RegisterStatus> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<RegisterStatus>() {}.getType());
+    ResponseConverter<RegisterStatus> responseConverter = REGISTER_STATUS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -819,10 +1043,12 @@ public class SpeechToText extends BaseService {
     if (createJobOptions.lowLatency() != null) {
       builder.query("low_latency", String.valueOf(createJobOptions.lowLatency()));
     }
-    builder.bodyContent(createJobOptions.contentType(), null, null, createJobOptions.audio());
-    ResponseConverter<RecognitionJob> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<RecognitionJob>() {}.getType());
+    if (createJobOptions.contentType() != null) {
+      builder.body(
+          FileRequestBody.create(
+              MediaType.parse(createJobOptions.contentType()), createJobOptions.audio()));
+    }
+    ResponseConverter<RecognitionJob> responseConverter = RECOGNITION_JOB_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -844,6 +1070,30 @@ public class SpeechToText extends BaseService {
    * @return a {@link ServiceCall} with a result of type {@link RecognitionJobs}
    */
   public ServiceCall<RecognitionJobs> checkJobs(CheckJobsOptions checkJobsOptions) {
+    ResponseConverter<RecognitionJobs> responseConverter = RECOGNITION_JOBS_CONVERTER;
+    return createServiceCall(newCheckJobsRequest(checkJobsOptions), responseConverter);
+  }
+
+  /**
+   * Check jobs, decoding the recognitions one at a time.
+   *
+   * <p>Same as {@link #checkJobs(CheckJobsOptions)}, but the recognitions are decoded one at a time
+   * as they are read from the response, rather than all at once into a {@link RecognitionJobs}. The
+   * other properties of the response are available from {@link StreamingResults#getField(String)}.
+   * Close the results if not all of them are read.
+   *
+   * @param checkJobsOptions the {@link CheckJobsOptions} containing the options for the call
+   * @return a {@link ServiceCall} with a result of type {@link StreamingResults} of {@link
+   *     RecognitionJob}
+   */
+  public ServiceCall<StreamingResults<RecognitionJob>> checkJobsStreaming(
+      CheckJobsOptions checkJobsOptions) {
+    ResponseConverter<StreamingResults<RecognitionJob>> responseConverter =
+        STREAMING_RECOGNITIONS_CONVERTER;
+    return createServiceCall(newCheckJobsRequest(checkJobsOptions), responseConverter);
+  }
+
+  private Request newCheckJobsRequest(CheckJobsOptions checkJobsOptions) {
     RequestBuilder builder =
         RequestBuilder.get(RequestBuilder.resolveRequestUrl(getServiceUrl(), "/v1/recognitions"));
     Map<String, String> sdkHeaders = SdkCommon.getSdkHeaders("speech_to_text", "v1", "checkJobs");
@@ -851,10 +1101,7 @@ public class SpeechToText extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<RecognitionJobs> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<RecognitionJobs>() {}.getType());
-    return createServiceCall(builder.build(), responseConverter);
+    return builder.build();
   }
 
   /**
@@ -911,9 +1158,7 @@ public class SpeechToText extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<RecognitionJob> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<RecognitionJob>() {}.getType());
+    ResponseConverter<RecognitionJob> responseConverter = RECOGNITION_JOB_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -989,9 +1234,7 @@ public class SpeechToText extends BaseService {
       contentJson.addProperty("description", createLanguageModelOptions.description());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<LanguageModel> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<LanguageModel>() {}.getType());
+    ResponseConverter<LanguageModel> responseConverter = LANGUAGE_MODEL_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1026,9 +1269,7 @@ public class SpeechToText extends BaseService {
     if (listLanguageModelsOptions.language() != null) {
       builder.query("language", String.valueOf(listLanguageModelsOptions.language()));
     }
-    ResponseConverter<LanguageModels> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<LanguageModels>() {}.getType());
+    ResponseConverter<LanguageModels> responseConverter = LANGUAGE_MODELS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1078,9 +1319,7 @@ public class SpeechToText extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<LanguageModel> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<LanguageModel>() {}.getType());
+    ResponseConverter<LanguageModel> responseConverter = LANGUAGE_MODEL_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1180,9 +1419,7 @@ public class SpeechToText extends BaseService {
       builder.query(
           "customization_weight", String.valueOf(trainLanguageModelOptions.customizationWeight()));
     }
-    ResponseConverter<TrainingResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TrainingResponse>() {}.getType());
+    ResponseConverter<TrainingResponse> responseConverter = TRAINING_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1301,9 +1538,7 @@ public class SpeechToText extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<Corpora> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Corpora>() {}.getType());
+    ResponseConverter<Corpora> responseConverter = CORPORA_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1386,7 +1621,7 @@ public class SpeechToText extends BaseService {
     if (addCorpusOptions.allowOverwrite() != null) {
       builder.query("allow_overwrite", String.valueOf(addCorpusOptions.allowOverwrite()));
     }
-    builder.body(RequestUtils.inputStreamBody(addCorpusOptions.corpusFile(), "text/plain"));
+    builder.body(FileRequestBody.inputStreamBody(addCorpusOptions.corpusFile(), "text/plain"));
 
     ResponseConverter<Void> responseConverter = ResponseConverterUtils.getVoid();
     return createServiceCall(builder.build(), responseConverter);
@@ -1424,9 +1659,7 @@ public class SpeechToText extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<Corpus> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Corpus>() {}.getType());
+    ResponseConverter<Corpus> responseConverter = CORPUS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1508,9 +1741,7 @@ public class SpeechToText extends BaseService {
     if (listWordsOptions.sort() != null) {
       builder.query("sort", String.valueOf(listWordsOptions.sort()));
     }
-    ResponseConverter<Words> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Words>() {}.getType());
+    ResponseConverter<Words> responseConverter = WORDS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1720,8 +1951,7 @@ public class SpeechToText extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<Word> responseConverter =
-        ResponseConverterUtils.getValue(new com.google.gson.reflect.TypeToken<Word>() {}.getType());
+    ResponseConverter<Word> responseConverter = WORD_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1794,9 +2024,7 @@ public class SpeechToText extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<Grammars> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Grammars>() {}.getType());
+    ResponseConverter<Grammars> responseConverter = GRAMMARS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1868,8 +2096,11 @@ public class SpeechToText extends BaseService {
     if (addGrammarOptions.allowOverwrite() != null) {
       builder.query("allow_overwrite", String.valueOf(addGrammarOptions.allowOverwrite()));
     }
-    builder.bodyContent(
-        addGrammarOptions.contentType(), null, null, addGrammarOptions.grammarFile());
+    if (addGrammarOptions.contentType() != null) {
+      builder.body(
+          FileRequestBody.create(
+              MediaType.parse(addGrammarOptions.contentType()), addGrammarOptions.grammarFile()));
+    }
     ResponseConverter<Void> responseConverter = ResponseConverterUtils.getVoid();
     return createServiceCall(builder.build(), responseConverter);
   }
@@ -1908,9 +2139,7 @@ public class SpeechToText extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<Grammar> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Grammar>() {}.getType());
+    ResponseConverter<Grammar> responseConverter = GRAMMAR_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1999,9 +2228,7 @@ public class SpeechToText extends BaseService {
       contentJson.addProperty("description", createAcousticModelOptions.description());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<AcousticModel> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<AcousticModel>() {}.getType());
+    ResponseConverter<AcousticModel> responseConverter = ACOUSTIC_MODEL_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2040,9 +2267,7 @@ public class SpeechToText extends BaseService {
     if (listAcousticModelsOptions.language() != null) {
       builder.query("language", String.valueOf(listAcousticModelsOptions.language()));
     }
-    ResponseConverter<AcousticModels> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<AcousticModels>() {}.getType());
+    ResponseConverter<AcousticModels> responseConverter = ACOUSTIC_MODELS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2098,9 +2323,7 @@ public class SpeechToText extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<AcousticModel> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<AcousticModel>() {}.getType());
+    ResponseConverter<AcousticModel> responseConverter = ACOUSTIC_MODEL_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2223,9 +2446,7 @@ public class SpeechToText extends BaseService {
           "custom_language_model_id",
           String.valueOf(trainAcousticModelOptions.customLanguageModelId()));
     }
-    ResponseConverter<TrainingResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TrainingResponse>() {}.getType());
+    ResponseConverter<TrainingResponse> responseConverter = TRAINING_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2371,9 +2592,7 @@ public class SpeechToText extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<AudioResources> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<AudioResources>() {}.getType());
+    ResponseConverter<AudioResources> responseConverter = AUDIO_RESOURCES_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -2497,7 +2716,11 @@ public class SpeechToText extends BaseService {
     if (addAudioOptions.allowOverwrite() != null) {
       builder.query("allow_overwrite", String.valueOf(addAudioOptions.allowOverwrite()));
     }
-    builder.bodyContent(addAudioOptions.contentType(), null, null, addAudioOptions.audioResource());
+    if (addAudioOptions.contentType() != null) {
+      builder.body(
+          FileRequestBody.create(
+              MediaType.parse(addAudioOptions.contentType()), addAudioOptions.audioResource()));
+    }
     ResponseConverter<Void> responseConverter = ResponseConverterUtils.getVoid();
     return createServiceCall(builder.build(), responseConverter);
   }
@@ -2549,9 +2772,7 @@ public class SpeechToText extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<AudioListing> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<AudioListing>() {}.getType());
+    ResponseConverter<AudioListing> responseConverter = AUDIO_LISTING_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -14,10 +14,13 @@ package com.ibm.watson.speech_to_text.v1.model;
 
 import com.google.gson.annotations.SerializedName;
 import com.ibm.cloud.sdk.core.service.model.GenericModel;
+import com.ibm.watson.speech_to_text.v1.websocket.AudioFlowControl;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -108,6 +111,10 @@ public class RecognizeWithWebsocketsOptions extends GenericModel {
   }
 
   protected transient InputStream audio;
+  protected transient ReadableByteChannel audioChannel;
+  protected transient ByteBuffer audioBuffer;
+  protected transient Integer frameSize;
+  protected transient AudioFlowControl flowControl;
 
   @SerializedName("content-type")
   protected String contentType;
@@ -142,6 +149,10 @@ public class RecognizeWithWebsocketsOptions extends GenericModel {
   /** Builder. */
   public static class Builder {
     private InputStream audio;
+    private ReadableByteChannel audioChannel;
+    private ByteBuffer audioBuffer;
+    private Integer frameSize;
+    private AudioFlowControl flowControl;
     private String contentType;
     private String model;
     private String languageCustomizationId;
@@ -172,6 +183,10 @@ public class RecognizeWithWebsocketsOptions extends GenericModel {
 
     private Builder(RecognizeWithWebsocketsOptions recognizeWithWebsocketsOptions) {
       this.audio = recognizeWithWebsocketsOptions.audio;
+      this.audioChannel = recognizeWithWebsocketsOptions.audioChannel;
+      this.audioBuffer = recognizeWithWebsocketsOptions.audioBuffer;
+      this.frameSize = recognizeWithWebsocketsOptions.frameSize;
+      this.flowControl = recognizeWithWebsocketsOptions.flowControl;
       this.contentType = recognizeWithWebsocketsOptions.contentType;
       this.model = recognizeWithWebsocketsOptions.model;
       this.languageCustomizationId = recognizeWithWebsocketsOptions.languageCustomizationId;
@@ -245,6 +260,62 @@ public class RecognizeWithWebsocketsOptions extends GenericModel {
      */
     public Builder audio(InputStream audio) {
       this.audio = audio;
+      this.audioChannel = null;
+      this.audioBuffer = null;
+      return this;
+    }
+
+    /**
+     * Set the audio from a channel. Replaces any previously set audio source.
+     *
+     * @param audio the audio channel
+     * @return the RecognizeOptions builder
+     */
+    public Builder audio(ReadableByteChannel audio) {
+      this.audio = null;
+      this.audioChannel = audio;
+      this.audioBuffer = null;
+      return this;
+    }
+
+    /**
+     * Set the audio from a buffer. The remaining content of the buffer is sent; its position is
+     * left untouched. Replaces any previously set audio source.
+     *
+     * @param audio the audio buffer
+     * @return the RecognizeOptions builder
+     */
+    public Builder audio(ByteBuffer audio) {
+      this.audio = null;
+      this.audioChannel = null;
+      this.audioBuffer = audio;
+      return this;
+    }
+
+    /**
+     * Set the frameSize.
+     *
+     * <p>NOTE: This parameter only works for the `recognizeUsingWebSocket` method.
+     *
+     * @param frameSize the size in bytes of each binary message sent over the WebSocket
+     * @return the RecognizeOptions builder
+     * @see com.ibm.watson.speech_to_text.v1.websocket.AudioPump#frameSize(int, int, int, int)
+     */
+    public Builder frameSize(int frameSize) {
+      this.frameSize = frameSize;
+      return this;
+    }
+
+    /**
+     * Set the flowControl.
+     *
+     * <p>NOTE: This parameter only works for the `recognizeUsingWebSocket` method.
+     *
+     * @param flowControl the flow control holding back the audio while the WebSocket queue is full
+     * @return the RecognizeOptions builder
+     */
+    public Builder flowControl(AudioFlowControl flowControl) {
+      this.flowControl = flowControl;
       return this;
     }
 
@@ -520,8 +591,7 @@ public class RecognizeWithWebsocketsOptions extends GenericModel {
      * @throws FileNotFoundException if the file could not be found
      */
     public Builder audio(File audio) throws FileNotFoundException {
-      this.audio = new FileInputStream(audio);
-      return this;
+      return audio(new FileInputStream(audio));
     }
 
     /**
@@ -565,8 +635,16 @@ public class RecognizeWithWebsocketsOptions extends GenericModel {
   }
 
   protected RecognizeWithWebsocketsOptions(Builder builder) {
-    com.ibm.cloud.sdk.core.util.Validator.notNull(builder.audio, "audio cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(
+        builder.audio != null || builder.audioChannel != null || builder.audioBuffer != null,
+        "audio cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(
+        builder.frameSize == null || builder.frameSize > 0, "frameSize must be positive");
     audio = builder.audio;
+    audioChannel = builder.audioChannel;
+    audioBuffer = builder.audioBuffer;
+    frameSize = builder.frameSize;
+    flowControl = builder.flowControl;
     contentType = builder.contentType;
     model = builder.model;
     languageCustomizationId = builder.languageCustomizationId;
@@ -616,6 +694,51 @@ public class RecognizeWithWebsocketsOptions extends GenericModel {
     return audio;
   }
 
+  /**
+   * Gets the audioChannel.
+   *
+   * <p>The audio to transcribe, when given as a channel.
+   *
+   * @return the audioChannel
+   */
+  public ReadableByteChannel audioChannel() {
+    return audioChannel;
+  }
+
+  /**
+   * Gets the audioBuffer.
+   *
+   * <p>The audio to transcribe, when given as a buffer.
+   *
+   * @return the audioBuffer
+   */
+  public ByteBuffer audioBuffer() {
+    return audioBuffer;
+  }
+
+  /**
+   * Gets the frameSize.
+   *
+   * <p>The size in bytes of each binary message sent over the WebSocket.
+   *
+   * @return the frameSize
+   */
+  public Integer frameSize() {
+    return frameSize;
+  }
+
+  /**
+   * Gets the flowControl.
+   *
+   * <p>The flow control holding back the audio while the WebSocket queue is full. If not set, a new
+   * {@link AudioFlowControl} with the default watermarks is used for each recognition.
+   *
+   * @return the flowControl
+   */
+  public AudioFlowControl flowControl() {
+    return flowControl;
+  }
+
   /**
    * Gets the contentType.
    *
@@ -0,0 +1,157 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.speech_to_text.v1.websocket;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import okhttp3.WebSocket;
+
+/**
+ * Flow control for audio sent over a {@link WebSocket}. <br>
+ * If OkHttp's WebSocket queue gets overwhelmed, it'll abruptly close the connection (see:
+ * https://github.com/square/okhttp/issues/3317). Once the queue grows above the high watermark, the
+ * sender is held back until it drains below the low watermark.
+ *
+ * <p>OkHttp does not report when its queue drains, so a throttled sender is woken up whenever the
+ * service sends a message or the socket closes, and otherwise after the time the queue is estimated
+ * to need to reach the low watermark, based on the drain rate observed so far.
+ *
+ * <p>An instance can be shared between several recognitions, in which case its metrics cover all of
+ * them.
+ */
+public class AudioFlowControl {
+
+  /** 8 MB, half of the maximum OkHttp WebSocket queue size. */
+  public static final long DEFAULT_HIGH_WATERMARK = 16 * 1024 * 512;
+
+  /** 4 MB, a quarter of the maximum OkHttp WebSocket queue size. */
+  public static final long DEFAULT_LOW_WATERMARK = DEFAULT_HIGH_WATERMARK / 2;
+
+  private static final long MIN_WAIT_MILLIS = 1;
+  private static final long MAX_WAIT_MILLIS = 50;
+
+  private final long highWatermark;
+  private final long lowWatermark;
+  private final Object drained = new Object();
+  private final AtomicLong throttledCount = new AtomicLong();
+  private final AtomicLong throttledNanos = new AtomicLong();
+
+  /** Instantiates a new audio flow control with the default watermarks. */
+  public AudioFlowControl() {
+    this(DEFAULT_HIGH_WATERMARK, DEFAULT_LOW_WATERMARK);
+  }
+
+  /**
+   * Instantiates a new audio flow control.
+   *
+   * @param highWatermark the queue size in bytes above which the sender is held back
+   * @param lowWatermark the queue size in bytes the queue must drain to before sending resumes
+   */
+  public AudioFlowControl(long highWatermark, long lowWatermark) {
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(
+        lowWatermark >= 0 && lowWatermark <= highWatermark,
+        "lowWatermark must be between 0 and highWatermark");
+    this.highWatermark = highWatermark;
+    this.lowWatermark = lowWatermark;
+  }
+
+  /**
+   * Blocks while the socket's queue is above the high watermark, until it drains to the low
+   * watermark or the socket closes.
+   *
+   * @param socket the socket the audio is sent on
+   * @param open tells whether the socket is still open
+   * @return true if the socket is still open
+   * @throws InterruptedException if the sender was interrupted while throttled
+   */
+  public boolean awaitCapacity(WebSocket socket, BooleanSupplier open) throws InterruptedException {
+    long queued = socket.queueSize();
+    if (queued <= highWatermark) {
+      return open.getAsBoolean();
+    }
+
+    long start = System.nanoTime();
+    throttledCount.incrementAndGet();
+    try {
+      long lastQueued = queued;
+      long lastCheck = start;
+      while (open.getAsBoolean() && (queued = socket.queueSize()) > lowWatermark) {
+        long now = System.nanoTime();
+        long waitMillis = MAX_WAIT_MILLIS;
+        if (queued < lastQueued && now > lastCheck) {
+          long nanosToLowWatermark =
+              (queued - lowWatermark) * (now - lastCheck) / (lastQueued - queued);
+          waitMillis =
+              Math.max(
+                  MIN_WAIT_MILLIS,
+                  Math.min(MAX_WAIT_MILLIS, TimeUnit.NANOSECONDS.toMillis(nanosToLowWatermark)));
+        }
+        lastQueued = queued;
+        lastCheck = now;
+        synchronized (drained) {
+          drained.wait(waitMillis);
+        }
+      }
+    } finally {
+      throttledNanos.addAndGet(System.nanoTime() - start);
+    }
+    return open.getAsBoolean();
+  }
+
+  /**
+   * Wakes up throttled senders so they check their queue again. Called when the service sends a
+   * message, which usually means audio has been consumed, and when a socket closes.
+   */
+  public void signal() {
+    synchronized (drained) {
+      drained.notifyAll();
+    }
+  }
+
+  /**
+   * Gets the highWatermark.
+   *
+   * @return the queue size in bytes above which the sender is held back
+   */
+  public long highWatermark() {
+    return highWatermark;
+  }
+
+  /**
+   * Gets the lowWatermark.
+   *
+   * @return the queue size in bytes the queue must drain to before sending resumes
+   */
+  public long lowWatermark() {
+    return lowWatermark;
+  }
+
+  /**
+   * Gets the number of times a sender was held back.
+   *
+   * @return the throttled count
+   */
+  public long throttledCount() {
+    return throttledCount.get();
+  }
+
+  /**
+   * Gets the total time senders spent held back.
+   *
+   * @return the throttled time in milliseconds
+   */
+  public long throttledMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(throttledNanos.get());
+  }
+}
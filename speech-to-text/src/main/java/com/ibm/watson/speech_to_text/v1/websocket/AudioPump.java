@@ -0,0 +1,223 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.speech_to_text.v1.websocket;
+
+import com.ibm.watson.speech_to_text.v1.model.RecognizeWithWebsocketsOptions;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import okio.ByteString;
+
+/**
+ * Cuts an audio source into fixed-size frames for a {@link okhttp3.WebSocket}. <br>
+ * A single read buffer is allocated per pump and reused for every frame, so the only copy made per
+ * frame is the one into the immutable {@link ByteString} handed to OkHttp. A frame is only sent
+ * short when the source reaches its end.
+ *
+ * <p>The frame size is given in bytes. Use {@link #frameSize(int, int, int, int)} to derive it from
+ * a duration, so that one frame is sent per N milliseconds of audio.
+ */
+public abstract class AudioPump implements Closeable {
+
+  /** The frame size used when none is configured, in bytes. */
+  public static final int DEFAULT_FRAME_SIZE = 1024;
+
+  protected final int frameSize;
+
+  /**
+   * Instantiates a new audio pump.
+   *
+   * @param frameSize the frame size in bytes
+   */
+  protected AudioPump(int frameSize) {
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(frameSize > 0, "frameSize must be positive");
+    this.frameSize = frameSize;
+  }
+
+  /**
+   * Reads the next frame.
+   *
+   * @return the frame, or null once the source has been exhausted
+   * @throws IOException if the source could not be read
+   */
+  public abstract ByteString nextFrame() throws IOException;
+
+  /**
+   * Gets the frame size.
+   *
+   * @return the frame size in bytes
+   */
+  public int frameSize() {
+    return frameSize;
+  }
+
+  /**
+   * Computes the number of bytes holding the given duration of uncompressed audio.
+   *
+   * @param sampleRate the sample rate in Hertz
+   * @param sampleSizeInBytes the size of a single sample in bytes, for example 2 for audio/l16
+   * @param channels the number of channels
+   * @param millis the frame duration in milliseconds
+   * @return the frame size in bytes, rounded up to a whole number of samples
+   */
+  public static int frameSize(int sampleRate, int sampleSizeInBytes, int channels, int millis) {
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(sampleRate > 0, "sampleRate must be positive");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(
+        sampleSizeInBytes > 0, "sampleSizeInBytes must be positive");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(channels > 0, "channels must be positive");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(millis > 0, "millis must be positive");
+    long samples = ((long) sampleRate * millis + 999) / 1000;
+    return (int) Math.min(Integer.MAX_VALUE, samples * sampleSizeInBytes * channels);
+  }
+
+  /**
+   * Creates the pump matching the audio source configured in the recognize options.
+   *
+   * @param options the recognize options
+   * @return the audio pump
+   */
+  public static AudioPump of(RecognizeWithWebsocketsOptions options) {
+    int frameSize = options.frameSize() != null ? options.frameSize() : DEFAULT_FRAME_SIZE;
+    if (options.audioBuffer() != null) {
+      return of(options.audioBuffer(), frameSize);
+    } else if (options.audioChannel() != null) {
+      return of(options.audioChannel(), frameSize);
+    }
+    return of(options.audio(), frameSize);
+  }
+
+  /**
+   * Creates a pump reading from an {@link InputStream}.
+   *
+   * @param stream the audio stream
+   * @param frameSize the frame size in bytes
+   * @return the audio pump
+   */
+  public static AudioPump of(InputStream stream, int frameSize) {
+    return new StreamPump(stream, frameSize);
+  }
+
+  /**
+   * Creates a pump reading from a {@link ReadableByteChannel}.
+   *
+   * @param channel the audio channel
+   * @param frameSize the frame size in bytes
+   * @return the audio pump
+   */
+  public static AudioPump of(ReadableByteChannel channel, int frameSize) {
+    return new ChannelPump(channel, frameSize);
+  }
+
+  /**
+   * Creates a pump slicing the remaining content of a {@link ByteBuffer}. The buffer is not
+   * modified, and no copy of its whole content is made: each frame is copied out of it as it is
+   * sent.
+   *
+   * @param audio the audio buffer
+   * @param frameSize the frame size in bytes
+   * @return the audio pump
+   */
+  public static AudioPump of(ByteBuffer audio, int frameSize) {
+    return new BufferPump(audio, frameSize);
+  }
+
+  /** Pump over an {@link InputStream}, reading into a reused array. */
+  private static final class StreamPump extends AudioPump {
+    private final InputStream stream;
+    private final byte[] buffer;
+
+    StreamPump(InputStream stream, int frameSize) {
+      super(frameSize);
+      com.ibm.cloud.sdk.core.util.Validator.notNull(stream, "stream cannot be null");
+      this.stream = stream;
+      this.buffer = new byte[frameSize];
+    }
+
+    @Override
+    public ByteString nextFrame() throws IOException {
+      int filled = 0;
+      int read;
+      // AudioInputStreams, typically used for streaming microphone inputs, return 0 only when the
+      // stream has been closed. Elsewise AudioInputStream.read() blocks until enough audio frames
+      // are read.
+      while (filled < buffer.length
+          && (read = stream.read(buffer, filled, buffer.length - filled)) > 0) {
+        filled += read;
+      }
+      return filled == 0 ? null : ByteString.of(buffer, 0, filled);
+    }
+
+    @Override
+    public void close() throws IOException {
+      stream.close();
+    }
+  }
+
+  /** Pump over a {@link ReadableByteChannel}, reading into a reused buffer. */
+  private static final class ChannelPump extends AudioPump {
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    ChannelPump(ReadableByteChannel channel, int frameSize) {
+      super(frameSize);
+      com.ibm.cloud.sdk.core.util.Validator.notNull(channel, "channel cannot be null");
+      this.channel = channel;
+      this.buffer = ByteBuffer.allocate(frameSize);
+    }
+
+    @Override
+    public ByteString nextFrame() throws IOException {
+      buffer.clear();
+      while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+        // keep filling the frame
+      }
+      buffer.flip();
+      return buffer.hasRemaining() ? ByteString.of(buffer) : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+
+  /** Pump slicing an in-memory {@link ByteBuffer}. */
+  private static final class BufferPump extends AudioPump {
+    private final ByteBuffer audio;
+
+    BufferPump(ByteBuffer audio, int frameSize) {
+      super(frameSize);
+      com.ibm.cloud.sdk.core.util.Validator.notNull(audio, "audio cannot be null");
+      this.audio = audio.duplicate();
+    }
+
+    @Override
+    public ByteString nextFrame() {
+      if (!audio.hasRemaining()) {
+        return null;
+      }
+      int end = audio.position() + Math.min(frameSize, audio.remaining());
+      ByteBuffer frame = audio.duplicate();
+      frame.limit(end);
+      audio.position(end);
+      return ByteString.of(frame);
+    }
+
+    @Override
+    public void close() {
+      audio.position(audio.limit());
+    }
+  }
+}
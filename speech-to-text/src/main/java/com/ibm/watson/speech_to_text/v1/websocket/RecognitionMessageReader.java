@@ -0,0 +1,131 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.speech_to_text.v1.websocket;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
+import com.ibm.watson.speech_to_text.v1.model.SpeechRecognitionResults;
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * Decodes a text message of the Speech to Text WebSocket in a single pass. <br>
+ * The message is streamed straight into {@link SpeechRecognitionResults} by Gson's own adapter,
+ * without building a tree first. The top-level "error" and "state" strings, which are not part of
+ * the results and would be skipped by that adapter, are captured on the way.
+ */
+final class RecognitionMessageReader extends JsonReader {
+
+  private static final TypeAdapter<SpeechRecognitionResults> RESULTS_ADAPTER =
+      GsonSingleton.getGsonWithoutPrettyPrinting().getAdapter(SpeechRecognitionResults.class);
+
+  private static final String ERROR = "error";
+  private static final String STATE = "state";
+
+  private int depth;
+  private String name;
+  private String error;
+  private String state;
+  private SpeechRecognitionResults results;
+
+  private RecognitionMessageReader(String message) {
+    super(new StringReader(message));
+    setLenient(true);
+  }
+
+  /**
+   * Decodes a message.
+   *
+   * @param message the message
+   * @return the reader holding the decoded message
+   * @throws IOException if the message is not valid JSON
+   */
+  static RecognitionMessageReader read(String message) throws IOException {
+    RecognitionMessageReader reader = new RecognitionMessageReader(message);
+    reader.results = RESULTS_ADAPTER.read(reader);
+    return reader;
+  }
+
+  /**
+   * Gets the error.
+   *
+   * @return the error sent by the service, or null
+   */
+  String error() {
+    return error;
+  }
+
+  /**
+   * Gets the state.
+   *
+   * @return the state sent by the service, or null
+   */
+  String state() {
+    return state;
+  }
+
+  /**
+   * Checks whether the message holds recognition results.
+   *
+   * @return true if the message holds results, speaker labels or audio metrics
+   */
+  boolean hasResults() {
+    return results != null
+        && (results.getResults() != null
+            || results.getSpeakerLabels() != null
+            || results.getAudioMetrics() != null);
+  }
+
+  /**
+   * Gets the results.
+   *
+   * @return the results
+   */
+  SpeechRecognitionResults results() {
+    return results;
+  }
+
+  @Override
+  public void beginObject() throws IOException {
+    super.beginObject();
+    depth++;
+  }
+
+  @Override
+  public void endObject() throws IOException {
+    super.endObject();
+    depth--;
+  }
+
+  @Override
+  public String nextName() throws IOException {
+    name = super.nextName();
+    return name;
+  }
+
+  @Override
+  public void skipValue() throws IOException {
+    if (depth == 1 && peek() == JsonToken.STRING) {
+      if (ERROR.equals(name)) {
+        error = nextString();
+        return;
+      } else if (STATE.equals(name)) {
+        state = nextString();
+        return;
+      }
+    }
+    super.skipValue();
+  }
+}
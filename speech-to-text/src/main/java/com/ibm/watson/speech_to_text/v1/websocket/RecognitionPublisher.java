@@ -0,0 +1,308 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.speech_to_text.v1.websocket;
+
+import com.ibm.watson.speech_to_text.v1.SpeechToText;
+import com.ibm.watson.speech_to_text.v1.model.RecognizeWithWebsocketsOptions;
+import com.ibm.watson.speech_to_text.v1.model.SpeechRecognitionResults;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.WebSocket;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * A Reactive Streams {@link Publisher} of the results of a {@link WebSocket} recognition. <br>
+ * The recognition starts when the publisher is subscribed to, and the results are emitted as the
+ * subscriber requests them. Results received ahead of demand wait in a buffer of bounded size, so a
+ * slow subscriber neither blocks the thread reading the connection nor lets memory grow without
+ * limit; once the buffer is full, the {@link Overflow} policy decides which results are given up.
+ *
+ * <p>The publisher completes once the service returns the final result, and signals an error if the
+ * recognition fails or times out for inactivity. Cancelling the subscription closes the connection.
+ * A publisher can be subscribed to only once. On Java 9 or later, {@code
+ * org.reactivestreams.FlowAdapters}, from Reactive Streams 1.0.3 on, turns it into a {@code
+ * java.util.concurrent.Flow.Publisher}.
+ *
+ * @see SpeechToText#recognizeUsingWebSocketPublisher(RecognizeWithWebsocketsOptions, int, Overflow)
+ */
+public class RecognitionPublisher implements Publisher<SpeechRecognitionResults> {
+
+  /** What to do with results received while the buffer is full. */
+  public enum Overflow {
+    /** Give up the oldest buffered result, so that the subscriber gets the latest ones. */
+    DROP_OLDEST,
+    /** Give up the result just received, so that the subscriber gets the buffered ones. */
+    DROP_LATEST,
+    /** Close the connection and signal an error to the subscriber. */
+    ERROR
+  }
+
+  private final SpeechToText service;
+  private final RecognizeWithWebsocketsOptions recognizeOptions;
+  private final int bufferSize;
+  private final Overflow overflow;
+
+  private final ArrayDeque<SpeechRecognitionResults> buffer = new ArrayDeque<>();
+  private final AtomicInteger wip = new AtomicInteger();
+  private Subscriber<? super SpeechRecognitionResults> subscriber;
+  private WebSocket socket;
+  private long demand;
+  private long dropped;
+  private boolean done;
+  private boolean cancelled;
+  private boolean terminated;
+  private Throwable error;
+
+  /**
+   * Instantiates a new recognition publisher.
+   *
+   * @param service the service to recognize the audio with
+   * @param recognizeOptions the recognize options
+   * @param bufferSize the number of results buffered ahead of demand
+   * @param overflow what to do with results received while the buffer is full
+   */
+  public RecognitionPublisher(
+      SpeechToText service,
+      RecognizeWithWebsocketsOptions recognizeOptions,
+      int bufferSize,
+      Overflow overflow) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(service, "service cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(
+        recognizeOptions, "recognizeOptions cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(bufferSize > 0, "bufferSize must be positive");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(overflow, "overflow cannot be null");
+    this.service = service;
+    this.recognizeOptions = recognizeOptions;
+    this.bufferSize = bufferSize;
+    this.overflow = overflow;
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super SpeechRecognitionResults> s) {
+    if (s == null) {
+      throw new NullPointerException("subscriber cannot be null");
+    }
+    synchronized (this) {
+      if (subscriber == null) {
+        subscriber = s;
+      } else {
+        s.onSubscribe(new NoopSubscription());
+        s.onError(new IllegalStateException("RecognitionPublisher allows only one subscriber"));
+        return;
+      }
+    }
+    s.onSubscribe(new RecognitionSubscription());
+
+    WebSocket webSocket;
+    try {
+      webSocket = service.recognizeUsingWebSocket(recognizeOptions, new Callback());
+    } catch (RuntimeException e) {
+      terminate(e);
+      return;
+    }
+    boolean cancel;
+    synchronized (this) {
+      socket = webSocket;
+      cancel = cancelled || error != null;
+    }
+    if (cancel) {
+      webSocket.cancel();
+    }
+  }
+
+  /**
+   * Gets the number of results given up because the buffer was full.
+   *
+   * @return the number of dropped results
+   */
+  public synchronized long droppedCount() {
+    return dropped;
+  }
+
+  private void offer(SpeechRecognitionResults results) {
+    synchronized (this) {
+      if (done || cancelled) {
+        return;
+      }
+      if (buffer.size() >= bufferSize) {
+        switch (overflow) {
+          case DROP_OLDEST:
+            buffer.poll();
+            dropped++;
+            break;
+          case DROP_LATEST:
+            dropped++;
+            return;
+          default:
+            dropped++;
+            buffer.clear();
+            done = true;
+            error = new IllegalStateException("Buffer of " + bufferSize + " results is full");
+            break;
+        }
+      }
+      if (!done) {
+        buffer.add(results);
+      }
+    }
+    if (overflow == Overflow.ERROR) {
+      closeSocketIfFailed();
+    }
+    drain();
+  }
+
+  private void terminate(Throwable t) {
+    synchronized (this) {
+      if (done) {
+        return;
+      }
+      done = true;
+      error = t;
+    }
+    drain();
+  }
+
+  private void closeSocketIfFailed() {
+    WebSocket webSocket;
+    synchronized (this) {
+      webSocket = error != null ? socket : null;
+    }
+    if (webSocket != null) {
+      webSocket.cancel();
+    }
+  }
+
+  /** Emits the buffered results and the terminal signal, from one thread at a time. */
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    for (; ; ) {
+      for (; ; ) {
+        SpeechRecognitionResults next;
+        synchronized (this) {
+          if (cancelled || terminated || demand == 0 || buffer.isEmpty()) {
+            break;
+          }
+          next = buffer.poll();
+          if (demand != Long.MAX_VALUE) {
+            demand--;
+          }
+        }
+        subscriber.onNext(next);
+      }
+
+      Throwable terminal = null;
+      boolean complete = false;
+      synchronized (this) {
+        if (cancelled) {
+          buffer.clear();
+        } else if (!terminated && done && (error != null || buffer.isEmpty())) {
+          terminated = true;
+          buffer.clear();
+          terminal = error;
+          complete = error == null;
+        }
+      }
+      if (terminal != null) {
+        subscriber.onError(terminal);
+      } else if (complete) {
+        subscriber.onComplete();
+      }
+
+      missed = wip.addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+
+  /** The subscription handed to the subscriber. */
+  private final class RecognitionSubscription implements Subscription {
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        cancelWith(new IllegalArgumentException("request must be positive, was " + n));
+        return;
+      }
+      synchronized (RecognitionPublisher.this) {
+        demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+      }
+      drain();
+    }
+
+    @Override
+    public void cancel() {
+      WebSocket webSocket;
+      synchronized (RecognitionPublisher.this) {
+        if (cancelled) {
+          return;
+        }
+        cancelled = true;
+        webSocket = socket;
+      }
+      if (webSocket != null) {
+        webSocket.cancel();
+      }
+      drain();
+    }
+
+    private void cancelWith(Throwable t) {
+      terminate(t);
+      closeSocketIfFailed();
+    }
+  }
+
+  /** The subscription handed to subscribers rejected by {@link #subscribe}. */
+  private static final class NoopSubscription implements Subscription {
+
+    @Override
+    public void request(long n) {}
+
+    @Override
+    public void cancel() {}
+  }
+
+  /** Receives the events of the recognition. */
+  private final class Callback extends BaseRecognizeCallback {
+
+    @Override
+    public void onTranscription(SpeechRecognitionResults speechResults) {
+      offer(speechResults);
+    }
+
+    @Override
+    public void onError(Exception e) {
+      terminate(e);
+    }
+
+    @Override
+    public void onInactivityTimeout(RuntimeException runtimeException) {
+      terminate(runtimeException);
+    }
+
+    @Override
+    public void onTranscriptionComplete() {
+      terminate(null);
+    }
+
+    @Override
+    public void onDisconnected() {
+      terminate(null);
+    }
+  }
+}
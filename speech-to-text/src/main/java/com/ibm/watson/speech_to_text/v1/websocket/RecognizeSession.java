@@ -0,0 +1,110 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.speech_to_text.v1.websocket;
+
+import com.ibm.watson.speech_to_text.v1.SpeechToText;
+import com.ibm.watson.speech_to_text.v1.model.RecognizeWithWebsocketsOptions;
+import java.io.Closeable;
+import okhttp3.WebSocket;
+
+/**
+ * A {@link WebSocket} connection to the Speech to Text service over which several utterances are
+ * recognized one after the other. This saves the TLS handshake and authentication of a new
+ * connection for each utterance.
+ *
+ * <p>The model, customizations and base model version are set on the connection, so they are taken
+ * from the options the session was opened with. Utterances may leave them unset, but cannot specify
+ * different ones.
+ *
+ * @see SpeechToText#openRecognizeSession(RecognizeWithWebsocketsOptions, RecognizeCallback)
+ */
+public class RecognizeSession implements Closeable {
+
+  private final WebSocket socket;
+  private final SpeechToTextWebSocketListener listener;
+  private final RecognizeWithWebsocketsOptions connectionOptions;
+
+  /**
+   * Instantiates a new recognize session.
+   *
+   * @param socket the socket
+   * @param listener the listener the socket was opened with
+   * @param connectionOptions the options the connection was opened with
+   */
+  public RecognizeSession(
+      WebSocket socket,
+      SpeechToTextWebSocketListener listener,
+      RecognizeWithWebsocketsOptions connectionOptions) {
+    this.socket = socket;
+    this.listener = listener;
+    this.connectionOptions = connectionOptions;
+  }
+
+  /**
+   * Queues an utterance. It is recognized once the utterances queued before it are done.
+   *
+   * @param recognizeOptions the recognize options
+   * @param callback the {@link RecognizeCallback} instance where results will be sent
+   */
+  public void recognize(
+      RecognizeWithWebsocketsOptions recognizeOptions, RecognizeCallback callback) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(
+        recognizeOptions, "recognizeOptions cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.notNull(callback, "callback cannot be null");
+    checkConnectionOption(connectionOptions.model(), recognizeOptions.model(), "model");
+    checkConnectionOption(
+        connectionOptions.customizationId(), recognizeOptions.customizationId(), "customizationId");
+    checkConnectionOption(
+        connectionOptions.languageCustomizationId(),
+        recognizeOptions.languageCustomizationId(),
+        "languageCustomizationId");
+    checkConnectionOption(
+        connectionOptions.acousticCustomizationId(),
+        recognizeOptions.acousticCustomizationId(),
+        "acousticCustomizationId");
+    checkConnectionOption(
+        connectionOptions.baseModelVersion(),
+        recognizeOptions.baseModelVersion(),
+        "baseModelVersion");
+    listener.recognize(recognizeOptions, callback);
+  }
+
+  private static void checkConnectionOption(String session, String utterance, String name) {
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(
+        utterance == null || utterance.equals(session),
+        name + " must be the same as the one the session was opened with");
+  }
+
+  /**
+   * Gets the socket.
+   *
+   * @return the {@link WebSocket}
+   */
+  public WebSocket webSocket() {
+    return socket;
+  }
+
+  /**
+   * Closes the connection once the queued utterances have been recognized. No more utterances can
+   * be queued afterwards.
+   */
+  @Override
+  public void close() {
+    listener.closeWhenIdle();
+  }
+
+  /** Closes the connection immediately, discarding any utterance in progress. */
+  public void cancel() {
+    socket.cancel();
+  }
+}
@@ -17,13 +17,16 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
-import com.ibm.cloud.sdk.core.util.GsonSingleton;
+import com.google.gson.JsonSyntaxException;
 import com.ibm.watson.speech_to_text.v1.SpeechToText;
 import com.ibm.watson.speech_to_text.v1.model.RecognizeWithWebsocketsOptions;
-import com.ibm.watson.speech_to_text.v1.model.SpeechRecognitionResults;
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.Arrays;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import okhttp3.Response;
@@ -36,42 +39,53 @@ import okio.ByteString;
  * The class that is interested in processing a event implements this interface. When the event
  * occurs, that object's appropriate method is invoked.
  *
+ * <p>Several utterances can be recognized one after the other over the same connection, each with
+ * its own start, audio and stop messages. They are queued and sent once the previous one has been
+ * fully processed. A listener created for a single recognition closes the connection as soon as it
+ * is done; one created for a {@link RecognizeSession} keeps it open until the session is closed.
+ *
  * @see SpeechToText
  */
 public final class SpeechToTextWebSocketListener extends WebSocketListener {
 
   private static final String AUDIO_TO_WEB_SOCKET = "AudioToWebSocketThread";
-  private static final Gson GSON = GsonSingleton.getGsonWithoutPrettyPrinting();
   private static final Logger LOG = Logger.getLogger(SpeechToTextWebSocketListener.class.getName());
 
-  private static final String STATE = "state";
   private static final String MODEL = "model";
   private static final String START = "start";
   private static final String STOP = "stop";
   private static final String ACTION = "action";
-  private static final int ONE_KB = 1024;
-  private static final String ERROR = "error";
-  private static final String RESULTS = "results";
-  private static final String SPEAKER_LABELS = "speaker_labels";
-  private static final String AUDIO_METRICS = "audio_metrics";
   private static final String CUSTOMIZATION_ID = "customization_id";
   private static final String LANGUAGE_CUSTOMIZATION_ID = "language_customization_id";
   private static final String ACOUSTIC_CUSTOMIZATION_ID = "acoustic_customization_id";
   private static final String VERSION = "base_model_version";
   private static final String TIMEOUT_PREFIX = "No speech detected for";
 
-  // 8 MB, half of the maximum OkHttp WebSocket queue size
-  // (https://github.com/square/okhttp/blob/master/okhttp/src/main/java/okhttp3/internal/ws/RealWebSocket.java#L63)
-  private static final long QUEUE_SIZE_LIMIT = 16 * 1024 * 512;
-  private static final long QUEUE_WAIT_MILLIS = 500;
+  /** A recognition request and the state of its processing. */
+  private static final class Utterance {
+    private final RecognizeWithWebsocketsOptions options;
+    private final RecognizeCallback callback;
+    private final AudioPump pump;
+    private final AudioFlowControl flowControl;
+    private boolean isListening = false;
+    private boolean complete = false;
 
-  private final InputStream stream;
-  private final RecognizeWithWebsocketsOptions options;
-  private final RecognizeCallback callback;
+    private Utterance(RecognizeWithWebsocketsOptions options, RecognizeCallback callback) {
+      this.options = options;
+      this.callback = callback;
+      this.pump = AudioPump.of(options);
+      this.flowControl =
+          options.flowControl() != null ? options.flowControl() : new AudioFlowControl();
+    }
+  }
+
+  private final Executor executor;
+  private final Deque<Utterance> pending = new ArrayDeque<>();
+  private Utterance active;
+  private boolean closeWhenIdle;
   private WebSocket socket;
-  private boolean socketOpen = true;
+  private volatile boolean socketOpen = true;
   private Thread audioThread = null;
-  private boolean isListening = false;
   private static final int CLOSE_NORMAL = 1000;
 
   /**
@@ -82,9 +96,95 @@ public final class SpeechToTextWebSocketListener extends WebSocketListener {
    */
   public SpeechToTextWebSocketListener(
       final RecognizeWithWebsocketsOptions options, final RecognizeCallback callback) {
-    this.stream = options.audio();
-    this.options = options;
-    this.callback = callback;
+    this(options, callback, null);
+  }
+
+  /**
+   * Instantiates a new speech to text web socket listener sending the audio on the given executor.
+   *
+   * @param options the recognize options
+   * @param callback the callback
+   * @param executor the executor running the audio sender, or null to start a new thread
+   */
+  public SpeechToTextWebSocketListener(
+      final RecognizeWithWebsocketsOptions options,
+      final RecognizeCallback callback,
+      final Executor executor) {
+    this.executor = executor;
+    this.pending.add(new Utterance(options, callback));
+    this.closeWhenIdle = true;
+  }
+
+  /**
+   * Instantiates a new speech to text web socket listener for a {@link RecognizeSession}, which
+   * keeps the connection open until {@link #closeWhenIdle()} is called.
+   *
+   * @param executor the executor running the audio senders, or null to start a new thread for each
+   *     utterance
+   */
+  public SpeechToTextWebSocketListener(final Executor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Queues an utterance to be recognized over this connection.
+   *
+   * @param options the recognize options
+   * @param callback the callback
+   */
+  public void recognize(
+      final RecognizeWithWebsocketsOptions options, final RecognizeCallback callback) {
+    Utterance utterance = new Utterance(options, callback);
+    synchronized (this) {
+      if (closeWhenIdle) {
+        throw new IllegalStateException("The session has been closed");
+      }
+      if (socketOpen) {
+        pending.add(utterance);
+        if (socket != null) {
+          callback.onConnected();
+          if (!isBusy()) {
+            startNext();
+          }
+        }
+        return;
+      }
+    }
+    callback.onError(new IOException("WebSocket unavailable"));
+  }
+
+  /**
+   * Closes the connection once the queued utterances have been recognized. No more utterances can
+   * be queued afterwards.
+   */
+  public synchronized void closeWhenIdle() {
+    closeWhenIdle = true;
+    if (socket != null && !isBusy() && pending.isEmpty()) {
+      socket.close(CLOSE_NORMAL, "Session closed");
+    }
+  }
+
+  /**
+   * Checks whether an utterance is being recognized.
+   *
+   * @return true if an utterance has been started and not completed yet
+   */
+  private boolean isBusy() {
+    return active != null && !active.complete;
+  }
+
+  /**
+   * Gets the utterances to notify of connection events: the active or most recent one, and the
+   * queued ones.
+   *
+   * @return the utterances
+   */
+  private synchronized List<Utterance> attached() {
+    List<Utterance> attached = new ArrayList<>(pending);
+    if (active != null) {
+      attached.add(0, active);
+    }
+    return attached;
   }
 
   /*
@@ -94,7 +194,10 @@ public final class SpeechToTextWebSocketListener extends WebSocketListener {
   @Override
   public void onClosing(WebSocket webSocket, int code, String reason) {
     socketOpen = false;
-    callback.onDisconnected();
+    for (Utterance utterance : attached()) {
+      utterance.flowControl.signal();
+      utterance.callback.onDisconnected();
+    }
   }
 
   /*
@@ -104,10 +207,13 @@ public final class SpeechToTextWebSocketListener extends WebSocketListener {
   @Override
   public void onFailure(WebSocket webSocket, Throwable t, Response response) {
     socketOpen = false;
-    if (t instanceof Exception) {
-      callback.onError((Exception) t);
-    } else {
-      callback.onError(new Exception(t));
+    for (Utterance utterance : attached()) {
+      utterance.flowControl.signal();
+      if (t instanceof Exception) {
+        utterance.callback.onError((Exception) t);
+      } else {
+        utterance.callback.onError(new Exception(t));
+      }
     }
   }
 
@@ -117,9 +223,28 @@ public final class SpeechToTextWebSocketListener extends WebSocketListener {
    */
   @Override
   public void onMessage(WebSocket webSocket, String message) {
-    JsonObject json = new JsonParser().parse(message).getAsJsonObject();
-    if (json.has(ERROR)) {
-      String error = json.get(ERROR).getAsString();
+    Utterance utterance;
+    synchronized (this) {
+      utterance = active;
+    }
+    if (utterance == null) {
+      LOG.log(Level.WARNING, "Message received while no recognition is active: " + message);
+      return;
+    }
+    RecognizeCallback callback = utterance.callback;
+
+    // any message from the service means audio has been consumed
+    utterance.flowControl.signal();
+
+    RecognitionMessageReader reader;
+    try {
+      reader = RecognitionMessageReader.read(message);
+    } catch (IOException e) {
+      throw new JsonSyntaxException(e);
+    }
+
+    if (reader.error() != null) {
+      String error = reader.error();
 
       // Only call onError() if a real error occurred. The STT service sends
       // {"error" : "No speech detected for 5s"} for valid timeouts, configured by
@@ -130,16 +255,19 @@ public final class SpeechToTextWebSocketListener extends WebSocketListener {
         // notify that the service timeouts because of inactivity
         callback.onInactivityTimeout(new RuntimeException(error));
       }
-    } else if (json.has(RESULTS) || json.has(SPEAKER_LABELS) || json.has(AUDIO_METRICS)) {
-      callback.onTranscription(GSON.fromJson(message, SpeechRecognitionResults.class));
+    } else if (reader.hasResults()) {
+      callback.onTranscription(reader.results());
 
-    } else if (json.has(STATE)) {
+    } else if (reader.state() != null) {
       // A listen state after everything has been sent over indicates everything has been processed
-      if (!isListening) {
-        isListening = true;
+      if (!utterance.isListening) {
+        utterance.isListening = true;
       } else {
         callback.onTranscriptionComplete();
-        socket.close(CLOSE_NORMAL, "Transcription completed");
+        synchronized (this) {
+          utterance.complete = true;
+          startNext();
+        }
         return;
       }
 
@@ -154,71 +282,85 @@ public final class SpeechToTextWebSocketListener extends WebSocketListener {
    */
   @Override
   public void onOpen(final WebSocket socket, Response response) {
-    callback.onConnected();
-    this.socket = socket;
-    if (!socket.send(buildStartMessage(options))) {
-      callback.onError(new IOException("WebSocket unavailable"));
+    synchronized (this) {
+      this.socket = socket;
+      for (Utterance utterance : pending) {
+        utterance.callback.onConnected();
+      }
+      startNext();
+    }
+  }
+
+  /**
+   * Starts the next queued utterance, or closes the connection if there is none and the listener is
+   * meant to close when idle. Must be called while holding the lock, and while no utterance is
+   * being recognized.
+   */
+  private void startNext() {
+    final Utterance utterance = pending.poll();
+    if (utterance == null) {
+      if (closeWhenIdle) {
+        socket.close(CLOSE_NORMAL, "Transcription completed");
+      }
+      return;
+    }
+
+    active = utterance;
+    if (!socket.send(buildStartMessage(utterance.options))) {
+      utterance.callback.onError(new IOException("WebSocket unavailable"));
     } else {
-      // Send the InputStream on a different Thread. Elsewise, interim results cannot be
-      // received,
+      // Send the audio on a different Thread. Elsewise, interim results cannot be received,
       // because the Thread that called SpeechToText.recognizeUsingWebSocket is blocked.
-      audioThread =
-          new Thread(AUDIO_TO_WEB_SOCKET) {
-            @Override
-            public void run() {
-              sendInputStream(stream);
-              // Do not send the stop message if the socket has been closed already, for example
-              // because of the
-              // inactivity timeout.
-              // If the socket is still open after the sending finishes, for example because the
-              // user closed the
-              // microphone AudioInputStream, send a stop message.
-              if (socketOpen && !socket.send(buildStopMessage())) {
-                LOG.log(Level.SEVERE, "Stop message discarded because WebSocket is unavailable");
-              }
+      Runnable sender =
+          () -> {
+            sendAudio(utterance);
+            // Do not send the stop message if the socket has been closed already, for example
+            // because of the inactivity timeout.
+            // If the socket is still open after the sending finishes, for example because the
+            // user closed the microphone AudioInputStream, send a stop message.
+            if (socketOpen && !socket.send(buildStopMessage())) {
+              LOG.log(Level.SEVERE, "Stop message discarded because WebSocket is unavailable");
             }
           };
 
-      audioThread.start();
+      if (executor == null) {
+        audioThread = new Thread(sender, AUDIO_TO_WEB_SOCKET);
+        audioThread.start();
+      } else {
+        try {
+          executor.execute(sender);
+        } catch (RejectedExecutionException e) {
+          utterance.callback.onError(e);
+          socket.close(CLOSE_NORMAL, "Audio sender rejected");
+        }
+      }
     }
   }
 
   /**
-   * Send input stream.
+   * Send the audio of an utterance, one frame at a time.
    *
-   * @param inputStream the input stream
+   * @param utterance the utterance
    */
-  private void sendInputStream(InputStream inputStream) {
-    byte[] buffer = new byte[ONE_KB];
-    int read;
+  private void sendAudio(Utterance utterance) {
+    AudioPump pump = utterance.pump;
+    ByteString frame;
     try {
-      // This method uses a blocking while loop to receive all contents of the underlying input
-      // stream.
-      // AudioInputStreams, typically used for streaming microphone inputs return 0 only when the
-      // stream has been
-      // closed. Elsewise AudioInputStream.read() blocks until enough audio frames are read.
-      while (((read = inputStream.read(buffer)) > 0) && socketOpen) {
-
-        // If OkHttp's WebSocket queue gets overwhelmed, it'll abruptly close the connection
-        // (see: https://github.com/square/okhttp/issues/3317). This will ensure we wait until the
-        // coast is clear.
-        while (socket.queueSize() > QUEUE_SIZE_LIMIT) {
-          Thread.sleep(QUEUE_WAIT_MILLIS);
-        }
-
-        if (read == ONE_KB) {
-          socket.send(ByteString.of(buffer));
-        } else {
-          socket.send(ByteString.of(Arrays.copyOfRange(buffer, 0, read)));
+      // This method uses a blocking while loop to receive all contents of the underlying audio
+      // source.
+      while (socketOpen && (frame = pump.nextFrame()) != null) {
+        if (!utterance.flowControl.awaitCapacity(socket, () -> socketOpen)) {
+          break;
         }
+        socket.send(frame);
       }
     } catch (IOException | InterruptedException e) {
       LOG.log(Level.SEVERE, e.getMessage(), e);
     } finally {
       try {
-        inputStream.close();
+        pump.close();
       } catch (IOException e) {
-        // do nothing - the InputStream may have already been closed externally.
+        // do nothing - the audio source may have already been closed externally.
       }
     }
   }
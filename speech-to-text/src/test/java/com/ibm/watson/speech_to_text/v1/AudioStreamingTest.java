@@ -0,0 +1,146 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.speech_to_text.v1;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import com.ibm.watson.speech_to_text.v1.model.RecognizeWithWebsocketsOptions;
+import com.ibm.watson.speech_to_text.v1.websocket.AudioFlowControl;
+import com.ibm.watson.speech_to_text.v1.websocket.AudioPump;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.concurrent.atomic.AtomicBoolean;
+import okhttp3.WebSocket;
+import okio.ByteString;
+import org.testng.annotations.Test;
+
+/** Unit tests for the {@link AudioPump} and {@link AudioFlowControl}. */
+public class AudioStreamingTest {
+
+  private static byte[] audio(int length) {
+    byte[] audio = new byte[length];
+    for (int i = 0; i < length; i++) {
+      audio[i] = (byte) i;
+    }
+    return audio;
+  }
+
+  private static void assertFrames(AudioPump pump, byte[] audio, int frameSize) throws IOException {
+    int offset = 0;
+    ByteString frame;
+    while ((frame = pump.nextFrame()) != null) {
+      int expected = Math.min(frameSize, audio.length - offset);
+      assertEquals(frame.size(), expected);
+      assertEquals(frame, ByteString.of(audio, offset, expected));
+      offset += expected;
+    }
+    assertEquals(offset, audio.length);
+    assertNull(pump.nextFrame());
+  }
+
+  /** Short reads from the stream are coalesced into full frames. */
+  @Test
+  public void testStreamFramesAreFilled() throws IOException {
+    byte[] audio = audio(1000);
+    InputStream trickle =
+        new FilterInputStream(new ByteArrayInputStream(audio)) {
+          @Override
+          public int read(byte[] b, int off, int len) throws IOException {
+            return super.read(b, off, Math.min(len, 7));
+          }
+        };
+    assertFrames(AudioPump.of(trickle, 320), audio, 320);
+  }
+
+  /** Test channel source. */
+  @Test
+  public void testChannelFrames() throws IOException {
+    byte[] audio = audio(1000);
+    assertFrames(
+        AudioPump.of(Channels.newChannel(new ByteArrayInputStream(audio)), 256), audio, 256);
+  }
+
+  /** Test buffer source, which must not move the caller's buffer. */
+  @Test
+  public void testBufferFrames() throws IOException {
+    byte[] audio = audio(1000);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(audio.length);
+    buffer.put(audio).flip();
+    assertFrames(AudioPump.of(buffer, 300), audio, 300);
+    assertEquals(buffer.position(), 0);
+  }
+
+  /** Test the options select the configured source and frame size. */
+  @Test
+  public void testOfOptions() {
+    RecognizeWithWebsocketsOptions options =
+        new RecognizeWithWebsocketsOptions.Builder()
+            .audio(ByteBuffer.wrap(audio(10)))
+            .frameSize(AudioPump.frameSize(8000, 2, 1, 20))
+            .build();
+    assertEquals(AudioPump.of(options).frameSize(), 320);
+    assertEquals(
+        AudioPump.of(
+                new RecognizeWithWebsocketsOptions.Builder(new ByteArrayInputStream(audio(1)))
+                    .build())
+            .frameSize(),
+        AudioPump.DEFAULT_FRAME_SIZE);
+  }
+
+  /** Test a frame size derived from a duration. */
+  @Test
+  public void testFrameSize() {
+    assertEquals(AudioPump.frameSize(16000, 2, 1, 100), 3200);
+    assertEquals(AudioPump.frameSize(44100, 2, 2, 10), 1764);
+  }
+
+  /** The sender is held back above the high watermark until the queue drains to the low one. */
+  @Test
+  public void testFlowControlWaitsForLowWatermark() throws InterruptedException {
+    WebSocket socket = mock(WebSocket.class);
+    when(socket.queueSize()).thenReturn(100L, 150L, 120L, 80L, 40L);
+    AudioFlowControl flowControl = new AudioFlowControl(100, 50);
+
+    assertTrue(flowControl.awaitCapacity(socket, () -> true));
+    assertEquals(flowControl.throttledCount(), 0);
+    assertTrue(flowControl.awaitCapacity(socket, () -> true));
+    assertEquals(flowControl.throttledCount(), 1);
+  }
+
+  /** A closed socket releases a throttled sender. */
+  @Test
+  public void testFlowControlReleasedOnClose() throws InterruptedException {
+    WebSocket socket = mock(WebSocket.class);
+    when(socket.queueSize()).thenReturn(1000L);
+    AudioFlowControl flowControl = new AudioFlowControl(100, 50);
+    AtomicBoolean open = new AtomicBoolean(true);
+    new Thread(
+            () -> {
+              open.set(false);
+              flowControl.signal();
+            })
+        .start();
+
+    assertFalse(flowControl.awaitCapacity(socket, open::get));
+    assertEquals(flowControl.throttledCount(), 1);
+  }
+}
@@ -0,0 +1,335 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.speech_to_text.v1;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import com.ibm.cloud.sdk.core.security.NoAuthAuthenticator;
+import com.ibm.watson.common.WebSocketPool;
+import com.ibm.watson.speech_to_text.v1.model.RecognizeWithWebsocketsOptions;
+import com.ibm.watson.speech_to_text.v1.model.SpeechRecognitionResults;
+import com.ibm.watson.speech_to_text.v1.websocket.BaseRecognizeCallback;
+import com.ibm.watson.speech_to_text.v1.websocket.RecognitionPublisher;
+import com.ibm.watson.speech_to_text.v1.websocket.RecognizeSession;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.ByteString;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Unit tests for recognitions over a WebSocket against a mocked service. */
+public class SpeechToTextWebSocketTest {
+
+  private static final String LISTENING = "{\"state\": \"listening\"}";
+  private static final String RESULTS =
+      "{\"result_index\": 0, \"results\": [{\"final\": true, \"alternatives\": "
+          + "[{\"transcript\": \"hello world\", \"confidence\": 0.9}]}]}";
+
+  private MockWebServer server;
+  private SpeechToText service;
+  private MockService mockService;
+
+  /** Mocked service side of the WebSocket, answering a single utterance. */
+  private static class MockService extends WebSocketListener {
+    private final AtomicInteger audioBytes = new AtomicInteger();
+    private volatile String[] stopReplies = {RESULTS, LISTENING};
+
+    @Override
+    public void onOpen(WebSocket webSocket, Response response) {}
+
+    @Override
+    public void onMessage(WebSocket webSocket, String text) {
+      if (text.contains("\"start\"")) {
+        webSocket.send(LISTENING);
+      } else if (text.contains("\"stop\"")) {
+        for (String reply : stopReplies) {
+          webSocket.send(reply);
+        }
+      }
+    }
+
+    @Override
+    public void onMessage(WebSocket webSocket, ByteString bytes) {
+      audioBytes.addAndGet(bytes.size());
+    }
+
+    @Override
+    public void onClosing(WebSocket webSocket, int code, String reason) {
+      webSocket.close(code, reason);
+    }
+  }
+
+  /** Records the callbacks of a recognition. */
+  private static class RecordingCallback extends BaseRecognizeCallback {
+    private final List<SpeechRecognitionResults> results =
+        Collections.synchronizedList(new ArrayList<>());
+    private final AtomicReference<Exception> error = new AtomicReference<>();
+    private final AtomicReference<RuntimeException> timeout = new AtomicReference<>();
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private final CountDownLatch failed = new CountDownLatch(1);
+    private final CountDownLatch disconnected = new CountDownLatch(1);
+
+    @Override
+    public void onTranscription(SpeechRecognitionResults speechResults) {
+      results.add(speechResults);
+    }
+
+    @Override
+    public void onError(Exception e) {
+      error.set(e);
+      completed.countDown();
+      failed.countDown();
+    }
+
+    @Override
+    public void onDisconnected() {
+      disconnected.countDown();
+    }
+
+    @Override
+    public void onInactivityTimeout(RuntimeException runtimeException) {
+      timeout.set(runtimeException);
+      completed.countDown();
+    }
+
+    @Override
+    public void onTranscriptionComplete() {
+      completed.countDown();
+    }
+
+    void await() throws InterruptedException {
+      assertTrue(completed.await(10, TimeUnit.SECONDS));
+    }
+  }
+
+  @BeforeMethod
+  public void setUp() throws IOException {
+    server = new MockWebServer();
+    mockService = new MockService();
+    server.enqueue(new MockResponse().withWebSocketUpgrade(mockService));
+    server.start();
+    service = new SpeechToText(new NoAuthAuthenticator());
+    service.setServiceUrl(server.url("/").toString());
+  }
+
+  @AfterMethod
+  public void tearDown() throws IOException {
+    server.shutdown();
+  }
+
+  private static RecognizeWithWebsocketsOptions options(int audioLength) {
+    return new RecognizeWithWebsocketsOptions.Builder()
+        .audio(ByteBuffer.wrap(new byte[audioLength]))
+        .contentType("audio/l16;rate=16000")
+        .frameSize(4000)
+        .build();
+  }
+
+  /** Test a full recognition, with the audio sent from a shared executor. */
+  @Test
+  public void testRecognizeUsingWebSocketWithExecutor() throws InterruptedException {
+    AtomicInteger tasks = new AtomicInteger();
+    ExecutorService pool = Executors.newCachedThreadPool();
+    service.setWebSocketExecutor(
+        command -> {
+          tasks.incrementAndGet();
+          pool.execute(command);
+        });
+    RecordingCallback callback = new RecordingCallback();
+
+    service.recognizeUsingWebSocket(options(10000), callback);
+    callback.await();
+    pool.shutdown();
+
+    assertNull(callback.error.get());
+    assertEquals(tasks.get(), 1);
+    assertEquals(mockService.audioBytes.get(), 10000);
+    assertEquals(callback.results.size(), 1);
+    assertEquals(
+        callback.results.get(0).getResults().get(0).getAlternatives().get(0).getTranscript(),
+        "hello world");
+  }
+
+  /** Test the "error" member of a message is told apart from results and inactivity timeouts. */
+  @Test
+  public void testRecognizeUsingWebSocketErrors() throws InterruptedException {
+    mockService.stopReplies =
+        new String[] {
+          "{\"error\": \"No speech detected for 5s\"}",
+          "{\"results\": [], \"state\": \"ignored\", \"error\": \"Bad audio\"}"
+        };
+    RecordingCallback callback = new RecordingCallback();
+
+    service.recognizeUsingWebSocket(options(100), callback);
+    callback.await();
+    assertEquals(callback.timeout.get().getMessage(), "No speech detected for 5s");
+    assertTrue(callback.failed.await(10, TimeUnit.SECONDS));
+    assertEquals(callback.error.get().getMessage(), "Bad audio");
+    assertTrue(callback.results.isEmpty());
+  }
+
+  /** Test several utterances are recognized one after the other over a single connection. */
+  @Test
+  public void testRecognizeSession() throws InterruptedException {
+    RecordingCallback first = new RecordingCallback();
+    RecordingCallback second = new RecordingCallback();
+
+    RecognizeSession session = service.openRecognizeSession(options(5000), first);
+    session.recognize(options(3000), second);
+    session.close();
+    first.await();
+    second.await();
+
+    assertNull(first.error.get());
+    assertNull(second.error.get());
+    assertEquals(first.results.size(), 1);
+    assertEquals(second.results.size(), 1);
+    assertEquals(mockService.audioBytes.get(), 8000);
+    assertTrue(second.disconnected.await(10, TimeUnit.SECONDS));
+    assertEquals(server.getRequestCount(), 1);
+  }
+
+  /** Test a recognition is handed a connection opened ahead of time, which the pool replaces. */
+  @Test
+  public void testRecognizeUsingPrewarmedWebSocket() throws InterruptedException {
+    server.enqueue(new MockResponse().withWebSocketUpgrade(mockService));
+    try (WebSocketPool pool = new WebSocketPool()) {
+      service.setWebSocketPool(pool);
+      service.prewarmRecognizeWebSockets(options(0), 1);
+      assertNotNull(server.takeRequest(10, TimeUnit.SECONDS));
+      RecordingCallback callback = new RecordingCallback();
+
+      service.recognizeUsingWebSocket(options(2000), callback);
+      callback.await();
+
+      assertNull(callback.error.get());
+      assertEquals(callback.results.size(), 1);
+      assertEquals(mockService.audioBytes.get(), 2000);
+      assertNotNull(server.takeRequest(10, TimeUnit.SECONDS));
+      assertEquals(server.getRequestCount(), 2);
+      assertEquals(pool.idleCount(server.url("/v1/recognize").toString()), 1);
+    }
+  }
+
+  /** Records the signals of a subscription, requesting nothing until told to. */
+  private static class RecordingSubscriber implements Subscriber<SpeechRecognitionResults> {
+    private final List<Long> resultIndexes = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private volatile Subscription subscription;
+
+    @Override
+    public void onSubscribe(Subscription s) {
+      subscription = s;
+    }
+
+    @Override
+    public void onNext(SpeechRecognitionResults results) {
+      resultIndexes.add(results.getResultIndex());
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      error.set(t);
+      terminated.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+      terminated.countDown();
+    }
+  }
+
+  private static String results(int index) {
+    return RESULTS.replace("\"result_index\": 0", "\"result_index\": " + index);
+  }
+
+  private static void awaitDropped(RecognitionPublisher publisher, long count)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10000;
+    while (publisher.droppedCount() < count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(publisher.droppedCount(), count);
+  }
+
+  /** Test results received ahead of demand beyond the buffer size give way to the latest ones. */
+  @Test
+  public void testRecognitionPublisherDropOldest() throws InterruptedException {
+    mockService.stopReplies = new String[] {results(0), results(1), results(2), LISTENING};
+    RecognitionPublisher publisher =
+        service.recognizeUsingWebSocketPublisher(
+            options(100), 1, RecognitionPublisher.Overflow.DROP_OLDEST);
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+
+    publisher.subscribe(subscriber);
+    awaitDropped(publisher, 2);
+    assertEquals(subscriber.terminated.getCount(), 1);
+    subscriber.subscription.request(Long.MAX_VALUE);
+
+    assertTrue(subscriber.terminated.await(10, TimeUnit.SECONDS));
+    assertNull(subscriber.error.get());
+    assertEquals(subscriber.resultIndexes, Collections.singletonList(2L));
+  }
+
+  /** Test the publisher fails instead of dropping results with the ERROR policy. */
+  @Test
+  public void testRecognitionPublisherOverflowError() throws InterruptedException {
+    mockService.stopReplies = new String[] {results(0), results(1), LISTENING};
+    RecognitionPublisher publisher =
+        service.recognizeUsingWebSocketPublisher(
+            options(100), 1, RecognitionPublisher.Overflow.ERROR);
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+
+    publisher.subscribe(subscriber);
+
+    assertTrue(subscriber.terminated.await(10, TimeUnit.SECONDS));
+    assertTrue(subscriber.error.get() instanceof IllegalStateException);
+    assertTrue(subscriber.resultIndexes.isEmpty());
+  }
+
+  /** Test utterances cannot ask for another model than the session's. */
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testRecognizeSessionModelMismatch() {
+    RecognizeSession session =
+        service.openRecognizeSession(
+            options(10).newBuilder().model("en-US_BroadbandModel").build(),
+            new RecordingCallback());
+    try {
+      session.recognize(
+          options(10).newBuilder().model("fr-FR_BroadbandModel").build(), new RecordingCallback());
+    } finally {
+      session.cancel();
+    }
+  }
+}
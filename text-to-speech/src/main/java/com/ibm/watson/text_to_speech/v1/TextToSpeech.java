@@ -24,9 +24,10 @@ import com.ibm.cloud.sdk.core.http.ServiceCall;
 import com.ibm.cloud.sdk.core.security.Authenticator;
 import com.ibm.cloud.sdk.core.security.ConfigBasedAuthenticatorFactory;
 import com.ibm.cloud.sdk.core.service.BaseService;
-import com.ibm.cloud.sdk.core.util.RequestUtils;
 import com.ibm.cloud.sdk.core.util.ResponseConverterUtils;
+import com.ibm.watson.common.FileRequestBody;
 import com.ibm.watson.common.SdkCommon;
+import com.ibm.watson.common.WebSocketPool;
 import com.ibm.watson.text_to_speech.v1.model.AddCustomPromptOptions;
 import com.ibm.watson.text_to_speech.v1.model.AddWordOptions;
 import com.ibm.watson.text_to_speech.v1.model.AddWordsOptions;
@@ -69,6 +70,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import okhttp3.HttpUrl;
+import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -110,6 +112,52 @@ public class TextToSpeech extends BaseService {
   public static final String DEFAULT_SERVICE_URL =
       "https://api.us-south.text-to-speech.watson.cloud.ibm.com";
 
+  private static final ResponseConverter<Voices> VOICES_CONVERTER =
+      ResponseConverterUtils.getValue(new com.google.gson.reflect.TypeToken<Voices>() {}.getType());
+
+  private static final ResponseConverter<Voice> VOICE_CONVERTER =
+      ResponseConverterUtils.getValue(new com.google.gson.reflect.TypeToken<Voice>() {}.getType());
+
+  private static final ResponseConverter<Pronunciation> PRONUNCIATION_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Pronunciation>() {}.getType());
+
+  private static final ResponseConverter<CustomModel> CUSTOM_MODEL_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<CustomModel>() {}.getType());
+
+  private static final ResponseConverter<CustomModels> CUSTOM_MODELS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<CustomModels>() {}.getType());
+
+  private static final ResponseConverter<Words> WORDS_CONVERTER =
+      ResponseConverterUtils.getValue(new com.google.gson.reflect.TypeToken<Words>() {}.getType());
+
+  private static final ResponseConverter<Translation> TRANSLATION_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Translation>() {}.getType());
+
+  private static final ResponseConverter<Prompts> PROMPTS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Prompts>() {}.getType());
+
+  private static final ResponseConverter<Prompt> PROMPT_CONVERTER =
+      ResponseConverterUtils.getValue(new com.google.gson.reflect.TypeToken<Prompt>() {}.getType());
+
+  private static final ResponseConverter<Speakers> SPEAKERS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Speakers>() {}.getType());
+
+  private static final ResponseConverter<SpeakerModel> SPEAKER_MODEL_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<SpeakerModel>() {}.getType());
+
+  private static final ResponseConverter<SpeakerCustomModels> SPEAKER_CUSTOM_MODELS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<SpeakerCustomModels>() {}.getType());
+
+  private volatile WebSocketPool webSocketPool;
+
   /**
    * Constructs an instance of the `TextToSpeech` client. The default service name is used to
    * configure the client instance.
@@ -153,6 +201,27 @@ public class TextToSpeech extends BaseService {
     this.configureService(serviceName);
   }
 
+  /**
+   * Sets the pool WebSocket connections are taken from. Connections opened ahead of time with
+   * {@link #prewarmSynthesizeWebSockets} are handed out to syntheses with the same voice and custom
+   * model and credentials; other syntheses open a connection as usual. The pool may be shared with
+   * other services, including services with other credentials.
+   *
+   * @param webSocketPool the pool, or null to open a new connection for each synthesis
+   */
+  public void setWebSocketPool(WebSocketPool webSocketPool) {
+    this.webSocketPool = webSocketPool;
+  }
+
+  /**
+   * Gets the pool WebSocket connections are taken from.
+   *
+   * @return the pool, or null if each synthesis opens a new connection
+   */
+  public WebSocketPool getWebSocketPool() {
+    return webSocketPool;
+  }
+
   /**
    * List voices.
    *
@@ -175,9 +244,7 @@ public class TextToSpeech extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<Voices> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Voices>() {}.getType());
+    ResponseConverter<Voices> responseConverter = VOICES_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -248,9 +315,7 @@ public class TextToSpeech extends BaseService {
     if (getVoiceOptions.customizationId() != null) {
       builder.query("customization_id", String.valueOf(getVoiceOptions.customizationId()));
     }
-    ResponseConverter<Voice> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Voice>() {}.getType());
+    ResponseConverter<Voice> responseConverter = VOICE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -386,6 +451,42 @@ public class TextToSpeech extends BaseService {
         synthesizeOptions, "synthesizeOptions cannot be null");
     com.ibm.cloud.sdk.core.util.Validator.notNull(callback, "callback cannot be null");
 
+    Request request = newSynthesizeRequest(synthesizeOptions);
+    OkHttpClient client = configureHttpClient();
+    TextToSpeechWebSocketListener listener =
+        new TextToSpeechWebSocketListener(synthesizeOptions, callback);
+    WebSocketPool pool = webSocketPool;
+    if (pool != null) {
+      return pool.connect(client, request, listener);
+    }
+    return client.newWebSocket(request, listener);
+  }
+
+  /**
+   * Opens WebSocket connections ahead of time, so that syntheses with the same voice and custom
+   * model do not wait for the handshake. Only those parameters of the options are used. Requires a
+   * pool set with {@link #setWebSocketPool}, which then keeps the given number of connections
+   * ready, replacing each one handed out to {@link #synthesizeUsingWebSocket}, closed or expired.
+   * Replacements are authenticated with the current credentials.
+   *
+   * @param connectionOptions the options holding the query parameters of the connections
+   * @param count the number of connections to keep ready
+   */
+  public void prewarmSynthesizeWebSockets(SynthesizeOptions connectionOptions, int count) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(
+        connectionOptions, "connectionOptions cannot be null");
+    WebSocketPool pool = webSocketPool;
+    com.ibm.cloud.sdk.core.util.Validator.notNull(pool, "webSocketPool must be set");
+    pool.prewarm(configureHttpClient(), () -> newSynthesizeRequest(connectionOptions), count);
+  }
+
+  /**
+   * Builds the authenticated request opening a WebSocket connection to the synthesize endpoint.
+   *
+   * @param synthesizeOptions the options holding the query parameters of the connection
+   * @return the {@link Request}
+   */
+  private Request newSynthesizeRequest(SynthesizeOptions synthesizeOptions) {
     HttpUrl.Builder urlBuilder = HttpUrl.parse(getServiceUrl() + "/v1/synthesize").newBuilder();
 
     if (synthesizeOptions.voice() != null) {
@@ -400,10 +501,7 @@ public class TextToSpeech extends BaseService {
 
     setAuthentication(builder);
     setDefaultHeaders(builder);
-
-    OkHttpClient client = configureHttpClient();
-    return client.newWebSocket(
-        builder.build(), new TextToSpeechWebSocketListener(synthesizeOptions, callback));
+    return builder.build();
   }
 
   /**
@@ -463,9 +561,7 @@ public class TextToSpeech extends BaseService {
     if (getPronunciationOptions.customizationId() != null) {
       builder.query("customization_id", String.valueOf(getPronunciationOptions.customizationId()));
     }
-    ResponseConverter<Pronunciation> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Pronunciation>() {}.getType());
+    ResponseConverter<Pronunciation> responseConverter = PRONUNCIATION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -525,9 +621,7 @@ public class TextToSpeech extends BaseService {
       contentJson.addProperty("description", createCustomModelOptions.description());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<CustomModel> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<CustomModel>() {}.getType());
+    ResponseConverter<CustomModel> responseConverter = CUSTOM_MODEL_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -563,9 +657,7 @@ public class TextToSpeech extends BaseService {
     if (listCustomModelsOptions.language() != null) {
       builder.query("language", String.valueOf(listCustomModelsOptions.language()));
     }
-    ResponseConverter<CustomModels> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<CustomModels>() {}.getType());
+    ResponseConverter<CustomModels> responseConverter = CUSTOM_MODELS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -684,9 +776,7 @@ public class TextToSpeech extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<CustomModel> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<CustomModel>() {}.getType());
+    ResponseConverter<CustomModel> responseConverter = CUSTOM_MODEL_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -802,9 +892,7 @@ public class TextToSpeech extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<Words> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Words>() {}.getType());
+    ResponseConverter<Words> responseConverter = WORDS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -893,9 +981,7 @@ public class TextToSpeech extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<Translation> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Translation>() {}.getType());
+    ResponseConverter<Translation> responseConverter = TRANSLATION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -964,9 +1050,7 @@ public class TextToSpeech extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<Prompts> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Prompts>() {}.getType());
+    ResponseConverter<Prompts> responseConverter = PROMPTS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1070,12 +1154,10 @@ public class TextToSpeech extends BaseService {
     multipartBuilder.setType(MultipartBody.FORM);
     multipartBuilder.addFormDataPart("metadata", addCustomPromptOptions.metadata().toString());
     okhttp3.RequestBody fileBody =
-        RequestUtils.inputStreamBody(addCustomPromptOptions.file(), "audio/wav");
+        FileRequestBody.inputStreamBody(addCustomPromptOptions.file(), "audio/wav");
     multipartBuilder.addFormDataPart("file", "filename", fileBody);
     builder.body(multipartBuilder.build());
-    ResponseConverter<Prompt> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Prompt>() {}.getType());
+    ResponseConverter<Prompt> responseConverter = PROMPT_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1113,9 +1195,7 @@ public class TextToSpeech extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<Prompt> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Prompt>() {}.getType());
+    ResponseConverter<Prompt> responseConverter = PROMPT_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1185,9 +1265,7 @@ public class TextToSpeech extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<Speakers> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Speakers>() {}.getType());
+    ResponseConverter<Speakers> responseConverter = SPEAKERS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1271,10 +1349,9 @@ public class TextToSpeech extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("speaker_name", String.valueOf(createSpeakerModelOptions.speakerName()));
-    builder.bodyContent(createSpeakerModelOptions.audio(), "audio/wav");
-    ResponseConverter<SpeakerModel> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<SpeakerModel>() {}.getType());
+    builder.body(
+        FileRequestBody.create(MediaType.parse("audio/wav"), createSpeakerModelOptions.audio()));
+    ResponseConverter<SpeakerModel> responseConverter = SPEAKER_MODEL_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -1312,9 +1389,7 @@ public class TextToSpeech extends BaseService {
       builder.header(header.getKey(), header.getValue());
     }
     builder.header("Accept", "application/json");
-    ResponseConverter<SpeakerCustomModels> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<SpeakerCustomModels>() {}.getType());
+    ResponseConverter<SpeakerCustomModels> responseConverter = SPEAKER_CUSTOM_MODELS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -0,0 +1,193 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.text_to_speech.v1.util;
+
+import com.ibm.cloud.sdk.core.http.HttpMediaType;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Joins the audio of chunks synthesized separately into a single stream of the same format. <br>
+ * WAVE audio keeps the header of the first chunk only. Ogg audio becomes a chain of Ogg streams,
+ * one per chunk, each with its own serial number. Formats without a container are concatenated.
+ */
+abstract class AudioStitcher {
+
+  /**
+   * Gets the stitcher for an audio format.
+   *
+   * @param accept the requested audio format, or null for the service's default
+   * @return the stitcher
+   * @throws IllegalArgumentException if audio of that format cannot be joined
+   */
+  static AudioStitcher forFormat(String accept) {
+    String type = accept == null ? HttpMediaType.AUDIO_OGG : accept.toLowerCase(Locale.ROOT);
+    if (type.startsWith(HttpMediaType.AUDIO_WAV)) {
+      return new WaveStitcher();
+    } else if (type.startsWith("audio/ogg")) {
+      return new OggStitcher();
+    } else if (type.startsWith("audio/mp3")
+        || type.startsWith("audio/mpeg")
+        || type.startsWith("audio/l16")
+        || type.startsWith("audio/mulaw")
+        || type.startsWith("audio/alaw")
+        || type.startsWith("audio/basic")) {
+      return new AudioStitcher() {
+        @Override
+        InputStream stitch(int index, byte[] audio) {
+          return new ByteArrayInputStream(audio);
+        }
+      };
+    }
+    throw new IllegalArgumentException(
+        "Audio of type " + accept + " cannot be synthesized in chunks");
+  }
+
+  /**
+   * Gets the part of the audio of a chunk that goes into the joined stream.
+   *
+   * @param index the index of the chunk
+   * @param audio the audio of the chunk, which may be modified
+   * @return the audio to append to the stream
+   * @throws IOException if the audio is not in the expected format
+   */
+  abstract InputStream stitch(int index, byte[] audio) throws IOException;
+
+  private static int readInt(byte[] array, int offset) {
+    return (array[offset] & 0xff)
+        | (array[offset + 1] & 0xff) << 8
+        | (array[offset + 2] & 0xff) << 16
+        | (array[offset + 3] & 0xff) << 24;
+  }
+
+  private static void writeInt(int value, byte[] array, int offset) {
+    for (int i = 0; i < 4; i++) {
+      array[offset + i] = (byte) (value >>> (8 * i));
+    }
+  }
+
+  private static boolean matches(byte[] array, int offset, byte[] pattern) {
+    if (offset < 0 || offset + pattern.length > array.length) {
+      return false;
+    }
+    for (int i = 0; i < pattern.length; i++) {
+      if (array[offset + i] != pattern[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Keeps the header of the first chunk, marking its sizes as unknown since more audio follows, and
+   * the samples of all chunks. Use {@link WaveUtils} to write the final sizes, as with any streamed
+   * WAVE audio.
+   */
+  private static final class WaveStitcher extends AudioStitcher {
+    private static final byte[] RIFF = "RIFF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DATA = "data".getBytes(StandardCharsets.US_ASCII);
+    private static final int UNKNOWN_SIZE = 0xffffffff;
+
+    @Override
+    InputStream stitch(int index, byte[] audio) throws IOException {
+      int data = dataOffset(audio);
+      if (index == 0) {
+        writeInt(UNKNOWN_SIZE, audio, 4);
+        writeInt(UNKNOWN_SIZE, audio, data - 4);
+        return new ByteArrayInputStream(audio);
+      }
+      return new ByteArrayInputStream(audio, data, audio.length - data);
+    }
+
+    /** Finds where the samples start, after the header of the "data" chunk. */
+    private static int dataOffset(byte[] audio) throws IOException {
+      if (!matches(audio, 0, RIFF)) {
+        throw new IOException("The audio is not in the WAVE format");
+      }
+      int offset = 12;
+      while (offset + 8 <= audio.length) {
+        if (matches(audio, offset, DATA)) {
+          return offset + 8;
+        }
+        long size = readInt(audio, offset + 4) & 0xffffffffL;
+        long next = offset + 8 + size + (size & 1);
+        if (next > audio.length) {
+          break;
+        }
+        offset = (int) next;
+      }
+      throw new IOException("The WAVE audio has no data chunk");
+    }
+  }
+
+  /**
+   * Chains the Ogg streams of the chunks, giving each one a serial number of its own as the Ogg
+   * format requires.
+   */
+  private static final class OggStitcher extends AudioStitcher {
+    private static final byte[] CAPTURE_PATTERN = "OggS".getBytes(StandardCharsets.US_ASCII);
+    private static final int SERIAL_POS = 14;
+    private static final int CRC_POS = 22;
+    private static final int SEGMENTS_POS = 26;
+    private static final int[] CRC_TABLE = new int[256];
+
+    static {
+      for (int i = 0; i < CRC_TABLE.length; i++) {
+        int crc = i << 24;
+        for (int bit = 0; bit < 8; bit++) {
+          crc = (crc & 0x80000000) != 0 ? (crc << 1) ^ 0x04c11db7 : crc << 1;
+        }
+        CRC_TABLE[i] = crc;
+      }
+    }
+
+    @Override
+    InputStream stitch(int index, byte[] audio) throws IOException {
+      int offset = 0;
+      while (offset < audio.length) {
+        if (!matches(audio, offset, CAPTURE_PATTERN) || offset + SEGMENTS_POS >= audio.length) {
+          throw new IOException("The audio is not in the Ogg format");
+        }
+        int segments = audio[offset + SEGMENTS_POS] & 0xff;
+        int length = SEGMENTS_POS + 1 + segments;
+        if (offset + length > audio.length) {
+          throw new IOException("The Ogg audio is truncated");
+        }
+        for (int i = 0; i < segments; i++) {
+          length += audio[offset + SEGMENTS_POS + 1 + i] & 0xff;
+        }
+        if (offset + length > audio.length) {
+          throw new IOException("The Ogg audio is truncated");
+        }
+        if (index > 0) {
+          writeInt(readInt(audio, offset + SERIAL_POS) + index, audio, offset + SERIAL_POS);
+          writeInt(0, audio, offset + CRC_POS);
+          writeInt(crc(audio, offset, length), audio, offset + CRC_POS);
+        }
+        offset += length;
+      }
+      return new ByteArrayInputStream(audio);
+    }
+
+    private static int crc(byte[] array, int offset, int length) {
+      int crc = 0;
+      for (int i = offset; i < offset + length; i++) {
+        crc = (crc << 8) ^ CRC_TABLE[((crc >>> 24) ^ array[i]) & 0xff];
+      }
+      return crc;
+    }
+  }
+}
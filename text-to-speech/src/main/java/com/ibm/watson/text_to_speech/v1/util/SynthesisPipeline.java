@@ -0,0 +1,233 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.text_to_speech.v1.util;
+
+import com.ibm.cloud.sdk.core.http.Response;
+import com.ibm.cloud.sdk.core.http.ServiceCall;
+import com.ibm.cloud.sdk.core.http.ServiceCallback;
+import com.ibm.watson.text_to_speech.v1.TextToSpeech;
+import com.ibm.watson.text_to_speech.v1.model.SynthesizeOptions;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Synthesizes long text with the {@link TextToSpeech} service in chunks, so that the audio starts
+ * after the first sentence rather than after the whole text. <br>
+ * The text is split at sentence boundaries (see {@link #chunk(String, int)}), the chunks are
+ * synthesized with up to a given number of requests in flight, and their audio is joined in order
+ * into a single stream of the requested format. WAVE, Ogg, MP3 and raw audio can be joined; WebM
+ * and FLAC cannot.
+ *
+ * <p>Audio that is synthesized ahead of the reader is held in memory, at most one chunk per request
+ * in flight. As with any WAVE audio streamed by the service, use {@link WaveUtils} to write the
+ * sizes into the header of the joined stream.
+ */
+public class SynthesisPipeline {
+
+  /** The default maximum length of a chunk, well below the service's limit of 5 KB per request. */
+  public static final int DEFAULT_MAX_CHUNK_LENGTH = 1000;
+
+  /** The default number of requests in flight. */
+  public static final int DEFAULT_PARALLELISM = 3;
+
+  private final TextToSpeech service;
+  private final int parallelism;
+  private final int maxChunkLength;
+
+  /**
+   * Instantiates a new pipeline with the default parallelism and chunk length.
+   *
+   * @param service the service to synthesize the chunks with
+   */
+  public SynthesisPipeline(TextToSpeech service) {
+    this(service, DEFAULT_PARALLELISM, DEFAULT_MAX_CHUNK_LENGTH);
+  }
+
+  /**
+   * Instantiates a new pipeline.
+   *
+   * @param service the service to synthesize the chunks with
+   * @param parallelism the maximum number of requests in flight
+   * @param maxChunkLength the maximum length of a chunk
+   */
+  public SynthesisPipeline(TextToSpeech service, int parallelism, int maxChunkLength) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(service, "service cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(parallelism > 0, "parallelism must be positive");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(
+        maxChunkLength > 0, "maxChunkLength must be positive");
+    this.service = service;
+    this.parallelism = parallelism;
+    this.maxChunkLength = maxChunkLength;
+  }
+
+  /**
+   * Splits text or SSML into chunks that can be synthesized separately. Plain text is split at
+   * sentence boundaries; SSML is split at sentence boundaries and around {@code <s>} and {@code
+   * <p>} elements outside of any other element, and each chunk is wrapped in the original {@code
+   * <speak>} element. The first chunk holds only the first sentence, so that its audio is available
+   * as soon as possible.
+   *
+   * @param text the text or SSML
+   * @param maxChunkLength the maximum length of a chunk. A sentence of plain text that is longer is
+   *     split at whitespace; an SSML element that is longer is not split.
+   * @return the chunks
+   */
+  public static List<String> chunk(String text, int maxChunkLength) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(text, "text cannot be null");
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(
+        maxChunkLength > 0, "maxChunkLength must be positive");
+    return TextChunker.chunk(text, maxChunkLength);
+  }
+
+  /**
+   * Synthesizes the text of the options in chunks. The first requests are sent right away; the
+   * following ones as the audio is read. Closing the stream cancels the requests in flight.
+   *
+   * @param synthesizeOptions the {@link SynthesizeOptions} containing the text and the options
+   *     applied to every chunk
+   * @return the joined audio
+   */
+  public InputStream synthesize(SynthesizeOptions synthesizeOptions) {
+    com.ibm.cloud.sdk.core.util.Validator.notNull(
+        synthesizeOptions, "synthesizeOptions cannot be null");
+    AudioStitcher stitcher = AudioStitcher.forFormat(synthesizeOptions.accept());
+    List<String> chunks = chunk(synthesizeOptions.text(), maxChunkLength);
+    return new PipelinedAudioStream(synthesizeOptions, chunks, stitcher);
+  }
+
+  /** A chunk being synthesized. */
+  private static final class PendingChunk implements ServiceCallback<InputStream> {
+    private final ServiceCall<InputStream> call;
+    private final CompletableFuture<byte[]> audio = new CompletableFuture<>();
+
+    private PendingChunk(ServiceCall<InputStream> call) {
+      this.call = call;
+      call.enqueue(this);
+    }
+
+    @Override
+    public void onResponse(Response<InputStream> response) {
+      try (InputStream is = response.getResult()) {
+        audio.complete(WaveUtils.toByteArray(is));
+      } catch (IOException | RuntimeException e) {
+        audio.completeExceptionally(e);
+      }
+    }
+
+    @Override
+    public void onFailure(Exception e) {
+      audio.completeExceptionally(e);
+    }
+  }
+
+  /** The joined audio, read from the chunks in order as they are synthesized. */
+  private final class PipelinedAudioStream extends InputStream {
+    private final SynthesizeOptions synthesizeOptions;
+    private final List<String> chunks;
+    private final AudioStitcher stitcher;
+    private final Deque<PendingChunk> pending = new ArrayDeque<>();
+    private int submitted;
+    private int index;
+    private InputStream current = new ByteArrayInputStream(new byte[0]);
+    private boolean closed;
+
+    private PipelinedAudioStream(
+        SynthesizeOptions synthesizeOptions, List<String> chunks, AudioStitcher stitcher) {
+      this.synthesizeOptions = synthesizeOptions;
+      this.chunks = chunks;
+      this.stitcher = stitcher;
+      fill();
+    }
+
+    private void fill() {
+      while (pending.size() < parallelism && submitted < chunks.size()) {
+        SynthesizeOptions chunkOptions =
+            synthesizeOptions.newBuilder().text(chunks.get(submitted++)).build();
+        pending.add(new PendingChunk(service.synthesize(chunkOptions)));
+      }
+    }
+
+    /**
+     * Moves to the audio of the next chunk, waiting for it to be synthesized.
+     *
+     * @return false if there are no more chunks
+     */
+    private boolean advance() throws IOException {
+      if (closed) {
+        throw new IOException("Stream closed");
+      }
+      PendingChunk next = pending.poll();
+      if (next == null) {
+        return false;
+      }
+      fill();
+      byte[] audio;
+      try {
+        audio = next.audio.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for chunk " + index);
+      } catch (ExecutionException e) {
+        throw new IOException("Chunk " + index + " could not be synthesized", e.getCause());
+      }
+      current = stitcher.stitch(index++, audio);
+      return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b;
+      while ((b = current.read()) == -1) {
+        if (!advance()) {
+          return -1;
+        }
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      int n;
+      while ((n = current.read(b, off, len)) == -1) {
+        if (!advance()) {
+          return -1;
+        }
+      }
+      return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+      return current.available();
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+      for (PendingChunk chunk : pending) {
+        chunk.call.cancel();
+      }
+      pending.clear();
+    }
+  }
+}
@@ -0,0 +1,202 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.text_to_speech.v1.util;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text or SSML into chunks that can be synthesized separately. <br>
+ * Plain text is split at sentence boundaries. SSML is split at sentence boundaries and around
+ * {@code <s>} and {@code <p>} elements, but only outside of any element, so that each chunk is
+ * well-formed; each chunk is wrapped in the original {@code <speak>} element.
+ */
+final class TextChunker {
+
+  private static final String SPEAK_START = "<speak";
+  private static final String SPEAK_END = "</speak>";
+
+  private TextChunker() {
+    // This is a utility class - no instantiation allowed.
+  }
+
+  /**
+   * Splits text or SSML into chunks. The first chunk holds only the first sentence, so that its
+   * audio is available as soon as possible; the following ones hold as many sentences as fit.
+   *
+   * @param text the text or SSML
+   * @param maxChunkLength the maximum length of a chunk. A sentence of plain text that is longer is
+   *     split at whitespace; an SSML element that is longer is not split.
+   * @return the chunks
+   */
+  static List<String> chunk(String text, int maxChunkLength) {
+    String trimmed = text.trim();
+    String prefix = "";
+    String suffix = "";
+    List<String> units;
+    int bodyStart = trimmed.startsWith(SPEAK_START) ? trimmed.indexOf('>') + 1 : 0;
+    if (bodyStart > 0) {
+      int bodyEnd = trimmed.lastIndexOf(SPEAK_END);
+      if (bodyEnd < bodyStart) {
+        bodyEnd = trimmed.length();
+      }
+      prefix = trimmed.substring(0, bodyStart);
+      suffix = SPEAK_END;
+      units = ssmlUnits(trimmed.substring(bodyStart, bodyEnd));
+    } else {
+      units = sentences(trimmed, maxChunkLength);
+    }
+
+    int budget = maxChunkLength - prefix.length() - suffix.length();
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(
+        budget > 0, "maxChunkLength must be longer than the <speak> element");
+    List<String> chunks = new ArrayList<>();
+    StringBuilder chunk = new StringBuilder();
+    for (String unit : units) {
+      if (chunk.length() > 0 && (chunks.isEmpty() || chunk.length() + unit.length() > budget)) {
+        addChunk(chunks, prefix, chunk, suffix);
+      }
+      chunk.append(unit);
+    }
+    addChunk(chunks, prefix, chunk, suffix);
+    return chunks;
+  }
+
+  private static void addChunk(
+      List<String> chunks, String prefix, StringBuilder chunk, String suffix) {
+    String content = chunk.toString().trim();
+    chunk.setLength(0);
+    if (!content.isEmpty()) {
+      chunks.add(prefix + content + suffix);
+    }
+  }
+
+  /**
+   * Splits plain text into sentences, each keeping its trailing whitespace.
+   *
+   * @param text the text
+   * @param maxLength the length beyond which a sentence is split at whitespace, or 0 for none
+   * @return the sentences
+   */
+  private static List<String> sentences(String text, int maxLength) {
+    List<String> sentences = new ArrayList<>();
+    BreakIterator iterator = BreakIterator.getSentenceInstance(Locale.ROOT);
+    iterator.setText(text);
+    int start = iterator.first();
+    for (int end = iterator.next(); end != BreakIterator.DONE; start = end, end = iterator.next()) {
+      String sentence = text.substring(start, end);
+      while (maxLength > 0 && sentence.length() > maxLength) {
+        int split = sentence.lastIndexOf(' ', maxLength - 1) + 1;
+        if (split <= 0) {
+          split = maxLength;
+        }
+        sentences.add(sentence.substring(0, split));
+        sentence = sentence.substring(split);
+      }
+      sentences.add(sentence);
+    }
+    return sentences;
+  }
+
+  /**
+   * Splits the content of a {@code <speak>} element into units that can be synthesized separately:
+   * sentences and elements at the top level, and whatever text and elements are between them.
+   *
+   * @param body the content of the {@code <speak>} element
+   * @return the units
+   */
+  private static List<String> ssmlUnits(String body) {
+    List<String> units = new ArrayList<>();
+    StringBuilder unit = new StringBuilder();
+    StringBuilder text = new StringBuilder();
+    int depth = 0;
+    int i = 0;
+    while (i < body.length()) {
+      char c = body.charAt(i);
+      if (c != '<') {
+        (depth == 0 ? text : unit).append(c);
+        i++;
+        continue;
+      }
+
+      int close = body.indexOf('>', i);
+      if (close < 0) {
+        close = body.length() - 1;
+      }
+      String tag = body.substring(i, close + 1);
+      i = close + 1;
+      boolean closing = tag.startsWith("</");
+      boolean sentence = isSentence(tag);
+      if (depth == 0) {
+        addSentences(units, unit, text);
+        if (sentence && !closing) {
+          addUnit(units, unit);
+        }
+      }
+      unit.append(tag);
+      if (closing) {
+        depth = Math.max(0, depth - 1);
+        if (depth == 0 && sentence) {
+          addUnit(units, unit);
+        }
+      } else if (!tag.endsWith("/>") && !tag.startsWith("<!") && !tag.startsWith("<?")) {
+        depth++;
+      }
+    }
+    addSentences(units, unit, text);
+    addUnit(units, unit);
+    return units;
+  }
+
+  private static void addUnit(List<String> units, StringBuilder unit) {
+    if (unit.length() > 0) {
+      units.add(unit.toString());
+      unit.setLength(0);
+    }
+  }
+
+  /**
+   * Moves top-level text into the current unit, ending the unit at each sentence boundary. The last
+   * sentence stays in the unit unless it is complete, since what follows it may belong to the same
+   * sentence.
+   */
+  private static void addSentences(List<String> units, StringBuilder unit, StringBuilder text) {
+    if (text.length() == 0) {
+      return;
+    }
+    List<String> sentences = sentences(text.toString(), 0);
+    text.setLength(0);
+    for (int i = 0; i < sentences.size(); i++) {
+      String sentence = sentences.get(i);
+      unit.append(sentence);
+      if (i < sentences.size() - 1 || sentences(sentence + "X", 0).size() > 1) {
+        addUnit(units, unit);
+      }
+    }
+  }
+
+  /** Checks whether a tag opens or closes an {@code <s>} or {@code <p>} element. */
+  private static boolean isSentence(String tag) {
+    int start = tag.startsWith("</") ? 2 : 1;
+    int end = start;
+    while (end < tag.length()
+        && (Character.isLetterOrDigit(tag.charAt(end)) || tag.charAt(end) == ':')) {
+      end++;
+    }
+    String name = tag.substring(start, end);
+    name = name.substring(name.indexOf(':') + 1);
+    return name.equals("s") || name.equals("p");
+  }
+}
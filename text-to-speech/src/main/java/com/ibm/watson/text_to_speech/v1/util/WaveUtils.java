@@ -1,5 +1,5 @@
 /*
- * (C) Copyright IBM Corp. 2016, 2020.
+ * (C) Copyright IBM Corp. 2016, 2021.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
@@ -15,8 +15,16 @@ package com.ibm.watson.text_to_speech.v1.util;
 import com.ibm.watson.text_to_speech.v1.TextToSpeech;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Utility class to write the data size header in wave(.wav) files synthesized with the {@link
@@ -32,6 +40,9 @@ public final class WaveUtils {
   /** The WAVE meta-data size position. (value is 4) */
   private static final int WAVE_SIZE_POS = 4;
 
+  /** The size of the buffer audio is copied through. (value is 16384) */
+  private static final int BUFFER_SIZE = 16384;
+
   private WaveUtils() {
     // This is a utility class - no instantiation allowed.
   }
@@ -51,20 +62,83 @@ public final class WaveUtils {
 
   /**
    * Re-writes the data size in the header(bytes 4-8) of the WAVE(.wav) input stream.<br>
-   * It needs to be read in order to calculate the size.
+   * It needs to be read in order to calculate the size, so the whole audio is held in memory. Use
+   * {@link #writeWaveFile(InputStream, File)} or {@link #reWriteWaveHeader(SeekableByteChannel)} to
+   * fix long audio with constant memory.
    *
    * @param is the input stream
    * @return A new input stream that includes the data header in the header
    * @throws IOException Signals that an I/O exception has occurred.
    */
   public static InputStream reWriteWaveHeader(InputStream is) throws IOException {
-    byte[] audioBytes = toByteArray(is);
-    int filesize = audioBytes.length - WAVE_HEADER_SIZE;
+    AudioBuffer buffer = new AudioBuffer();
+    copy(is, buffer);
+    return buffer.reWriteWaveHeader();
+  }
 
-    writeInt(filesize, audioBytes, WAVE_SIZE_POS);
-    writeInt(filesize - WAVE_HEADER_SIZE, audioBytes, WAVE_METADATA_POS);
+  /**
+   * Re-writes the data size in the header(bytes 4-8) of WAVE(.wav) audio in a seekable channel,
+   * such as a {@link FileChannel}. The size is taken from the channel, so only the header is
+   * written and the audio is not read.
+   *
+   * @param channel the channel holding the whole audio, open for writing
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public static void reWriteWaveHeader(SeekableByteChannel channel) throws IOException {
+    long size = channel.size();
+    if (size < WAVE_METADATA_POS + 4) {
+      throw new IOException("The audio is shorter than the WAVE header");
+    }
+    int filesize = (int) (size - WAVE_HEADER_SIZE);
+    writeInt(filesize, channel, WAVE_SIZE_POS);
+    writeInt(filesize - WAVE_HEADER_SIZE, channel, WAVE_METADATA_POS);
+  }
 
-    return new ByteArrayInputStream(audioBytes);
+  /**
+   * Writes WAVE(.wav) audio streamed by the {@link TextToSpeech} service to a file, re-writing the
+   * data size in its header. The audio is copied through a fixed-size buffer, so memory use does
+   * not depend on the length of the audio.
+   *
+   * @param is the input stream, which is read to the end but not closed
+   * @param file the file to write, replaced if it exists
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public static void writeWaveFile(InputStream is, File file) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(
+            file.toPath(),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      ReadableByteChannel source = Channels.newChannel(is);
+      ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+      while (source.read(buffer) != -1) {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+        buffer.clear();
+      }
+      reWriteWaveHeader(channel);
+    }
+  }
+
+  /**
+   * Writes a number into a channel using 4 bytes.
+   *
+   * @param value the number to write
+   * @param channel the channel
+   * @param position the position
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private static void writeInt(int value, SeekableByteChannel channel, long position)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, value);
+    channel.position(position);
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
   }
 
   /**
@@ -77,15 +151,36 @@ public final class WaveUtils {
    */
   public static byte[] toByteArray(InputStream is) throws IOException {
     ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    copy(is, buffer);
+    return buffer.toByteArray();
+  }
 
+  private static void copy(InputStream is, ByteArrayOutputStream buffer) throws IOException {
     int nRead;
-    byte[] data = new byte[16384]; // 4 kb
+    byte[] data = new byte[BUFFER_SIZE];
 
     while ((nRead = is.read(data, 0, data.length)) != -1) {
       buffer.write(data, 0, nRead);
     }
+  }
 
-    buffer.flush();
-    return buffer.toByteArray();
+  /**
+   * A {@link ByteArrayOutputStream} whose content is patched and read in place, instead of being
+   * copied by {@link ByteArrayOutputStream#toByteArray()}.
+   */
+  private static final class AudioBuffer extends ByteArrayOutputStream {
+
+    private AudioBuffer() {
+      super(BUFFER_SIZE);
+    }
+
+    private InputStream reWriteWaveHeader() {
+      int filesize = count - WAVE_HEADER_SIZE;
+
+      writeInt(filesize, buf, WAVE_SIZE_POS);
+      writeInt(filesize - WAVE_HEADER_SIZE, buf, WAVE_METADATA_POS);
+
+      return new ByteArrayInputStream(buf, 0, count);
+    }
   }
 }
@@ -2,6 +2,7 @@ package com.ibm.watson.text_to_speech.v1.websocket;
 
 import com.ibm.watson.text_to_speech.v1.model.Marks;
 import com.ibm.watson.text_to_speech.v1.model.Timings;
+import okio.ByteString;
 
 public interface SynthesizeCallback {
   /** Called when a WebSocket connection was made. */
@@ -53,4 +54,25 @@ public interface SynthesizeCallback {
    *     (audio/ogg;codecs=opus)
    */
   void onAudioStream(byte[] bytes);
+
+  /**
+   * Called when the service returns a frame of audio. By default, the frame is copied into an array
+   * passed to {@link #onAudioStream(byte[])}; override this method to read the frame without a
+   * copy, for example through {@link ByteString#asByteBuffer()}.
+   *
+   * @param bytes the frame of audio in the specified audio format or the default
+   *     (audio/ogg;codecs=opus)
+   */
+  default void onAudioStream(ByteString bytes) {
+    onAudioStream(bytes.toByteArray());
+  }
+
+  /**
+   * Called when the first frame of audio is received, before it is passed to {@link
+   * #onAudioStream(ByteString)}.
+   *
+   * @param latencyMillis the time from the synthesis request to the first audio, in milliseconds,
+   *     including the time it took to open the connection
+   */
+  default void onFirstAudio(long latencyMillis) {}
 }
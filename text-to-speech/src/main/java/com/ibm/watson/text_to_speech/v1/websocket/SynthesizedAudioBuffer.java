@@ -0,0 +1,218 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.text_to_speech.v1.websocket;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import okio.ByteString;
+
+/**
+ * A {@link SynthesizeCallback} that hands out the audio of a WebSocket synthesis through a bounded
+ * buffer, as {@link ByteBuffer}s or as an {@link InputStream}. <br>
+ * The frames received from the service are buffered as they are, without being copied. Once the
+ * buffer holds its capacity, the thread delivering the frames waits for the reader to catch up, so
+ * a slow reader slows down the connection instead of letting memory grow. A frame larger than the
+ * capacity is accepted when the buffer is empty.
+ *
+ * <p>The time it took for the first audio to arrive is available from {@link
+ * #firstAudioLatencyMillis()}. Other events can be handled by overriding the methods of {@link
+ * BaseSynthesizeCallback}; overrides of {@link #onError}, {@link #onDisconnected}, {@link
+ * #onFirstAudio} and {@link #onAudioStream(ByteString)} must call the super method.
+ */
+public class SynthesizedAudioBuffer extends BaseSynthesizeCallback implements Closeable {
+
+  /** The default capacity, in bytes. */
+  public static final int DEFAULT_CAPACITY = 1024 * 1024;
+
+  private final int capacity;
+  private final ArrayDeque<ByteBuffer> frames = new ArrayDeque<>();
+  private long buffered;
+  private boolean done;
+  private boolean closed;
+  private Exception error;
+  private volatile long firstAudioLatencyMillis = -1;
+
+  /** Instantiates a new buffer of the default capacity. */
+  public SynthesizedAudioBuffer() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Instantiates a new buffer.
+   *
+   * @param capacity the number of bytes buffered before the connection waits for the reader
+   */
+  public SynthesizedAudioBuffer(int capacity) {
+    com.ibm.cloud.sdk.core.util.Validator.isTrue(capacity > 0, "capacity must be positive");
+    this.capacity = capacity;
+  }
+
+  @Override
+  public void onAudioStream(ByteString bytes) {
+    ByteBuffer frame = bytes.asByteBuffer();
+    synchronized (this) {
+      try {
+        while (!closed && buffered > 0 && buffered + frame.remaining() > capacity) {
+          wait();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      if (closed || !frame.hasRemaining()) {
+        return;
+      }
+      frames.add(frame);
+      buffered += frame.remaining();
+      notifyAll();
+    }
+  }
+
+  @Override
+  public void onFirstAudio(long latencyMillis) {
+    firstAudioLatencyMillis = latencyMillis;
+  }
+
+  @Override
+  public synchronized void onError(Exception e) {
+    if (!done) {
+      error = e;
+      done = true;
+      notifyAll();
+    }
+  }
+
+  @Override
+  public synchronized void onDisconnected() {
+    done = true;
+    notifyAll();
+  }
+
+  /**
+   * Gets the time it took for the first audio to arrive.
+   *
+   * @return the time from the synthesis request to the first audio, in milliseconds, or -1 if no
+   *     audio has arrived yet
+   */
+  public long firstAudioLatencyMillis() {
+    return firstAudioLatencyMillis;
+  }
+
+  /**
+   * Takes the next frame of audio, waiting for it to arrive. The frame is a read-only view of the
+   * frame received from the service.
+   *
+   * @return the frame, or null once the synthesis is over and all frames have been taken
+   * @throws IOException if the synthesis failed, or the buffer was closed
+   * @throws InterruptedIOException if interrupted while waiting
+   */
+  public synchronized ByteBuffer nextBuffer() throws IOException {
+    ByteBuffer frame = awaitFrame();
+    if (frame != null) {
+      frames.poll();
+      buffered -= frame.remaining();
+      notifyAll();
+    }
+    return frame;
+  }
+
+  /**
+   * Gets the audio as a stream. Reads wait for audio to arrive, and end once the synthesis is over.
+   *
+   * @return the {@link InputStream}
+   */
+  public InputStream inputStream() {
+    return new AudioInputStream();
+  }
+
+  /** Discards the buffered audio and any audio still to arrive. */
+  @Override
+  public synchronized void close() {
+    closed = true;
+    frames.clear();
+    buffered = 0;
+    notifyAll();
+  }
+
+  /** Waits for a frame with bytes remaining, without taking it. Must hold the lock. */
+  private ByteBuffer awaitFrame() throws IOException {
+    try {
+      while (true) {
+        if (closed) {
+          throw new IOException("The buffer has been closed");
+        }
+        ByteBuffer frame = frames.peek();
+        if (frame != null) {
+          return frame;
+        }
+        if (error != null) {
+          throw new IOException(error.getMessage(), error);
+        }
+        if (done) {
+          return null;
+        }
+        wait();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for audio");
+    }
+  }
+
+  /**
+   * Copies bytes of the next frame into an array, waiting for it to arrive.
+   *
+   * @return the number of bytes copied, or -1 once the synthesis is over
+   */
+  private synchronized int read(byte[] b, int off, int len) throws IOException {
+    ByteBuffer frame = awaitFrame();
+    if (frame == null) {
+      return -1;
+    }
+    int n = Math.min(len, frame.remaining());
+    frame.get(b, off, n);
+    buffered -= n;
+    if (!frame.hasRemaining()) {
+      frames.poll();
+    }
+    notifyAll();
+    return n;
+  }
+
+  /** The audio as a stream. */
+  private final class AudioInputStream extends InputStream {
+
+    @Override
+    public int read() throws IOException {
+      byte[] b = new byte[1];
+      return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      return SynthesizedAudioBuffer.this.read(b, off, len);
+    }
+
+    @Override
+    public void close() {
+      SynthesizedAudioBuffer.this.close();
+    }
+  }
+}
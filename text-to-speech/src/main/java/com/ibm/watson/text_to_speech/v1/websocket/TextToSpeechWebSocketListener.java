@@ -10,23 +10,19 @@ import com.ibm.watson.text_to_speech.v1.model.Marks;
 import com.ibm.watson.text_to_speech.v1.model.SynthesizeOptions;
 import com.ibm.watson.text_to_speech.v1.model.Timings;
 import java.io.IOException;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.concurrent.TimeUnit;
 import okhttp3.Response;
 import okhttp3.WebSocket;
 import okhttp3.WebSocketListener;
 import okio.ByteString;
 
 public class TextToSpeechWebSocketListener extends WebSocketListener {
-  private static final String TEXT_TO_WEB_SOCKET = "TextToWebSocketThread";
   private static final Gson GSON = GsonSingleton.getGsonWithoutPrettyPrinting();
-  private static final Logger LOG = Logger.getLogger(TextToSpeechWebSocketListener.class.getName());
 
   private static final String VOICE = "voice";
   private static final String CUSTOMIZATION_ID = "customization_id";
   private static final String ACTION = "action";
   private static final String START = "start";
-  private static final String STOP = "stop";
   private static final String ERROR = "error";
   private static final String WARNINGS = "warnings";
   private static final String BINARY_STREAMS = "binary_streams";
@@ -36,8 +32,9 @@ public class TextToSpeechWebSocketListener extends WebSocketListener {
 
   private final SynthesizeOptions options;
   private final SynthesizeCallback callback;
+  private final long requestNanos = System.nanoTime();
+  private boolean audioReceived;
   private WebSocket socket;
-  private boolean socketOpen = true;
 
   public TextToSpeechWebSocketListener(
       final SynthesizeOptions options, final SynthesizeCallback callback) {
@@ -51,7 +48,6 @@ public class TextToSpeechWebSocketListener extends WebSocketListener {
    */
   @Override
   public void onClosing(WebSocket webSocket, int code, String reason) {
-    socketOpen = false;
     callback.onDisconnected();
   }
 
@@ -61,7 +57,6 @@ public class TextToSpeechWebSocketListener extends WebSocketListener {
    */
   @Override
   public void onFailure(WebSocket webSocket, Throwable t, Response response) {
-    socketOpen = false;
     if (t instanceof Exception) {
       callback.onError((Exception) t);
     } else {
@@ -105,7 +100,12 @@ public class TextToSpeechWebSocketListener extends WebSocketListener {
    */
   @Override
   public void onMessage(WebSocket webSocket, ByteString bytes) {
-    callback.onAudioStream(bytes.toByteArray());
+    // OkHttp delivers the messages of a connection one at a time, on its reader thread
+    if (!audioReceived) {
+      audioReceived = true;
+      callback.onFirstAudio(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - requestNanos));
+    }
+    callback.onAudioStream(bytes);
   }
 
   /*
@@ -116,28 +116,10 @@ public class TextToSpeechWebSocketListener extends WebSocketListener {
   public void onOpen(final WebSocket webSocket, Response response) {
     callback.onConnected();
     this.socket = webSocket;
+    // The start message carries the text, so nothing else needs to be sent and no sender thread
+    // is needed.
     if (!this.socket.send(buildStartMessage(this.options))) {
       callback.onError(new IOException("WebSocket unavailable"));
-    } else {
-      new Thread(TEXT_TO_WEB_SOCKET) {
-        @Override
-        public void run() {
-          sendText();
-          if (socketOpen && !socket.send(buildStopMessage())) {
-            LOG.log(Level.SEVERE, "Stop message discarded because WebSocket is unavailable");
-          }
-        }
-      };
-    }
-  }
-
-  private void sendText() {
-    try {
-      while (socketOpen) {
-        socket.send(this.options.text());
-      }
-    } catch (Exception e) {
-      LOG.log(Level.SEVERE, e.getMessage(), e);
     }
   }
 
@@ -161,15 +143,4 @@ public class TextToSpeechWebSocketListener extends WebSocketListener {
     startMessage.addProperty(ACTION, START);
     return startMessage.toString();
   }
-
-  /**
-   * Builds the stop message.
-   *
-   * @return the string
-   */
-  private String buildStopMessage() {
-    JsonObject stopMessage = new JsonObject();
-    stopMessage.addProperty(ACTION, STOP);
-    return stopMessage.toString();
-  }
 }
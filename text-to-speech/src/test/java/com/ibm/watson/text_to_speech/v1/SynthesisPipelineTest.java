@@ -0,0 +1,192 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.text_to_speech.v1;
+
+import static org.testng.Assert.assertEquals;
+
+import com.google.gson.JsonParser;
+import com.ibm.cloud.sdk.core.http.HttpMediaType;
+import com.ibm.cloud.sdk.core.security.NoAuthAuthenticator;
+import com.ibm.watson.text_to_speech.v1.model.SynthesizeOptions;
+import com.ibm.watson.text_to_speech.v1.util.SynthesisPipeline;
+import com.ibm.watson.text_to_speech.v1.util.WaveUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Function;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Unit tests for {@link SynthesisPipeline}. */
+public class SynthesisPipelineTest {
+
+  private static final String TEXT =
+      "Hello there. This is the second sentence. And a third one. Then a fourth.";
+
+  private MockWebServer server;
+  private TextToSpeech service;
+
+  @BeforeMethod
+  public void setUp() throws IOException {
+    server = new MockWebServer();
+    server.start();
+    service = new TextToSpeech(new NoAuthAuthenticator());
+    service.setServiceUrl(server.url("/").toString());
+  }
+
+  @AfterMethod
+  public void tearDown() throws IOException {
+    server.shutdown();
+  }
+
+  /** Answers each request with the given audio of the text of the request. */
+  private void synthesizeWith(Function<String, byte[]> audio) {
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) {
+            String text =
+                JsonParser.parseString(request.getBody().readUtf8())
+                    .getAsJsonObject()
+                    .get("text")
+                    .getAsString();
+            return new MockResponse().setBody(new Buffer().write(audio.apply(text)));
+          }
+        });
+  }
+
+  private static byte[] readAll(InputStream is) throws IOException {
+    try (InputStream in = is) {
+      return WaveUtils.toByteArray(in);
+    }
+  }
+
+  /** A WAVE header of unknown sizes followed by the text as samples. */
+  private static byte[] wave(String text) {
+    byte[] samples = text.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer wave = ByteBuffer.allocate(44 + samples.length).order(ByteOrder.LITTLE_ENDIAN);
+    wave.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(0);
+    wave.put("WAVEfmt ".getBytes(StandardCharsets.US_ASCII)).putInt(16);
+    wave.putShort((short) 1).putShort((short) 1).putInt(22050).putInt(44100);
+    wave.putShort((short) 2).putShort((short) 16);
+    wave.put("data".getBytes(StandardCharsets.US_ASCII)).putInt(0);
+    return wave.put(samples).array();
+  }
+
+  /** A single Ogg page of the given serial number holding the text. */
+  private static byte[] ogg(int serial, String text) {
+    byte[] body = text.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer page = ByteBuffer.allocate(28 + body.length).order(ByteOrder.LITTLE_ENDIAN);
+    page.put("OggS".getBytes(StandardCharsets.US_ASCII)).put((byte) 0).put((byte) 6);
+    page.putLong(0).putInt(serial).putInt(0).putInt(0);
+    page.put((byte) 1).put((byte) body.length).put(body);
+    byte[] bytes = page.array();
+    page.putInt(22, crc(bytes));
+    return bytes;
+  }
+
+  /** The CRC of an Ogg page, computed bit by bit. */
+  private static int crc(byte[] page) {
+    int crc = 0;
+    for (byte b : page) {
+      crc ^= (b & 0xff) << 24;
+      for (int bit = 0; bit < 8; bit++) {
+        crc = crc < 0 ? (crc << 1) ^ 0x04c11db7 : crc << 1;
+      }
+    }
+    return crc;
+  }
+
+  /** Test plain text is split at sentences, the first one on its own. */
+  @Test
+  public void testChunkText() {
+    assertEquals(
+        SynthesisPipeline.chunk(TEXT, 50),
+        Arrays.asList(
+            "Hello there.", "This is the second sentence. And a third one.", "Then a fourth."));
+  }
+
+  /** Test SSML is split outside of elements and each chunk is wrapped in the speak element. */
+  @Test
+  public void testChunkSsml() {
+    String ssml =
+        "<speak version=\"1.0\">First one. <prosody rate=\"slow\">Slow. Still slow.</prosody>"
+            + " Last. <s>A sentence</s><break time=\"1s\"/>End.</speak>";
+    assertEquals(
+        SynthesisPipeline.chunk(ssml, 100),
+        Arrays.asList(
+            "<speak version=\"1.0\">First one.</speak>",
+            "<speak version=\"1.0\"><prosody rate=\"slow\">Slow. Still slow.</prosody> Last.</speak>",
+            "<speak version=\"1.0\"><s>A sentence</s><break time=\"1s\"/>End.</speak>"));
+  }
+
+  /** Test WAVE chunks are joined in order under the header of the first one. */
+  @Test
+  public void testSynthesizeWave() throws IOException {
+    synthesizeWith(SynthesisPipelineTest::wave);
+    SynthesisPipeline pipeline = new SynthesisPipeline(service, 2, 50);
+
+    byte[] audio =
+        readAll(
+            pipeline.synthesize(
+                new SynthesizeOptions.Builder()
+                    .text(TEXT)
+                    .accept(HttpMediaType.AUDIO_WAV)
+                    .build()));
+
+    byte[] expected =
+        wave("Hello there.This is the second sentence. And a third one.Then a fourth.");
+    ByteBuffer.wrap(expected).order(ByteOrder.LITTLE_ENDIAN).putInt(4, -1).putInt(40, -1);
+    assertEquals(audio, expected);
+    assertEquals(server.getRequestCount(), 3);
+  }
+
+  /** Test Ogg chunks are chained with distinct serial numbers and valid checksums. */
+  @Test
+  public void testSynthesizeOgg() throws IOException {
+    synthesizeWith(text -> ogg(7, text));
+    SynthesisPipeline pipeline = new SynthesisPipeline(service, 1, 50);
+
+    byte[] audio = readAll(pipeline.synthesize(new SynthesizeOptions.Builder().text(TEXT).build()));
+
+    ByteBuffer pages = ByteBuffer.wrap(audio).order(ByteOrder.LITTLE_ENDIAN);
+    String[] texts = {
+      "Hello there.", "This is the second sentence. And a third one.", "Then a fourth."
+    };
+    int offset = 0;
+    for (int i = 0; i < texts.length; i++) {
+      byte[] page = Arrays.copyOfRange(audio, offset, offset + 28 + texts[i].length());
+      assertEquals(page, ogg(7 + i, texts[i]));
+      assertEquals(pages.getInt(offset + 14), 7 + i);
+      offset += page.length;
+    }
+    assertEquals(offset, audio.length);
+  }
+
+  /** Test formats that cannot be joined are rejected. */
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testSynthesizeWebm() {
+    new SynthesisPipeline(service)
+        .synthesize(
+            new SynthesizeOptions.Builder().text(TEXT).accept(HttpMediaType.AUDIO_WEBM).build());
+  }
+}
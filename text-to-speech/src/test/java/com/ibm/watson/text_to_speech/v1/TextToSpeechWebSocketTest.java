@@ -0,0 +1,117 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.text_to_speech.v1;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import com.ibm.cloud.sdk.core.security.NoAuthAuthenticator;
+import com.ibm.watson.text_to_speech.v1.model.SynthesizeOptions;
+import com.ibm.watson.text_to_speech.v1.util.WaveUtils;
+import com.ibm.watson.text_to_speech.v1.websocket.SynthesizedAudioBuffer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.ByteString;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Unit tests for syntheses over a WebSocket against a mocked service. */
+public class TextToSpeechWebSocketTest {
+
+  private static final int FRAMES = 20;
+  private static final int FRAME_SIZE = 1000;
+
+  private MockWebServer server;
+  private TextToSpeech service;
+  private MockService mockService;
+
+  /** Mocked service side of the WebSocket, answering the start message with audio. */
+  private static class MockService extends WebSocketListener {
+    private final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public void onMessage(WebSocket webSocket, String text) {
+      messages.add(text);
+      webSocket.send("{\"binary_streams\": [{\"content_type\": \"audio/wav\"}]}");
+      for (int i = 0; i < FRAMES; i++) {
+        byte[] frame = new byte[FRAME_SIZE];
+        frame[0] = (byte) i;
+        webSocket.send(ByteString.of(frame));
+      }
+      webSocket.close(1000, "Synthesis completed");
+    }
+  }
+
+  @BeforeMethod
+  public void setUp() throws IOException {
+    server = new MockWebServer();
+    mockService = new MockService();
+    server.enqueue(new MockResponse().withWebSocketUpgrade(mockService));
+    server.start();
+    service = new TextToSpeech(new NoAuthAuthenticator());
+    service.setServiceUrl(server.url("/").toString());
+  }
+
+  @AfterMethod
+  public void tearDown() throws IOException {
+    server.shutdown();
+  }
+
+  private static SynthesizeOptions options() {
+    return new SynthesizeOptions.Builder().text("Hello world").accept("audio/wav").build();
+  }
+
+  /** Test the audio is read through a buffer smaller than the audio, and the text sent once. */
+  @Test
+  public void testSynthesizeUsingWebSocketToStream() throws IOException {
+    SynthesizedAudioBuffer buffer = new SynthesizedAudioBuffer(2 * FRAME_SIZE);
+
+    service.synthesizeUsingWebSocket(options(), buffer);
+    byte[] audio;
+    try (InputStream in = buffer.inputStream()) {
+      audio = WaveUtils.toByteArray(in);
+    }
+
+    assertEquals(audio.length, FRAMES * FRAME_SIZE);
+    for (int i = 0; i < FRAMES; i++) {
+      assertEquals(audio[i * FRAME_SIZE], (byte) i);
+    }
+    assertTrue(buffer.firstAudioLatencyMillis() >= 0);
+    assertEquals(mockService.messages.size(), 1);
+    assertTrue(mockService.messages.get(0).contains("\"text\":\"Hello world\""));
+  }
+
+  /** Test the frames are handed out as received. */
+  @Test
+  public void testSynthesizeUsingWebSocketToBuffers() throws IOException {
+    SynthesizedAudioBuffer buffer = new SynthesizedAudioBuffer(FRAME_SIZE);
+
+    service.synthesizeUsingWebSocket(options(), buffer);
+    for (int i = 0; i < FRAMES; i++) {
+      ByteBuffer frame = buffer.nextBuffer();
+      assertEquals(frame.remaining(), FRAME_SIZE);
+      assertEquals(frame.get(0), (byte) i);
+    }
+    assertNull(buffer.nextBuffer());
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * (C) Copyright IBM Corp. 2021.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.ibm.watson.text_to_speech.v1;
+
+import static org.testng.Assert.assertEquals;
+
+import com.ibm.watson.text_to_speech.v1.util.WaveUtils;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import org.testng.annotations.Test;
+
+/** Unit tests for {@link WaveUtils}. */
+public class WaveUtilsTest {
+
+  /** Audio as streamed by the service, with no sizes in its header. */
+  private static byte[] streamedAudio() {
+    byte[] audio = new byte[50000];
+    for (int i = 0; i < audio.length; i++) {
+      audio[i] = (byte) i;
+    }
+    for (int i = 4; i < 8; i++) {
+      audio[i] = (byte) 0xff;
+      audio[70 + i] = (byte) 0xff;
+    }
+    return audio;
+  }
+
+  /** Test the file written through a fixed-size buffer has the header fixed in memory. */
+  @Test
+  public void testWriteWaveFile() throws IOException {
+    byte[] audio = streamedAudio();
+    byte[] expected =
+        WaveUtils.toByteArray(WaveUtils.reWriteWaveHeader(new ByteArrayInputStream(audio)));
+    File file = File.createTempFile("output", ".wav");
+    file.deleteOnExit();
+
+    WaveUtils.writeWaveFile(new ByteArrayInputStream(audio), file);
+
+    byte[] written = Files.readAllBytes(file.toPath());
+    assertEquals(written, expected);
+    ByteBuffer header = ByteBuffer.wrap(written).order(ByteOrder.LITTLE_ENDIAN);
+    assertEquals(header.getInt(4), audio.length - 8);
+    assertEquals(header.getInt(74), audio.length - 16);
+  }
+
+  /** Test audio shorter than the header is rejected. */
+  @Test(expectedExceptions = IOException.class)
+  public void testWriteWaveFileTooShort() throws IOException {
+    File file = File.createTempFile("output", ".wav");
+    file.deleteOnExit();
+
+    WaveUtils.writeWaveFile(new ByteArrayInputStream(new byte[10]), file);
+  }
+}
@@ -55,6 +55,14 @@ public class ToneAnalyzer extends BaseService {
   public static final String DEFAULT_SERVICE_URL =
       "https://api.us-south.tone-analyzer.watson.cloud.ibm.com";
 
+  private static final ResponseConverter<ToneAnalysis> TONE_ANALYSIS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<ToneAnalysis>() {}.getType());
+
+  private static final ResponseConverter<UtteranceAnalyses> UTTERANCE_ANALYSES_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<UtteranceAnalyses>() {}.getType());
+
   private String version;
 
   /**
@@ -185,9 +193,7 @@ public class ToneAnalyzer extends BaseService {
     }
     builder.bodyContent(
         toneOptions.contentType(), toneOptions.toneInput(), null, toneOptions.body());
-    ResponseConverter<ToneAnalysis> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ToneAnalysis>() {}.getType());
+    ResponseConverter<ToneAnalysis> responseConverter = TONE_ANALYSIS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -234,9 +240,7 @@ public class ToneAnalyzer extends BaseService {
         com.ibm.cloud.sdk.core.util.GsonSingleton.getGson()
             .toJsonTree(toneChatOptions.utterances()));
     builder.bodyJson(contentJson);
-    ResponseConverter<UtteranceAnalyses> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<UtteranceAnalyses>() {}.getType());
+    ResponseConverter<UtteranceAnalyses> responseConverter = UTTERANCE_ANALYSES_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 }
@@ -25,6 +25,7 @@ import com.ibm.cloud.sdk.core.security.ConfigBasedAuthenticatorFactory;
 import com.ibm.cloud.sdk.core.service.BaseService;
 import com.ibm.cloud.sdk.core.util.RequestUtils;
 import com.ibm.cloud.sdk.core.util.ResponseConverterUtils;
+import com.ibm.watson.common.FileRequestBody;
 import com.ibm.watson.common.SdkCommon;
 import com.ibm.watson.visual_recognition.v3.model.ClassifiedImages;
 import com.ibm.watson.visual_recognition.v3.model.Classifier;
@@ -67,6 +68,18 @@ public class VisualRecognition extends BaseService {
   public static final String DEFAULT_SERVICE_URL =
       "https://api.us-south.visual-recognition.watson.cloud.ibm.com";
 
+  private static final ResponseConverter<ClassifiedImages> CLASSIFIED_IMAGES_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<ClassifiedImages>() {}.getType());
+
+  private static final ResponseConverter<Classifier> CLASSIFIER_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Classifier>() {}.getType());
+
+  private static final ResponseConverter<Classifiers> CLASSIFIERS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Classifiers>() {}.getType());
+
   private String version;
 
   /**
@@ -183,7 +196,7 @@ public class VisualRecognition extends BaseService {
     multipartBuilder.setType(MultipartBody.FORM);
     if (classifyOptions.imagesFile() != null) {
       okhttp3.RequestBody imagesFileBody =
-          RequestUtils.inputStreamBody(
+          FileRequestBody.inputStreamBody(
               classifyOptions.imagesFile(), classifyOptions.imagesFileContentType());
       multipartBuilder.addFormDataPart(
           "images_file", classifyOptions.imagesFilename(), imagesFileBody);
@@ -202,9 +215,7 @@ public class VisualRecognition extends BaseService {
           "classifier_ids", RequestUtils.join(classifyOptions.classifierIds(), ","));
     }
     builder.body(multipartBuilder.build());
-    ResponseConverter<ClassifiedImages> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ClassifiedImages>() {}.getType());
+    ResponseConverter<ClassifiedImages> responseConverter = CLASSIFIED_IMAGES_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -260,12 +271,12 @@ public class VisualRecognition extends BaseService {
         createClassifierOptions.positiveExamples().entrySet()) {
       String partName = String.format("%s_positive_examples", entry.getKey());
       okhttp3.RequestBody part =
-          RequestUtils.inputStreamBody(entry.getValue(), "application/octet-stream");
+          FileRequestBody.inputStreamBody(entry.getValue(), "application/octet-stream");
       multipartBuilder.addFormDataPart(partName, entry.getKey() + ".zip", part);
     }
     if (createClassifierOptions.negativeExamples() != null) {
       okhttp3.RequestBody negativeExamplesBody =
-          RequestUtils.inputStreamBody(
+          FileRequestBody.inputStreamBody(
               createClassifierOptions.negativeExamples(), "application/octet-stream");
       String negativeExamplesFilename = createClassifierOptions.negativeExamplesFilename();
       if (!negativeExamplesFilename.contains(".")) {
@@ -275,9 +286,7 @@ public class VisualRecognition extends BaseService {
           "negative_examples", negativeExamplesFilename, negativeExamplesBody);
     }
     builder.body(multipartBuilder.build());
-    ResponseConverter<Classifier> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Classifier>() {}.getType());
+    ResponseConverter<Classifier> responseConverter = CLASSIFIER_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -304,9 +313,7 @@ public class VisualRecognition extends BaseService {
     if (listClassifiersOptions.verbose() != null) {
       builder.query("verbose", String.valueOf(listClassifiersOptions.verbose()));
     }
-    ResponseConverter<Classifiers> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Classifiers>() {}.getType());
+    ResponseConverter<Classifiers> responseConverter = CLASSIFIERS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -344,9 +351,7 @@ public class VisualRecognition extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<Classifier> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Classifier>() {}.getType());
+    ResponseConverter<Classifier> responseConverter = CLASSIFIER_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -404,13 +409,13 @@ public class VisualRecognition extends BaseService {
           updateClassifierOptions.positiveExamples().entrySet()) {
         String partName = String.format("%s_positive_examples", entry.getKey());
         okhttp3.RequestBody part =
-            RequestUtils.inputStreamBody(entry.getValue(), "application/octet-stream");
+            FileRequestBody.inputStreamBody(entry.getValue(), "application/octet-stream");
         multipartBuilder.addFormDataPart(partName, entry.getKey(), part);
       }
     }
     if (updateClassifierOptions.negativeExamples() != null) {
       okhttp3.RequestBody negativeExamplesBody =
-          RequestUtils.inputStreamBody(
+          FileRequestBody.inputStreamBody(
               updateClassifierOptions.negativeExamples(), "application/octet-stream");
       multipartBuilder.addFormDataPart(
           "negative_examples",
@@ -418,9 +423,7 @@ public class VisualRecognition extends BaseService {
           negativeExamplesBody);
     }
     builder.body(multipartBuilder.build());
-    ResponseConverter<Classifier> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Classifier>() {}.getType());
+    ResponseConverter<Classifier> responseConverter = CLASSIFIER_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -26,8 +26,8 @@ import com.ibm.cloud.sdk.core.security.ConfigBasedAuthenticatorFactory;
 import com.ibm.cloud.sdk.core.service.BaseService;
 import com.ibm.cloud.sdk.core.service.model.FileWithMetadata;
 import com.ibm.cloud.sdk.core.util.DateUtils;
-import com.ibm.cloud.sdk.core.util.RequestUtils;
 import com.ibm.cloud.sdk.core.util.ResponseConverterUtils;
+import com.ibm.watson.common.FileRequestBody;
 import com.ibm.watson.common.SdkCommon;
 import com.ibm.watson.visual_recognition.v4.model.AddImageTrainingDataOptions;
 import com.ibm.watson.visual_recognition.v4.model.AddImagesOptions;
@@ -90,6 +90,50 @@ public class VisualRecognition extends BaseService {
   public static final String DEFAULT_SERVICE_URL =
       "https://api.us-south.visual-recognition.watson.cloud.ibm.com";
 
+  private static final ResponseConverter<AnalyzeResponse> ANALYZE_RESPONSE_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<AnalyzeResponse>() {}.getType());
+
+  private static final ResponseConverter<Collection> COLLECTION_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<Collection>() {}.getType());
+
+  private static final ResponseConverter<CollectionsList> COLLECTIONS_LIST_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<CollectionsList>() {}.getType());
+
+  private static final ResponseConverter<ImageDetailsList> IMAGE_DETAILS_LIST_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<ImageDetailsList>() {}.getType());
+
+  private static final ResponseConverter<ImageSummaryList> IMAGE_SUMMARY_LIST_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<ImageSummaryList>() {}.getType());
+
+  private static final ResponseConverter<ImageDetails> IMAGE_DETAILS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<ImageDetails>() {}.getType());
+
+  private static final ResponseConverter<ObjectMetadataList> OBJECT_METADATA_LIST_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<ObjectMetadataList>() {}.getType());
+
+  private static final ResponseConverter<UpdateObjectMetadata> UPDATE_OBJECT_METADATA_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<UpdateObjectMetadata>() {}.getType());
+
+  private static final ResponseConverter<ObjectMetadata> OBJECT_METADATA_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<ObjectMetadata>() {}.getType());
+
+  private static final ResponseConverter<TrainingDataObjects> TRAINING_DATA_OBJECTS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<TrainingDataObjects>() {}.getType());
+
+  private static final ResponseConverter<TrainingEvents> TRAINING_EVENTS_CONVERTER =
+      ResponseConverterUtils.getValue(
+          new com.google.gson.reflect.TypeToken<TrainingEvents>() {}.getType());
+
   private String version;
 
   /**
@@ -207,7 +251,7 @@ public class VisualRecognition extends BaseService {
     if (analyzeOptions.imagesFile() != null) {
       for (FileWithMetadata item : analyzeOptions.imagesFile()) {
         okhttp3.RequestBody itemBody =
-            RequestUtils.inputStreamBody(item.data(), item.contentType());
+            FileRequestBody.inputStreamBody(item.data(), item.contentType());
         multipartBuilder.addFormDataPart("images_file", item.filename(), itemBody);
       }
     }
@@ -220,9 +264,7 @@ public class VisualRecognition extends BaseService {
       multipartBuilder.addFormDataPart("threshold", String.valueOf(analyzeOptions.threshold()));
     }
     builder.body(multipartBuilder.build());
-    ResponseConverter<AnalyzeResponse> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<AnalyzeResponse>() {}.getType());
+    ResponseConverter<AnalyzeResponse> responseConverter = ANALYZE_RESPONSE_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -261,9 +303,7 @@ public class VisualRecognition extends BaseService {
       contentJson.addProperty("description", createCollectionOptions.description());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Collection> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Collection>() {}.getType());
+    ResponseConverter<Collection> responseConverter = COLLECTION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -304,9 +344,7 @@ public class VisualRecognition extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<CollectionsList> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<CollectionsList>() {}.getType());
+    ResponseConverter<CollectionsList> responseConverter = COLLECTIONS_LIST_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -346,9 +384,7 @@ public class VisualRecognition extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<Collection> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Collection>() {}.getType());
+    ResponseConverter<Collection> responseConverter = COLLECTION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -388,9 +424,7 @@ public class VisualRecognition extends BaseService {
       contentJson.addProperty("description", updateCollectionOptions.description());
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<Collection> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Collection>() {}.getType());
+    ResponseConverter<Collection> responseConverter = COLLECTION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -497,7 +531,7 @@ public class VisualRecognition extends BaseService {
     if (addImagesOptions.imagesFile() != null) {
       for (FileWithMetadata item : addImagesOptions.imagesFile()) {
         okhttp3.RequestBody itemBody =
-            RequestUtils.inputStreamBody(item.data(), item.contentType());
+            FileRequestBody.inputStreamBody(item.data(), item.contentType());
         multipartBuilder.addFormDataPart("images_file", item.filename(), itemBody);
       }
     }
@@ -510,9 +544,7 @@ public class VisualRecognition extends BaseService {
       multipartBuilder.addFormDataPart("training_data", addImagesOptions.trainingData());
     }
     builder.body(multipartBuilder.build());
-    ResponseConverter<ImageDetailsList> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ImageDetailsList>() {}.getType());
+    ResponseConverter<ImageDetailsList> responseConverter = IMAGE_DETAILS_LIST_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -540,9 +572,7 @@ public class VisualRecognition extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<ImageSummaryList> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ImageSummaryList>() {}.getType());
+    ResponseConverter<ImageSummaryList> responseConverter = IMAGE_SUMMARY_LIST_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -574,9 +604,7 @@ public class VisualRecognition extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<ImageDetails> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ImageDetails>() {}.getType());
+    ResponseConverter<ImageDetails> responseConverter = IMAGE_DETAILS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -671,9 +699,7 @@ public class VisualRecognition extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<ObjectMetadataList> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ObjectMetadataList>() {}.getType());
+    ResponseConverter<ObjectMetadataList> responseConverter = OBJECT_METADATA_LIST_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -710,9 +736,7 @@ public class VisualRecognition extends BaseService {
     final JsonObject contentJson = new JsonObject();
     contentJson.addProperty("object", updateObjectMetadataOptions.newObject());
     builder.bodyJson(contentJson);
-    ResponseConverter<UpdateObjectMetadata> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<UpdateObjectMetadata>() {}.getType());
+    ResponseConverter<UpdateObjectMetadata> responseConverter = UPDATE_OBJECT_METADATA_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -745,9 +769,7 @@ public class VisualRecognition extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<ObjectMetadata> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<ObjectMetadata>() {}.getType());
+    ResponseConverter<ObjectMetadata> responseConverter = OBJECT_METADATA_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -808,9 +830,7 @@ public class VisualRecognition extends BaseService {
     }
     builder.header("Accept", "application/json");
     builder.query("version", String.valueOf(this.version));
-    ResponseConverter<Collection> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<Collection>() {}.getType());
+    ResponseConverter<Collection> responseConverter = COLLECTION_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -859,9 +879,7 @@ public class VisualRecognition extends BaseService {
               .toJsonTree(addImageTrainingDataOptions.objects()));
     }
     builder.bodyJson(contentJson);
-    ResponseConverter<TrainingDataObjects> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TrainingDataObjects>() {}.getType());
+    ResponseConverter<TrainingDataObjects> responseConverter = TRAINING_DATA_OBJECTS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 
@@ -895,9 +913,7 @@ public class VisualRecognition extends BaseService {
     if (getTrainingUsageOptions.endTime() != null) {
       builder.query("end_time", DateUtils.formatAsDate(getTrainingUsageOptions.endTime()));
     }
-    ResponseConverter<TrainingEvents> responseConverter =
-        ResponseConverterUtils.getValue(
-            new com.google.gson.reflect.TypeToken<TrainingEvents>() {}.getType());
+    ResponseConverter<TrainingEvents> responseConverter = TRAINING_EVENTS_CONVERTER;
     return createServiceCall(builder.build(), responseConverter);
   }
 